@@ -0,0 +1,235 @@
+package Back;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Alocador dos números de pedido.
+ *
+ * <p>
+ * Os números são distribuídos em blocos de {@code BLOCK_SIZE} números para cada quiosque
+ * ({@link Quiosque}). Dentro do bloco, cada quiosque numera seus pedidos sozinho, sem nenhuma
+ * escrita compartilhada com os demais; apenas a troca de bloco atualiza a marca global, que é
+ * gravada em disco antes de o bloco ser entregue. Assim, depois de uma reinicialização, nenhum
+ * número já entregue é repetido: os números não usados dos blocos abertos são simplesmente pulados.
+ * </p>
+ *
+ * <p>
+ * Pedidos cancelados devolvem o número explicitamente com {@link Quiosque#cancel(int)}; o quiosque
+ * reaproveita os números devolvidos nos próximos pedidos. O contador global nunca é decrementado.
+ * </p>
+ *
+ * <p>
+ * Formato do arquivo: {@code [long próximo número livre][int crc32]}.
+ * </p>
+ */
+public class AlocadorPedidos implements Closeable
+{
+    static final int BLOCK_SIZE = 64;
+
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(12);
+    private long nextFree;
+
+    private AlocadorPedidos(FileChannel channel, long nextFree)
+    {
+        this.channel = channel;
+        this.nextFree = nextFree;
+    }
+
+    /**
+     * Cria um alocador mantido apenas em memória, começando do pedido número 1.
+     *
+     * @return o alocador em memória.
+     */
+    public static AlocadorPedidos inMemory()
+    {
+        return new AlocadorPedidos(null, 1);
+    }
+
+    /**
+     * Abre (ou cria) o alocador gravado no arquivo informado.
+     *
+     * @param file o arquivo com a marca global de números entregues.
+     * @return o alocador aberto.
+     * @throws IOException se o arquivo não puder ser aberto ou estiver corrompido.
+     */
+    public static AlocadorPedidos open(Path file) throws IOException
+    {
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long nextFree = 1;
+
+        if (channel.size() > 0)
+        {
+            ByteBuffer data = ByteBuffer.allocate(12);
+            int read;
+            do
+            {
+                read = channel.read(data, data.position());
+            }
+            while (read > 0 && data.hasRemaining());
+            data.flip();
+
+            CRC32 crc = new CRC32();
+            crc.update(data.array(), 0, 8);
+            if (data.limit() < 12 || (int) crc.getValue() != data.getInt(8))
+            {
+                channel.close();
+                throw new IOException("Marca de números de pedido corrompida: " + file);
+            }
+            nextFree = data.getLong(0);
+        }
+        return new AlocadorPedidos(channel, nextFree);
+    }
+
+    /**
+     * Garante que nenhum número menor ou igual a {@code number} seja entregue.
+     *
+     * Usado na inicialização com o maior número gravado no {@link LogPedidos}, para o caso de
+     * a marca em disco ter se perdido.
+     *
+     * @param number o maior número de pedido já usado.
+     */
+    public synchronized void ensureAbove(int number)
+    {
+        if (number >= nextFree)
+        {
+            nextFree = number + 1L;
+            persist();
+        }
+    }
+
+    /**
+     * Cria um novo quiosque, que passa a receber seus próprios blocos de números.
+     *
+     * @return o quiosque.
+     */
+    public Quiosque newKiosk()
+    {
+        return new Quiosque(this);
+    }
+
+    /**
+     * Retorna o próximo número que ainda não pertence a nenhum bloco.
+     *
+     * @return a marca global de números entregues.
+     */
+    public synchronized long getNextFree()
+    {
+        return nextFree;
+    }
+
+    /**
+     * Fecha o arquivo do alocador.
+     */
+    @Override
+    public synchronized void close()
+    {
+        try
+        {
+            if (channel != null)
+                channel.close();
+        }
+        catch (IOException e)
+        {
+            System.err.println("Falha ao fechar o alocador de pedidos: " + e.getMessage());
+        }
+    }
+
+    private synchronized long allocateBlock()
+    {
+        long first = nextFree;
+        if (first + BLOCK_SIZE > Integer.MAX_VALUE)
+            throw new IllegalStateException("Números de pedido esgotados");
+
+        nextFree = first + BLOCK_SIZE;
+        persist();
+        return first;
+    }
+
+    private void persist()
+    {
+        if (channel == null)
+            return;
+
+        record.clear();
+        record.putLong(nextFree);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, 8);
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        try
+        {
+            while (record.hasRemaining())
+                channel.write(record, record.position());
+            channel.force(false);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Não foi possível gravar a marca de números de pedido", e);
+        }
+    }
+
+    /**
+     * Fonte de números de pedido de um quiosque.
+     *
+     * Entrega os números do bloco atual em ordem e, antes deles, os números devolvidos por pedidos
+     * cancelados. Só acessa o {@link AlocadorPedidos} quando o bloco acaba.
+     */
+    public static final class Quiosque
+    {
+        private final AlocadorPedidos allocator;
+        private long next;
+        private long limit;
+        private int[] cancelled = new int[4];
+        private int cancelledCount;
+
+        private Quiosque(AlocadorPedidos allocator)
+        {
+            this.allocator = allocator;
+        }
+
+        /**
+         * Entrega o próximo número de pedido deste quiosque.
+         *
+         * @return o número do pedido (sempre maior que zero).
+         */
+        public synchronized int next()
+        {
+            if (cancelledCount > 0)
+                return cancelled[--cancelledCount];
+
+            if (next == limit)
+            {
+                next = allocator.allocateBlock();
+                limit = next + BLOCK_SIZE;
+            }
+            return (int) next++;
+        }
+
+        /**
+         * Devolve o número de um pedido cancelado, que será reaproveitado pelo próximo pedido.
+         *
+         * @param number o número do pedido cancelado.
+         */
+        public synchronized void cancel(int number)
+        {
+            if (number <= 0)
+                return;
+            if (cancelledCount == cancelled.length)
+                cancelled = Arrays.copyOf(cancelled, cancelledCount * 2);
+            cancelled[cancelledCount++] = number;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package Back;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Barreira de ponto de controle entre as alterações registradas no {@link Diario} e o {@link SnapshotSistema}.
+ *
+ * <p>
+ * As alterações adquirem a parte compartilhada da barreira e o snapshot, a parte exclusiva. Em vez
+ * de um único {@link ReentrantReadWriteLock}, cujo contador de leitores seria disputado por todos
+ * os quiosques a cada operação, a barreira é dividida em faixas: cada thread usa sempre a faixa
+ * escolhida pelo seu identificador, de modo que threads diferentes não disputam o mesmo contador.
+ * Só o snapshot, que é raro, paga o custo de adquirir todas as faixas.
+ * </p>
+ */
+final class BarreiraPontoDeControle
+{
+    private final ReentrantReadWriteLock[] stripes;
+
+    /**
+     * Construtor da classe {@code BarreiraPontoDeControle}.
+     * Cria duas faixas por processador, arredondadas para uma potência de dois, entre 4 e 64.
+     */
+    BarreiraPontoDeControle()
+    {
+        int wanted = Math.max(4, Math.min(64, 2 * Runtime.getRuntime().availableProcessors()));
+        stripes = new ReentrantReadWriteLock[Integer.highestOneBit(wanted - 1) << 1];
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i] = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Retorna a parte compartilhada da barreira para a thread atual.
+     *
+     * O bloqueio retornado deve ser liberado pela mesma thread que o adquiriu.
+     *
+     * @return o bloqueio de leitura da faixa da thread atual.
+     */
+    Lock shared()
+    {
+        return stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)].readLock();
+    }
+
+    /**
+     * Adquire a parte exclusiva da barreira, esperando o fim das alterações em andamento em todas as faixas.
+     */
+    void lockExclusive()
+    {
+        for (ReentrantReadWriteLock stripe : stripes)
+            stripe.writeLock().lock();
+    }
+
+    /**
+     * Libera a parte exclusiva da barreira.
+     */
+    void unlockExclusive()
+    {
+        for (int i = stripes.length - 1; i >= 0; i--)
+            stripes[i].writeLock().unlock();
+    }
+}
@@ -0,0 +1,205 @@
+package Back;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache dos resultados de relatórios, por tipo de relatório e período.
+ *
+ * <p>
+ * Cada resultado guarda as versões dos dados em que foi calculado: a versão dos pedidos
+ * ({@link ControlePedidos#getVersion()}, incrementada a cada pedido registrado) e a do catálogo
+ * ({@link Estoque#getCatalogueVersion()}, incrementada a cada cadastro, remoção ou mudança de
+ * validade). Um resultado só é devolvido enquanto as versões de que o seu relatório depende não
+ * mudaram. Períodos que já tinham terminado quando o resultado foi calculado (o último dia é
+ * anterior a hoje) não recebem pedidos novos: esses resultados não dependem da versão dos pedidos
+ * e ficam no cache até serem descartados.
+ * </p>
+ *
+ * <p>
+ * O cache tem um orçamento de memória: cada resultado informa o seu tamanho estimado, e os
+ * resultados usados há mais tempo são descartados (LRU) quando o total passa do orçamento.
+ * É seguro usar o cache de várias threads.
+ * </p>
+ */
+public final class CacheRelatorios
+{
+    /**
+     * Tipos de relatório guardados no cache e os dados de que cada um depende.
+     */
+    public enum Tipo
+    {
+        PRODUTOS_MAIS_VENDIDOS(true, false),
+        TRANSACOES(true, false),
+        VALIDADE(false, true);
+
+        private final boolean usesOrders;
+        private final boolean usesCatalogue;
+
+        Tipo(boolean usesOrders, boolean usesCatalogue)
+        {
+            this.usesOrders = usesOrders;
+            this.usesCatalogue = usesCatalogue;
+        }
+    }
+
+    private final long budgetBytes;
+    private final Map<Chave, Entrada> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    /**
+     * Construtor da classe {@code CacheRelatorios}.
+     *
+     * @param budgetBytes o tamanho estimado máximo, em bytes, dos resultados guardados.
+     */
+    public CacheRelatorios(long budgetBytes)
+    {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Cria a chave de um relatório, registrando as versões atuais dos dados.
+     *
+     * Deve ser criada antes de calcular o relatório, para que pedidos registrados durante o
+     * cálculo invalidem o resultado.
+     *
+     * @param type o tipo do relatório.
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @param stock o {@link Estoque} consultado pelo relatório.
+     * @return a chave do relatório.
+     */
+    public Chave key(Tipo type, LocalDate startDate, LocalDate endDate, Estoque stock)
+    {
+        return new Chave(type, startDate, endDate, ControlePedidos.getVersion(), stock.getCatalogueVersion(),
+                endDate.isBefore(LocalDate.now()));
+    }
+
+    /**
+     * Retorna o resultado guardado para a chave, se ele ainda for válido.
+     *
+     * @param key a chave do relatório, criada com {@link #key}.
+     * @return o resultado; ou {@code null} se não houver resultado válido.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(Chave key)
+    {
+        Entrada entry = entries.get(key);
+        if (entry == null)
+            return null;
+
+        if (!entry.isValidFor(key))
+        {
+            remove(key);
+            return null;
+        }
+        return (T) entry.value;
+    }
+
+    /**
+     * Guarda o resultado de um relatório, descartando os resultados usados há mais tempo se o
+     * orçamento de memória for ultrapassado. Resultados maiores que o orçamento não são guardados.
+     *
+     * @param key a chave criada antes do cálculo.
+     * @param value o resultado.
+     * @param sizeBytes o tamanho estimado do resultado, em bytes.
+     */
+    public synchronized void put(Chave key, Object value, long sizeBytes)
+    {
+        remove(key);
+        if (sizeBytes > budgetBytes)
+            return;
+
+        entries.put(key, new Entrada(key, value, sizeBytes));
+        usedBytes += sizeBytes;
+
+        Iterator<Entrada> eldest = entries.values().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext())
+        {
+            usedBytes -= eldest.next().sizeBytes;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Retorna o tamanho estimado dos resultados guardados.
+     *
+     * @return o total em bytes.
+     */
+    public synchronized long getUsedBytes()
+    {
+        return usedBytes;
+    }
+
+    private void remove(Chave key)
+    {
+        Entrada removed = entries.remove(key);
+        if (removed != null)
+            usedBytes -= removed.sizeBytes;
+    }
+
+    /**
+     * Chave de um relatório: tipo e período, com as versões dos dados no momento da criação.
+     * Duas chaves são iguais quando têm o mesmo tipo e o mesmo período.
+     */
+    public static final class Chave
+    {
+        private final Tipo type;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final long orderVersion;
+        private final long catalogueVersion;
+        private final boolean closed;
+
+        private Chave(Tipo type, LocalDate startDate, LocalDate endDate, long orderVersion, long catalogueVersion, boolean closed)
+        {
+            this.type = type;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.orderVersion = orderVersion;
+            this.catalogueVersion = catalogueVersion;
+            this.closed = closed;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return other instanceof Chave key && type == key.type
+                    && startDate.equals(key.startDate) && endDate.equals(key.endDate);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(type, startDate, endDate);
+        }
+    }
+
+    /**
+     * Resultado guardado, com as versões dos dados em que foi calculado.
+     */
+    private static final class Entrada
+    {
+        final Chave computed;
+        final Object value;
+        final long sizeBytes;
+
+        Entrada(Chave computed, Object value, long sizeBytes)
+        {
+            this.computed = computed;
+            this.value = value;
+            this.sizeBytes = sizeBytes;
+        }
+
+        boolean isValidFor(Chave current)
+        {
+            Tipo type = computed.type;
+            if (type.usesOrders && !computed.closed && computed.orderVersion != current.orderVersion)
+                return false;
+            return !type.usesCatalogue || computed.catalogueVersion == current.catalogueVersion;
+        }
+    }
+}
@@ -3,202 +3,620 @@ import java.util.*;
 
 /**
  * Representa o caixa do sistema, responsável por controlar fisicamente as cédulas e moedas disponíveis.
- * 
+ *
  * <p>
  * A classe {@code Caixa} gerencia o dinheiro em espécie usado nas operações de pagamento e troco.
- * Mantém um mapa de denominações monetárias ({@code double}) associadas às suas respectivas quantidades ({@code int}),
- * permitindo as seguintes operações:
+ * Todos os valores são representados internamente em centavos ({@code long}), e as quantidades de
+ * cada denominação ficam em um vetor primitivo indexado por posição ("slot"), permitindo as
+ * seguintes operações sem conversões de ponto flutuante, boxing ou alocação:
  * </p>
- * 
+ *
  * <ul>
- *   <li>Adicionar e remover cédulas ou moedas específicas - {@code addCash} e {@code removeCash}</li>
- *   <li>Calcular troco automaticamente com base nas denominações disponíveis -{@code calculateChange}</li>
- *   <li>Consultar o total em caixa - {@code getTotalCash}</li>
+ *   <li>Adicionar e remover cédulas ou moedas específicas - {@code addCashCents} e {@code removeCashCents}</li>
+ *   <li>Calcular troco automaticamente com base nas denominações disponíveis - {@code calculateChangeCents}</li>
+ *   <li>Consultar o total em caixa - {@code getTotalCashCents}</li>
+ *   <li>Saber instantaneamente se um troco é possível - {@code canGiveChangeCents}</li>
  *   <li>Zerar o conteúdo do caixa - {@code clearCashControl}</li>
- *   <li>Verificar a quantidade de uma determinada denominação - {@code getQuantityBill}</li>
+ *   <li>Verificar a quantidade de uma determinada denominação - {@code getQuantityBillCents}</li>
  * </ul>
- * 
+ *
  * <p>
- * O mapa {@code cashControl} armazena as denominações em ordem decrescente
- * (do maior valor para o menor), o que facilita a lógica de cálculo de troco com uso de notas maiores primeiro.
+ * As denominações ficam em ordem decrescente (do maior valor para o menor). O troco é escolhido
+ * segundo uma {@link PoliticaTroco} configurável; a política padrão entrega o troco exato com a
+ * menor quantidade de peças sempre que ele existir com as quantidades disponíveis.
+ * </p>
+ *
+ * <p>
+ * Os métodos com valores em {@code double} ({@code addCash}, {@code removeCash}, {@code calculateChange},
+ * {@code getTotalCash}, {@code getQuantityBill} e {@code getCashControl}) são mantidos como camada de
+ * compatibilidade para as telas: eles apenas convertem reais para centavos com {@link #toCents(double)}
+ * e delegam para as versões em centavos.
+ * </p>
+ *
+ * <p>
+ * Quando ligado a um {@link Diario} via {@code setJournal}, cada alteração no caixa é registrada
+ * no diário. As operações que alteram o caixa são sincronizadas na própria instância, o que
+ * permite ao {@link SnapshotSistema} capturar um estado consistente. Se o diário não estiver
+ * conseguindo gravar, as alterações lançam {@link java.io.UncheckedIOException} sem mudar o caixa.
  * </p>
  */
 public class Caixa
 {
-    private final TreeMap<Double, Integer> cashControl = new TreeMap<>(Collections.reverseOrder());
+    private static final long[] DENOMINATIONS = {10000, 5000, 2000, 1000, 500, 200, 100, 50, 25, 10, 5};
+
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+    private static final long INDEX_LIMIT_CENTS = 50000;
+    private static final long MODULUS = (1L << 61) - 1;
+
+    private final int[] quantities = new int[DENOMINATIONS.length];
+    private PoliticaTroco policy = PoliticaTroco.MENOS_PECAS;
+    private Diario journal;
+
+    private long[] costs = new long[0];
+    private long[] nextCosts = new long[0];
+    private int[] window = new int[0];
+    private final int[][] taken = new int[DENOMINATIONS.length][0];
+    private final boolean[] skipped = new boolean[DENOMINATIONS.length];
+
+    private final long[] combinations = new long[(int) (INDEX_LIMIT_CENTS / DENOMINATIONS[DENOMINATIONS.length - 1]) + 1];
+    private final long[] payable = new long[(combinations.length + 63) >>> 6];
 
     /**
      * Construtor da classe {@link Caixa}.
-     * 
-     * Inicializa o controle de caixa {@code cashControl} com todas as denominações de cédulas e moedas
+     *
+     * Inicializa o controle de caixa com todas as denominações de cédulas e moedas
      * utilizadas no sistema, atribuindo a cada uma a quantidade inicial igual a zero.
-     * 
+     *
      * As denominações incluídas são:
      * <ul>
      *   <li>100.00; 50.00; 20.00; 10.00; 5.00; 2.00</li>
-     *   <li>1.00; 0.50; 0.20; 0.10; 0.05</li>
+     *   <li>1.00; 0.50; 0.25; 0.10; 0.05</li>
      * </ul>
-     * 
-     * Este construtor garante que todas as denominações estejam representadas no caixa,
-     * mesmo que não haja nenhuma unidade disponível no momento da criação do objeto.
      */
     public Caixa()
     {
-        cashControl.put(100.0, 0);
-        cashControl.put(50.0, 0);
-        cashControl.put(20.0, 0);
-        cashControl.put(10.0, 0);
-        cashControl.put(5.0, 0);
-        cashControl.put(2.0, 0);
-        cashControl.put(1.0, 0);
-        cashControl.put(0.5, 0);
-        cashControl.put(0.25, 0);
-        cashControl.put(0.1, 0);
-        cashControl.put(0.05, 0);
+        combinations[0] = 1;
+        payable[0] = 1;
+    }
+
+    /**
+     * Converte um valor em reais para centavos, arredondando para o centavo mais próximo.
+     *
+     * @param value o valor em reais (ex: 0.1).
+     * @return o valor em centavos (ex: 10).
+     */
+    public static long toCents(double value)
+    {
+        return Math.round(value * 100.0);
+    }
+
+    /**
+     * Retorna a quantidade de denominações (slots) controladas pelo caixa.
+     *
+     * @return a quantidade de slots.
+     */
+    public static int getSlotCount()
+    {
+        return DENOMINATIONS.length;
+    }
+
+    /**
+     * Retorna o valor, em centavos, da denominação de um slot.
+     *
+     * @param slot a posição da denominação, de {@code 0} (maior) a {@code getSlotCount() - 1} (menor).
+     * @return o valor da denominação em centavos.
+     */
+    public static long getDenomination(int slot)
+    {
+        return DENOMINATIONS[slot];
+    }
+
+    /**
+     * Retorna o slot de uma denominação.
+     *
+     * @param cents o valor da denominação em centavos (ex: 25).
+     * @return a posição da denominação, ou {@code -1} se ela não existir no caixa.
+     */
+    public static int slotOf(long cents)
+    {
+        for (int slot = 0; slot < DENOMINATIONS.length; slot++)
+            if (DENOMINATIONS[slot] == cents)
+                return slot;
+        return -1;
+    }
+
+    /**
+     * Liga o caixa a um {@link Diario}, que passa a registrar todas as alterações.
+     *
+     * Deve ser chamado somente após a reprodução do diário, para que as operações
+     * reproduzidas não sejam registradas novamente.
+     *
+     * @param journal o diário de operações, ou {@code null} para desligar o registro.
+     */
+    public synchronized void setJournal(Diario journal)
+    {
+        this.journal = journal;
+    }
+
+    /**
+     * Adiciona uma determinada quantidade de uma denominação ao caixa.
+     *
+     * @param cents o valor da denominação em centavos (ex: 1000, 50).
+     * @param quantity a quantidade a ser adicionada.
+     * @return {@code true} se a denominação existir e a adição for realizada com sucesso;
+     *         {@code false} caso contrário (denominação não cadastrada no caixa ou quantidade menor ou igual a zero).
+     */
+    public synchronized boolean addCashCents(long cents, int quantity)
+    {
+        if (journal != null)
+            journal.checkWritable();
+        int slot = slotOf(cents);
+        if (slot < 0 || quantity <= 0)
+            return false;
+
+        quantities[slot] += quantity;
+        reindex(slot, quantities[slot] - quantity);
+        if (journal != null)
+            journal.logAddCash(cents, quantity);
+        return true;
+    }
+
+    /**
+     * Remove uma determinada quantidade de uma denominação do caixa.
+     *
+     * @param cents o valor da denominação em centavos (ex: 5000, 25).
+     * @param quantity a quantidade a ser removida.
+     * @return {@code true} se a denominação existir e houver quantidade suficiente para remoção;
+     *         {@code false} se a denominação não existir, se a quantidade for menor ou igual a zero
+     *         ou se a quantidade disponível for insuficiente.
+     */
+    public synchronized boolean removeCashCents(long cents, int quantity)
+    {
+        if (journal != null)
+            journal.checkWritable();
+        int slot = slotOf(cents);
+        if (slot < 0 || quantity <= 0 || quantities[slot] < quantity)
+            return false;
+
+        quantities[slot] -= quantity;
+        reindex(slot, quantities[slot] + quantity);
+        if (journal != null)
+            journal.logRemoveCash(cents, quantity);
+        return true;
+    }
+
+    /**
+     * Define a política usada para escolher as peças do troco.
+     *
+     * @param policy a {@link PoliticaTroco} a ser usada.
+     */
+    public synchronized void setChangePolicy(PoliticaTroco policy)
+    {
+        this.policy = policy;
+    }
+
+    /**
+     * Retorna a política usada para escolher as peças do troco.
+     *
+     * @return a {@link PoliticaTroco} atual (por padrão, {@link PoliticaTroco#MENOS_PECAS}).
+     */
+    public synchronized PoliticaTroco getChangePolicy()
+    {
+        return policy;
+    }
+
+    /**
+     * Calcula o troco com base no valor informado e nas denominações disponíveis no caixa.
+     *
+     * O valor é arredondado para cima até o múltiplo de 5 centavos mais próximo (a menor moeda), e as
+     * peças são escolhidas segundo a {@link PoliticaTroco} atual. Se o troco puder ser formado, as peças
+     * usadas são retiradas do caixa e suas quantidades são escritas em {@code used}; caso contrário,
+     * o caixa não é alterado.
+     *
+     * @param change o valor total de troco a ser fornecido, em centavos.
+     * @param used vetor com pelo menos {@code getSlotCount()} posições que recebe a quantidade usada de cada slot.
+     * @return {@code true} se o troco foi formado; {@code false} se não houver peças suficientes.
+     */
+    public synchronized boolean calculateChangeCents(long change, int[] used)
+    {
+        if (journal != null)
+            journal.checkWritable();
+        if (!planChangeCents(change, used))
+            return false;
+
+        for (int slot = 0; slot < DENOMINATIONS.length; slot++)
+        {
+            if (used[slot] > 0)
+            {
+                quantities[slot] -= used[slot];
+                reindex(slot, quantities[slot] + used[slot]);
+                if (journal != null)
+                    journal.logRemoveCash(DENOMINATIONS[slot], used[slot]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Escolhe as peças do troco segundo a {@link PoliticaTroco} atual, sem alterar o caixa.
+     *
+     * Com {@link PoliticaTroco#GULOSO}, usa as maiores denominações primeiro. Nas demais políticas,
+     * resolve uma mochila limitada por programação dinâmica sobre unidades de 5 centavos: para cada
+     * denominação, o mínimo de cada classe de resto é mantido em uma fila monotônica, de modo que o
+     * custo é {@code O(denominações × valor)} independentemente das quantidades no caixa. Os vetores
+     * de trabalho são reaproveitados entre chamadas.
+     *
+     * @param change o valor total de troco a ser fornecido, em centavos.
+     * @param used vetor com pelo menos {@code getSlotCount()} posições que recebe a quantidade usada de cada slot.
+     * @return {@code true} se o troco pode ser formado; {@code false} caso contrário (com {@code used} zerado).
+     */
+    public synchronized boolean planChangeCents(long change, int[] used)
+    {
+        Arrays.fill(used, 0, DENOMINATIONS.length, 0);
+        long coin = DENOMINATIONS[DENOMINATIONS.length - 1];
+        long target = roundUpToCoin(change);
+
+        if (target <= 0)
+            return true;
+        if (target > getTotalCashCents())
+            return false;
+        if (policy == PoliticaTroco.GULOSO)
+            return planGreedy(target, used);
+        if (target / coin > Integer.MAX_VALUE - 1)
+            return false;
+
+        int units = (int) (target / coin);
+        ensureScratch(units);
+
+        long[] previous = costs;
+        long[] current = nextCosts;
+        Arrays.fill(previous, 0, units + 1, INFINITE);
+        previous[0] = 0;
+
+        for (int slot = 0; slot < DENOMINATIONS.length; slot++)
+        {
+            int step = (int) (DENOMINATIONS[slot] / coin);
+            int limit = Math.min(quantities[slot], units / step);
+            skipped[slot] = (limit == 0);
+            if (limit == 0)
+                continue;
+
+            long weight = policy.weight(DENOMINATIONS[slot], quantities[slot]);
+            int[] take = taken[slot];
+
+            for (int residue = 0; residue < step && residue <= units; residue++)
+            {
+                int head = 0;
+                int tail = 0;
+
+                for (int j = 0, value = residue; value <= units; j++, value += step)
+                {
+                    if (previous[value] < INFINITE)
+                    {
+                        long key = previous[value] - j * weight;
+                        while (tail > head && previous[residue + window[tail - 1] * step] - window[tail - 1] * weight >= key)
+                            tail--;
+                        window[tail++] = j;
+                    }
+                    while (head < tail && window[head] < j - limit)
+                        head++;
+
+                    if (head < tail)
+                    {
+                        int i = window[head];
+                        current[value] = previous[residue + i * step] + (j - i) * weight;
+                        take[value] = j - i;
+                    }
+                    else
+                        current[value] = INFINITE;
+                }
+            }
+
+            long[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        if (previous[units] >= INFINITE)
+            return false;
+
+        int value = units;
+        for (int slot = DENOMINATIONS.length - 1; slot >= 0; slot--)
+        {
+            if (skipped[slot])
+                continue;
+            int uses = taken[slot][value];
+            used[slot] = uses;
+            value -= uses * (int) (DENOMINATIONS[slot] / coin);
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se o caixa consegue formar um determinado troco, sem alterá-lo.
+     *
+     * Para trocos de até R$ 500,00 a resposta vem do índice de trocos possíveis, mantido a cada
+     * alteração do caixa, em tempo constante. Valores maiores são verificados com {@link #planChangeCents}.
+     *
+     * @param change o valor do troco em centavos (arredondado para cima até o múltiplo de 5 centavos).
+     * @return {@code true} se o troco puder ser formado com as peças disponíveis.
+     */
+    public synchronized boolean canGiveChangeCents(long change)
+    {
+        long target = roundUpToCoin(change);
+        if (target <= 0)
+            return true;
+        if (target > INDEX_LIMIT_CENTS)
+            return planChangeCents(target, new int[DENOMINATIONS.length]);
+
+        int unit = (int) (target / DENOMINATIONS[DENOMINATIONS.length - 1]);
+        return (payable[unit >>> 6] & (1L << unit)) != 0;
+    }
+
+    /**
+     * Retorna o maior troco que o caixa consegue formar sem ultrapassar o valor informado.
+     *
+     * Útil para sugerir ao cliente um valor a inserir quando o troco exato não é possível.
+     * Considera apenas valores dentro do índice de trocos possíveis (até R$ 500,00).
+     *
+     * @param change o valor máximo do troco, em centavos.
+     * @return o maior troco possível, em centavos, que não ultrapassa {@code change} (no mínimo {@code 0}).
+     */
+    public synchronized long getPayableChangeAtMostCents(long change)
+    {
+        long coin = DENOMINATIONS[DENOMINATIONS.length - 1];
+        if (change <= 0)
+            return 0;
+
+        int unit = (int) (Math.min(change, INDEX_LIMIT_CENTS) / coin);
+        int word = unit >>> 6;
+        long bits = payable[word] & (-1L >>> (63 - (unit & 63)));
+        while (bits == 0)
+            bits = payable[--word];
+        return ((long) (word << 6) + 63 - Long.numberOfLeadingZeros(bits)) * coin;
+    }
+
+    /**
+     * Verifica se o caixa consegue formar um determinado troco, sem alterá-lo.
+     *
+     * Versão de compatibilidade de {@link #canGiveChangeCents(long)} com o valor em reais.
+     *
+     * @param change o valor do troco.
+     * @return {@code true} se o troco puder ser formado com as peças disponíveis.
+     */
+    public boolean canGiveChange(double change)
+    {
+        return canGiveChangeCents(toCents(change));
+    }
+
+    /**
+     * Retorna o valor total de dinheiro disponível no caixa, em centavos.
+     *
+     * @return o valor total em centavos.
+     */
+    public synchronized long getTotalCashCents()
+    {
+        long total = 0;
+        for (int slot = 0; slot < DENOMINATIONS.length; slot++)
+            total += DENOMINATIONS[slot] * quantities[slot];
+        return total;
+    }
+
+    /**
+     * Retorna a quantidade disponível de uma determinada denominação no caixa.
+     *
+     * @param cents o valor da denominação em centavos (ex: 500, 25).
+     * @return a quantidade disponível da denominação, ou {@code 0} se ela não estiver registrada.
+     */
+    public synchronized int getQuantityBillCents(long cents)
+    {
+        int slot = slotOf(cents);
+        return (slot < 0) ? 0 : quantities[slot];
+    }
+
+    /**
+     * Zera todas as quantidades de cédulas e moedas no controle de caixa.
+     *
+     * Após a execução, todas as denominações continuarão registradas, mas com quantidade igual a zero.
+     */
+    public synchronized void clearCashControl()
+    {
+        if (journal != null)
+            journal.checkWritable();
+        Arrays.fill(quantities, 0);
+        Arrays.fill(combinations, 0);
+        Arrays.fill(payable, 0);
+        combinations[0] = 1;
+        payable[0] = 1;
+        if (journal != null)
+            journal.logClearCash();
     }
 
     /**
-     * Retorna o mapa que representa o controle de cédulas e moedas disponíveis no caixa.
-     * 
-     * O mapa contém as denominações como chave ({@code Double}) e a quantidade de cada uma como valor ({@code Integer}).
-     * 
+     * Retorna uma cópia do controle de cédulas e moedas disponíveis no caixa.
+     *
+     * O mapa contém as denominações como chave ({@code Double}, em reais) e a quantidade de cada uma
+     * como valor ({@code Integer}), em ordem decrescente de valor. Alterações no mapa não afetam o caixa.
+     *
      * @return um {@code Map<Double, Integer>} representando as denominações e suas respectivas quantidades no caixa.
      */
-    public Map<Double, Integer> getCashControl()
+    public synchronized Map<Double, Integer> getCashControl()
     {
+        Map<Double, Integer> cashControl = new LinkedHashMap<>();
+        for (int slot = 0; slot < DENOMINATIONS.length; slot++)
+            cashControl.put(DENOMINATIONS[slot] / 100.0, quantities[slot]);
         return cashControl;
     }
 
     /**
      * Adiciona uma determinada quantidade de uma denominação específica ao controle de caixa.
-     * 
-     * Se a denominação informada já existir no mapa {@code cashControl}, a quantidade fornecida
-     * será somada à quantidade atual daquela denominação.
-     * 
+     *
+     * Versão de compatibilidade de {@link #addCashCents(long, int)} com o valor em reais.
+     *
      * @param cash a denominação da cédula ou moeda a ser adicionada (ex: 10.0, 0.5).
      * @param quantity a quantidade a ser adicionada da denominação especificada.
      * @return {@code true} se a denominação existir e a adição for realizada com sucesso;
-     *         {@code false} caso contrário (denominação não cadastrada no caixa).
+     *         {@code false} caso contrário (denominação não cadastrada no caixa ou quantidade menor ou igual a zero).
      */
     public boolean addCash(double cash, int quantity)
     {
-        if (cashControl.containsKey(cash))
-        {
-            cashControl.put(cash, cashControl.get(cash) + quantity);
-            return true;
-        }
-        return false;
+        return addCashCents(toCents(cash), quantity);
     }
 
     /**
      * Remove uma determinada quantidade de uma denominação específica do controle de caixa.
-     * 
-     * Se a denominação existir no mapa {@code cashControl} e houver quantidade suficiente disponível,
-     * a quantidade especificada será subtraída da quantidade atual.
-     * 
+     *
+     * Versão de compatibilidade de {@link #removeCashCents(long, int)} com o valor em reais.
+     *
      * @param cash a denominação da cédula ou moeda a ser removida (ex: 50.0, 0.25).
      * @param quantity a quantidade a ser removida da denominação especificada.
      * @return {@code true} se a denominação existir e houver quantidade suficiente para remoção;
-     *         {@code false} se a denominação não existir ou se a quantidade disponível for insuficiente.
+     *         {@code false} se a denominação não existir, se a quantidade for menor ou igual a zero
+     *         ou se a quantidade disponível for insuficiente.
      */
     public boolean removeCash(double cash, int quantity)
     {
-        if (cashControl.containsKey(cash))
-        {
-            if (cashControl.get(cash) < quantity)
-                return false;
-            else
-            {
-                cashControl.put(cash, cashControl.get(cash) - quantity);
-                return true;
-            }
-        }
-        return false;
+        return removeCashCents(toCents(cash), quantity);
     }
 
     /**
      * Calcula o troco com base no valor informado e nas denominações disponíveis no caixa.
-     * 
-     * O método tenta utilizar as maiores denominações possíveis para formar o troco, respeitando a
-     * quantidade disponível de cada uma. Caso o troco não possa ser completado, desfaz as alterações
-     * no caixa e retorna {@code null}.
-     * 
+     *
+     * Versão de compatibilidade de {@link #calculateChangeCents(long, int[])} com o valor em reais.
+     * Caso o troco não possa ser completado, o caixa não é alterado e é retornado {@code null}.
+     *
      * @param change o valor total de troco a ser fornecido.
      * @return um mapa com as denominações e quantidades utilizadas no troco, ou {@code null} se o troco não puder ser formado.
      */
     public Map<Double, Integer> calculateChange (double change)
-    {   
-        change = Math.ceil(change * 20.0) / 20.0;
+    {
+        int[] used = new int[DENOMINATIONS.length];
+        if (!calculateChangeCents(toCents(change), used))
+            return null;
+
         Map<Double, Integer> result = new LinkedHashMap<>();
-        TreeMap<Double, Integer> copyCashControl = new TreeMap<>(cashControl);
+        for (int slot = 0; slot < DENOMINATIONS.length; slot++)
+            if (used[slot] > 0)
+                result.put(DENOMINATIONS[slot] / 100.0, used[slot]);
+        return result;
+    }
 
-        for(Map.Entry<Double, Integer> entry : copyCashControl.entrySet())
-        {
-            double value = entry.getKey();
-            int quantity = entry.getValue();
-            int uses = 0;
+    /**
+     * Retorna o valor total de dinheiro disponível no caixa.
+     *
+     * Versão de compatibilidade de {@link #getTotalCashCents()} com o valor em reais.
+     *
+     * @return o valor total em dinheiro disponível.
+     */
+    public Double getTotalCash()
+    {
+        return getTotalCashCents() / 100.0;
+    }
 
-            while (change >= value && quantity > 0)
-            {
-                change = Math.round((change - value) * 100.0) / 100.0;
-                quantity--;
-                uses++;
-            }
+    /**
+     * Retorna a quantidade disponível de uma determinada denominação no caixa.
+     *
+     * Versão de compatibilidade de {@link #getQuantityBillCents(long)} com o valor em reais.
+     *
+     * @param cash a denominação a ser consultada (ex: 5.0, 0.25).
+     * @return a quantidade disponível da denominação, ou {@code 0} se ela não estiver registrada.
+     */
+    public int getQuantityBill(double cash)
+    {
+        return getQuantityBillCents(toCents(cash));
+    }
 
-            if (uses > 0)
-            {
-                result.put(value, uses);
-                cashControl.put(value, cashControl.get(value) - uses);
-            }
+    /**
+     * Forma o troco usando sempre a maior denominação disponível primeiro.
+     */
+    private boolean planGreedy(long remaining, int[] used)
+    {
+        for (int slot = 0; slot < DENOMINATIONS.length; slot++)
+        {
+            long value = DENOMINATIONS[slot];
+            int uses = (int) Math.min(remaining / value, quantities[slot]);
+            used[slot] = uses;
+            remaining -= uses * value;
         }
 
-        if (change > 0.009)
+        if (remaining != 0)
         {
-            for (Map.Entry<Double, Integer> entry : result.entrySet())
-                cashControl.put(entry.getKey(), cashControl.get(entry.getKey()) + entry.getValue());
-            return null;
+            Arrays.fill(used, 0, DENOMINATIONS.length, 0);
+            return false;
         }
-        return result;
-    } 
+        return true;
+    }
 
     /**
-     * Retorna o valor total de dinheiro disponível no caixa.
-     * 
-     * O total é calculado multiplicando cada denominação pela quantidade disponível no caixa.
-     * 
-     * @return o valor total em dinheiro disponível.
+     * Garante que os vetores de trabalho da programação dinâmica comportem {@code units} unidades.
      */
-    public Double getTotalCash()
+    private void ensureScratch(int units)
     {
-        double totalCash = 0.0;
-
-        for(Map.Entry<Double, Integer> entry : cashControl.entrySet())
-            totalCash += entry.getKey() * entry.getValue();
+        if (costs.length > units)
+            return;
 
-        return totalCash; 
+        int size = Math.max(units + 1, 10001);
+        costs = new long[size];
+        nextCosts = new long[size];
+        window = new int[size];
+        for (int slot = 0; slot < DENOMINATIONS.length; slot++)
+            taken[slot] = new int[size];
     }
 
     /**
-     * Zera todas as quantidades de cédulas e moedas no controle de caixa.
-     * 
-     * Após a execução, todas as denominações continuarão registradas, mas com quantidade igual a zero.
+     * Atualiza o índice de trocos possíveis depois que a quantidade de um slot mudou.
+     *
+     * Para cada valor {@code v} (em unidades de 5 centavos), {@code combinations[v]} guarda, módulo
+     * um primo grande, quantas combinações de peças do caixa somam {@code v}. Cada denominação com
+     * {@code q} unidades contribui com o fator {@code (1 - x^((q+1)d)) / (1 - x^d)} na função geradora;
+     * trocar {@code q} por {@code q'} equivale a multiplicar por {@code (1 - x^((q'+1)d))} e dividir
+     * por {@code (1 - x^((q+1)d))}, duas passadas lineares, independentemente de quantas peças mudaram.
+     * O bit de {@code v} em {@code payable} fica ligado enquanto a contagem for diferente de zero.
      */
-    public void clearCashControl()
+    private void reindex(int slot, int oldQuantity)
     {
-        for (Double value : cashControl.keySet())
-            cashControl.put(value, 0);
+        int newQuantity = quantities[slot];
+        if (newQuantity == oldQuantity)
+            return;
+
+        int last = combinations.length - 1;
+        long step = DENOMINATIONS[slot] / DENOMINATIONS[DENOMINATIONS.length - 1];
+        long added = (newQuantity + 1L) * step;
+        long removed = (oldQuantity + 1L) * step;
+        if (added > last && removed > last)
+            return;
+
+        if (added <= last)
+        {
+            int shift = (int) added;
+            for (int v = last; v >= shift; v--)
+            {
+                long value = combinations[v] - combinations[v - shift];
+                combinations[v] = (value < 0) ? value + MODULUS : value;
+            }
+        }
+
+        int shift = (removed <= last) ? (int) removed : Integer.MAX_VALUE;
+        for (int v = (int) Math.min(added, removed); v <= last; v++)
+        {
+            if (v >= shift)
+            {
+                long value = combinations[v] + combinations[v - shift];
+                combinations[v] = (value >= MODULUS) ? value - MODULUS : value;
+            }
+            if (combinations[v] != 0)
+                payable[v >>> 6] |= 1L << v;
+            else
+                payable[v >>> 6] &= ~(1L << v);
+        }
     }
 
     /**
-     * Retorna a quantidade disponível de uma determinada denominação no caixa.
-     * 
-     * @param cash a denominação a ser consultada (ex: 5.0, 0.25).
-     * @return a quantidade disponível da denominação, ou {@code 0} se ela não estiver registrada.
+     * Arredonda um valor em centavos para cima até o próximo múltiplo da menor moeda.
      */
-    public int getQuantityBill(double cash)
+    private static long roundUpToCoin(long cents)
     {
-        if (cashControl.containsKey(cash))
-            return cashControl.get(cash);
-        return 0;
+        long coin = DENOMINATIONS[DENOMINATIONS.length - 1];
+        return ((cents + coin - 1) / coin) * coin;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package Back;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrinho de compras do autoatendimento, compartilhado pelas telas de compra e pagamento.
+ *
+ * <p>
+ * Guarda apenas os produtos com quantidade maior que zero, na ordem em que foram adicionados,
+ * e mantém o total em centavos e a quantidade de itens atualizados a cada alteração: somar ou
+ * tirar uma unidade custa O(1), sem percorrer o carrinho nem consultar o {@link Estoque}.
+ * </p>
+ *
+ * <p>
+ * O preço de cada linha é o do produto quando ele entrou no carrinho. O valor cobrado é
+ * calculado de novo pelo {@link ServicoCheckout} ao iniciar a compra ({@link Compra#getTotalCents()}).
+ * Não é thread-safe: é usado apenas pela thread da interface gráfica.
+ * </p>
+ */
+public final class Carrinho
+{
+    private final Map<Integer, Linha> lines = new LinkedHashMap<>();
+    private long totalCents;
+    private int itemCount;
+
+    /**
+     * Soma uma quantidade (positiva ou negativa) a um produto, sem deixá-la abaixo de zero.
+     * O produto sai do carrinho quando a quantidade chega a zero.
+     *
+     * @param product o produto.
+     * @param delta a quantidade somada.
+     * @return {@code true} se o carrinho mudou.
+     */
+    public boolean add(Produto product, int delta)
+    {
+        Linha line = lines.get(product.getCode());
+        int previous = (line != null) ? line.quantity : 0;
+        int quantity = Math.max(0, previous + delta);
+        if (quantity == previous)
+            return false;
+
+        if (line == null)
+        {
+            line = new Linha(product, Caixa.toCents(product.getPrice()));
+            lines.put(product.getCode(), line);
+        }
+
+        update(line, quantity - previous);
+        if (quantity == 0)
+            lines.remove(product.getCode());
+        return true;
+    }
+
+    /**
+     * Retira um produto do carrinho, qualquer que seja a quantidade.
+     *
+     * @param code o código do produto.
+     */
+    public void remove(int code)
+    {
+        Linha line = lines.remove(code);
+        if (line != null)
+            update(line, -line.quantity);
+    }
+
+    /**
+     * Esvazia o carrinho.
+     */
+    public void clear()
+    {
+        lines.clear();
+        totalCents = 0;
+        itemCount = 0;
+    }
+
+    /**
+     * Retorna a quantidade de um produto no carrinho.
+     *
+     * @param code o código do produto.
+     * @return a quantidade, ou {@code 0} se o produto não estiver no carrinho.
+     */
+    public int getQuantity(int code)
+    {
+        Linha line = lines.get(code);
+        return (line != null) ? line.quantity : 0;
+    }
+
+    /**
+     * Retorna o valor total do carrinho.
+     *
+     * @return o total em centavos.
+     */
+    public long getTotalCents()
+    {
+        return totalCents;
+    }
+
+    /**
+     * Retorna a quantidade total de itens (a soma das quantidades de todos os produtos).
+     *
+     * @return a quantidade de itens.
+     */
+    public int getItemCount()
+    {
+        return itemCount;
+    }
+
+    /**
+     * Verifica se o carrinho está vazio.
+     *
+     * @return {@code true} se não houver nenhum produto no carrinho.
+     */
+    public boolean isEmpty()
+    {
+        return lines.isEmpty();
+    }
+
+    /**
+     * Retorna os produtos do carrinho, na ordem em que foram adicionados.
+     *
+     * @return os produtos com quantidade maior que zero.
+     */
+    public List<Produto> getProducts()
+    {
+        List<Produto> products = new ArrayList<>(lines.size());
+        for (Linha line : lines.values())
+            products.add(line.product);
+        return products;
+    }
+
+    /**
+     * Retorna as quantidades do carrinho no formato aceito pelo {@link ServicoCheckout}.
+     *
+     * @return um mapa onde a chave é o código do produto e o valor é a quantidade.
+     */
+    public Map<Integer, Integer> getQuantities()
+    {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Linha> entry : lines.entrySet())
+            quantities.put(entry.getKey(), entry.getValue().quantity);
+        return quantities;
+    }
+
+    private void update(Linha line, int delta)
+    {
+        line.quantity += delta;
+        itemCount += delta;
+        totalCents += delta * line.unitPriceCents;
+    }
+
+    private static final class Linha
+    {
+        final Produto product;
+        final long unitPriceCents;
+        int quantity;
+
+        Linha(Produto product, long unitPriceCents)
+        {
+            this.product = product;
+            this.unitPriceCents = unitPriceCents;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package Back;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implementação do {@link ServicoCheckout} que envia as operações a um {@link ServidorCheckout}.
+ *
+ * <p>
+ * As telas de compra continuam lendo nomes, preços e quantidades de um {@link Estoque} local,
+ * que aqui funciona como espelho do catálogo do servidor: {@code catalogue} busca o catálogo
+ * e atualiza o espelho, recadastrando os produtos cujo nome, preço ou validade mudaram. As reservas, os pagamentos e o troco acontecem sempre no servidor.
+ * </p>
+ *
+ * <p>
+ * Falhas de comunicação são lançadas como {@link UncheckedIOException}.
+ * </p>
+ */
+public class ClienteCheckout implements ServicoCheckout
+{
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final URI server;
+    private final Estoque mirror;
+    private final HttpClient client;
+
+    /**
+     * Construtor da classe {@code ClienteCheckout}.
+     *
+     * @param server o endereço do servidor (por exemplo, {@code http://localhost:8080}).
+     * @param mirror o {@link Estoque} local que espelha o catálogo do servidor.
+     */
+    public ClienteCheckout(URI server, Estoque mirror)
+    {
+        this.server = server;
+        this.mirror = mirror;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    @Override
+    public Collection<ProdutoEmEstoque> catalogue()
+    {
+        List<?> products = (List<?>) Json.parse(send("GET", "/catalogo", null).body());
+        Set<Integer> codes = new HashSet<>();
+
+        for (Object item : products)
+        {
+            Map<?, ?> fields = (Map<?, ?>) item;
+            int code = ((Number) fields.get("codigo")).intValue();
+            int amount = ((Number) fields.get("quantidade")).intValue();
+            String validity = (String) fields.get("validade");
+            codes.add(code);
+
+            Produto product = new Produto(code, (String) fields.get("nome"), (String) fields.get("tipo"),
+                    ((Number) fields.get("preco")).doubleValue(),
+                    (validity == null) ? null : LocalDate.parse(validity));
+
+            ProdutoEmEstoque entry = mirror.getProductsStock().get(code);
+            if (entry != null && sameProduct(entry.getProduct(), product))
+            {
+                entry.setAmountStock(amount);
+                continue;
+            }
+            // Produto novo ou alterado no servidor (nome, tipo, preço ou validade): recadastra
+            if (entry != null)
+                mirror.deleteProduct(code);
+            mirror.restoreProduct(product, amount);
+        }
+
+        for (Integer code : new ArrayList<>(mirror.getProductsStock().keySet()))
+            if (!codes.contains(code))
+                mirror.deleteProduct(code);
+        return mirror.getProductsStock().values();
+    }
+
+    @Override
+    public long priceCart(Map<Integer, Integer> cart)
+    {
+        return ((Number) Json.parseObject(send("POST", "/carrinho/preco", cartBody(cart)).body()).get("total")).longValue();
+    }
+
+    @Override
+    public Compra start(Map<Integer, Integer> cart)
+    {
+        HttpResponse<String> response = send("POST", "/compras", cartBody(cart));
+        if (response.statusCode() == 409)
+            return null;
+
+        Map<String, Object> fields = Json.parseObject(response.body());
+        return new Compra(((Number) fields.get("id")).longValue(), ((Number) fields.get("pedido")).intValue(),
+                ((Number) fields.get("total")).longValue());
+    }
+
+    @Override
+    public ResultadoPagamento payWithCard(Compra purchase)
+    {
+        return result(send("POST", "/compras/" + purchase.getId() + "/cartao", null));
+    }
+
+    @Override
+    public ResultadoPagamento payWithCash(Compra purchase, int[] pieces)
+    {
+        StringBuilder body = new StringBuilder("{\"pecas\":[");
+        for (int slot = 0; slot < pieces.length; slot++)
+            body.append(slot == 0 ? "" : ",").append(pieces[slot]);
+        body.append("]}");
+
+        return result(send("POST", "/compras/" + purchase.getId() + "/dinheiro", body.toString()));
+    }
+
+    @Override
+    public void cancel(Compra purchase)
+    {
+        send("POST", "/compras/" + purchase.getId() + "/cancelar", null);
+    }
+
+    @Override
+    public ConsultaTroco queryChange(long changeCents)
+    {
+        Map<String, Object> fields = Json.parseObject(send("GET", "/troco/" + changeCents, null).body());
+        return new ConsultaTroco((Boolean) fields.get("possivel"), ((Number) fields.get("maximo")).longValue());
+    }
+
+    private static boolean sameProduct(Produto mirrored, Produto current)
+    {
+        return Objects.equals(mirrored.getName(), current.getName())
+                && Objects.equals(mirrored.getType(), current.getType())
+                && Double.compare(mirrored.getPrice(), current.getPrice()) == 0
+                && Objects.equals(mirrored.getValidity(), current.getValidity());
+    }
+
+    private static ResultadoPagamento result(HttpResponse<String> response)
+    {
+        Map<String, Object> fields = Json.parseObject(response.body());
+        ResultadoPagamento.Situacao status = ResultadoPagamento.Situacao.valueOf((String) fields.get("status"));
+
+        List<?> pieces = (List<?>) fields.get("troco");
+        int[] change = null;
+        if (pieces != null)
+        {
+            change = new int[pieces.size()];
+            for (int slot = 0; slot < change.length; slot++)
+                change[slot] = ((Number) pieces.get(slot)).intValue();
+        }
+        return new ResultadoPagamento(status, change);
+    }
+
+    private static String cartBody(Map<Integer, Integer> cart)
+    {
+        StringBuilder body = new StringBuilder("{\"itens\":{");
+        boolean first = true;
+        for (Map.Entry<Integer, Integer> item : cart.entrySet())
+        {
+            if (item.getValue() <= 0)
+                continue;
+            body.append(first ? "" : ",").append('"').append(item.getKey()).append("\":").append(item.getValue());
+            first = false;
+        }
+        return body.append("}}").toString();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body)
+    {
+        HttpRequest request = HttpRequest.newBuilder(server.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .method(method, (body == null) ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try
+        {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400 && response.statusCode() != 409)
+                throw new IOException("HTTP " + response.statusCode() + " em " + method + " " + path + ": " + response.body());
+            return response;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Requisição interrompida: " + method + " " + path, e));
+        }
+    }
+}
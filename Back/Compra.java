@@ -0,0 +1,58 @@
+package Back;
+
+/**
+ * Compra em andamento, iniciada por {@link ServicoCheckout#start}.
+ *
+ * Guarda o identificador usado nas operações seguintes (pagamento ou cancelamento),
+ * o número do pedido e o valor total em centavos.
+ */
+public final class Compra
+{
+    private final long id;
+    private final int orderNumber;
+    private final long totalCents;
+
+    /**
+     * Construtor da classe {@code Compra}.
+     *
+     * @param id o identificador da compra no {@link ServicoCheckout}.
+     * @param orderNumber o número do pedido.
+     * @param totalCents o valor total em centavos.
+     */
+    public Compra(long id, int orderNumber, long totalCents)
+    {
+        this.id = id;
+        this.orderNumber = orderNumber;
+        this.totalCents = totalCents;
+    }
+
+    /**
+     * Retorna o identificador da compra.
+     *
+     * @return o identificador.
+     */
+    public long getId()
+    {
+        return id;
+    }
+
+    /**
+     * Retorna o número do pedido desta compra.
+     *
+     * @return o número do pedido.
+     */
+    public int getOrderNumber()
+    {
+        return orderNumber;
+    }
+
+    /**
+     * Retorna o valor total da compra.
+     *
+     * @return o valor em centavos.
+     */
+    public long getTotalCents()
+    {
+        return totalCents;
+    }
+}
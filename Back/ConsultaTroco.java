@@ -0,0 +1,45 @@
+package Back;
+
+/**
+ * Resposta de uma consulta de troco ao {@link ServicoCheckout}, feita sem alterar o caixa.
+ *
+ * Traz, em uma única consulta, se o troco pedido pode ser formado e o maior troco possível
+ * que não ultrapassa o valor pedido, usado para sugerir ao cliente outro valor a inserir.
+ */
+public final class ConsultaTroco
+{
+    private final boolean possible;
+    private final long maximum;
+
+    /**
+     * Construtor da classe {@code ConsultaTroco}.
+     *
+     * @param possible se o troco pedido pode ser formado.
+     * @param maximum o maior troco possível até o valor pedido, em centavos.
+     */
+    public ConsultaTroco(boolean possible, long maximum)
+    {
+        this.possible = possible;
+        this.maximum = maximum;
+    }
+
+    /**
+     * Verifica se o troco pedido pode ser formado com as peças do caixa.
+     *
+     * @return {@code true} se o troco puder ser formado.
+     */
+    public boolean isPossible()
+    {
+        return possible;
+    }
+
+    /**
+     * Retorna o maior troco que o caixa consegue formar sem ultrapassar o valor pedido.
+     *
+     * @return o maior troco possível, em centavos ({@code 0} se o caixa não tiver troco).
+     */
+    public long getMaximum()
+    {
+        return maximum;
+    }
+}
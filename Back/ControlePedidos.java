@@ -1,32 +1,332 @@
 package Back;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Classe responsável por gerenciar os pedidos registrados no sistema.
  * 
- * A {@code ControlePedidos} mantém uma lista estática de objetos {@code Pedido},
- * representando todos os pedidos feitos durante a execução do programa.
+ * A {@code ControlePedidos} mantém um {@link LogPedidos} estático, compartilhado por todas as
+ * instâncias, com todos os pedidos feitos no sistema. Por padrão o log fica apenas em memória;
+ * com o construtor que recebe um {@link LogPedidos} aberto em disco, os pedidos passam a ser
+ * gravados em segmentos mapeados em memória e sobrevivem à reinicialização.
  * 
  * Atua como camada de controle entre a interface e os dados dos pedidos,
  * permitindo registrar novos pedidos por meio do método {@code newOrder}.
+ * 
+ * Cada pedido registrado também é somado aos totais de vendas por dia e por produto
+ * ({@link VendasDiarias}), usados pelo relatório de produtos mais vendidos. Esses totais ficam
+ * em memória: se estiverem ausentes (por exemplo, depois de reiniciar) ou não cobrirem todos os
+ * pedidos do log, são completados a partir do histórico por {@code refreshSales}, de preferência
+ * chamado em segundo plano, ou na próxima consulta. Só os pedidos posteriores à última posição
+ * coberta pelos totais são lidos, sem bloquear o registro de novos pedidos, e no máximo uma
+ * atualização roda por vez: as consultas esperam pela que estiver em andamento.
+ * 
+ * Também guarda o {@link ServicoCheckout} usado pelas telas de compra, que pode ser local
+ * ou um cliente de um {@link ServidorCheckout} compartilhado.
  */
 public class ControlePedidos
 {
-    private static ArrayList<Pedido> orders = new ArrayList<>();
+    private static LogPedidos orders = LogPedidos.inMemory();
+    private static volatile ServicoCheckout checkout;
+    private static final Object salesLock = new Object();
+    private static VendasDiarias sales = new VendasDiarias();
+    private static long salesEnd = 0;
+    private static CompletableFuture<Void> refreshing;
+    private static final AtomicLong version = new AtomicLong();
+    private static final VendasAoVivo liveSales = new VendasAoVivo();
+    private static final ExecutorService salesRefresher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "vendas");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Construtor da classe {@code ControlePedidos}, usando o log de pedidos atual.
+     */
+    public ControlePedidos()
+    {
+    }
 
     /**
-     * Adiciona um novo pedido à lista de pedidos registrados no caixa.
+     * Construtor da classe {@code ControlePedidos} que passa a usar o log de pedidos informado.
+     * 
+     * @param log o {@link LogPedidos} onde os pedidos serão gravados.
+     */
+    public ControlePedidos(LogPedidos log)
+    {
+        synchronized (salesLock)
+        {
+            orders = log;
+            sales = new VendasDiarias();
+            salesEnd = 0;
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Adiciona um novo pedido ao log de pedidos registrados no caixa.
      * 
      * @param order o objeto {@code Pedido} que representa o pedido a ser adicionado.
      */
     public void newOrder(Pedido order)
     {
-        orders.add(order);
+        synchronized (salesLock)
+        {
+            boolean current = sales.getOrderCount() == orders.size();
+            orders.append(order);
+            if (current)
+            {
+                sales.record(order);
+                salesEnd = orders.getEnd();
+            }
+        }
+        version.incrementAndGet();
+        liveSales.record(order);
     }
 
-    public static ArrayList<Pedido> getOrders()
+    /**
+     * Retorna os produtos mais vendidos agora (últimos 15 minutos, última hora e dia), mantidos
+     * a cada pedido registrado.
+     * 
+     * @return o {@link VendasAoVivo} deste quiosque.
+     */
+    public static VendasAoVivo getLiveSales()
+    {
+        return liveSales;
+    }
+
+    /**
+     * Retorna a versão dos pedidos: um contador que só cresce, incrementado a cada pedido
+     * registrado. Usado pelo {@link CacheRelatorios} para descartar relatórios desatualizados.
+     * 
+     * @return a versão atual.
+     */
+    public static long getVersion()
+    {
+        return version.get();
+    }
+
+    /**
+     * Retorna as unidades vendidas de cada produto entre duas datas (inclusive).
+     * 
+     * Soma os totais diários do período, sem percorrer os pedidos.
+     * 
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @return o código de cada produto vendido e a quantidade vendida.
+     */
+    public static Map<Integer, Long> getUnitsSold(LocalDate startDate, LocalDate endDate)
+    {
+        refreshSales();
+        synchronized (salesLock)
+        {
+            catchUpSales();
+            return sales.unitsSold(startDate, endDate);
+        }
+    }
+
+    /**
+     * Retorna a receita de cada produto entre duas datas (inclusive).
+     * 
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @return o código de cada produto vendido e a receita em centavos.
+     */
+    public static Map<Integer, Long> getRevenueCents(LocalDate startDate, LocalDate endDate)
+    {
+        refreshSales();
+        synchronized (salesLock)
+        {
+            catchUpSales();
+            return sales.revenueCents(startDate, endDate);
+        }
+    }
+
+    /**
+     * Verifica se os totais de vendas já cobrem todos os pedidos do log, ou seja, se
+     * {@code getUnitsSold} e {@code getRevenueCents} respondem sem percorrer o histórico.
+     * 
+     * @return {@code true} se os totais estiverem atualizados.
+     */
+    public static boolean hasCurrentSales()
+    {
+        synchronized (salesLock)
+        {
+            return sales.getOrderCount() == orders.size();
+        }
+    }
+
+    /**
+     * Retorna o nome de cada produto já vendido, como gravado no pedido mais recente.
+     * 
+     * @return o código e o nome de cada produto.
+     */
+    public static Map<Integer, String> getProductNames()
+    {
+        refreshSales();
+        synchronized (salesLock)
+        {
+            catchUpSales();
+            return sales.productNames();
+        }
+    }
+
+    /**
+     * Completa os totais de vendas a partir do histórico quando eles não cobrem todos os
+     * pedidos do log, como depois de reiniciar com pedidos gravados.
+     * 
+     * Se já houver uma atualização em andamento, espera por ela em vez de percorrer o histórico
+     * de novo. Pode demorar em um histórico grande e não deve ser chamado pela thread de eventos
+     * do Swing.
+     */
+    public static void refreshSales()
+    {
+        CompletableFuture<Void> refresh;
+        synchronized (salesLock)
+        {
+            if (sales.getOrderCount() == orders.size())
+                return;
+            refresh = startRefresh();
+        }
+        refresh.join();
+    }
+
+    /**
+     * Executa {@link #refreshSales()} em uma thread de fundo. Chamado ao iniciar o sistema com
+     * pedidos gravados e pelo relatório de mais vendidos quando encontra os totais desatualizados.
+     * 
+     * @return um {@link CompletableFuture} completado quando os totais estiverem atualizados; se
+     *         já houver uma atualização em andamento, é o dela.
+     */
+    public static CompletableFuture<Void> refreshSalesInBackground()
+    {
+        synchronized (salesLock)
+        {
+            return startRefresh();
+        }
+    }
+
+    /**
+     * Retorna a atualização em andamento, ou inicia uma. Deve ser chamado com {@code salesLock}.
+     */
+    private static CompletableFuture<Void> startRefresh()
+    {
+        if (refreshing == null || refreshing.isDone())
+            refreshing = CompletableFuture.runAsync(ControlePedidos::readNewSales, salesRefresher);
+        return refreshing;
+    }
+
+    /**
+     * Lê os pedidos posteriores à última posição coberta pelos totais e os soma a eles.
+     * 
+     * O histórico é percorrido sem {@code salesLock}, de modo que {@code newOrder} continua
+     * registrando pedidos durante a leitura (sem somá-los, já que os totais estão atrasados);
+     * depois, com o bloqueio, o resultado é somado aos totais e apenas os pedidos registrados
+     * nesse meio tempo são lidos.
+     */
+    private static void readNewSales()
+    {
+        while (true)
+        {
+            LogPedidos log;
+            VendasDiarias target;
+            long from;
+            long stop;
+            synchronized (salesLock)
+            {
+                if (sales.getOrderCount() == orders.size())
+                    return;
+                log = orders;
+                target = sales;
+                from = salesEnd;
+                stop = log.getEnd();
+            }
+
+            VendasDiarias delta = new VendasDiarias();
+            for (Iterator<Pedido> it = log.iterator(from, stop); it.hasNext(); )
+                delta.record(it.next());
+
+            synchronized (salesLock)
+            {
+                // Outro log ou totais refeitos no meio da leitura: recomeça da posição atual
+                if (orders != log || sales != target || salesEnd != from)
+                    continue;
+
+                sales.merge(delta);
+                salesEnd = stop;
+                catchUpSales();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Soma aos totais de vendas os pedidos gravados depois da última posição coberta por eles.
+     * Deve ser chamado com {@code salesLock}.
+     */
+    private static void catchUpSales()
+    {
+        if (sales.getOrderCount() == orders.size())
+            return;
+
+        long stop = orders.getEnd();
+        for (Iterator<Pedido> it = orders.iterator(salesEnd, stop); it.hasNext(); )
+            sales.record(it.next());
+        salesEnd = stop;
+    }
+
+    /**
+     * Retorna todos os pedidos registrados, do mais antigo para o mais recente.
+     * 
+     * Os pedidos são decodificados sob demanda diretamente dos segmentos do log,
+     * sem manter o histórico inteiro no heap.
+     * 
+     * @return um {@code Iterable<Pedido>} sobre os pedidos registrados.
+     */
+    public static Iterable<Pedido> getOrders()
     {
         return orders;
     }
+
+    /**
+     * Retorna os pedidos feitos entre duas datas (inclusive), do mais antigo para o mais recente.
+     * 
+     * Usa o índice por dia do {@link LogPedidos}: somente os pedidos do período são lidos,
+     * sem percorrer o histórico inteiro.
+     * 
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @return um {@link LogPedidos.Periodo} sobre os pedidos do período, que também informa a
+     *         quantidade de pedidos e permite começar a leitura em qualquer posição.
+     */
+    public static LogPedidos.Periodo getOrders(LocalDate startDate, LocalDate endDate)
+    {
+        return orders.between(startDate, endDate);
+    }
+
+    /**
+     * Define o serviço de checkout usado pelas telas de compra.
+     * 
+     * @param service o {@link ServicoCheckout} a ser usado.
+     */
+    public static void setCheckout(ServicoCheckout service)
+    {
+        checkout = service;
+    }
+
+    /**
+     * Retorna o serviço de checkout usado pelas telas de compra.
+     * 
+     * @return o {@link ServicoCheckout} atual.
+     */
+    public static ServicoCheckout getCheckout()
+    {
+        return checkout;
+    }
 }
@@ -0,0 +1,681 @@
+package Back;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Diário binário de escrita antecipada (write-ahead journal) das operações do {@link Estoque}
+ * e do {@link Caixa}.
+ *
+ * <p>
+ * Cada alteração no estoque ({@code registerProduct}, {@code deleteProduct}, {@code addStock},
+ * {@code removeStock} e {@code setValidity}) e no caixa ({@code addCash}, {@code removeCash}, {@code clearCashControl})
+ * vira um registro compacto anexado ao final do arquivo. Ao iniciar o sistema, o diário é
+ * reproduzido com {@code replay} para reconstruir o catálogo, as quantidades e o caixa.
+ * </p>
+ *
+ * <p>
+ * Os registros são acumulados em memória e gravados em lote por uma thread de fundo, que faz
+ * um único {@code fsync} por lote (group commit). Assim, o clique no botão de compra nunca
+ * espera pelo disco: no pior caso, uma queda de energia perde apenas as operações dos últimos
+ * {@code FLUSH_INTERVAL_MS} milissegundos. Se a gravação falhar, o lote é gravado de novo a cada
+ * {@code FLUSH_INTERVAL_MS} milissegundos, sem ser dado como gravado, até que a gravação funcione.
+ * </p>
+ *
+ * <p>
+ * O {@link Estoque} e o {@link Caixa} chamam {@code checkWritable} antes de cada alteração. Enquanto
+ * a última gravação tiver falhado, as alterações são recusadas com {@link UncheckedIOException}, em
+ * vez de seguirem aceitas só em memória; e se mais de {@code MAX_BACKLOG} bytes estiverem na fila à
+ * espera do disco, quem altera espera a fila baixar. Assim a memória usada pela fila é limitada
+ * mesmo com o disco lento ou falhando.
+ * </p>
+ *
+ * <p>
+ * Os métodos {@code log*} não disputam nenhum bloqueio do diário: cada registro é montado, com
+ * seu CRC, na thread que o produz e entra em uma fila sem bloqueio, que a thread de fundo esvazia
+ * a cada lote. A fila preserva a ordem de chegada; como o {@link Estoque} e o {@link Caixa}
+ * registram a operação enquanto seguram o bloqueio do produto ou do caixa, as operações sobre
+ * um mesmo produto são reproduzidas na ordem em que aconteceram.
+ * </p>
+ *
+ * <p>
+ * O diário é dividido em gerações ({@code diario-NNNNNN.log}). A cada {@link SnapshotSistema}
+ * gravado, {@code roll} inicia uma nova geração e as anteriores podem ser apagadas com
+ * {@code compact}, já que o snapshot contém todo o estado até aquele ponto.
+ * </p>
+ *
+ * <p>
+ * Formato de cada registro: {@code [int tamanho][byte tipo][dados][int crc32]}, onde o tamanho
+ * conta o tipo e os dados. Um registro incompleto ou corrompido no final do arquivo (gravação
+ * interrompida) é descartado durante a reprodução.
+ * </p>
+ */
+public class Diario implements Closeable
+{
+    static final byte REGISTER = 1;
+    static final byte DELETE = 2;
+    static final byte ADD_STOCK = 3;
+    static final byte REMOVE_STOCK = 4;
+    static final byte ADD_CASH = 5;
+    static final byte REMOVE_CASH = 6;
+    static final byte CLEAR_CASH = 7;
+    static final byte SET_VALIDITY = 8;
+
+    private static final long FLUSH_INTERVAL_MS = 50;
+    private static final int BATCH_THRESHOLD = 32 * 1024;
+    private static final int MAX_BACKLOG = 8 * 1024 * 1024;
+    private static final long NO_VALIDITY = Long.MIN_VALUE;
+
+    /** Marca posta na fila por {@link #sync()}: tudo o que entrou antes dela deve estar gravado. */
+    private static final byte[] SYNC_MARK = new byte[0];
+
+    private final Path directory;
+    private FileChannel channel;
+    private long generation;
+    private final ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong appended = new AtomicLong();
+    private volatile long drained = 0;
+    private final CRC32 crc = new CRC32();
+    private long syncRequests = 0;
+    private long syncsDone = 0;
+    private volatile boolean open = true;
+    private volatile IOException failure;
+    private final Thread flusher;
+
+    private Diario(Path directory)
+    {
+        this.directory = directory;
+        this.flusher = new Thread(this::flushLoop, "diario-flush");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Abre (ou cria) o diário no diretório informado.
+     *
+     * A thread de gravação em lote só é iniciada após a reprodução do conteúdo existente,
+     * em {@link #replay(long, Estoque, Caixa)}.
+     *
+     * @param directory o diretório das gerações do diário.
+     * @return o diário aberto.
+     * @throws IOException se o diretório não puder ser criado.
+     */
+    public static Diario open(Path directory) throws IOException
+    {
+        Files.createDirectories(directory);
+        return new Diario(directory);
+    }
+
+    /**
+     * Retorna a geração do diário que está recebendo os novos registros.
+     *
+     * @return o número da geração atual.
+     */
+    public synchronized long getGeneration()
+    {
+        return generation;
+    }
+
+    /**
+     * Reproduz os registros válidos das gerações a partir de {@code fromGeneration} sobre o
+     * estoque e o caixa informados e inicia a gravação em lote.
+     *
+     * O estoque e o caixa não devem estar ligados a este diário durante a reprodução, para que
+     * os registros não sejam gravados novamente. Gerações anteriores a {@code fromGeneration}
+     * já estão contidas no snapshot e são apagadas.
+     *
+     * @param fromGeneration a primeira geração posterior ao último snapshot.
+     * @param stock o {@link Estoque} a ser reconstruído.
+     * @param cashControl o {@link Caixa} a ser reconstruído.
+     * @return a quantidade de registros reproduzidos.
+     * @throws IOException se houver falha de leitura.
+     */
+    public int replay(long fromGeneration, Estoque stock, Caixa cashControl) throws IOException
+    {
+        compact(fromGeneration);
+
+        List<Long> generations = listGenerations();
+        int applied = 0;
+        long last = fromGeneration;
+
+        for (int i = 0; i < generations.size(); i++)
+        {
+            long gen = generations.get(i);
+            applied += replayFile(fileOf(gen), stock, cashControl, i == generations.size() - 1);
+            last = gen;
+        }
+
+        synchronized (this)
+        {
+            generation = last;
+            channel = openGeneration(last);
+        }
+        flusher.start();
+        return applied;
+    }
+
+    /**
+     * Encerra a geração atual e passa a gravar os próximos registros em uma nova geração.
+     *
+     * Os registros pendentes são gravados antes da troca. O chamador deve garantir que
+     * nenhuma operação esteja sendo registrada durante a troca.
+     *
+     * @return o número da nova geração.
+     * @throws IOException se a nova geração não puder ser criada.
+     */
+    public long roll() throws IOException
+    {
+        sync();
+
+        synchronized (this)
+        {
+            FileChannel next = openGeneration(generation + 1);
+            channel.close();
+            channel = next;
+            generation++;
+            return generation;
+        }
+    }
+
+    /**
+     * Apaga as gerações anteriores a {@code beforeGeneration}, cujo conteúdo já está em um snapshot.
+     *
+     * @param beforeGeneration a primeira geração a ser mantida.
+     * @return a quantidade de gerações apagadas.
+     * @throws IOException se um arquivo não puder ser apagado.
+     */
+    public int compact(long beforeGeneration) throws IOException
+    {
+        int removed = 0;
+        for (long gen : listGenerations())
+        {
+            if (gen < beforeGeneration)
+            {
+                Files.deleteIfExists(fileOf(gen));
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private int replayFile(Path file, Estoque stock, Caixa cashControl, boolean isLast) throws IOException
+    {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            long size = in.size();
+            ByteBuffer data = ByteBuffer.allocate((int) size);
+            while (data.hasRemaining() && in.read(data) >= 0)
+                ;
+            data.flip();
+
+            int applied = 0;
+            long validEnd = 0;
+
+            while (data.remaining() >= 4)
+            {
+                int start = data.position();
+                int length = data.getInt();
+
+                if (length <= 0 || data.remaining() < length + 4)
+                    break;
+
+                crc.reset();
+                crc.update(data.array(), start + 4, length);
+                int stored = data.getInt(start + 4 + length);
+                if ((int) crc.getValue() != stored)
+                    break;
+
+                apply(data.slice(start + 4, length), stock, cashControl);
+                applied++;
+
+                data.position(start + 4 + length + 4);
+                validEnd = data.position();
+            }
+
+            if (validEnd < size)
+            {
+                System.err.println("Diário: descartando " + (size - validEnd) + " bytes inválidos no final de " + file);
+                if (isLast)
+                    in.truncate(validEnd);
+            }
+            return applied;
+        }
+    }
+
+    private void apply(ByteBuffer record, Estoque stock, Caixa cashControl)
+    {
+        byte type = record.get();
+
+        switch (type)
+        {
+            case REGISTER:
+                stock.registerProduct(readProduct(record));
+                break;
+            case DELETE:
+                stock.deleteProduct(record.getInt());
+                break;
+            case ADD_STOCK:
+                stock.addStock(record.getInt(), record.getInt());
+                break;
+            case REMOVE_STOCK:
+                stock.removeStock(record.getInt(), record.getInt());
+                break;
+            case ADD_CASH:
+                cashControl.addCashCents(record.getLong(), record.getInt());
+                break;
+            case REMOVE_CASH:
+                cashControl.removeCashCents(record.getLong(), record.getInt());
+                break;
+            case CLEAR_CASH:
+                cashControl.clearCashControl();
+                break;
+            case SET_VALIDITY:
+                int code = record.getInt();
+                long validity = record.getLong();
+                stock.setValidity(code, (validity == NO_VALIDITY) ? null : LocalDate.ofEpochDay(validity));
+                break;
+            default:
+                System.err.println("Diário: tipo de registro desconhecido " + type + " ignorado.");
+        }
+    }
+
+    /**
+     * Registra o cadastro de um novo produto.
+     *
+     * @param product o {@link Produto} cadastrado.
+     */
+    public void logRegister(Produto product)
+    {
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] kind = product.getType().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer record = begin(productSize(name, kind), REGISTER);
+        writeProduct(record, product, name, kind);
+        end(record);
+    }
+
+    /**
+     * Registra a remoção de um produto do catálogo.
+     *
+     * @param code o código do produto removido.
+     */
+    public void logDelete(int code)
+    {
+        end(begin(4, DELETE).putInt(code));
+    }
+
+    /**
+     * Registra a alteração da data de validade de um produto.
+     *
+     * @param code o código do produto.
+     * @param validity a nova validade, ou {@code null} para um produto sem validade.
+     */
+    public void logSetValidity(int code, LocalDate validity)
+    {
+        end(begin(4 + 8, SET_VALIDITY).putInt(code).putLong(validity == null ? NO_VALIDITY : validity.toEpochDay()));
+    }
+
+    /**
+     * Registra uma entrada de estoque.
+     *
+     * @param code o código do produto.
+     * @param quantity a quantidade adicionada.
+     */
+    public void logAddStock(int code, int quantity)
+    {
+        end(begin(8, ADD_STOCK).putInt(code).putInt(quantity));
+    }
+
+    /**
+     * Registra uma saída de estoque.
+     *
+     * @param code o código do produto.
+     * @param quantity a quantidade removida.
+     */
+    public void logRemoveStock(int code, int quantity)
+    {
+        end(begin(8, REMOVE_STOCK).putInt(code).putInt(quantity));
+    }
+
+    /**
+     * Registra a entrada de cédulas ou moedas no caixa.
+     *
+     * @param cents a denominação em centavos (ex: 1000, 50).
+     * @param quantity a quantidade adicionada.
+     */
+    public void logAddCash(long cents, int quantity)
+    {
+        end(begin(12, ADD_CASH).putLong(cents).putInt(quantity));
+    }
+
+    /**
+     * Registra a saída de cédulas ou moedas do caixa.
+     *
+     * @param cents a denominação em centavos (ex: 1000, 50).
+     * @param quantity a quantidade removida.
+     */
+    public void logRemoveCash(long cents, int quantity)
+    {
+        end(begin(12, REMOVE_CASH).putLong(cents).putInt(quantity));
+    }
+
+    /**
+     * Registra que o caixa foi zerado.
+     */
+    public void logClearCash()
+    {
+        end(begin(0, CLEAR_CASH));
+    }
+
+    /**
+     * Verifica se o diário consegue receber mais um registro, antes de uma alteração ser aplicada.
+     *
+     * Retorna imediatamente no caso comum. Se a fila de gravação passar de {@code MAX_BACKLOG}
+     * bytes, espera a thread de fundo gravar o excesso.
+     *
+     * @throws UncheckedIOException se a última gravação do diário falhou (a alteração não deve
+     *         ser aplicada), ou se a thread for interrompida enquanto espera a fila baixar.
+     */
+    public void checkWritable()
+    {
+        if (failure == null && appended.get() - drained < MAX_BACKLOG)
+            return;
+
+        LockSupport.unpark(flusher);
+        synchronized (this)
+        {
+            try
+            {
+                while (true)
+                {
+                    IOException error = failure;
+                    if (error != null)
+                        throw new UncheckedIOException("falha ao gravar o diário em " + directory, error);
+                    if (!open || !flusher.isAlive() || appended.get() - drained < MAX_BACKLOG)
+                        return;
+                    wait(FLUSH_INTERVAL_MS);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException("interrompido ao aguardar a gravação do diário em " + directory);
+                interrupted.initCause(e);
+                throw new UncheckedIOException(interrupted);
+            }
+        }
+    }
+
+    /**
+     * Bloqueia até que todos os registros anexados até o momento estejam gravados em disco.
+     *
+     * @throws IOException se a gravação do lote falhar; os registros continuam pendentes e a
+     *         gravação é tentada de novo.
+     * @throws InterruptedIOException se a thread for interrompida antes de os registros estarem
+     *         gravados (o estado de interrupção é mantido).
+     */
+    public synchronized void sync() throws IOException
+    {
+        // A marca entra na fila depois de todos os registros já anexados; quando a thread de
+        // gravação a alcança e grava o lote, eles estão em disco
+        long ticket = ++syncRequests;
+        queue.offer(SYNC_MARK);
+        LockSupport.unpark(flusher);
+
+        try
+        {
+            while (open && flusher.isAlive() && syncsDone < ticket)
+            {
+                if (failure != null)
+                    throw new IOException("falha ao gravar o diário em " + directory, failure);
+                wait(FLUSH_INTERVAL_MS);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("interrompido ao aguardar a gravação do diário em " + directory);
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+
+    /**
+     * Grava os registros pendentes e fecha o arquivo do diário.
+     */
+    @Override
+    public void close()
+    {
+        try
+        {
+            sync();
+        }
+        catch (IOException e)
+        {
+            System.err.println("Diário: registros não gravados ao fechar " + directory + ": " + e.getMessage());
+        }
+
+        open = false;
+        LockSupport.unpark(flusher);
+
+        try
+        {
+            flusher.join(1000);
+            synchronized (this)
+            {
+                if (channel != null)
+                    channel.close();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException e)
+        {
+            System.err.println("Diário: erro ao fechar " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calcula o tamanho em bytes de um produto serializado por {@link #writeProduct}.
+     */
+    static int productSize(byte[] name, byte[] kind)
+    {
+        return 4 + 2 + name.length + 2 + kind.length + 8 + 8;
+    }
+
+    /**
+     * Serializa um produto no formato compacto compartilhado pelo diário e pelo snapshot.
+     */
+    static void writeProduct(ByteBuffer buffer, Produto product, byte[] name, byte[] kind)
+    {
+        LocalDate validity = product.getValidity();
+
+        buffer.putInt(product.getCode());
+        buffer.putShort((short) name.length).put(name);
+        buffer.putShort((short) kind.length).put(kind);
+        buffer.putDouble(product.getPrice());
+        buffer.putLong(validity == null ? NO_VALIDITY : validity.toEpochDay());
+    }
+
+    /**
+     * Lê um produto gravado por {@link #writeProduct}.
+     */
+    static Produto readProduct(ByteBuffer buffer)
+    {
+        int code = buffer.getInt();
+        String name = readString(buffer);
+        String kind = readString(buffer);
+        double price = buffer.getDouble();
+        long validity = buffer.getLong();
+
+        if (validity == NO_VALIDITY)
+            return new Produto(code, name, kind, price);
+        return new Produto(code, name, kind, price, LocalDate.ofEpochDay(validity));
+    }
+
+    private static ByteBuffer begin(int payload, byte type)
+    {
+        ByteBuffer record = ByteBuffer.allocate(4 + 1 + payload + 4);
+        record.putInt(1 + payload);
+        record.put(type);
+        return record;
+    }
+
+    /**
+     * Completa o registro com o CRC e o põe na fila de gravação, sem bloquear.
+     */
+    private void end(ByteBuffer record)
+    {
+        byte[] bytes = record.array();
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 4, bytes.length - 8);
+        record.putInt((int) checksum.getValue());
+
+        queue.offer(bytes);
+        if (appended.addAndGet(bytes.length) - drained >= BATCH_THRESHOLD)
+            LockSupport.unpark(flusher);
+    }
+
+    private void flushLoop()
+    {
+        ByteBuffer batch = ByteBuffer.allocate(64 * 1024);
+        FileChannel target = null;
+        int syncs = 0;
+        boolean retry = false;
+
+        while (true)
+        {
+            // Um lote que falhou continua em batch e é gravado de novo, antes de esvaziar a fila
+            if (!retry)
+            {
+                // Espera o intervalo do lote; sync, close e uma fila grande acordam a thread antes
+                if (open)
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS));
+                if (Thread.interrupted())
+                    return;
+
+                long bytes = 0;
+                byte[] record;
+                while ((record = queue.poll()) != null)
+                {
+                    if (record == SYNC_MARK)
+                    {
+                        syncs++;
+                        continue;
+                    }
+                    if (batch.remaining() < record.length)
+                    {
+                        ByteBuffer larger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + record.length));
+                        batch.flip();
+                        larger.put(batch);
+                        batch = larger;
+                    }
+                    batch.put(record);
+                    bytes += record.length;
+                }
+                drained += bytes;
+
+                if (batch.position() == 0 && syncs == 0)
+                {
+                    if (!open)
+                        return;
+                    continue;
+                }
+
+                synchronized (this)
+                {
+                    target = channel;
+                }
+                batch.flip();
+            }
+
+            try
+            {
+                if (batch.hasRemaining())
+                {
+                    while (batch.hasRemaining())
+                        target.write(batch);
+                    target.force(false);
+                }
+            }
+            catch (IOException e)
+            {
+                System.err.println("Diário: falha ao gravar em " + directory + ": " + e.getMessage());
+                synchronized (this)
+                {
+                    failure = e;
+                    notifyAll();
+                }
+                if (!open)
+                    return;
+                retry = true;
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS));
+                if (Thread.interrupted())
+                    return;
+                continue;
+            }
+            batch.clear();
+            retry = false;
+
+            synchronized (this)
+            {
+                syncsDone += syncs;
+                failure = null;
+                notifyAll();
+            }
+            syncs = 0;
+        }
+    }
+
+    private List<Long> listGenerations() throws IOException
+    {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory))
+        {
+            for (Path file : stream)
+            {
+                String name = file.getFileName().toString();
+                if (name.startsWith("diario-") && name.endsWith(".log"))
+                    generations.add(Long.parseLong(name.substring(7, name.length() - 4)));
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path fileOf(long gen)
+    {
+        String number = Long.toString(gen);
+        return directory.resolve("diario-" + "000000".substring(Math.min(6, number.length())) + number + ".log");
+    }
+
+    private FileChannel openGeneration(long gen) throws IOException
+    {
+        return FileChannel.open(fileOf(gen), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static String readString(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
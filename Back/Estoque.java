@@ -1,5 +1,19 @@
 package Back;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Representa o estoque de produtos do sistema.
@@ -16,13 +30,99 @@ import java.util.*;
  * <ul>
  *   <li>Registrar e remover produtos - {@code registerProduct} e {@code deleteProduct}</li>
  *   <li>Adicionar e remover quantidades no estoque - {@code addStock} e {@code removeStock}</li>
+ *   <li>Reservar o carrinho durante o pagamento - {@code reserve}, que retorna uma {@link Reserva}</li>
+ *   <li>Consultar produtos por validade - {@code getProductsByValidity}, {@code getExpiredProducts} e
+ *       {@code getProductsExpiringWithin}</li>
  *   <li>Consultar informações sobre disponibilidade e nome de produtos - {@code getQuantityAvaible} e {@code getProductName}</li>
  *   <li>Listar todos os produtos em estoque - {@code listarProdutos}</li>
  * </ul>
+ * 
+ * <p>
+ * O estoque pode ser usado por vários quiosques ao mesmo tempo. Os produtos ficam em um
+ * {@link ConcurrentHashMap} e cada quantidade é um contador atômico em {@link ProdutoEmEstoque}:
+ * sem diário, {@code addStock} e {@code removeStock} não usam bloqueios, e dois quiosques nunca
+ * conseguem vender juntos a última unidade de um produto.
+ * </p>
+ *
+ * <p>
+ * Quando ligado a um {@link Diario} via {@code setJournal}, cada alteração bem-sucedida é
+ * registrada no diário para que o estoque sobreviva à reinicialização do quiosque. Nesse caso,
+ * a alteração e o seu registro são feitos juntos sob dois bloqueios: o do próprio produto (para
+ * que o diário tenha as operações de cada produto na mesma ordem em que foram aplicadas) e a
+ * parte compartilhada da {@link BarreiraPontoDeControle}, que o {@link SnapshotSistema} adquire
+ * de forma exclusiva para capturar um estado consistente com o diário. A barreira é dividida em
+ * faixas por thread, então quiosques vendendo produtos diferentes não disputam nenhum bloqueio;
+ * vendas do mesmo produto são serializadas, e todas esperam enquanto um snapshot é capturado. O
+ * registro em si entra na fila sem bloqueio do diário, que continua sendo um ponto compartilhado.
+ * Se o diário não estiver conseguindo gravar, as alterações (inclusive {@code reserve}) lançam
+ * {@link java.io.UncheckedIOException} antes de mudar qualquer coisa.
+ * </p>
+ *
+ * <p>
+ * Os produtos com validade também ficam em um índice ordenado pela data de validade, mantido no
+ * cadastro, na remoção e em {@code setValidity}. Assim, "vencidos", "vencem hoje" e "vencem nos
+ * próximos N dias" são consultas por intervalo, sem percorrer o catálogo. A validade de um produto
+ * registrado deve ser alterada por {@code setValidity}, e não diretamente no {@link Produto}, para
+ * manter o índice. Com {@code startExpirySweeper}, uma thread de fundo avisa os
+ * {@link OuvinteValidade} registrados a cada virada de dia, com os produtos que acabaram de vencer.
+ * </p>
+ *
+ * <p>
+ * Os {@link OuvinteEstoque} registrados são avisados de cada produto cadastrado, alterado ou
+ * removido, um produto por aviso, para que as telas atualizem só a linha afetada.
+ * </p>
  */
 public class Estoque
 {
     private Map<Integer, ProdutoEmEstoque> productsStock;
+    private volatile Diario journal;
+    private final BarreiraPontoDeControle checkpoint = new BarreiraPontoDeControle();
+    private final ConcurrentSkipListSet<Reserva> expirations = new ConcurrentSkipListSet<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final AtomicBoolean sweeperStarted = new AtomicBoolean();
+    private volatile Thread sweeper;
+    private final ConcurrentSkipListSet<Long> validityIndex = new ConcurrentSkipListSet<>();
+    private final List<OuvinteValidade> expiryListeners = new CopyOnWriteArrayList<>();
+    private final List<OuvinteEstoque> stockListeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean expirySweeperStarted = new AtomicBoolean();
+    private volatile LocalDate lastExpirySweep;
+    private final AtomicLong catalogueVersion = new AtomicLong();
+
+    /**
+     * Recebe os avisos de vencimento de produtos do {@link Estoque}.
+     */
+    @FunctionalInterface
+    public interface OuvinteValidade
+    {
+        /**
+         * Chamado na virada do dia, com os produtos que venceram desde o último aviso (a lista
+         * pode estar vazia), ou quando {@code setValidity} torna um produto vencido.
+         * 
+         * Chamado na thread de verificação de validade ou na thread que alterou a validade.
+         * 
+         * @param today a data atual.
+         * @param expired os produtos que acabaram de vencer, em ordem de validade.
+         */
+        void productsExpired(LocalDate today, List<ProdutoEmEstoque> expired);
+    }
+
+    /**
+     * Recebe os avisos de alteração de produtos do {@link Estoque}.
+     */
+    @FunctionalInterface
+    public interface OuvinteEstoque
+    {
+        /**
+         * Chamado depois que um produto é cadastrado, restaurado ou removido, ou quando a sua
+         * quantidade disponível ou a sua validade muda (inclusive por reservas de compras).
+         * 
+         * Chamado na thread que fez a alteração, fora dos bloqueios do estoque.
+         * 
+         * @param code o código do produto.
+         * @param entry o produto como está no estoque, ou {@code null} se ele foi removido.
+         */
+        void productChanged(int code, ProdutoEmEstoque entry);
+    }
     
     /**
      * Construtor da classe {@code Estoque}.
@@ -30,7 +130,41 @@ public class Estoque
      */
     public Estoque()
     {
-        productsStock = new HashMap<>();
+        productsStock = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Liga o estoque a um {@link Diario}, que passa a registrar todas as alterações.
+     * 
+     * Deve ser chamado somente após a reprodução do diário, para que as operações
+     * reproduzidas não sejam registradas novamente.
+     * 
+     * @param journal o diário de operações, ou {@code null} para desligar o registro.
+     */
+    public void setJournal(Diario journal)
+    {
+        checkpoint.lockExclusive();
+        try
+        {
+            this.journal = journal;
+        }
+        finally
+        {
+            checkpoint.unlockExclusive();
+        }
+    }
+
+    /**
+     * Retorna a barreira de ponto de controle.
+     * 
+     * Enquanto a sua parte exclusiva estiver adquirida, nenhuma alteração registrada no diário está
+     * em andamento, e o estado do estoque corresponde exatamente ao que foi registrado.
+     * 
+     * @return a barreira usada pelo {@link SnapshotSistema}.
+     */
+    BarreiraPontoDeControle checkpoint()
+    {
+        return checkpoint;
     }
 
     /**
@@ -53,14 +187,70 @@ public class Estoque
     public boolean registerProduct(Produto product)
     {
         int code = product.getCode();
+        ProdutoEmEstoque entry = new ProdutoEmEstoque(product, 0);
+        Diario journal = this.journal;
 
-        if (productsStock.containsKey(code))
-            return false;
-        else
+        if (journal == null)
         {
-            productsStock.put(code, new ProdutoEmEstoque(product, 0));
+            if (productsStock.putIfAbsent(code, entry) != null)
+                return false;
+            indexValidity(product);
+            catalogueVersion.incrementAndGet();
+            notifyChanged(code, entry);
             return true;
         }
+
+        journal.checkWritable();
+        Lock shared = checkpoint.shared();
+        shared.lock();
+        try
+        {
+            synchronized (entry)
+            {
+                if (productsStock.putIfAbsent(code, entry) != null)
+                    return false;
+                journal.logRegister(product);
+                indexValidity(product);
+                catalogueVersion.incrementAndGet();
+            }
+        }
+        finally
+        {
+            shared.unlock();
+        }
+        notifyChanged(code, entry);
+        return true;
+    }
+
+    /**
+     * Restaura um produto com a quantidade informada, sem registrá-lo no diário.
+     * 
+     * Usado na carga do {@link SnapshotSistema}, quando o estoque ainda está vazio.
+     * 
+     * @param product o {@link Produto} a ser restaurado.
+     * @param amount a quantidade em estoque.
+     */
+    void restoreProduct(Produto product, int amount)
+    {
+        ProdutoEmEstoque entry = new ProdutoEmEstoque(product, amount);
+        ProdutoEmEstoque previous = productsStock.put(product.getCode(), entry);
+        if (previous != null)
+            unindexValidity(previous.getProduct());
+        indexValidity(product);
+        catalogueVersion.incrementAndGet();
+        notifyChanged(product.getCode(), entry);
+    }
+
+    /**
+     * Prepara o mapa de produtos para receber a quantidade informada de produtos sem
+     * redimensionamentos. Só tem efeito enquanto o estoque estiver vazio.
+     * 
+     * @param expected a quantidade de produtos esperada.
+     */
+    void expectProducts(int expected)
+    {
+        if (productsStock.isEmpty())
+            productsStock = new ConcurrentHashMap<>(expected);
     }
 
     /**
@@ -72,13 +262,89 @@ public class Estoque
      */
     public boolean deleteProduct(int code)
     {
-        if (productsStock.containsKey(code))
+        ProdutoEmEstoque entry = productsStock.get(code);
+        Diario journal = this.journal;
+
+        if (entry == null)
+            return false;
+        if (journal == null)
         {
-            productsStock.remove(code);
+            if (!productsStock.remove(code, entry))
+                return false;
+            unindexValidity(entry.getProduct());
+            catalogueVersion.incrementAndGet();
+            notifyChanged(code, null);
             return true;
-        } 
-        else
+        }
+
+        journal.checkWritable();
+        Lock shared = checkpoint.shared();
+        shared.lock();
+        try
+        {
+            synchronized (entry)
+            {
+                if (!productsStock.remove(code, entry))
+                    return false;
+                journal.logDelete(code);
+                unindexValidity(entry.getProduct());
+                catalogueVersion.incrementAndGet();
+            }
+        }
+        finally
+        {
+            shared.unlock();
+        }
+        notifyChanged(code, null);
+        return true;
+    }
+
+    /**
+     * Altera a data de validade de um produto registrado, atualizando o índice de validade.
+     * 
+     * Se a nova validade já passou e a verificação de validade estiver ativa, os
+     * {@link OuvinteValidade} são avisados imediatamente.
+     * 
+     * @param code o código do produto.
+     * @param validity a nova data de validade, ou {@code null} para um produto sem validade.
+     * @return {@code true} se o produto existir; {@code false} caso contrário.
+     */
+    public boolean setValidity(int code, LocalDate validity)
+    {
+        ProdutoEmEstoque entry = productsStock.get(code);
+        Diario journal = this.journal;
+
+        if (entry == null)
             return false;
+
+        if (journal != null)
+            journal.checkWritable();
+        Lock shared = checkpoint.shared();
+        shared.lock();
+        try
+        {
+            synchronized (entry)
+            {
+                if (productsStock.get(code) != entry)
+                    return false;
+                unindexValidity(entry.getProduct());
+                entry.getProduct().setValidity(validity);
+                indexValidity(entry.getProduct());
+                if (journal != null)
+                    journal.logSetValidity(code, validity);
+                catalogueVersion.incrementAndGet();
+            }
+        }
+        finally
+        {
+            shared.unlock();
+        }
+
+        notifyChanged(code, entry);
+        LocalDate today = lastExpirySweep;
+        if (today != null && validity != null && validity.isBefore(today))
+            notifyExpired(today, List.of(entry));
+        return true;
     }
 
     /**
@@ -91,13 +357,37 @@ public class Estoque
      */
     public boolean addStock(int code, int quantity)
     {
-        if (!productsStock.containsKey(code) || quantity<=0)
+        ProdutoEmEstoque entry = productsStock.get(code);
+        Diario journal = this.journal;
+
+        if (entry == null || quantity<=0)
             return false;
-        else
+        if (journal == null)
         {
-            productsStock.get(code).addStock(quantity);
+            if (!entry.addStock(quantity))
+                return false;
+            notifyChanged(code, entry);
             return true;
         }
+
+        journal.checkWritable();
+        Lock shared = checkpoint.shared();
+        shared.lock();
+        try
+        {
+            synchronized (entry)
+            {
+                if (productsStock.get(code) != entry || !entry.addStock(quantity))
+                    return false;
+                journal.logAddStock(code, quantity);
+            }
+        }
+        finally
+        {
+            shared.unlock();
+        }
+        notifyChanged(code, entry);
+        return true;
     }
 
     /**
@@ -110,13 +400,467 @@ public class Estoque
      */
     public boolean removeStock(int code, int quantity)
     {
-        if (!productsStock.containsKey(code) || quantity<=0)
+        ProdutoEmEstoque entry = productsStock.get(code);
+        Diario journal = this.journal;
+
+        if (entry == null || quantity<=0)
             return false;
-        
-        if (productsStock.get(code).removeStock(quantity))
+        if (journal == null)
+        {
+            if (!entry.removeStock(quantity))
+                return false;
+            notifyChanged(code, entry);
             return true;
+        }
+
+        journal.checkWritable();
+        Lock shared = checkpoint.shared();
+        shared.lock();
+        try
+        {
+            synchronized (entry)
+            {
+                if (productsStock.get(code) != entry || !entry.removeStock(quantity))
+                    return false;
+                journal.logRemoveStock(code, quantity);
+            }
+        }
+        finally
+        {
+            shared.unlock();
+        }
+        notifyChanged(code, entry);
+        return true;
+    }
+
+    /**
+     * Reserva atomicamente todas as quantidades de um carrinho.
+     * 
+     * As unidades reservadas deixam de estar disponíveis para outros quiosques até que a
+     * {@link Reserva} seja confirmada ({@code commit}), cancelada ({@code release}) ou expire.
+     * A reserva é tudo ou nada: se algum item não tiver estoque suficiente, o que já havia sido
+     * reservado é devolvido e nada muda. Os itens são reservados em ordem crescente de código, de
+     * modo que dois carrinhos com produtos em comum disputam sempre primeiro o mesmo produto e
+     * nunca ficam, cada um, com parte do que o outro precisa. Nenhum bloqueio é usado.
+     * 
+     * Reservas expiradas são liberadas por uma thread de fundo, iniciada na primeira reserva. As
+     * reservas ativas ficam em um conjunto ordenado por prazo e sem bloqueio, do qual saem assim
+     * que são confirmadas ou liberadas.
+     * 
+     * @param cart o carrinho, com o código do produto e a quantidade desejada.
+     * @param ttl o prazo da reserva.
+     * @param unit a unidade de tempo de {@code ttl}.
+     * @return a reserva criada; ou {@code null} se algum produto não existir ou não tiver estoque suficiente.
+     * @throws java.io.UncheckedIOException se o estoque estiver ligado a um {@link Diario} que não está conseguindo gravar.
+     */
+    public Reserva reserve(Map<Integer, Integer> cart, long ttl, TimeUnit unit)
+    {
+        // Uma compra que não poderia ser registrada no diário é recusada antes do pagamento
+        Diario journal = this.journal;
+        if (journal != null)
+            journal.checkWritable();
+
+        int lines = 0;
+        int[] codes = new int[cart.size()];
+        for (Map.Entry<Integer, Integer> item : cart.entrySet())
+            if (item.getValue() > 0)
+                codes[lines++] = item.getKey();
+
+        codes = Arrays.copyOf(codes, lines);
+        Arrays.sort(codes);
+
+        int[] quantities = new int[lines];
+        ProdutoEmEstoque[] entries = new ProdutoEmEstoque[lines];
+        for (int i = 0; i < lines; i++)
+        {
+            quantities[i] = cart.get(codes[i]);
+            entries[i] = productsStock.get(codes[i]);
+            if (entries[i] == null)
+                return null;
+        }
+
+        if (!reserveEntries(quantities, entries))
+            return null;
+
+        Reserva reservation = new Reserva(this, reservationIds.incrementAndGet(), codes, quantities, entries, unit.toNanos(ttl));
+        expirations.add(reservation);
+        startSweeper();
+
+        // Só é preciso acordar o varredor se esta reserva vence antes da que ele está esperando
+        Thread sweeper = this.sweeper;
+        if (sweeper != null && expirations.headSet(reservation).isEmpty())
+            LockSupport.unpark(sweeper);
+        notifyChanged(codes, entries);
+        return reservation;
+    }
+
+    /**
+     * Confirma uma reserva, retirando definitivamente as unidades reservadas.
+     * 
+     * @see Reserva#commit()
+     */
+    boolean commitReservation(Reserva reservation)
+    {
+        Diario journal = this.journal;
+        if (journal != null)
+            journal.checkWritable();
+
+        if (reservation.transition(Reserva.ACTIVE, Reserva.COMMITTED))
+            expirations.remove(reservation);
         else
+        {
+            if (reservation.getState() != Reserva.EXPIRED)
+                return false;
+            if (!reserveEntries(reservation.getQuantities(), reservation.getEntries()))
+                return false;
+            if (!reservation.transition(Reserva.EXPIRED, Reserva.COMMITTED))
+            {
+                releaseEntries(reservation.getQuantities(), reservation.getEntries(), reservation.getEntries().length);
+                return false;
+            }
+            notifyChanged(reservation.getCodes(), reservation.getEntries());
+        }
+
+        int[] codes = reservation.getCodes();
+        int[] quantities = reservation.getQuantities();
+        ProdutoEmEstoque[] entries = reservation.getEntries();
+
+        if (journal == null)
+        {
+            for (int i = 0; i < entries.length; i++)
+                entries[i].commitReserved(quantities[i]);
+            return true;
+        }
+
+        Lock shared = checkpoint.shared();
+        shared.lock();
+        try
+        {
+            for (int i = 0; i < entries.length; i++)
+            {
+                synchronized (entries[i])
+                {
+                    entries[i].commitReserved(quantities[i]);
+                    if (productsStock.get(codes[i]) == entries[i])
+                        journal.logRemoveStock(codes[i], quantities[i]);
+                }
+            }
+            return true;
+        }
+        finally
+        {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Libera uma reserva ativa, devolvendo as unidades ao estoque disponível.
+     * 
+     * @param reservation a reserva.
+     * @param finalState {@code Reserva.RELEASED} (cancelamento) ou {@code Reserva.EXPIRED} (prazo esgotado).
+     * @return {@code true} se a reserva estava ativa e foi liberada.
+     */
+    boolean releaseReservation(Reserva reservation, int finalState)
+    {
+        if (!reservation.transition(Reserva.ACTIVE, finalState))
             return false;
+        expirations.remove(reservation);
+        releaseEntries(reservation.getQuantities(), reservation.getEntries(), reservation.getEntries().length);
+        notifyChanged(reservation.getCodes(), reservation.getEntries());
+        return true;
+    }
+
+    private static boolean reserveEntries(int[] quantities, ProdutoEmEstoque[] entries)
+    {
+        for (int i = 0; i < entries.length; i++)
+        {
+            if (!entries[i].reserve(quantities[i]))
+            {
+                releaseEntries(quantities, entries, i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void releaseEntries(int[] quantities, ProdutoEmEstoque[] entries, int count)
+    {
+        for (int i = 0; i < count; i++)
+            entries[i].release(quantities[i]);
+    }
+
+    /**
+     * Retorna a versão do catálogo: um contador que só cresce, incrementado a cada produto
+     * cadastrado, restaurado ou removido e a cada mudança de validade. Usado pelo
+     * {@link CacheRelatorios} para descartar relatórios desatualizados.
+     * 
+     * @return a versão atual.
+     */
+    public long getCatalogueVersion()
+    {
+        return catalogueVersion.get();
+    }
+
+    /**
+     * Retorna os produtos com validade entre duas datas (inclusive), em ordem de validade.
+     * 
+     * Consulta o índice de validade, sem percorrer o catálogo.
+     * 
+     * @param startDate a primeira data de validade.
+     * @param endDate a última data de validade.
+     * @return os produtos do período, do que vence primeiro ao que vence por último.
+     */
+    public List<ProdutoEmEstoque> getProductsByValidity(LocalDate startDate, LocalDate endDate)
+    {
+        if (startDate.isAfter(endDate))
+            return new ArrayList<>();
+        return validityRange(validityKey(startDate.toEpochDay(), Integer.MIN_VALUE),
+                validityKey(endDate.toEpochDay() + 1, Integer.MIN_VALUE));
+    }
+
+    /**
+     * Retorna os produtos vencidos (com validade anterior a {@code today}), em ordem de validade.
+     * 
+     * @param today a data de referência.
+     * @return os produtos vencidos.
+     */
+    public List<ProdutoEmEstoque> getExpiredProducts(LocalDate today)
+    {
+        return validityRange(Long.MIN_VALUE, validityKey(today.toEpochDay(), Integer.MIN_VALUE));
+    }
+
+    /**
+     * Retorna os produtos que vencem de {@code today} até {@code days} dias depois (inclusive),
+     * em ordem de validade. Com {@code days} igual a zero, retorna os produtos que vencem hoje.
+     * 
+     * @param today a data de referência.
+     * @param days a quantidade de dias após {@code today}.
+     * @return os produtos que vencem no período.
+     */
+    public List<ProdutoEmEstoque> getProductsExpiringWithin(LocalDate today, int days)
+    {
+        return getProductsByValidity(today, today.plusDays(days));
+    }
+
+    /**
+     * Retorna todos os produtos com validade, em ordem de validade.
+     * 
+     * @return os produtos com validade.
+     */
+    public List<ProdutoEmEstoque> getProductsWithValidity()
+    {
+        return validityRange(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Registra um {@link OuvinteValidade}, avisado a cada virada de dia após {@code startExpirySweeper}.
+     * 
+     * @param listener o ouvinte a ser registrado.
+     */
+    public void addExpiryListener(OuvinteValidade listener)
+    {
+        expiryListeners.add(listener);
+    }
+
+    /**
+     * Remove um {@link OuvinteValidade} registrado.
+     * 
+     * @param listener o ouvinte a ser removido.
+     */
+    public void removeExpiryListener(OuvinteValidade listener)
+    {
+        expiryListeners.remove(listener);
+    }
+
+    /**
+     * Registra um {@link OuvinteEstoque}, avisado a cada produto cadastrado, alterado ou removido.
+     * 
+     * @param listener o ouvinte a ser registrado.
+     */
+    public void addStockListener(OuvinteEstoque listener)
+    {
+        stockListeners.add(listener);
+    }
+
+    /**
+     * Remove um {@link OuvinteEstoque} registrado.
+     * 
+     * @param listener o ouvinte a ser removido.
+     */
+    public void removeStockListener(OuvinteEstoque listener)
+    {
+        stockListeners.remove(listener);
+    }
+
+    /**
+     * Inicia a verificação de validade no fuso horário do sistema.
+     * 
+     * @see #startExpirySweeper(ZoneId)
+     */
+    public void startExpirySweeper()
+    {
+        startExpirySweeper(ZoneId.systemDefault());
+    }
+
+    /**
+     * Inicia uma thread de fundo que, a cada meia-noite do fuso informado, avisa os
+     * {@link OuvinteValidade} com os produtos que venceram desde a verificação anterior.
+     * 
+     * Só tem efeito na primeira chamada. Os produtos já vencidos no início não são avisados:
+     * podem ser consultados com {@code getExpiredProducts}.
+     * 
+     * @param zone o fuso horário que define a virada do dia.
+     */
+    public void startExpirySweeper(ZoneId zone)
+    {
+        if (!expirySweeperStarted.compareAndSet(false, true))
+            return;
+
+        lastExpirySweep = LocalDate.now(zone);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "validade");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleExpirySweep(scheduler, zone);
+    }
+
+    private void scheduleExpirySweep(ScheduledExecutorService scheduler, ZoneId zone)
+    {
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        long delay = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay(zone)).toMillis();
+        scheduler.schedule(() -> {
+            sweepExpired(LocalDate.now(zone));
+            scheduleExpirySweep(scheduler, zone);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Avisa os produtos que venceram entre a última verificação e {@code today}.
+     * Não faz nada se o dia ainda não virou.
+     */
+    void sweepExpired(LocalDate today)
+    {
+        LocalDate last = lastExpirySweep;
+        if (last == null || !today.isAfter(last))
+            return;
+
+        lastExpirySweep = today;
+        notifyExpired(today, getProductsByValidity(last, today.minusDays(1)));
+    }
+
+    /**
+     * Avisa os {@link OuvinteEstoque} da alteração de um produto.
+     */
+    private void notifyChanged(int code, ProdutoEmEstoque entry)
+    {
+        for (OuvinteEstoque listener : stockListeners)
+        {
+            try
+            {
+                listener.productChanged(code, entry);
+            }
+            catch (RuntimeException e)
+            {
+                System.err.println("Estoque: erro ao avisar a alteração de um produto: " + e);
+            }
+        }
+    }
+
+    private void notifyChanged(int[] codes, ProdutoEmEstoque[] entries)
+    {
+        if (stockListeners.isEmpty())
+            return;
+        for (int i = 0; i < codes.length; i++)
+            notifyChanged(codes[i], entries[i]);
+    }
+
+    private void notifyExpired(LocalDate today, List<ProdutoEmEstoque> expired)
+    {
+        for (OuvinteValidade listener : expiryListeners)
+        {
+            try
+            {
+                listener.productsExpired(today, expired);
+            }
+            catch (RuntimeException e)
+            {
+                System.err.println("Estoque: erro ao avisar o vencimento de produtos: " + e);
+            }
+        }
+    }
+
+    /**
+     * Chave do índice de validade: o dia da validade nos 32 bits altos e o código do produto nos
+     * 32 bits baixos, para que a ordem das chaves seja a ordem das validades.
+     */
+    private static long validityKey(long epochDay, int code)
+    {
+        return ((long) Math.clamp(epochDay, Integer.MIN_VALUE, Integer.MAX_VALUE) << 32) + (code - (long) Integer.MIN_VALUE);
+    }
+
+    private void indexValidity(Produto product)
+    {
+        LocalDate validity = product.getValidity();
+        if (validity != null)
+            validityIndex.add(validityKey(validity.toEpochDay(), product.getCode()));
+    }
+
+    private void unindexValidity(Produto product)
+    {
+        LocalDate validity = product.getValidity();
+        if (validity == null)
+            return;
+
+        long key = validityKey(validity.toEpochDay(), product.getCode());
+        validityIndex.remove(key);
+
+        // Outro produto de mesmo código e mesma validade pode ter sido cadastrado nesse meio-tempo
+        ProdutoEmEstoque current = productsStock.get(product.getCode());
+        if (current != null && validity.equals(current.getProduct().getValidity()))
+            validityIndex.add(key);
+    }
+
+    private List<ProdutoEmEstoque> validityRange(long fromKey, long toKey)
+    {
+        List<ProdutoEmEstoque> products = new ArrayList<>();
+        for (long key : validityIndex.subSet(fromKey, true, toKey, false))
+        {
+            int code = (int) (key - (key >> 32 << 32) + Integer.MIN_VALUE);
+            ProdutoEmEstoque entry = productsStock.get(code);
+            LocalDate validity = (entry == null) ? null : entry.getProduct().getValidity();
+            if (validity != null && validityKey(validity.toEpochDay(), code) == key)
+                products.add(entry);
+        }
+        return products;
+    }
+
+    private void startSweeper()
+    {
+        if (!sweeperStarted.compareAndSet(false, true))
+            return;
+
+        Thread sweeper = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted())
+            {
+                Iterator<Reserva> pending = expirations.iterator();
+                if (!pending.hasNext())
+                {
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                Reserva next = pending.next();
+                long delay = next.getDelay(TimeUnit.NANOSECONDS);
+                if (delay > 0)
+                    LockSupport.parkNanos(this, delay);
+                else if (expirations.remove(next))
+                    releaseReservation(next, Reserva.EXPIRED);
+            }
+        }, "reservas");
+        sweeper.setDaemon(true);
+        this.sweeper = sweeper;
+        sweeper.start();
     }
 
     /**
@@ -127,7 +871,8 @@ public class Estoque
      */
     public int getQuantityAvaible(int code)
     {
-        return (productsStock.containsKey(code)) ?  productsStock.get(code).getAmountStock() : 0;
+        ProdutoEmEstoque entry = productsStock.get(code);
+        return (entry != null) ? entry.getAmountStock() : 0;
     }
     
     /**
@@ -138,9 +883,10 @@ public class Estoque
      */
     public String getProductName(int code)
     {
-        if (isProductInStock(code))
+        ProdutoEmEstoque entry = productsStock.get(code);
+        if (entry != null)
         {
-            return productsStock.get(code).getProduct().getName();
+            return entry.getProduct().getName();
         }
         else
             return null;
@@ -0,0 +1,84 @@
+package Back;
+
+/**
+ * Linha imutável de um {@link Pedido}: o produto, a quantidade e o preço unitário cobrado.
+ *
+ * <p>
+ * O nome e o preço são copiados do {@link Produto} no momento da venda. Assim, os relatórios
+ * não dependem do {@link Estoque}: continuam corretos depois que o produto muda de preço ou
+ * é excluído.
+ * </p>
+ */
+public final class ItemPedido
+{
+    private final int code;
+    private final String name;
+    private final int quantity;
+    private final long unitPriceCents;
+
+    /**
+     * Construtor da classe {@code ItemPedido}.
+     *
+     * @param code o código do produto.
+     * @param name o nome do produto no momento da venda.
+     * @param quantity a quantidade vendida.
+     * @param unitPriceCents o preço unitário em centavos.
+     */
+    public ItemPedido(int code, String name, int quantity, long unitPriceCents)
+    {
+        this.code = code;
+        this.name = name;
+        this.quantity = quantity;
+        this.unitPriceCents = unitPriceCents;
+    }
+
+    /**
+     * Retorna o código do produto.
+     *
+     * @return o código.
+     */
+    public int getCode()
+    {
+        return code;
+    }
+
+    /**
+     * Retorna o nome do produto no momento da venda.
+     *
+     * @return o nome.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Retorna a quantidade vendida.
+     *
+     * @return a quantidade.
+     */
+    public int getQuantity()
+    {
+        return quantity;
+    }
+
+    /**
+     * Retorna o preço unitário cobrado.
+     *
+     * @return o preço em centavos.
+     */
+    public long getUnitPriceCents()
+    {
+        return unitPriceCents;
+    }
+
+    /**
+     * Retorna o valor da linha (quantidade × preço unitário).
+     *
+     * @return o valor em centavos.
+     */
+    public long getTotalCents()
+    {
+        return quantity * unitPriceCents;
+    }
+}
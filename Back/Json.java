@@ -0,0 +1,274 @@
+package Back;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura e escrita mínimas de JSON usadas pelo {@link ServidorCheckout} e pelo {@link ClienteCheckout}.
+ *
+ * <p>
+ * A leitura converte o texto em {@code Map<String, Object>} (objetos), {@code List<Object>}
+ * (vetores), {@code Long} ou {@code Double} (números), {@code String}, {@code Boolean} e
+ * {@code null}. A escrita é feita pelo próprio chamador com um {@link StringBuilder};
+ * {@link #quote(StringBuilder, String)} cuida do escape de textos.
+ * </p>
+ */
+final class Json
+{
+    private final String text;
+    private int position;
+
+    private Json(String text)
+    {
+        this.text = text;
+    }
+
+    /**
+     * Converte um texto JSON em objetos Java.
+     *
+     * @param text o texto JSON.
+     * @return o valor lido.
+     * @throws IllegalArgumentException se o texto não for um JSON válido.
+     */
+    static Object parse(String text)
+    {
+        Json parser = new Json(text);
+        Object value = parser.value();
+        parser.skipSpaces();
+        if (parser.position != text.length())
+            throw parser.error("fim do texto esperado");
+        return value;
+    }
+
+    /**
+     * Converte um texto JSON que deve ser um objeto.
+     *
+     * @param text o texto JSON.
+     * @return o objeto lido.
+     * @throws IllegalArgumentException se o texto não for um objeto JSON válido.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(String text)
+    {
+        Object value = parse(text);
+        if (!(value instanceof Map))
+            throw new IllegalArgumentException("Objeto JSON esperado");
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Escreve um texto entre aspas, com os caracteres especiais escapados.
+     *
+     * @param out o destino.
+     * @param value o texto (ou {@code null}).
+     */
+    static void quote(StringBuilder out, String value)
+    {
+        if (value == null)
+        {
+            out.append("null");
+            return;
+        }
+
+        out.append('"');
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            switch (c)
+            {
+                case '"':  out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20)
+                        out.append(String.format("\\u%04x", (int) c));
+                    else
+                        out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private Object value()
+    {
+        skipSpaces();
+        if (position >= text.length())
+            throw error("valor esperado");
+
+        char c = text.charAt(position);
+        switch (c)
+        {
+            case '{': return object();
+            case '[': return array();
+            case '"': return string();
+            case 't': return literal("true", Boolean.TRUE);
+            case 'f': return literal("false", Boolean.FALSE);
+            case 'n': return literal("null", null);
+            default:  return number();
+        }
+    }
+
+    private Map<String, Object> object()
+    {
+        Map<String, Object> result = new LinkedHashMap<>();
+        position++;
+        skipSpaces();
+        if (peek() == '}')
+        {
+            position++;
+            return result;
+        }
+
+        while (true)
+        {
+            skipSpaces();
+            if (peek() != '"')
+                throw error("nome de campo esperado");
+            String key = string();
+            skipSpaces();
+            expect(':');
+            result.put(key, value());
+            skipSpaces();
+            if (peek() == ',')
+                position++;
+            else
+            {
+                expect('}');
+                return result;
+            }
+        }
+    }
+
+    private List<Object> array()
+    {
+        List<Object> result = new ArrayList<>();
+        position++;
+        skipSpaces();
+        if (peek() == ']')
+        {
+            position++;
+            return result;
+        }
+
+        while (true)
+        {
+            result.add(value());
+            skipSpaces();
+            if (peek() == ',')
+                position++;
+            else
+            {
+                expect(']');
+                return result;
+            }
+        }
+    }
+
+    private String string()
+    {
+        position++;
+        StringBuilder out = null;
+        int start = position;
+
+        while (position < text.length())
+        {
+            char c = text.charAt(position);
+            if (c == '"')
+            {
+                String tail = text.substring(start, position++);
+                return (out == null) ? tail : out.append(tail).toString();
+            }
+            if (c == '\\')
+            {
+                if (out == null)
+                    out = new StringBuilder();
+                out.append(text, start, position);
+                if (position + 1 >= text.length())
+                    throw error("escape incompleto");
+                char escaped = text.charAt(position + 1);
+                position += 2;
+                switch (escaped)
+                {
+                    case 'n': out.append('\n'); break;
+                    case 'r': out.append('\r'); break;
+                    case 't': out.append('\t'); break;
+                    case 'b': out.append('\b'); break;
+                    case 'f': out.append('\f'); break;
+                    case 'u':
+                        if (position + 4 > text.length())
+                            throw error("escape incompleto");
+                        out.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default: out.append(escaped);
+                }
+                start = position;
+            }
+            else
+                position++;
+        }
+        throw error("texto sem fim");
+    }
+
+    private Object number()
+    {
+        int start = position;
+        boolean decimal = false;
+        while (position < text.length())
+        {
+            char c = text.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E')
+                decimal = true;
+            else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9')))
+                break;
+            position++;
+        }
+        if (start == position)
+            throw error("valor inesperado");
+
+        String number = text.substring(start, position);
+        try
+        {
+            return decimal ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+        }
+        catch (NumberFormatException e)
+        {
+            throw error("número inválido");
+        }
+    }
+
+    private Object literal(String word, Object value)
+    {
+        if (!text.startsWith(word, position))
+            throw error("valor inesperado");
+        position += word.length();
+        return value;
+    }
+
+    private void expect(char c)
+    {
+        if (peek() != c)
+            throw error("'" + c + "' esperado");
+        position++;
+    }
+
+    private char peek()
+    {
+        return (position < text.length()) ? text.charAt(position) : '\0';
+    }
+
+    private void skipSpaces()
+    {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position)))
+            position++;
+    }
+
+    private IllegalArgumentException error(String message)
+    {
+        return new IllegalArgumentException("JSON inválido na posição " + position + ": " + message);
+    }
+}
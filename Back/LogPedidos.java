@@ -0,0 +1,728 @@
+package Back;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Log segmentado e somente de acréscimo dos pedidos registrados no sistema.
+ *
+ * <p>
+ * Os pedidos são gravados em arquivos de segmento de tamanho fixo, mapeados em memória
+ * ({@link MappedByteBuffer}), dentro do diretório informado em {@code open}. Assim, o histórico
+ * de pedidos fica fora do heap da JVM: a iteração decodifica cada pedido sob demanda diretamente
+ * dos segmentos mapeados, e milhões de pedidos antigos não ocupam memória de objetos.
+ * </p>
+ *
+ * <p>
+ * Cada segmento começa com um cabeçalho de {@code HEADER_SIZE} bytes ({@code MAGIC} e versão),
+ * seguido dos registros. Cada linha guarda o preço cobrado e o nome do produto ({@link ItemPedido}):
+ * </p>
+ * <pre>
+ * [int número][int dia (epoch day)][short quantidade de itens][int bytes das linhas]
+ *     ([int código][int quantidade][int preço em centavos][short bytes do nome][nome em UTF-8])*
+ * </pre>
+ * <p>
+ * O número do pedido é gravado por último, depois do restante do registro. Como os segmentos
+ * começam zerados, um número igual a zero marca o fim dos dados, e uma gravação interrompida
+ * nunca produz um registro parcialmente visível.
+ * </p>
+ *
+ * <p>
+ * Para os relatórios por período, o log mantém um índice por dia ({@code between}): para cada
+ * dia, os trechos contíguos do log com pedidos daquele dia. O índice é montado na primeira consulta,
+ * lendo apenas os cabeçalhos dos registros, e depois é atualizado a cada {@code append}; assim, uma
+ * consulta de um dia decodifica somente os pedidos daquele dia, qualquer que seja o tamanho do histórico.
+ * </p>
+ *
+ * <p>
+ * Também pode funcionar inteiramente em memória ({@code inMemory}), sem arquivos.
+ * </p>
+ */
+public class LogPedidos implements Iterable<Pedido>, Closeable
+{
+    static final int MAGIC = 0x50454431; // "PED1"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_HEADER = 4 + 4 + 2 + 4;
+    static final int LINE_HEADER = 4 + 4 + 4 + 2;
+
+    private static final int FILE_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int MEMORY_SEGMENT_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private int writeOffset;
+    private int highestOrderNumber;
+    private long count;
+    private volatile long end;
+    private NavigableMap<Integer, Dia> days;
+    private int lastIndexedDay = Integer.MIN_VALUE;
+
+    private LogPedidos(Path directory, int segmentSize)
+    {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Cria um log de pedidos mantido apenas em memória, sem persistência.
+     *
+     * @return o log em memória.
+     */
+    public static LogPedidos inMemory()
+    {
+        LogPedidos log = new LogPedidos(null, MEMORY_SEGMENT_SIZE);
+        log.newSegment();
+        return log;
+    }
+
+    /**
+     * Abre (ou cria) o log de pedidos no diretório informado.
+     *
+     * Todos os segmentos existentes são mapeados em memória e percorridos para encontrar
+     * o ponto de continuação da escrita.
+     *
+     * @param directory o diretório dos arquivos de segmento.
+     * @return o log aberto.
+     * @throws IOException se os segmentos não puderem ser abertos ou estiverem corrompidos.
+     */
+    public static LogPedidos open(Path directory) throws IOException
+    {
+        return open(directory, 0, 0, 0);
+    }
+
+    /**
+     * Abre (ou cria) o log de pedidos no diretório informado, retomando a partir de uma
+     * posição conhecida (normalmente gravada em um {@link SnapshotSistema}).
+     *
+     * Apenas os pedidos gravados depois de {@code knownEnd} são percorridos, o que torna a
+     * abertura independente do tamanho do histórico.
+     *
+     * @param directory o diretório dos arquivos de segmento.
+     * @param knownEnd uma posição já conhecida, obtida com {@link #getEnd()}, ou {@code 0}.
+     * @param knownCount a quantidade de pedidos gravados até {@code knownEnd}.
+     * @param knownHighestOrder o maior número de pedido gravado até {@code knownEnd}.
+     * @return o log aberto.
+     * @throws IOException se os segmentos não puderem ser abertos ou estiverem corrompidos.
+     */
+    public static LogPedidos open(Path directory, long knownEnd, long knownCount, int knownHighestOrder) throws IOException
+    {
+        Files.createDirectories(directory);
+        LogPedidos log = new LogPedidos(directory, FILE_SEGMENT_SIZE);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory))
+        {
+            for (Path file : stream)
+            {
+                String name = file.getFileName().toString();
+                if (name.startsWith("segmento-") && name.endsWith(".log"))
+                    files.add(file);
+            }
+        }
+        files.sort(null);
+
+        for (Path file : files)
+        {
+            ByteBuffer segment = log.map(file);
+            if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION)
+                throw new IOException("Segmento de pedidos inválido: " + file);
+            log.segments.add(segment);
+        }
+
+        if (log.segments.isEmpty())
+            log.newSegment();
+
+        int firstSegment = (int) (knownEnd >>> 32);
+        int firstOffset = (int) knownEnd;
+        if (knownEnd == 0 || firstSegment >= log.segments.size() || firstOffset < HEADER_SIZE)
+        {
+            firstSegment = 0;
+            firstOffset = HEADER_SIZE;
+            knownCount = 0;
+            knownHighestOrder = 0;
+        }
+
+        log.count = knownCount;
+        log.highestOrderNumber = knownHighestOrder;
+
+        for (int i = firstSegment; i < log.segments.size(); i++)
+        {
+            ByteBuffer segment = log.segments.get(i);
+            int offset = (i == firstSegment) ? firstOffset : HEADER_SIZE;
+            int number;
+
+            while ((number = log.recordNumber(segment, offset)) > 0)
+            {
+                log.highestOrderNumber = Math.max(log.highestOrderNumber, number);
+                log.count++;
+                offset = nextRecord(segment, offset);
+            }
+            log.writeOffset = offset;
+        }
+
+        log.publish();
+        return log;
+    }
+
+    /**
+     * Acrescenta um pedido ao final do log.
+     *
+     * @param order o {@link Pedido} a ser gravado.
+     */
+    public synchronized void append(Pedido order)
+    {
+        List<ItemPedido> items = order.getLines();
+        int lines = items.size();
+        byte[][] names = new byte[lines][];
+        int body = 0;
+        for (int i = 0; i < lines; i++)
+        {
+            String name = items.get(i).getName();
+            names[i] = (name == null) ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > 0xFFFF)
+                names[i] = Arrays.copyOf(names[i], 0xFFFF);
+            body += LINE_HEADER + names[i].length;
+        }
+
+        int size = RECORD_HEADER + body;
+        if (lines > 0xFFFF || HEADER_SIZE + size > segmentSize)
+            throw new IllegalArgumentException("Pedido grande demais para um segmento: " + lines + " itens");
+
+        if (writeOffset + size > segmentSize)
+            newSegment();
+
+        ByteBuffer segment = segments.get(segments.size() - 1);
+        int offset = writeOffset;
+        int day = (int) order.getOrderDate().toEpochDay();
+
+        segment.putInt(offset + 4, day);
+        segment.putShort(offset + 8, (short) lines);
+        segment.putInt(offset + 10, body);
+        int position = offset + RECORD_HEADER;
+        for (int i = 0; i < lines; i++)
+        {
+            ItemPedido line = items.get(i);
+            segment.putInt(position, line.getCode());
+            segment.putInt(position + 4, line.getQuantity());
+            segment.putInt(position + 8, (int) line.getUnitPriceCents());
+            segment.putShort(position + 12, (short) names[i].length);
+            segment.put(position + LINE_HEADER, names[i]);
+            position += LINE_HEADER + names[i].length;
+        }
+        segment.putInt(offset, order.getOrderNumber());
+
+        writeOffset = position;
+        highestOrderNumber = Math.max(highestOrderNumber, order.getOrderNumber());
+        count++;
+        if (days != null)
+            index(day, position(segments.size() - 1, offset), position(segments.size() - 1, position));
+        publish();
+    }
+
+    /**
+     * Retorna a quantidade de pedidos gravados no log.
+     *
+     * @return o total de pedidos.
+     */
+    public synchronized long size()
+    {
+        return count;
+    }
+
+    /**
+     * Retorna a posição logo após o último pedido gravado, no formato aceito por
+     * {@link #open(Path, long, long, int)}.
+     *
+     * @return a posição final do log (índice do segmento nos 32 bits altos, deslocamento nos baixos).
+     */
+    public long getEnd()
+    {
+        return end;
+    }
+
+    /**
+     * Retorna o maior número de pedido gravado.
+     *
+     * Não é necessariamente o número do último pedido: números de pedidos cancelados são
+     * reaproveitados, então um pedido pode ser gravado com um número menor que o anterior.
+     *
+     * @return o maior número de pedido, ou {@code 0} se o log estiver vazio.
+     */
+    public synchronized int getHighestOrderNumber()
+    {
+        return highestOrderNumber;
+    }
+
+    /**
+     * Retorna um iterador que decodifica os pedidos diretamente dos segmentos, do mais antigo
+     * para o mais recente.
+     *
+     * Pedidos acrescentados depois da criação do iterador não são visitados.
+     *
+     * @return o iterador de pedidos.
+     */
+    @Override
+    public Iterator<Pedido> iterator()
+    {
+        return iterator(0, end);
+    }
+
+    /**
+     * Retorna um iterador sobre os pedidos gravados entre duas posições do log, obtidas com
+     * {@link #getEnd()}.
+     *
+     * @param from a posição do primeiro pedido visitado, ou {@code 0} para o início do log.
+     * @param to a posição logo após o último pedido visitado.
+     * @return o iterador de pedidos.
+     */
+    public Iterator<Pedido> iterator(long from, long to)
+    {
+        final List<ByteBuffer> view;
+        synchronized (this)
+        {
+            view = new ArrayList<>(segments);
+        }
+
+        return new Leitor(view, new long[]{Math.max(from, position(0, HEADER_SIZE))}, new long[]{to});
+    }
+
+    /**
+     * Retorna os pedidos feitos entre duas datas (inclusive), do mais antigo para o mais recente.
+     *
+     * Usa o índice por dia: apenas os trechos do log com pedidos do período são decodificados.
+     * A quantidade de pedidos do período é conhecida sem decodificá-los, e a leitura pode começar
+     * em qualquer posição ({@link Periodo#size()} e {@link Periodo#iterator(long)}).
+     * Pedidos acrescentados depois da chamada não são visitados.
+     *
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @return os pedidos do período.
+     */
+    public Periodo between(LocalDate startDate, LocalDate endDate)
+    {
+        final List<ByteBuffer> view;
+        final long[] starts;
+        final long[] stops;
+        final int[] counts;
+        synchronized (this)
+        {
+            if (days == null)
+                buildIndex();
+
+            int total = 0;
+            Map<Integer, Dia> range = startDate.isAfter(endDate) ? Map.of()
+                    : days.subMap((int) startDate.toEpochDay(), true, (int) endDate.toEpochDay(), true);
+            for (Dia day : range.values())
+                total += day.size;
+
+            starts = new long[total];
+            stops = new long[total];
+            counts = new int[total];
+            int at = 0;
+            for (Dia day : range.values())
+            {
+                for (int i = 0; i < day.size; i++)
+                {
+                    starts[at + i] = day.starts[i];
+                    stops[at + i] = day.stops[i];
+                    counts[at + i] = day.counts[i];
+                }
+                at += day.size;
+            }
+            view = new ArrayList<>(segments);
+        }
+
+        // Os trechos nunca se sobrepõem: ordena os trechos pelo início para devolver os pedidos
+        // na ordem do log, levando junto o fim e a quantidade de pedidos de cada um.
+        Integer[] order = new Integer[starts.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+        long[] sortedStarts = new long[starts.length];
+        long[] sortedStops = new long[starts.length];
+        int[] sortedCounts = new int[starts.length];
+        for (int i = 0; i < order.length; i++)
+        {
+            sortedStarts[i] = starts[order[i]];
+            sortedStops[i] = stops[order[i]];
+            sortedCounts[i] = counts[order[i]];
+        }
+        return new Periodo(view, sortedStarts, sortedStops, sortedCounts);
+    }
+
+    /**
+     * Força a gravação em disco das alterações feitas nos segmentos mapeados.
+     */
+    public synchronized void force()
+    {
+        for (ByteBuffer segment : segments)
+            if (segment instanceof MappedByteBuffer)
+                ((MappedByteBuffer) segment).force();
+    }
+
+    /**
+     * Grava as alterações pendentes em disco. Os segmentos mapeados são liberados pela JVM.
+     */
+    @Override
+    public void close()
+    {
+        force();
+    }
+
+    private static Pedido decode(ByteBuffer segment, int offset)
+    {
+        int number = segment.getInt(offset);
+        LocalDate date = LocalDate.ofEpochDay(segment.getInt(offset + 4));
+        int lines = segment.getShort(offset + 8) & 0xFFFF;
+        List<ItemPedido> items = new ArrayList<>(lines);
+
+        int position = offset + RECORD_HEADER;
+        for (int i = 0; i < lines; i++)
+        {
+            byte[] name = new byte[segment.getShort(position + 12) & 0xFFFF];
+            segment.get(position + LINE_HEADER, name);
+            items.add(new ItemPedido(segment.getInt(position), new String(name, StandardCharsets.UTF_8),
+                    segment.getInt(position + 4), segment.getInt(position + 8)));
+            position += LINE_HEADER + name.length;
+        }
+        return new Pedido(number, date, items);
+    }
+
+    private static int nextRecord(ByteBuffer segment, int offset)
+    {
+        return offset + RECORD_HEADER + segment.getInt(offset + 10);
+    }
+
+    private int recordNumber(ByteBuffer segment, int offset)
+    {
+        if (offset + RECORD_HEADER > segmentSize)
+            return 0;
+        return segment.getInt(offset);
+    }
+
+    private void newSegment()
+    {
+        ByteBuffer segment;
+
+        if (directory == null)
+            segment = ByteBuffer.allocate(segmentSize);
+        else
+        {
+            try
+            {
+                String number = Integer.toString(segments.size());
+                segment = map(directory.resolve("segmento-" + "000000".substring(Math.min(6, number.length())) + number + ".log"));
+            }
+            catch (IOException e)
+            {
+                throw new IllegalStateException("Não foi possível criar um novo segmento de pedidos em " + directory, e);
+            }
+        }
+
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segments.add(segment);
+        writeOffset = HEADER_SIZE;
+    }
+
+    private ByteBuffer map(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private void publish()
+    {
+        end = position(segments.size() - 1, writeOffset);
+    }
+
+    private static long position(int segmentIndex, int offset)
+    {
+        return ((long) segmentIndex << 32) | offset;
+    }
+
+    /**
+     * Monta o índice por dia percorrendo os cabeçalhos de todos os registros gravados.
+     */
+    private void buildIndex()
+    {
+        days = new TreeMap<>();
+        lastIndexedDay = Integer.MIN_VALUE;
+
+        for (int i = 0; i < segments.size(); i++)
+        {
+            ByteBuffer segment = segments.get(i);
+            int offset = HEADER_SIZE;
+            while (position(i, offset) < end && recordNumber(segment, offset) > 0)
+            {
+                int next = nextRecord(segment, offset);
+                index(segment.getInt(offset + 4), position(i, offset), position(i, next));
+                offset = next;
+            }
+        }
+    }
+
+    /**
+     * Registra no índice o pedido gravado entre {@code start} e {@code stop}. Pedidos seguidos
+     * do mesmo dia estendem o último trecho daquele dia.
+     */
+    private void index(int day, long start, long stop)
+    {
+        Dia entry = days.computeIfAbsent(day, d -> new Dia());
+        if (day == lastIndexedDay)
+        {
+            entry.stops[entry.size - 1] = stop;
+            entry.counts[entry.size - 1]++;
+        }
+        else
+            entry.add(start, stop);
+        lastIndexedDay = day;
+    }
+
+    /**
+     * Trechos contíguos do log com pedidos de um mesmo dia, com a quantidade de pedidos de cada trecho.
+     */
+    private static final class Dia
+    {
+        long[] starts = new long[1];
+        long[] stops = new long[1];
+        int[] counts = new int[1];
+        int size;
+
+        void add(long start, long stop)
+        {
+            if (size == starts.length)
+            {
+                starts = Arrays.copyOf(starts, size * 2);
+                stops = Arrays.copyOf(stops, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            starts[size] = start;
+            stops[size] = stop;
+            counts[size] = 1;
+            size++;
+        }
+    }
+
+    /**
+     * Pedidos de um período, lidos sob demanda dos trechos do log indicados pelo índice por dia.
+     *
+     * A quantidade de pedidos vem do índice, sem decodificá-los. {@code iterator(long)} começa a
+     * leitura em qualquer posição, pulando os trechos anteriores inteiros e, dentro do trecho,
+     * apenas os cabeçalhos dos registros.
+     */
+    public final class Periodo implements Iterable<Pedido>
+    {
+        private final List<ByteBuffer> view;
+        private final long[] starts;
+        private final long[] stops;
+        private final int[] counts;
+        private final long size;
+
+        private Periodo(List<ByteBuffer> view, long[] starts, long[] stops, int[] counts)
+        {
+            this.view = view;
+            this.starts = starts;
+            this.stops = stops;
+            this.counts = counts;
+
+            long total = 0;
+            for (int count : counts)
+                total += count;
+            this.size = total;
+        }
+
+        /**
+         * Retorna a quantidade de pedidos do período.
+         *
+         * @return o total de pedidos.
+         */
+        public long size()
+        {
+            return size;
+        }
+
+        @Override
+        public Iterator<Pedido> iterator()
+        {
+            return new Leitor(view, starts, stops);
+        }
+
+        /**
+         * Divide o período em até {@code parts} partes consecutivas com quantidades de pedidos
+         * próximas, para leitura em paralelo. A ordem das partes é a ordem do log.
+         *
+         * Os trechos do índice são repartidos inteiros sempre que possível; só o trecho onde cai
+         * uma divisão é percorrido, pulando os cabeçalhos dos registros até o ponto de corte.
+         *
+         * @param parts a quantidade máxima de partes.
+         * @return as partes do período (uma lista vazia se o período não tiver pedidos).
+         */
+        public List<Periodo> split(int parts)
+        {
+            List<Periodo> pieces = new ArrayList<>();
+            long target = Math.max(1, (size + parts - 1) / parts);
+            int run = 0;
+            int used = 0;
+            long cut = 0;
+
+            while (run < counts.length)
+            {
+                long[] pieceStarts = new long[counts.length - run];
+                long[] pieceStops = new long[pieceStarts.length];
+                int[] pieceCounts = new int[pieceStarts.length];
+                int runs = 0;
+                long need = target;
+
+                while (need > 0 && run < counts.length)
+                {
+                    long from = (used == 0) ? starts[run] : cut;
+                    int available = counts[run] - used;
+                    if (available <= need)
+                    {
+                        pieceStarts[runs] = from;
+                        pieceStops[runs] = stops[run];
+                        pieceCounts[runs++] = available;
+                        need -= available;
+                        run++;
+                        used = 0;
+                    }
+                    else
+                    {
+                        Leitor reader = new Leitor(view, new long[]{from}, new long[]{stops[run]});
+                        for (long i = 0; i < need; i++)
+                            reader.skip();
+                        cut = reader.position();
+
+                        pieceStarts[runs] = from;
+                        pieceStops[runs] = cut;
+                        pieceCounts[runs++] = (int) need;
+                        used += (int) need;
+                        need = 0;
+                    }
+                }
+                pieces.add(new Periodo(view, Arrays.copyOf(pieceStarts, runs), Arrays.copyOf(pieceStops, runs), Arrays.copyOf(pieceCounts, runs)));
+            }
+            return pieces;
+        }
+
+        /**
+         * Retorna um iterador que começa no pedido de posição {@code first} do período.
+         *
+         * @param first a posição do primeiro pedido visitado (a partir de zero).
+         * @return o iterador, vazio se {@code first} não for menor que {@link #size()}.
+         */
+        public Iterator<Pedido> iterator(long first)
+        {
+            int run = 0;
+            while (run < counts.length && first >= counts[run])
+                first -= counts[run++];
+
+            Leitor reader = new Leitor(view, Arrays.copyOfRange(starts, run, starts.length), Arrays.copyOfRange(stops, run, stops.length));
+            for (long i = 0; i < first; i++)
+                reader.skip();
+            return reader;
+        }
+    }
+
+    /**
+     * Iterador que decodifica os pedidos de uma sequência ordenada de trechos do log.
+     */
+    private final class Leitor implements Iterator<Pedido>
+    {
+        private final List<ByteBuffer> view;
+        private final long[] starts;
+        private final long[] stops;
+        private int run;
+        private int segmentIndex;
+        private int offset;
+
+        Leitor(List<ByteBuffer> view, long[] starts, long[] stops)
+        {
+            this.view = view;
+            this.starts = starts;
+            this.stops = stops;
+            if (starts.length > 0)
+                seek(starts[0]);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (run < starts.length)
+            {
+                if (position() >= stops[run])
+                {
+                    if (++run < starts.length)
+                        seek(starts[run]);
+                }
+                else if (recordNumber(view.get(segmentIndex), offset) > 0)
+                    return true;
+                else
+                {
+                    segmentIndex++;
+                    offset = HEADER_SIZE;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Pedido next()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            ByteBuffer segment = view.get(segmentIndex);
+            Pedido order = decode(segment, offset);
+            offset = nextRecord(segment, offset);
+            return order;
+        }
+
+        /**
+         * Retorna a posição no log do próximo registro a ser lido.
+         */
+        long position()
+        {
+            return LogPedidos.position(segmentIndex, offset);
+        }
+
+        /**
+         * Avança um pedido sem decodificá-lo.
+         */
+        void skip()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            offset = nextRecord(view.get(segmentIndex), offset);
+        }
+
+        private void seek(long position)
+        {
+            segmentIndex = (int) (position >>> 32);
+            offset = (int) position;
+        }
+    }
+}
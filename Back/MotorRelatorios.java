@@ -0,0 +1,338 @@
+package Back;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Motor de relatórios que calcula em paralelo, em um {@link ForkJoinPool}, sobre partes do
+ * histórico de pedidos ou do catálogo.
+ *
+ * <p>
+ * Os pedidos de um período ({@link LogPedidos.Periodo}) são divididos em partes com quantidades
+ * próximas; cada parte produz um resultado parcial (contadores por produto, totais dos pedidos ou
+ * faixas de validade) e os resultados parciais são juntados dois a dois, na ordem do histórico.
+ * A divisão e o cálculo rodam nas threads do pool, nunca na thread que pede o relatório.
+ * </p>
+ *
+ * <p>
+ * Cada cálculo devolve uma {@link Execucao}, que informa o progresso, pode ser cancelada (por
+ * exemplo, quando o usuário fecha o diálogo do relatório) e entrega o resultado em um
+ * {@link CompletableFuture}.
+ * </p>
+ */
+public final class MotorRelatorios
+{
+    private static final int PARTS_PER_THREAD = 4;
+    private static final int CHECK_INTERVAL = 1024;
+
+    /** As faixas do relatório de validade, na ordem em que são exibidas. */
+    private static final String[] EXPIRY_BUCKETS = {"Vencido", "Vence Hoje", "Próximo do Vencimento", "Dentro da Validade"};
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Construtor da classe {@code MotorRelatorios}, usando o pool comum da JVM.
+     */
+    public MotorRelatorios()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construtor da classe {@code MotorRelatorios}.
+     *
+     * @param pool o {@link ForkJoinPool} onde os relatórios são calculados.
+     */
+    public MotorRelatorios(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * Calcula a quantidade vendida de cada produto nos pedidos informados.
+     *
+     * Cada parte soma os seus pedidos em um {@link VendasDiarias} próprio, sem sincronização.
+     *
+     * @param orders os pedidos do período (por exemplo, de {@link ControlePedidos#getOrders(LocalDate, LocalDate)}).
+     * @return a execução, cujo resultado associa o nome de cada produto à quantidade vendida.
+     */
+    public Execucao<Map<String, Integer>> productSales(LogPedidos.Periodo orders)
+    {
+        Execucao<VendasDiarias> totals = aggregate(orders, VendasDiarias::new, VendasDiarias::record, VendasDiarias::merge);
+        return totals.then(sales -> Relatorios.productSales(sales.unitsSold(), sales.productNames()));
+    }
+
+    /**
+     * Soma os totais dos pedidos informados.
+     *
+     * @param orders os pedidos do período.
+     * @return a execução, cujo resultado é {@code {quantidade de pedidos, valor total em centavos}}.
+     */
+    public Execucao<long[]> orderTotals(LogPedidos.Periodo orders)
+    {
+        return aggregate(orders, () -> new long[2], (totals, order) -> {
+            totals[0]++;
+            totals[1] += order.getTotalCents();
+        }, (left, right) -> {
+            left[0] += right[0];
+            left[1] += right[1];
+            return left;
+        });
+    }
+
+    /**
+     * Separa os produtos com validade nas faixas "Vencido", "Vence Hoje", "Próximo do Vencimento"
+     * e "Dentro da Validade", com as linhas do relatório de validade já formatadas.
+     *
+     * @param stock o {@link Estoque} consultado.
+     * @param today a data de referência.
+     * @return a execução, cujo resultado associa cada faixa (na ordem acima) às suas linhas,
+     *         em ordem de validade.
+     */
+    public Execucao<Map<String, List<Object[]>>> expiryBuckets(Estoque stock, LocalDate today)
+    {
+        List<ProdutoEmEstoque> products = stock.getProductsWithValidity();
+        int parts = Math.max(1, Math.min(products.size(), pool.getParallelism() * PARTS_PER_THREAD));
+        List<List<ProdutoEmEstoque>> pieces = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++)
+            pieces.add(products.subList(products.size() * i / parts, products.size() * (i + 1) / parts));
+
+        return run(products.size(), () -> pieces, () -> {
+            Map<String, List<Object[]>> buckets = new LinkedHashMap<>();
+            for (String bucket : EXPIRY_BUCKETS)
+                buckets.put(bucket, new ArrayList<>());
+            return buckets;
+        }, (buckets, product) -> {
+            Object[] row = Relatorios.expiryRow(product.getProduct(), today);
+            if (row != null)
+                buckets.get((String) row[2]).add(row);
+        }, (left, right) -> {
+            for (Map.Entry<String, List<Object[]>> bucket : right.entrySet())
+                left.get(bucket.getKey()).addAll(bucket.getValue());
+            return left;
+        });
+    }
+
+    /**
+     * Calcula um resultado sobre os pedidos informados: cada parte acumula os seus pedidos em um
+     * resultado parcial próprio, e os parciais são juntados na ordem do histórico.
+     *
+     * @param orders os pedidos do período.
+     * @param partial cria um resultado parcial vazio.
+     * @param accumulator acumula um pedido em um resultado parcial.
+     * @param combiner junta dois resultados parciais (o segundo com pedidos posteriores aos do primeiro).
+     * @return a execução do cálculo.
+     */
+    public <A> Execucao<A> aggregate(LogPedidos.Periodo orders, Supplier<A> partial, BiConsumer<A, Pedido> accumulator, BinaryOperator<A> combiner)
+    {
+        return run(orders.size(), () -> orders.split(pool.getParallelism() * PARTS_PER_THREAD), partial, accumulator, combiner);
+    }
+
+    private <T, A> Execucao<A> run(long total, Supplier<List<? extends Iterable<T>>> partitions, Supplier<A> partial,
+                                   BiConsumer<A, T> accumulator, BinaryOperator<A> combiner)
+    {
+        Execucao<A> execution = new Execucao<>(total);
+        pool.execute(() -> {
+            try
+            {
+                List<? extends Iterable<T>> parts = partitions.get();
+                A result = parts.isEmpty() ? partial.get()
+                        : new Parte<>(execution, parts, 0, parts.size(), partial, accumulator, combiner).invoke();
+                execution.result.complete(result);
+            }
+            catch (Throwable e)
+            {
+                execution.result.completeExceptionally(e);
+            }
+        });
+        return execution;
+    }
+
+    /**
+     * Tarefa que calcula o resultado das partes {@code [lo, hi)}, dividindo-as ao meio até
+     * restar uma parte por tarefa. Nunca é serializada: só existe durante um cálculo.
+     */
+    @SuppressWarnings("serial")
+    private static final class Parte<T, A> extends RecursiveTask<A>
+    {
+        private final Execucao<?> execution;
+        private final List<? extends Iterable<T>> parts;
+        private final int lo;
+        private final int hi;
+        private final Supplier<A> partial;
+        private final BiConsumer<A, T> accumulator;
+        private final BinaryOperator<A> combiner;
+
+        Parte(Execucao<?> execution, List<? extends Iterable<T>> parts, int lo, int hi,
+              Supplier<A> partial, BiConsumer<A, T> accumulator, BinaryOperator<A> combiner)
+        {
+            this.execution = execution;
+            this.parts = parts;
+            this.lo = lo;
+            this.hi = hi;
+            this.partial = partial;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute()
+        {
+            if (hi - lo > 1)
+            {
+                int mid = (lo + hi) >>> 1;
+                Parte<T, A> left = new Parte<>(execution, parts, lo, mid, partial, accumulator, combiner);
+                left.fork();
+                A right = new Parte<>(execution, parts, mid, hi, partial, accumulator, combiner).compute();
+                return combiner.apply(left.join(), right);
+            }
+
+            A result = partial.get();
+            int pending = 0;
+            for (T item : parts.get(lo))
+            {
+                accumulator.accept(result, item);
+                if (++pending == CHECK_INTERVAL)
+                {
+                    execution.advance(pending);
+                    pending = 0;
+                }
+            }
+            execution.advance(pending);
+            return result;
+        }
+    }
+
+    /**
+     * Cálculo de um relatório em andamento.
+     *
+     * @param <T> o tipo do resultado.
+     */
+    public static final class Execucao<T>
+    {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final LongAdder processed = new LongAdder();
+        private final long total;
+        private final Execucao<?> source;
+        private volatile boolean cancelled;
+
+        private Execucao(long total)
+        {
+            this(total, null);
+        }
+
+        private Execucao(long total, Execucao<?> source)
+        {
+            this.total = total;
+            this.source = source;
+        }
+
+        /**
+         * Retorna a quantidade de itens (pedidos ou produtos) a processar.
+         *
+         * @return o total de itens.
+         */
+        public long getTotal()
+        {
+            return total;
+        }
+
+        /**
+         * Retorna a quantidade de itens já processados.
+         *
+         * @return os itens processados.
+         */
+        public long getProcessed()
+        {
+            return (source != null) ? source.getProcessed() : processed.sum();
+        }
+
+        /**
+         * Retorna o progresso do cálculo.
+         *
+         * @return a fração processada, de 0 a 1.
+         */
+        public double getProgress()
+        {
+            if (result.isDone())
+                return 1;
+            return (total == 0) ? 0 : Math.min(1, (double) getProcessed() / total);
+        }
+
+        /**
+         * Cancela o cálculo. As partes em andamento param na próxima verificação, e o resultado
+         * termina com {@link CancellationException}.
+         */
+        public void cancel()
+        {
+            cancelled = true;
+            if (source != null)
+                source.cancel();
+            result.cancel(false);
+        }
+
+        /**
+         * Verifica se o cálculo foi cancelado.
+         *
+         * @return {@code true} se {@link #cancel()} foi chamado.
+         */
+        public boolean isCancelled()
+        {
+            return cancelled;
+        }
+
+        /**
+         * Retorna o resultado do cálculo, completado na thread do pool que terminou o cálculo.
+         *
+         * @return o {@link CompletableFuture} com o resultado.
+         */
+        public CompletableFuture<T> getResult()
+        {
+            return result;
+        }
+
+        /**
+         * Cria uma execução cujo resultado é este resultado transformado, com o mesmo progresso
+         * e cancelamento.
+         */
+        <R> Execucao<R> then(Function<T, R> finisher)
+        {
+            Execucao<R> next = new Execucao<>(total, this);
+            result.whenComplete((value, error) -> {
+                if (error != null)
+                {
+                    next.result.completeExceptionally(error);
+                    return;
+                }
+                try
+                {
+                    next.result.complete(finisher.apply(value));
+                }
+                catch (RuntimeException e)
+                {
+                    next.result.completeExceptionally(e);
+                }
+            });
+            return next;
+        }
+
+        void advance(long count)
+        {
+            processed.add(count);
+            if (cancelled)
+                throw new CancellationException("Relatório cancelado");
+        }
+    }
+}
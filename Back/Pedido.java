@@ -1,66 +1,134 @@
 package Back;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Representa um pedido realizado no sistema.
  * 
  * <p>
- * Cada pedido contém um número único incremental, uma data de criação e um mapa que
- * associa o código de cada produto à sua quantidade solicitada.
+ * Cada pedido contém um número único incremental, uma data de criação e as suas linhas
+ * ({@link ItemPedido}), imutáveis, com o nome e o preço de cada produto copiados do
+ * {@link Estoque} no momento da venda. O valor total é calculado uma única vez, na criação.
  * </p>
  * 
  * <p>
- * A classe mantém também um contador global de pedidos ({@code orderGlobalNumber}) usado
- * para gerar automaticamente novos números de pedido.
+ * Os números de pedido são entregues por um {@link AlocadorPedidos.Quiosque}: o do próprio
+ * quiosque ({@code setKiosk}) ou um informado no construtor. Um pedido que não for concluído
+ * deve ser cancelado com {@code cancel}, que devolve o número para reaproveitamento.
  * </p>
  */
 public class Pedido
 {
-    private static int orderGlobalNumber = 0;
+    private static volatile AlocadorPedidos.Quiosque kiosk = AlocadorPedidos.inMemory().newKiosk();
+    private AlocadorPedidos.Quiosque source;
     private int orderNumber;
-    private Map<Integer, Integer> order;
-    private LocalDate orderDate;
+    private final List<ItemPedido> lines;
+    private final Map<Integer, Integer> order;
+    private final long totalCents;
+    private final LocalDate orderDate;
 
     /**
      * Construtor da classe {@code Pedido}.
      * 
-     * Cria um novo pedido com base no mapa de itens fornecido, define a data atual
-     * como data do pedido e gera automaticamente o número sequencial do pedido.
+     * Cria um novo pedido com base no mapa de itens fornecido, copiando o nome e o preço de
+     * cada produto do estoque, define a data atual como data do pedido e obtém o número do
+     * pedido do quiosque atual.
      * 
      * @param cart um {@code Map<Integer, Integer>} contendo os produtos e suas quantidades.
+     * @param stock o {@link Estoque} de onde vêm o nome e o preço dos produtos.
+     * @throws IllegalArgumentException se algum produto do carrinho não estiver cadastrado.
      */
-    public Pedido(Map<Integer, Integer> cart)
+    public Pedido(Map<Integer, Integer> cart, Estoque stock)
     {
-        setOrder(cart);
-        setOrderNumber((getOrderGlobalNumber()) + 1);
-        orderGlobalNumber++;
+        this(cart, stock, kiosk);
+    }
+
+    /**
+     * Construtor da classe {@code Pedido} para um quiosque específico.
+     * 
+     * @param cart um {@code Map<Integer, Integer>} contendo os produtos e suas quantidades.
+     * @param stock o {@link Estoque} de onde vêm o nome e o preço dos produtos.
+     * @param source o {@link AlocadorPedidos.Quiosque} que fornece o número do pedido.
+     * @throws IllegalArgumentException se algum produto do carrinho não estiver cadastrado.
+     */
+    public Pedido(Map<Integer, Integer> cart, Estoque stock, AlocadorPedidos.Quiosque source)
+    {
+        List<ItemPedido> items = new ArrayList<>(cart.size());
+        for (Map.Entry<Integer, Integer> entry : cart.entrySet())
+        {
+            if (entry.getValue() <= 0)
+                continue;
+            ProdutoEmEstoque product = stock.getProductsStock().get(entry.getKey());
+            if (product == null)
+                throw new IllegalArgumentException("Produto não cadastrado: " + entry.getKey());
+            items.add(new ItemPedido(entry.getKey(), product.getProduct().getName(), entry.getValue(),
+                    Caixa.toCents(product.getProduct().getPrice())));
+        }
+
+        this.lines = Collections.unmodifiableList(items);
+        this.order = quantities(lines);
+        this.totalCents = total(lines);
         this.orderDate = LocalDate.now();
+        this.source = source;
+        this.orderNumber = source.next();
+    }
+
+    /**
+     * Reconstrói um pedido já registrado, com o número que ele recebeu ao ser criado.
+     * 
+     * Usado na leitura do histórico gravado no {@link LogPedidos}. Nenhum número é pedido ao
+     * {@link AlocadorPedidos}.
+     * 
+     * @param orderNumber o número do pedido.
+     * @param orderDate a data em que o pedido foi realizado.
+     * @param lines as linhas do pedido.
+     */
+    Pedido(int orderNumber, LocalDate orderDate, List<ItemPedido> lines)
+    {
+        this.orderNumber = orderNumber;
+        this.orderDate = orderDate;
+        this.lines = Collections.unmodifiableList(lines);
+        this.order = quantities(this.lines);
+        this.totalCents = total(this.lines);
     }
 
     /**
-     * Define o número global de pedidos do sistema.
+     * Define o quiosque que fornece os números dos pedidos criados com {@link #Pedido(Map, Estoque)}.
      * 
-     * Esse valor define o ponto de partida para a contagem de novos pedidos.
-     * Só será alterado se o valor informado for maior que zero.
+     * @param source o {@link AlocadorPedidos.Quiosque} deste quiosque.
+     */
+    public static void setKiosk(AlocadorPedidos.Quiosque source)
+    {
+        kiosk = source;
+    }
+
+    /**
+     * Retorna o quiosque que fornece os números dos pedidos criados com {@link #Pedido(Map, Estoque)}.
      * 
-     * @param number o novo número global de pedidos.
+     * @return o {@link AlocadorPedidos.Quiosque} deste quiosque.
      */
-    public static void setOrderGlobalNumber(int number)
+    public static AlocadorPedidos.Quiosque getKiosk()
     {
-        if (number > 0)
-            orderGlobalNumber = number;
+        return kiosk;
     }
 
     /**
-     * Retorna o número global atual de pedidos registrados.
+     * Cancela um pedido que não foi concluído, devolvendo o seu número ao quiosque de origem.
      * 
-     * @return o valor do contador global de pedidos.
+     * Só tem efeito uma vez, e apenas para pedidos criados neste quiosque (não para pedidos
+     * lidos do histórico).
      */
-    public static int getOrderGlobalNumber()
+    public void cancel()
     {
-        return orderGlobalNumber;
+        AlocadorPedidos.Quiosque origin = source;
+        source = null;
+        if (origin != null)
+            origin.cancel(orderNumber);
     }
 
     /**
@@ -86,8 +154,8 @@ public class Pedido
     /**
      * Retorna o conteúdo do pedido.
      * 
-     * O conteúdo é representado como um mapa onde a chave é o código do produto
-     * e o valor é a quantidade solicitada.
+     * O conteúdo é representado como um mapa, somente leitura, onde a chave é o código
+     * do produto e o valor é a quantidade solicitada.
      * 
      * @return um {@code Map<Integer, Integer>} representando o pedido.
      */
@@ -97,13 +165,23 @@ public class Pedido
     }
 
     /**
-     * Define o conteúdo do pedido.
+     * Retorna as linhas do pedido, com o nome e o preço cobrado de cada produto.
      * 
-     * @param order um mapa com os produtos e suas respectivas quantidades.
+     * @return a lista imutável de {@link ItemPedido}.
      */
-    public void setOrder(Map<Integer, Integer> order)
+    public List<ItemPedido> getLines()
     {
-        this.order = order;
+        return lines;
+    }
+
+    /**
+     * Retorna o valor total do pedido, calculado com os preços cobrados.
+     * 
+     * @return o valor em centavos.
+     */
+    public long getTotalCents()
+    {
+        return totalCents;
     }
 
     /**
@@ -115,4 +193,20 @@ public class Pedido
     {
         return orderDate;
     }
+
+    private static Map<Integer, Integer> quantities(List<ItemPedido> lines)
+    {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (ItemPedido line : lines)
+            quantities.merge(line.getCode(), line.getQuantity(), Integer::sum);
+        return Collections.unmodifiableMap(quantities);
+    }
+
+    private static long total(List<ItemPedido> lines)
+    {
+        long total = 0;
+        for (ItemPedido line : lines)
+            total += line.getTotalCents();
+        return total;
+    }
 }
\ No newline at end of file
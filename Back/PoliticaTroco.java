@@ -0,0 +1,60 @@
+package Back;
+
+/**
+ * Política usada pelo {@link Caixa} para escolher quais cédulas e moedas compõem o troco.
+ *
+ * <p>
+ * Exceto {@link #GULOSO}, todas as políticas usam o mesmo algoritmo de programação dinâmica
+ * (mochila limitada sobre unidades de 5 centavos), que sempre encontra um troco exato quando ele
+ * existe com as quantidades disponíveis no caixa. As políticas diferem apenas no custo atribuído
+ * a cada peça usada: o troco escolhido é o de menor custo total.
+ * </p>
+ */
+public enum PoliticaTroco
+{
+    /**
+     * Usa sempre a maior denominação disponível primeiro (algoritmo original do sistema).
+     *
+     * É o mais rápido, mas pode não encontrar o troco mesmo quando ele existe
+     * (ex: R$ 0,30 com uma moeda de R$ 0,25, várias de R$ 0,10 e nenhuma de R$ 0,05).
+     */
+    GULOSO,
+
+    /**
+     * Entrega o troco com a menor quantidade possível de peças.
+     */
+    MENOS_PECAS,
+
+    /**
+     * Evita entregar moedas (valores até R$ 1,00): usa o mínimo possível de moedas e,
+     * entre as opções com a mesma quantidade de moedas, a menor quantidade de peças.
+     */
+    PRESERVAR_MOEDAS,
+
+    /**
+     * Evita entregar as denominações com poucas unidades no caixa, preferindo as mais abundantes.
+     */
+    PRESERVAR_ESCASSAS;
+
+    private static final long HEAVY = 1L << 20;
+
+    /**
+     * Retorna o custo de entregar uma peça de uma denominação segundo esta política.
+     *
+     * @param cents o valor da denominação em centavos.
+     * @param available a quantidade disponível da denominação no caixa.
+     * @return o custo de uma peça (sempre positivo).
+     */
+    long weight(long cents, int available)
+    {
+        switch (this)
+        {
+            case PRESERVAR_MOEDAS:
+                return (cents <= 100) ? HEAVY : 1;
+            case PRESERVAR_ESCASSAS:
+                return 1 + HEAVY / (available + 1);
+            default:
+                return 1;
+        }
+    }
+}
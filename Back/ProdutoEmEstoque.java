@@ -1,5 +1,7 @@
 package Back;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Representa a relação de um produto com sua quantidade disponível no estoque.
  * 
@@ -10,13 +12,22 @@ package Back;
  * 
  * <p>
  * Oferece métodos para adicionar, remover e validar o estoque de forma segura,
- * evitando quantidades negativas.
+ * evitando quantidades negativas. A quantidade é um contador atômico: {@code addStock} e
+ * {@code removeStock} usam compare-and-set, de modo que vários quiosques podem alterar o
+ * mesmo produto ao mesmo tempo sem bloqueios e sem vender além do disponível.
+ * </p>
+ *
+ * <p>
+ * Além da quantidade disponível, o produto guarda a quantidade reservada por pedidos em
+ * pagamento (ver {@link Reserva}). As duas ficam no mesmo {@code long} (reservada nos 32 bits
+ * altos, disponível nos baixos), para que uma reserva mova unidades de uma para a outra em uma
+ * única operação atômica e o total do produto seja sempre lido de forma consistente.
  * </p>
  */
 public class ProdutoEmEstoque
 {
     private Produto product;
-    private int amountStock;
+    private final AtomicLong amountStock;
 
     /**
      * Construtor da classe {@code ProdutoEmEstoque}.
@@ -27,7 +38,7 @@ public class ProdutoEmEstoque
     public ProdutoEmEstoque(Produto product, int amountStock)
     {
         this.product = product;
-        this.amountStock = amountStock;
+        this.amountStock = new AtomicLong(amountStock);
     }
 
     /**
@@ -57,7 +68,28 @@ public class ProdutoEmEstoque
      */
     public int getAmountStock()
     {
-        return amountStock;
+        return available(amountStock.get());
+    }
+
+    /**
+     * Retorna a quantidade deste produto reservada por pedidos ainda não pagos.
+     * 
+     * @return a quantidade reservada.
+     */
+    public int getReservedStock()
+    {
+        return reserved(amountStock.get());
+    }
+
+    /**
+     * Retorna a quantidade total do produto: a disponível somada à reservada.
+     * 
+     * @return a quantidade total, lida de forma atômica.
+     */
+    int getTotalStock()
+    {
+        long state = amountStock.get();
+        return available(state) + reserved(state);
     }
 
     /**
@@ -72,7 +104,12 @@ public class ProdutoEmEstoque
             return false;
         else
         {
-            this.amountStock = amountStock;
+            long state;
+            do
+            {
+                state = this.amountStock.get();
+            }
+            while (!this.amountStock.compareAndSet(state, pack(amountStock, reserved(state))));
             return true;
         }
     }
@@ -87,7 +124,7 @@ public class ProdutoEmEstoque
     {
         if (quantity < 0)
             return false;
-        setAmountStock(getAmountStock() + quantity);
+        amountStock.addAndGet(quantity);
         return true;
     }
 
@@ -99,12 +136,81 @@ public class ProdutoEmEstoque
      */
     public boolean removeStock(int quantity)
     {
-        if (quantity < 0 || this.amountStock < quantity)
+        if (quantity < 0)
             return false;
-        else
+
+        long state;
+        do
         {
-            setAmountStock(getAmountStock() - quantity);
-            return true;
+            state = amountStock.get();
+            if (available(state) < quantity)
+                return false;
+        }
+        while (!amountStock.compareAndSet(state, state - quantity));
+        return true;
+    }
+
+    /**
+     * Move uma quantidade disponível para a quantidade reservada, se houver o suficiente.
+     * 
+     * @param quantity a quantidade a ser reservada.
+     * @return {@code true} se a reserva foi feita; {@code false} se a quantidade disponível for insuficiente.
+     */
+    boolean reserve(int quantity)
+    {
+        long state;
+        do
+        {
+            state = amountStock.get();
+            if (available(state) < quantity)
+                return false;
+        }
+        while (!amountStock.compareAndSet(state, pack(available(state) - quantity, reserved(state) + quantity)));
+        return true;
+    }
+
+    /**
+     * Devolve uma quantidade reservada para a quantidade disponível.
+     * 
+     * @param quantity a quantidade a ser liberada.
+     */
+    void release(int quantity)
+    {
+        long state;
+        do
+        {
+            state = amountStock.get();
         }
+        while (!amountStock.compareAndSet(state, pack(available(state) + quantity, reserved(state) - quantity)));
+    }
+
+    /**
+     * Retira definitivamente uma quantidade reservada (o pedido foi pago).
+     * 
+     * @param quantity a quantidade a ser retirada.
+     */
+    void commitReserved(int quantity)
+    {
+        long state;
+        do
+        {
+            state = amountStock.get();
+        }
+        while (!amountStock.compareAndSet(state, pack(available(state), reserved(state) - quantity)));
+    }
+
+    private static int available(long state)
+    {
+        return (int) state;
+    }
+
+    private static int reserved(long state)
+    {
+        return (int) (state >>> 32);
+    }
+
+    private static long pack(int available, int reserved)
+    {
+        return ((long) reserved << 32) | (available & 0xFFFFFFFFL);
     }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package Back;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cálculo dos relatórios administrativos exibidos pela {@code TelaMostraRelatorio}.
+ *
+ * Os métodos recebem os pedidos como {@code Iterable<Pedido>} (normalmente
+ * {@link ControlePedidos#getOrders()}), o que permite medir e reutilizar os cálculos
+ * sem depender da interface gráfica.
+ *
+ * Os relatórios de vendas usam o nome e o preço gravados nas linhas de cada pedido
+ * ({@link ItemPedido}), e não o {@link Estoque}: produtos excluídos ou com preço alterado
+ * continuam aparecendo como foram vendidos.
+ */
+public final class Relatorios
+{
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private Relatorios()
+    {
+    }
+
+    /**
+     * Calcula a quantidade vendida para cada produto dentro de um período.
+     *
+     * @param orders os pedidos registrados.
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @return um mapa onde a chave é o nome do produto e o valor é a quantidade vendida.
+     */
+    public static Map<String, Integer> productSales(Iterable<Pedido> orders, LocalDate startDate, LocalDate endDate)
+    {
+        Map<String, Integer> productSales = new HashMap<>();
+
+        for (Pedido order : orders)
+        {
+            LocalDate orderDate = order.getOrderDate();
+
+            if (!(orderDate.isBefore(startDate) || orderDate.isAfter(endDate)))
+            {
+                for (ItemPedido line : order.getLines())
+                {
+                    productSales.put(line.getName(), productSales.getOrDefault(line.getName(), 0) + line.getQuantity());
+                }
+            }
+        }
+
+        return productSales;
+    }
+
+    /**
+     * Converte os totais de unidades vendidas por código de produto no relatório de produtos
+     * mais vendidos, somando produtos de mesmo nome.
+     *
+     * @param unitsSold as unidades vendidas de cada produto (por exemplo, de {@link ControlePedidos#getUnitsSold}).
+     * @param names o nome de cada produto vendido (por exemplo, de {@link ControlePedidos#getProductNames}).
+     * @return um mapa onde a chave é o nome do produto e o valor é a quantidade vendida.
+     */
+    public static Map<String, Integer> productSales(Map<Integer, Long> unitsSold, Map<Integer, String> names)
+    {
+        Map<String, Integer> productSales = new HashMap<>();
+        for (Map.Entry<Integer, Long> entry : unitsSold.entrySet())
+        {
+            String productName = names.getOrDefault(entry.getKey(), "Produto " + entry.getKey());
+            productSales.merge(productName, entry.getValue().intValue(), Integer::sum);
+        }
+        return productSales;
+    }
+
+    /**
+     * Calcula os dados das transações realizadas em um período.
+     *
+     * @param orders os pedidos registrados.
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @return uma linha por pedido, com o número, a data e o valor formatados.
+     */
+    public static List<Object[]> transactions(Iterable<Pedido> orders, LocalDate startDate, LocalDate endDate)
+    {
+        List<Object[]> transactionData = new ArrayList<>();
+
+        for (Pedido order : orders)
+        {
+            LocalDate orderDate = order.getOrderDate();
+
+            if (!(orderDate.isBefore(startDate) || orderDate.isAfter(endDate)))
+                transactionData.add(transactionRow(order));
+        }
+
+        return transactionData;
+    }
+
+    /**
+     * Formata a linha de um pedido no relatório de transações.
+     *
+     * @param order o pedido.
+     * @return o número, a data e o valor formatados.
+     */
+    public static Object[] transactionRow(Pedido order)
+    {
+        return new Object[]{
+                order.getOrderNumber(),
+                order.getOrderDate().format(DATE_FORMAT),
+                String.format("R$ %.2f", order.getTotalCents() / 100.0)
+        };
+    }
+
+    /**
+     * Coleta os produtos com validade, indicando se estão vencidos ou próximos do vencimento.
+     *
+     * Usa o índice de validade do {@link Estoque}: só os produtos com validade são lidos, já em
+     * ordem de validade (os vencidos primeiro).
+     *
+     * @param stock o {@link Estoque} consultado.
+     * @param today a data de referência.
+     * @return uma linha por produto, com o nome, a validade formatada e o status.
+     */
+    public static List<Object[]> expiringProducts(Estoque stock, LocalDate today)
+    {
+        List<Object[]> expiredProductsData = new ArrayList<>();
+
+        for (ProdutoEmEstoque productInStock : stock.getProductsWithValidity())
+        {
+            Object[] row = expiryRow(productInStock.getProduct(), today);
+            if (row != null)
+                expiredProductsData.add(row);
+        }
+        return expiredProductsData;
+    }
+
+    /**
+     * Formata a linha de um produto no relatório de validade.
+     *
+     * @param product o produto.
+     * @param today a data de referência.
+     * @return o nome, a validade formatada e o status; ou {@code null} se o produto não tiver validade.
+     */
+    public static Object[] expiryRow(Produto product, LocalDate today)
+    {
+        LocalDate expirationDate = product.getValidity();
+        if (expirationDate == null)
+            return null;
+
+        return new Object[]{
+                product.getName(),
+                expirationDate.format(DATE_FORMAT),
+                expirationStatus(expirationDate, today)
+        };
+    }
+
+    /**
+     * Determina o status de validade de um produto: vencido, vence hoje, próximo do
+     * vencimento (até 7 dias) ou dentro da validade.
+     *
+     * @param expirationDate a data de validade do produto.
+     * @param today a data atual.
+     * @return o status de validade.
+     */
+    public static String expirationStatus(LocalDate expirationDate, LocalDate today)
+    {
+        if (expirationDate.isBefore(today))
+            return "Vencido";
+        else if (expirationDate.isEqual(today))
+            return "Vence Hoje";
+        else if (expirationDate.isBefore(today.plusDays(8)))
+            return "Próximo do Vencimento";
+        else
+            return "Dentro da Validade";
+    }
+}
@@ -0,0 +1,129 @@
+package Back;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reserva de estoque feita para um carrinho durante o pagamento.
+ *
+ * <p>
+ * Criada por {@link Estoque#reserve}, a reserva retira as quantidades do carrinho do estoque
+ * disponível, de forma que outros quiosques não possam vendê-las enquanto o cliente paga.
+ * Ela termina de uma das três formas:
+ * </p>
+ * <ul>
+ *   <li>{@code commit}: o pagamento foi concluído e as unidades saem definitivamente do estoque;</li>
+ *   <li>{@code release}: o pedido foi cancelado e as unidades voltam a ficar disponíveis;</li>
+ *   <li>expiração: passado o prazo, o varredor do {@link Estoque} libera a reserva automaticamente.</li>
+ * </ul>
+ *
+ * <p>
+ * As transições de estado são atômicas: uma reserva é confirmada ou liberada exatamente uma vez,
+ * mesmo que o cliente confirme o pagamento no mesmo instante em que ela expira.
+ * </p>
+ */
+public final class Reserva implements Comparable<Reserva>
+{
+    static final int ACTIVE = 0;
+    static final int COMMITTED = 1;
+    static final int RELEASED = 2;
+    static final int EXPIRED = 3;
+
+    private final Estoque stock;
+    private final long id;
+    private final int[] codes;
+    private final int[] quantities;
+    private final ProdutoEmEstoque[] entries;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+    Reserva(Estoque stock, long id, int[] codes, int[] quantities, ProdutoEmEstoque[] entries, long ttlNanos)
+    {
+        this.stock = stock;
+        this.id = id;
+        this.codes = codes;
+        this.quantities = quantities;
+        this.entries = entries;
+        this.deadline = System.nanoTime() + ttlNanos;
+    }
+
+    /**
+     * Confirma a reserva: as unidades reservadas saem definitivamente do estoque.
+     *
+     * Se a reserva já tiver expirado, tenta reservar novamente as mesmas quantidades e
+     * confirmá-las, o que só falha se o estoque tiver acabado nesse meio tempo.
+     *
+     * @return {@code true} se o estoque do pedido foi baixado; {@code false} se a reserva foi
+     *         cancelada ou se expirou e não há mais estoque suficiente.
+     */
+    public boolean commit()
+    {
+        return stock.commitReservation(this);
+    }
+
+    /**
+     * Cancela a reserva, devolvendo as unidades ao estoque disponível.
+     *
+     * @return {@code true} se a reserva estava ativa e foi liberada agora; {@code false} caso contrário.
+     */
+    public boolean release()
+    {
+        return stock.releaseReservation(this, RELEASED);
+    }
+
+    /**
+     * Verifica se a reserva ainda está ativa (nem confirmada, nem liberada, nem expirada).
+     *
+     * @return {@code true} se a reserva estiver ativa.
+     */
+    public boolean isActive()
+    {
+        return state.get() == ACTIVE;
+    }
+
+    /**
+     * Retorna quanto tempo falta para a reserva expirar.
+     *
+     * @param unit a unidade de tempo do resultado.
+     * @return o tempo restante (negativo se o prazo já passou).
+     */
+    public long getDelay(TimeUnit unit)
+    {
+        return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ordena as reservas pelo prazo e, no mesmo prazo, pela ordem de criação.
+     */
+    @Override
+    public int compareTo(Reserva other)
+    {
+        int byDeadline = Long.compare(deadline - other.deadline, 0);
+        return (byDeadline != 0) ? byDeadline : Long.compare(id, other.id);
+    }
+
+    boolean transition(int from, int to)
+    {
+        return state.compareAndSet(from, to);
+    }
+
+    int getState()
+    {
+        return state.get();
+    }
+
+    int[] getCodes()
+    {
+        return codes;
+    }
+
+    int[] getQuantities()
+    {
+        return quantities;
+    }
+
+    ProdutoEmEstoque[] getEntries()
+    {
+        return entries;
+    }
+}
@@ -0,0 +1,86 @@
+package Back;
+
+/**
+ * Resultado de um pagamento feito pelo {@link ServicoCheckout}.
+ *
+ * Quando o pagamento em dinheiro é aprovado, traz também a quantidade de cada denominação
+ * entregue como troco, na ordem dos slots do {@link Caixa}.
+ */
+public final class ResultadoPagamento
+{
+    /**
+     * Situação do pagamento.
+     */
+    public enum Situacao
+    {
+        /** Pagamento aprovado: o estoque foi baixado e o pedido registrado. */
+        APROVADO,
+        /** O valor em dinheiro inserido é menor que o valor da compra. */
+        VALOR_INSUFICIENTE,
+        /** O caixa não tem peças para formar o troco. */
+        TROCO_INSUFICIENTE,
+        /** A reserva expirou e não há mais estoque para a compra. */
+        ESTOQUE_INSUFICIENTE,
+        /** A compra não existe ou já foi concluída ou cancelada. */
+        COMPRA_INVALIDA
+    }
+
+    private final Situacao status;
+    private final int[] change;
+
+    /**
+     * Construtor da classe {@code ResultadoPagamento}.
+     *
+     * @param status a situação do pagamento.
+     * @param change as peças do troco por slot do {@link Caixa}, ou {@code null} se não houver troco.
+     */
+    public ResultadoPagamento(Situacao status, int[] change)
+    {
+        this.status = status;
+        this.change = change;
+    }
+
+    /**
+     * Retorna a situação do pagamento.
+     *
+     * @return a situação.
+     */
+    public Situacao getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * Verifica se o pagamento foi aprovado.
+     *
+     * @return {@code true} se aprovado.
+     */
+    public boolean isApproved()
+    {
+        return status == Situacao.APROVADO;
+    }
+
+    /**
+     * Retorna as peças entregues como troco.
+     *
+     * @return a quantidade de cada denominação por slot do {@link Caixa}, ou {@code null} se não houver troco.
+     */
+    public int[] getChange()
+    {
+        return change;
+    }
+
+    /**
+     * Retorna o valor total do troco.
+     *
+     * @return o troco em centavos.
+     */
+    public long getChangeCents()
+    {
+        long total = 0;
+        if (change != null)
+            for (int slot = 0; slot < change.length; slot++)
+                total += Caixa.getDenomination(slot) * change[slot];
+        return total;
+    }
+}
@@ -0,0 +1,82 @@
+package Back;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Operações de venda usadas pelas telas de compra do quiosque.
+ *
+ * <p>
+ * Há duas implementações: {@link ServicoCheckoutLocal}, que opera diretamente sobre o
+ * {@link Estoque}, o {@link Caixa} e o {@link ControlePedidos} do próprio processo, e
+ * {@link ClienteCheckout}, que envia as mesmas operações a um {@link ServidorCheckout}
+ * compartilhado por vários quiosques.
+ * </p>
+ *
+ * <p>
+ * Uma venda começa com {@code start}, que reserva o estoque do carrinho e numera o pedido,
+ * e termina com um pagamento aprovado ({@code payWithCard} ou {@code payWithCash}) ou com
+ * {@code cancel}. Os valores em dinheiro são sempre em centavos.
+ * </p>
+ */
+public interface ServicoCheckout
+{
+    /**
+     * Retorna os produtos do catálogo com as quantidades disponíveis.
+     *
+     * @return os produtos em estoque.
+     */
+    Collection<ProdutoEmEstoque> catalogue();
+
+    /**
+     * Calcula o valor de um carrinho.
+     *
+     * @param cart o carrinho, com o código do produto e a quantidade.
+     * @return o valor total em centavos (produtos inexistentes não são cobrados).
+     */
+    long priceCart(Map<Integer, Integer> cart);
+
+    /**
+     * Inicia uma compra: reserva o estoque do carrinho e obtém o número do pedido.
+     *
+     * @param cart o carrinho, com o código do produto e a quantidade.
+     * @return a {@link Compra} iniciada; ou {@code null} se não houver estoque suficiente.
+     */
+    Compra start(Map<Integer, Integer> cart);
+
+    /**
+     * Conclui uma compra paga com cartão ou Pix.
+     *
+     * @param purchase a compra iniciada com {@code start}.
+     * @return o resultado do pagamento.
+     */
+    ResultadoPagamento payWithCard(Compra purchase);
+
+    /**
+     * Conclui uma compra paga em dinheiro, calculando e retirando o troco do caixa.
+     *
+     * Se o valor for insuficiente ou não houver troco, a compra continua aberta e o cliente
+     * pode tentar novamente.
+     *
+     * @param purchase a compra iniciada com {@code start}.
+     * @param pieces a quantidade inserida de cada denominação, na ordem dos slots do {@link Caixa}.
+     * @return o resultado do pagamento, com as peças do troco quando aprovado.
+     */
+    ResultadoPagamento payWithCash(Compra purchase, int[] pieces);
+
+    /**
+     * Cancela uma compra, liberando o estoque reservado e o número do pedido.
+     *
+     * @param purchase a compra iniciada com {@code start}.
+     */
+    void cancel(Compra purchase);
+
+    /**
+     * Consulta, sem alterar o caixa, se ele consegue formar um determinado troco e qual o maior
+     * troco possível sem ultrapassar esse valor.
+     *
+     * @param changeCents o valor do troco em centavos.
+     * @return as duas respostas, obtidas juntas do mesmo estado do caixa.
+     */
+    ConsultaTroco queryChange(long changeCents);
+}
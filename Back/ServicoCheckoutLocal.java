@@ -0,0 +1,217 @@
+package Back;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementação do {@link ServicoCheckout} sobre o estoque, o caixa e os pedidos do próprio processo.
+ *
+ * <p>
+ * Cada compra iniciada guarda a {@link Reserva} do estoque e o {@link Pedido} numerado até ser paga
+ * ou cancelada. Compras abandonadas têm a reserva liberada pelo varredor do {@link Estoque}; de
+ * tempos em tempos, {@code start} também remove essas compras e devolve os seus números de pedido.
+ * </p>
+ *
+ * <p>
+ * Todas as operações podem ser chamadas por várias threads ao mesmo tempo (por exemplo, pelo
+ * {@link ServidorCheckout}, que atende cada requisição em uma thread virtual).
+ * </p>
+ */
+public class ServicoCheckoutLocal implements ServicoCheckout
+{
+    private static final long RESERVATION_MINUTES = 5;
+    private static final int PURGE_INTERVAL = 1024;
+
+    private final Estoque stock;
+    private final Caixa cashControl;
+    private final ControlePedidos orders;
+    private final AlocadorPedidos.Quiosque kiosk;
+    private final Map<Long, CompraAberta> open = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Construtor da classe {@code ServicoCheckoutLocal}.
+     *
+     * @param stock o {@link Estoque} das vendas.
+     * @param cashControl o {@link Caixa} que recebe os pagamentos em dinheiro.
+     * @param orders o {@link ControlePedidos} onde os pedidos pagos são registrados.
+     * @param kiosk o {@link AlocadorPedidos.Quiosque} que numera os pedidos.
+     */
+    public ServicoCheckoutLocal(Estoque stock, Caixa cashControl, ControlePedidos orders, AlocadorPedidos.Quiosque kiosk)
+    {
+        this.stock = stock;
+        this.cashControl = cashControl;
+        this.orders = orders;
+        this.kiosk = kiosk;
+    }
+
+    @Override
+    public Collection<ProdutoEmEstoque> catalogue()
+    {
+        return Collections.unmodifiableCollection(stock.getProductsStock().values());
+    }
+
+    @Override
+    public long priceCart(Map<Integer, Integer> cart)
+    {
+        long total = 0;
+        for (Map.Entry<Integer, Integer> item : cart.entrySet())
+        {
+            ProdutoEmEstoque entry = stock.getProductsStock().get(item.getKey());
+            if (entry != null && item.getValue() > 0)
+                total += Caixa.toCents(entry.getProduct().getPrice()) * item.getValue();
+        }
+        return total;
+    }
+
+    @Override
+    public Compra start(Map<Integer, Integer> cart)
+    {
+        long id = nextId.incrementAndGet();
+        if (id % PURGE_INTERVAL == 0)
+            purgeAbandoned();
+
+        Reserva reservation = stock.reserve(cart, RESERVATION_MINUTES, TimeUnit.MINUTES);
+        if (reservation == null)
+            return null;
+
+        Map<Integer, Integer> items = new HashMap<>();
+        for (Map.Entry<Integer, Integer> item : cart.entrySet())
+            if (item.getValue() > 0)
+                items.put(item.getKey(), item.getValue());
+
+        Pedido order;
+        try
+        {
+            order = new Pedido(items, stock, kiosk);
+        }
+        catch (IllegalArgumentException e)
+        {
+            reservation.release();
+            return null;
+        }
+        Compra purchase = new Compra(id, order.getOrderNumber(), order.getTotalCents());
+        open.put(id, new CompraAberta(purchase, reservation, order));
+        return purchase;
+    }
+
+    @Override
+    public ResultadoPagamento payWithCard(Compra purchase)
+    {
+        CompraAberta pending = open.remove(purchase.getId());
+        if (pending == null)
+            return new ResultadoPagamento(ResultadoPagamento.Situacao.COMPRA_INVALIDA, null);
+
+        if (!pending.reservation.commit())
+        {
+            pending.order.cancel();
+            return new ResultadoPagamento(ResultadoPagamento.Situacao.ESTOQUE_INSUFICIENTE, null);
+        }
+
+        orders.newOrder(pending.order);
+        return new ResultadoPagamento(ResultadoPagamento.Situacao.APROVADO, null);
+    }
+
+    @Override
+    public ResultadoPagamento payWithCash(Compra purchase, int[] pieces)
+    {
+        CompraAberta pending = open.get(purchase.getId());
+        if (pending == null)
+            return new ResultadoPagamento(ResultadoPagamento.Situacao.COMPRA_INVALIDA, null);
+
+        long inserted = 0;
+        for (int slot = 0; slot < Caixa.getSlotCount(); slot++)
+            inserted += Caixa.getDenomination(slot) * Math.max(0, pieces[slot]);
+
+        long total = pending.purchase.getTotalCents();
+        if (inserted < total)
+            return new ResultadoPagamento(ResultadoPagamento.Situacao.VALOR_INSUFICIENTE, null);
+
+        int[] change = new int[Caixa.getSlotCount()];
+        if (!cashControl.calculateChangeCents(inserted - total, change))
+            return new ResultadoPagamento(ResultadoPagamento.Situacao.TROCO_INSUFICIENTE, null);
+
+        if (!open.remove(purchase.getId(), pending))
+        {
+            returnChange(change);
+            return new ResultadoPagamento(ResultadoPagamento.Situacao.COMPRA_INVALIDA, null);
+        }
+        if (!pending.reservation.commit())
+        {
+            returnChange(change);
+            pending.order.cancel();
+            return new ResultadoPagamento(ResultadoPagamento.Situacao.ESTOQUE_INSUFICIENTE, null);
+        }
+
+        for (int slot = 0; slot < Caixa.getSlotCount(); slot++)
+            if (pieces[slot] > 0)
+                cashControl.addCashCents(Caixa.getDenomination(slot), pieces[slot]);
+
+        orders.newOrder(pending.order);
+        return new ResultadoPagamento(ResultadoPagamento.Situacao.APROVADO, change);
+    }
+
+    @Override
+    public void cancel(Compra purchase)
+    {
+        CompraAberta pending = open.remove(purchase.getId());
+        if (pending != null)
+        {
+            pending.reservation.release();
+            pending.order.cancel();
+        }
+    }
+
+    @Override
+    public ConsultaTroco queryChange(long changeCents)
+    {
+        synchronized (cashControl)
+        {
+            return new ConsultaTroco(cashControl.canGiveChangeCents(changeCents), cashControl.getPayableChangeAtMostCents(changeCents));
+        }
+    }
+
+    /**
+     * Devolve ao caixa as peças de um troco que não chegou a ser entregue.
+     */
+    private void returnChange(int[] change)
+    {
+        for (int slot = 0; slot < change.length; slot++)
+            if (change[slot] > 0)
+                cashControl.addCashCents(Caixa.getDenomination(slot), change[slot]);
+    }
+
+    /**
+     * Remove as compras cuja reserva expirou, devolvendo os seus números de pedido.
+     *
+     * Assim como os pagamentos e o cancelamento, só mexe no pedido de uma compra depois de
+     * retirá-la de {@code open}: se um pagamento retirou a compra antes, ela é deixada para ele.
+     */
+    private void purgeAbandoned()
+    {
+        for (CompraAberta pending : open.values())
+        {
+            if (!pending.reservation.isActive() && open.remove(pending.purchase.getId(), pending))
+                pending.order.cancel();
+        }
+    }
+
+    private static final class CompraAberta
+    {
+        final Compra purchase;
+        final Reserva reservation;
+        final Pedido order;
+
+        CompraAberta(Compra purchase, Reserva reservation, Pedido order)
+        {
+            this.purchase = purchase;
+            this.reservation = reservation;
+            this.order = order;
+        }
+    }
+}
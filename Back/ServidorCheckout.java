@@ -0,0 +1,244 @@
+package Back;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP que expõe um {@link ServicoCheckout} como JSON, para vários quiosques
+ * compartilharem o mesmo estoque, caixa e pedidos.
+ *
+ * <p>
+ * Usa o {@link HttpServer} do JDK e atende cada requisição em uma thread virtual. Rotas:
+ * </p>
+ * <ul>
+ *   <li>{@code GET /catalogo}: produtos com código, nome, tipo, preço, validade e quantidade disponível;</li>
+ *   <li>{@code POST /carrinho/preco} com {@code {"itens":{"código":quantidade}}}: {@code {"total":centavos}};</li>
+ *   <li>{@code POST /compras} com {@code {"itens":{...}}}: {@code {"id":..,"pedido":..,"total":..}},
+ *       ou {@code 409} se não houver estoque;</li>
+ *   <li>{@code POST /compras/{id}/cartao}: {@code {"status":..}};</li>
+ *   <li>{@code POST /compras/{id}/dinheiro} com {@code {"pecas":[...]}}: {@code {"status":..,"troco":[...]}};</li>
+ *   <li>{@code POST /compras/{id}/cancelar}: {@code 204};</li>
+ *   <li>{@code GET /troco/{centavos}}: {@code {"possivel":true|false,"maximo":centavos}}, com o maior
+ *       troco possível até o valor informado.</li>
+ * </ul>
+ * <p>
+ * As quantidades de cédulas e moedas ({@code pecas} e {@code troco}) seguem a ordem dos slots do
+ * {@link Caixa}, de R$ 100,00 a R$ 0,05. Erros são respondidos com {@code {"erro":"mensagem"}}:
+ * {@code 400} para corpos sem os campos esperados ou com valores inválidos.
+ * </p>
+ */
+public class ServidorCheckout implements Closeable
+{
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ServicoCheckout service;
+
+    private ServidorCheckout(HttpServer server, ExecutorService executor, ServicoCheckout service)
+    {
+        this.server = server;
+        this.executor = executor;
+        this.service = service;
+    }
+
+    /**
+     * Inicia o servidor na porta informada.
+     *
+     * @param port a porta TCP (ou {@code 0} para uma porta livre qualquer).
+     * @param service o {@link ServicoCheckout} que executa as operações.
+     * @return o servidor iniciado.
+     * @throws IOException se a porta não puder ser aberta.
+     */
+    public static ServidorCheckout start(int port, ServicoCheckout service) throws IOException
+    {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        ServidorCheckout checkout = new ServidorCheckout(server, executor, service);
+
+        server.setExecutor(executor);
+        server.createContext("/", checkout::handle);
+        server.start();
+        return checkout;
+    }
+
+    /**
+     * Retorna a porta em que o servidor está atendendo.
+     *
+     * @return a porta TCP.
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Encerra o servidor, aguardando no máximo um segundo pelas requisições em andamento.
+     */
+    @Override
+    public void close()
+    {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().split("/");
+
+            if (path.length == 2 && path[1].equals("catalogo") && method.equals("GET"))
+                respond(exchange, 200, catalogue());
+            else if (path.length == 3 && path[1].equals("carrinho") && path[2].equals("preco") && method.equals("POST"))
+                respond(exchange, 200, "{\"total\":" + service.priceCart(readCart(exchange)) + "}");
+            else if (path.length == 2 && path[1].equals("compras") && method.equals("POST"))
+                start(exchange);
+            else if (path.length == 4 && path[1].equals("compras") && method.equals("POST"))
+                finish(exchange, new Compra(Long.parseLong(path[2]), 0, 0), path[3]);
+            else if (path.length == 3 && path[1].equals("troco") && method.equals("GET"))
+                change(exchange, Long.parseLong(path[2]));
+            else
+                error(exchange, 404, "Rota não encontrada: " + method + " " + exchange.getRequestURI().getPath());
+        }
+        catch (IllegalArgumentException | ClassCastException | IndexOutOfBoundsException e)
+        {
+            error(exchange, 400, "Requisição inválida: " + e.getMessage());
+        }
+        catch (RuntimeException e)
+        {
+            error(exchange, 500, "Erro interno: " + e);
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private void start(HttpExchange exchange) throws IOException
+    {
+        Compra purchase = service.start(readCart(exchange));
+        if (purchase == null)
+        {
+            error(exchange, 409, ResultadoPagamento.Situacao.ESTOQUE_INSUFICIENTE.name());
+            return;
+        }
+        respond(exchange, 201, "{\"id\":" + purchase.getId() + ",\"pedido\":" + purchase.getOrderNumber()
+                + ",\"total\":" + purchase.getTotalCents() + "}");
+    }
+
+    private void change(HttpExchange exchange, long changeCents) throws IOException
+    {
+        ConsultaTroco change = service.queryChange(changeCents);
+        respond(exchange, 200, "{\"possivel\":" + change.isPossible() + ",\"maximo\":" + change.getMaximum() + "}");
+    }
+
+    private void finish(HttpExchange exchange, Compra purchase, String action) throws IOException
+    {
+        ResultadoPagamento result;
+        switch (action)
+        {
+            case "cartao":
+                result = service.payWithCard(purchase);
+                break;
+            case "dinheiro":
+                if (!(Json.parseObject(readBody(exchange)).get("pecas") instanceof List<?> pieces))
+                    throw new IllegalArgumentException("campo \"pecas\" ausente ou não é uma lista");
+                int[] quantities = new int[Caixa.getSlotCount()];
+                for (int slot = 0; slot < quantities.length && slot < pieces.size(); slot++)
+                    quantities[slot] = number(pieces.get(slot), "pecas").intValue();
+                result = service.payWithCash(purchase, quantities);
+                break;
+            case "cancelar":
+                service.cancel(purchase);
+                exchange.sendResponseHeaders(204, -1);
+                return;
+            default:
+                error(exchange, 404, "Operação desconhecida: " + action);
+                return;
+        }
+
+        StringBuilder out = new StringBuilder("{\"status\":\"").append(result.getStatus().name()).append('"');
+        if (result.getChange() != null)
+        {
+            out.append(",\"troco\":[");
+            int[] change = result.getChange();
+            for (int slot = 0; slot < change.length; slot++)
+                out.append(slot == 0 ? "" : ",").append(change[slot]);
+            out.append(']');
+        }
+        respond(exchange, 200, out.append('}').toString());
+    }
+
+    private String catalogue()
+    {
+        StringBuilder out = new StringBuilder("[");
+        boolean first = true;
+        for (ProdutoEmEstoque entry : service.catalogue())
+        {
+            Produto product = entry.getProduct();
+            out.append(first ? "" : ",").append("{\"codigo\":").append(product.getCode()).append(",\"nome\":");
+            Json.quote(out, product.getName());
+            out.append(",\"tipo\":");
+            Json.quote(out, product.getType());
+            out.append(",\"preco\":").append(product.getPrice()).append(",\"validade\":");
+            Json.quote(out, (product.getValidity() == null) ? null : product.getValidity().toString());
+            out.append(",\"quantidade\":").append(entry.getAmountStock()).append('}');
+            first = false;
+        }
+        return out.append(']').toString();
+    }
+
+    private static Map<Integer, Integer> readCart(HttpExchange exchange) throws IOException
+    {
+        if (!(Json.parseObject(readBody(exchange)).get("itens") instanceof Map<?, ?> items))
+            throw new IllegalArgumentException("campo \"itens\" ausente ou não é um objeto");
+        Map<Integer, Integer> cart = new HashMap<>();
+        for (Map.Entry<?, ?> item : items.entrySet())
+            cart.put(Integer.parseInt((String) item.getKey()), number(item.getValue(), "itens").intValue());
+        return cart;
+    }
+
+    /**
+     * Verifica que um valor lido do JSON é um número, para que campos nulos sejam respondidos com {@code 400}.
+     */
+    private static Number number(Object value, String field)
+    {
+        if (!(value instanceof Number number))
+            throw new IllegalArgumentException("valor não numérico em \"" + field + "\": " + value);
+        return number;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException
+    {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static void error(HttpExchange exchange, int status, String message) throws IOException
+    {
+        StringBuilder out = new StringBuilder("{\"erro\":");
+        Json.quote(out, message);
+        respond(exchange, status, out.append('}').toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException
+    {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package Back;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot binário do estado do sistema, usado para acelerar a inicialização do quiosque.
+ *
+ * <p>
+ * O snapshot guarda, em formato compacto, todos os produtos do {@link Estoque} com suas
+ * quantidades, as denominações do {@link Caixa} e a posição final do {@link LogPedidos} usado pelo {@link ControlePedidos}. Junto com o
+ * estado, grava a geração do {@link Diario} a partir da qual as operações ainda não estão
+ * contidas no snapshot.
+ * </p>
+ *
+ * <p>
+ * Na inicialização, {@code read} carrega o snapshot mais recente e apenas o final do diário
+ * (as gerações posteriores) precisa ser reproduzido; o log de pedidos é percorrido somente a
+ * partir da posição gravada. Depois de cada {@code write}, as gerações antigas do diário são
+ * compactadas (apagadas).
+ * </p>
+ *
+ * <p>
+ * Formato: {@code [int MAGIC][int versão][long geração do diário][long fim do log][long pedidos no log][int maior número de pedido][int denominações]([long valor em centavos][int quantidade])*
+ * [int produtos]([produto][int quantidade])*[int crc32]}. O arquivo é gravado em um arquivo
+ * temporário e renomeado atomicamente. O maior número de pedido serve apenas para que o
+ * {@link AlocadorPedidos}, que controla a numeração, nunca repita um número já usado.
+ * </p>
+ */
+public class SnapshotSistema
+{
+    private static final int MAGIC = 0x534E4150; // "SNAP"
+    private static final int VERSION = 2;
+
+    private final Path file;
+    private final Estoque stock;
+    private final Caixa cashControl;
+    private final Diario journal;
+    private final LogPedidos orders;
+
+    /**
+     * Construtor da classe {@code SnapshotSistema}.
+     *
+     * @param file o arquivo do snapshot.
+     * @param stock o {@link Estoque} a ser salvo.
+     * @param cashControl o {@link Caixa} a ser salvo.
+     * @param journal o {@link Diario} ligado ao estoque e ao caixa.
+     * @param orders o {@link LogPedidos} usado pelo {@link ControlePedidos}.
+     */
+    public SnapshotSistema(Path file, Estoque stock, Caixa cashControl, Diario journal, LogPedidos orders)
+    {
+        this.file = file;
+        this.stock = stock;
+        this.cashControl = cashControl;
+        this.journal = journal;
+        this.orders = orders;
+    }
+
+    /**
+     * Captura o estado atual, grava o snapshot em disco e compacta o diário.
+     *
+     * A captura é feita com o estoque, o caixa e o log de pedidos bloqueados, no mesmo instante
+     * em que o diário passa para uma nova geração; a gravação em disco ocorre depois, sem
+     * bloquear as operações do quiosque, e só depois que o log de pedidos é forçado para o disco.
+     *
+     * @throws IOException se o snapshot não puder ser gravado.
+     */
+    public synchronized void write() throws IOException
+    {
+        ByteBuffer data;
+
+        BarreiraPontoDeControle checkpoint = stock.checkpoint();
+        checkpoint.lockExclusive();
+        try
+        {
+            synchronized (cashControl)
+            {
+                long generation = journal.roll();
+                data = capture(generation);
+            }
+        }
+        finally
+        {
+            checkpoint.unlockExclusive();
+        }
+
+        // O snapshot guarda o fim do log de pedidos: os pedidos até ali precisam estar em disco
+        // antes dele, senão uma queda deixaria o snapshot apontando para um trecho zerado
+        orders.force();
+
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.position());
+        data.putInt((int) crc.getValue());
+        data.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while (data.hasRemaining())
+                out.write(data);
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        journal.compact(data.getLong(8));
+    }
+
+    private ByteBuffer capture(long generation)
+    {
+        Map<Integer, ProdutoEmEstoque> products = stock.getProductsStock();
+
+        List<byte[]> texts = new ArrayList<>(products.size() * 2);
+        int size = 4 + 4 + 8 + 8 + 8 + 4 + 4 + Caixa.getSlotCount() * 12 + 4 + 4;
+        for (ProdutoEmEstoque pe : products.values())
+        {
+            byte[] name = pe.getProduct().getName().getBytes(StandardCharsets.UTF_8);
+            byte[] kind = pe.getProduct().getType().getBytes(StandardCharsets.UTF_8);
+            texts.add(name);
+            texts.add(kind);
+            size += Diario.productSize(name, kind) + 4;
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(size);
+        data.putInt(MAGIC);
+        data.putInt(VERSION);
+        data.putLong(generation);
+
+        synchronized (orders)
+        {
+            data.putLong(orders.getEnd());
+            data.putLong(orders.size());
+            data.putInt(orders.getHighestOrderNumber());
+        }
+
+        data.putInt(Caixa.getSlotCount());
+        for (int slot = 0; slot < Caixa.getSlotCount(); slot++)
+        {
+            long cents = Caixa.getDenomination(slot);
+            data.putLong(cents).putInt(cashControl.getQuantityBillCents(cents));
+        }
+
+        data.putInt(products.size());
+        int i = 0;
+        for (ProdutoEmEstoque pe : products.values())
+        {
+            Diario.writeProduct(data, pe.getProduct(), texts.get(i), texts.get(i + 1));
+            data.putInt(pe.getTotalStock());
+            i += 2;
+        }
+        return data;
+    }
+
+    /**
+     * Carrega o snapshot gravado em {@code file} sobre o estoque e o caixa informados.
+     *
+     * O estoque e o caixa não devem estar ligados a um {@link Diario} durante a carga.
+     * Se o arquivo não existir, nada é carregado e é retornado {@link PontoDeControle#EMPTY}.
+     *
+     * @param file o arquivo do snapshot.
+     * @param stock o {@link Estoque} a ser preenchido.
+     * @param cashControl o {@link Caixa} a ser preenchido.
+     * @return o ponto de controle gravado no snapshot, usado para abrir o diário e o log de pedidos.
+     * @throws IOException se o arquivo existir mas estiver corrompido ou não puder ser lido.
+     */
+    public static PontoDeControle read(Path file, Estoque stock, Caixa cashControl) throws IOException
+    {
+        if (!Files.exists(file))
+            return PontoDeControle.EMPTY;
+
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.remaining() < 8 || data.getInt() != MAGIC)
+            throw new IOException("Snapshot inválido: " + file);
+        int version = data.getInt();
+        if (version != VERSION)
+            throw new IOException("Versão de snapshot desconhecida (" + version + "): " + file);
+
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.limit() - 4);
+        if ((int) crc.getValue() != data.getInt(data.limit() - 4))
+            throw new IOException("Snapshot corrompido: " + file);
+
+        long generation = data.getLong();
+        long ordersEnd = data.getLong();
+        long ordersCount = data.getLong();
+        int highestOrderNumber = data.getInt();
+
+        cashControl.clearCashControl();
+        int denominations = data.getInt();
+        for (int i = 0; i < denominations; i++)
+            cashControl.addCashCents(data.getLong(), data.getInt());
+
+        int products = data.getInt();
+        stock.expectProducts(products);
+        for (int i = 0; i < products; i++)
+        {
+            Produto product = Diario.readProduct(data);
+            stock.restoreProduct(product, data.getInt());
+        }
+
+        return new PontoDeControle(generation, ordersEnd, ordersCount, highestOrderNumber);
+    }
+
+    /**
+     * Informações gravadas em um snapshot que indicam de onde retomar o diário e o log de pedidos.
+     */
+    public static final class PontoDeControle
+    {
+        /**
+         * Ponto de controle de um sistema sem snapshot: tudo é reproduzido desde o início.
+         */
+        public static final PontoDeControle EMPTY = new PontoDeControle(0, 0, 0, 0);
+
+        private final long journalGeneration;
+        private final long ordersEnd;
+        private final long ordersCount;
+        private final int highestOrderNumber;
+
+        private PontoDeControle(long journalGeneration, long ordersEnd, long ordersCount, int highestOrderNumber)
+        {
+            this.journalGeneration = journalGeneration;
+            this.ordersEnd = ordersEnd;
+            this.ordersCount = ordersCount;
+            this.highestOrderNumber = highestOrderNumber;
+        }
+
+        /**
+         * Retorna a primeira geração do diário que não está contida no snapshot.
+         *
+         * @return a geração a partir da qual o diário deve ser reproduzido.
+         */
+        public long getJournalGeneration()
+        {
+            return journalGeneration;
+        }
+
+        /**
+         * Abre o log de pedidos retomando da posição gravada no snapshot.
+         *
+         * @param directory o diretório dos segmentos do log.
+         * @return o log de pedidos aberto.
+         * @throws IOException se o log não puder ser aberto.
+         */
+        public LogPedidos openOrders(Path directory) throws IOException
+        {
+            return LogPedidos.open(directory, ordersEnd, ordersCount, highestOrderNumber);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package Back;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Produtos mais vendidos "agora": nos últimos 15 minutos, na última hora e no dia.
+ *
+ * <p>
+ * Mantido a cada pedido registrado pelo {@link ControlePedidos}. As vendas ficam em um anel de
+ * {@code MINUTES} baldes de um minuto e em um balde do dia; cada balde é um resumo Space-Saving
+ * de {@code CAPACITY} contadores, que guarda os produtos mais vendidos do balde sem crescer com o
+ * catálogo: quando o resumo está cheio, o produto novo ocupa o lugar do contador menor e herda a
+ * sua contagem. Assim a memória é constante, e a contagem de um produto pode ser superestimada em
+ * no máximo o menor contador do balde; os produtos realmente mais vendidos aparecem sempre.
+ * </p>
+ *
+ * <p>
+ * A consulta soma os baldes da janela e escolhe os {@code k} maiores com um heap de tamanho
+ * {@code k}. Todos os métodos são sincronizados: o registro de um pedido custa poucas operações
+ * por item, e a consulta percorre no máximo {@code MINUTES × CAPACITY} contadores.
+ * </p>
+ */
+public final class VendasAoVivo
+{
+    private static final int MINUTES = 60;
+    private static final int CAPACITY = 64;
+    private static final long MINUTE_MILLIS = 60_000;
+
+    /**
+     * Janelas de tempo consultadas.
+     */
+    public enum Janela
+    {
+        QUINZE_MINUTOS("Últimos 15 minutos", 15),
+        UMA_HORA("Última hora", 60),
+        HOJE("Hoje", 0);
+
+        private final String label;
+        private final int minutes;
+
+        Janela(String label, int minutes)
+        {
+            this.label = label;
+            this.minutes = minutes;
+        }
+
+        @Override
+        public String toString()
+        {
+            return label;
+        }
+    }
+
+    private final Clock clock;
+    private final Resumo[] ring = new Resumo[MINUTES];
+    private final long[] ringMinutes = new long[MINUTES];
+    private final Resumo today = new Resumo();
+    private LocalDate todayDate;
+
+    /**
+     * Construtor da classe {@code VendasAoVivo}, usando o relógio do sistema.
+     */
+    public VendasAoVivo()
+    {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Construtor da classe {@code VendasAoVivo}.
+     *
+     * @param clock o relógio que define o minuto e o dia de cada venda.
+     */
+    public VendasAoVivo(Clock clock)
+    {
+        this.clock = clock;
+        for (int i = 0; i < MINUTES; i++)
+        {
+            ring[i] = new Resumo();
+            ringMinutes[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Soma as unidades de um pedido ao minuto e ao dia atuais.
+     *
+     * @param order o pedido registrado.
+     */
+    public synchronized void record(Pedido order)
+    {
+        long minute = clock.millis() / MINUTE_MILLIS;
+        Resumo bucket = bucket(minute);
+        rollDay();
+
+        for (ItemPedido line : order.getLines())
+        {
+            bucket.add(line.getCode(), line.getName(), line.getQuantity());
+            today.add(line.getCode(), line.getName(), line.getQuantity());
+        }
+    }
+
+    /**
+     * Retorna os produtos mais vendidos na janela, do mais vendido ao menos vendido.
+     *
+     * @param window a janela de tempo.
+     * @param k a quantidade máxima de produtos.
+     * @return até {@code k} produtos, com as unidades vendidas na janela.
+     */
+    public synchronized List<Posicao> top(Janela window, int k)
+    {
+        Map<Integer, Posicao> totals = new HashMap<>();
+        if (window == Janela.HOJE)
+        {
+            rollDay();
+            today.addTo(totals);
+        }
+        else
+        {
+            long now = clock.millis() / MINUTE_MILLIS;
+            for (long minute = now - window.minutes + 1; minute <= now; minute++)
+            {
+                int slot = (int) Math.floorMod(minute, (long) MINUTES);
+                if (ringMinutes[slot] == minute)
+                    ring[slot].addTo(totals);
+            }
+        }
+
+        PriorityQueue<Posicao> heap = new PriorityQueue<>(k + 1, (a, b) -> Long.compare(a.units, b.units));
+        for (Posicao position : totals.values())
+        {
+            heap.add(position);
+            if (heap.size() > k)
+                heap.poll();
+        }
+
+        List<Posicao> ranking = new ArrayList<>(heap);
+        ranking.sort((a, b) -> Long.compare(b.units, a.units));
+        return ranking;
+    }
+
+    private Resumo bucket(long minute)
+    {
+        int slot = (int) Math.floorMod(minute, (long) MINUTES);
+        if (ringMinutes[slot] != minute)
+        {
+            ring[slot].clear();
+            ringMinutes[slot] = minute;
+        }
+        return ring[slot];
+    }
+
+    private void rollDay()
+    {
+        LocalDate date = LocalDate.now(clock);
+        if (!date.equals(todayDate))
+        {
+            today.clear();
+            todayDate = date;
+        }
+    }
+
+    /**
+     * Um produto no ranking e as unidades vendidas na janela.
+     */
+    public static final class Posicao
+    {
+        private final int code;
+        private final String name;
+        private long units;
+
+        private Posicao(int code, String name, long units)
+        {
+            this.code = code;
+            this.name = name;
+            this.units = units;
+        }
+
+        /**
+         * Retorna o código do produto.
+         *
+         * @return o código.
+         */
+        public int getCode()
+        {
+            return code;
+        }
+
+        /**
+         * Retorna o nome do produto na venda mais recente.
+         *
+         * @return o nome.
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Retorna as unidades vendidas na janela (podem estar superestimadas para produtos
+         * com poucas vendas; veja {@link VendasAoVivo}).
+         *
+         * @return as unidades.
+         */
+        public long getUnits()
+        {
+            return units;
+        }
+    }
+
+    /**
+     * Resumo Space-Saving de um balde: no máximo {@code CAPACITY} produtos e as suas contagens.
+     */
+    private static final class Resumo
+    {
+        final int[] codes = new int[CAPACITY];
+        final String[] names = new String[CAPACITY];
+        final long[] counts = new long[CAPACITY];
+        int size;
+
+        void add(int code, String name, long units)
+        {
+            int min = 0;
+            for (int i = 0; i < size; i++)
+            {
+                if (codes[i] == code)
+                {
+                    counts[i] += units;
+                    if (name != null)
+                        names[i] = name;
+                    return;
+                }
+                if (counts[i] < counts[min])
+                    min = i;
+            }
+
+            if (size < CAPACITY)
+            {
+                codes[size] = code;
+                names[size] = (name != null) ? name : "Produto " + code;
+                counts[size++] = units;
+            }
+            else
+            {
+                codes[min] = code;
+                names[min] = (name != null) ? name : "Produto " + code;
+                counts[min] += units;
+            }
+        }
+
+        void addTo(Map<Integer, Posicao> totals)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                Posicao position = totals.get(codes[i]);
+                if (position == null)
+                    totals.put(codes[i], new Posicao(codes[i], names[i], counts[i]));
+                else
+                    position.units += counts[i];
+            }
+        }
+
+        void clear()
+        {
+            size = 0;
+            Arrays.fill(names, null);
+        }
+    }
+}
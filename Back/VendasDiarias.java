@@ -0,0 +1,202 @@
+package Back;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Totais de vendas por dia e por produto: unidades vendidas e receita em centavos, além do
+ * nome mais recente com que cada produto foi vendido.
+ *
+ * <p>
+ * Mantidos pelo {@link ControlePedidos} a cada pedido registrado, permitem que o relatório
+ * de produtos mais vendidos some apenas os totais de cada dia do período, com custo proporcional
+ * a dias × produtos e não à quantidade de pedidos.
+ * </p>
+ *
+ * <p>
+ * Cada dia guarda os totais em uma tabela de endereçamento aberto com vetores primitivos
+ * (código, unidades e receita), sem objetos por produto. Não é thread-safe: o
+ * {@link ControlePedidos} sincroniza o acesso.
+ * </p>
+ */
+final class VendasDiarias
+{
+    private final NavigableMap<Integer, Dia> days = new TreeMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+    private long orderCount;
+
+    /**
+     * Soma um pedido aos totais do seu dia, com o preço e o nome gravados em cada linha.
+     *
+     * @param order o pedido registrado.
+     */
+    void record(Pedido order)
+    {
+        Dia day = days.computeIfAbsent((int) order.getOrderDate().toEpochDay(), d -> new Dia());
+        for (ItemPedido line : order.getLines())
+        {
+            day.add(line.getCode(), line.getQuantity(), line.getTotalCents());
+            names.put(line.getCode(), line.getName());
+        }
+        orderCount++;
+    }
+
+    /**
+     * Soma a estes totais os totais de outra parte do histórico, posterior a esta (os nomes da
+     * outra parte prevalecem, por serem mais recentes). Usado para juntar os resultados parciais
+     * calculados em paralelo pelo {@link MotorRelatorios}.
+     *
+     * @param later os totais da parte seguinte do histórico.
+     * @return estes totais, já somados.
+     */
+    VendasDiarias merge(VendasDiarias later)
+    {
+        for (Map.Entry<Integer, Dia> entry : later.days.entrySet())
+        {
+            Dia day = days.computeIfAbsent(entry.getKey(), d -> new Dia());
+            Dia other = entry.getValue();
+            for (int slot = 0; slot < other.codes.length; slot++)
+                if (other.used[slot])
+                    day.add(other.codes[slot], other.units[slot], other.revenue[slot]);
+        }
+        names.putAll(later.names);
+        orderCount += later.orderCount;
+        return this;
+    }
+
+    /**
+     * Retorna a quantidade de pedidos somados.
+     *
+     * @return o total de pedidos.
+     */
+    long getOrderCount()
+    {
+        return orderCount;
+    }
+
+    /**
+     * Retorna as unidades vendidas de cada produto entre duas datas (inclusive).
+     *
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @return o código de cada produto vendido e a quantidade vendida.
+     */
+    Map<Integer, Long> unitsSold(LocalDate startDate, LocalDate endDate)
+    {
+        return merge(startDate, endDate, false);
+    }
+
+    /**
+     * Retorna as unidades vendidas de cada produto em todos os dias somados.
+     *
+     * @return o código de cada produto vendido e a quantidade vendida.
+     */
+    Map<Integer, Long> unitsSold()
+    {
+        Map<Integer, Long> totals = new HashMap<>();
+        for (Dia day : days.values())
+            for (int slot = 0; slot < day.codes.length; slot++)
+                if (day.used[slot])
+                    totals.merge(day.codes[slot], day.units[slot], Long::sum);
+        return totals;
+    }
+
+    /**
+     * Retorna a receita de cada produto entre duas datas (inclusive).
+     *
+     * @param startDate a data inicial do período.
+     * @param endDate a data final do período.
+     * @return o código de cada produto vendido e a receita em centavos.
+     */
+    Map<Integer, Long> revenueCents(LocalDate startDate, LocalDate endDate)
+    {
+        return merge(startDate, endDate, true);
+    }
+
+    /**
+     * Retorna o nome de cada produto vendido, como gravado no pedido mais recente.
+     *
+     * @return o código e o nome de cada produto.
+     */
+    Map<Integer, String> productNames()
+    {
+        return new HashMap<>(names);
+    }
+
+    private Map<Integer, Long> merge(LocalDate startDate, LocalDate endDate, boolean revenue)
+    {
+        Map<Integer, Long> totals = new HashMap<>();
+        if (startDate.isAfter(endDate))
+            return totals;
+
+        for (Dia day : days.subMap((int) startDate.toEpochDay(), true, (int) endDate.toEpochDay(), true).values())
+            for (int slot = 0; slot < day.codes.length; slot++)
+                if (day.used[slot])
+                    totals.merge(day.codes[slot], revenue ? day.revenue[slot] : day.units[slot], Long::sum);
+        return totals;
+    }
+
+    /**
+     * Totais de um dia, em uma tabela de endereçamento aberto indexada pelo código do produto.
+     */
+    private static final class Dia
+    {
+        int[] codes = new int[16];
+        long[] units = new long[16];
+        long[] revenue = new long[16];
+        boolean[] used = new boolean[16];
+        int size;
+
+        void add(int code, long quantity, long cents)
+        {
+            if (2 * (size + 1) > codes.length)
+                grow();
+
+            int slot = find(codes, used, code);
+            if (!used[slot])
+            {
+                used[slot] = true;
+                codes[slot] = code;
+                size++;
+            }
+            units[slot] += quantity;
+            revenue[slot] += cents;
+        }
+
+        private void grow()
+        {
+            int[] oldCodes = codes;
+            long[] oldUnits = units;
+            long[] oldRevenue = revenue;
+            boolean[] oldUsed = used;
+
+            codes = new int[oldCodes.length * 2];
+            units = new long[codes.length];
+            revenue = new long[codes.length];
+            used = new boolean[codes.length];
+            for (int i = 0; i < oldCodes.length; i++)
+            {
+                if (!oldUsed[i])
+                    continue;
+                int slot = find(codes, used, oldCodes[i]);
+                used[slot] = true;
+                codes[slot] = oldCodes[i];
+                units[slot] = oldUnits[i];
+                revenue[slot] = oldRevenue[i];
+            }
+        }
+
+        private static int find(int[] codes, boolean[] used, int code)
+        {
+            int mask = codes.length - 1;
+            int hash = code * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (used[slot] && codes[slot] != code)
+                slot = (slot + 1) & mask;
+            return slot;
+        }
+    }
+}
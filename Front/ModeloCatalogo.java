@@ -0,0 +1,155 @@
+package Front;
+
+import Back.*;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Modelo de tabela do catálogo da {@link TelaAutoatendimento}.
+ *
+ * Cada linha é o cabeçalho de uma categoria (um {@code String}) ou um produto (um
+ * {@link ProdutoEmEstoque}), na ordem das categorias informada. O modelo guarda apenas uma
+ * referência por linha: os componentes são criados pelo renderizador da {@code JTable}, e só
+ * para as linhas visíveis. As quantidades ficam no {@link Carrinho}.
+ */
+public class ModeloCatalogo extends AbstractTableModel
+{
+    private final List<String> types;
+    private final Carrinho cart;
+    private final List<Object> rows = new ArrayList<>();
+    private final List<Integer> headerRows = new ArrayList<>();
+
+    /**
+     * Construtor da classe {@link ModeloCatalogo}.
+     *
+     * @param products os produtos do estoque.
+     * @param hidden os códigos dos produtos que não devem ser exibidos (por exemplo, os vencidos).
+     * @param types as categorias exibidas, na ordem da tela; produtos de outras categorias são ignorados.
+     * @param cart o {@link Carrinho} da compra.
+     */
+    public ModeloCatalogo(Collection<ProdutoEmEstoque> products, Set<Integer> hidden, List<String> types, Carrinho cart)
+    {
+        this.types = types;
+        this.cart = cart;
+        build(products, hidden);
+    }
+
+    @Override
+    public int getRowCount()
+    {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount()
+    {
+        return 1;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column)
+    {
+        return rows.get(row);
+    }
+
+    /**
+     * Verifica se a linha é o cabeçalho de uma categoria.
+     *
+     * @param row a linha.
+     * @return {@code true} para cabeçalhos de categoria.
+     */
+    public boolean isHeader(int row)
+    {
+        return rows.get(row) instanceof String;
+    }
+
+    /**
+     * Retorna as linhas de cabeçalho de categoria, em ordem.
+     *
+     * @return os índices das linhas de cabeçalho.
+     */
+    public List<Integer> getHeaderRows()
+    {
+        return headerRows;
+    }
+
+    /**
+     * Retorna a quantidade de um produto no carrinho.
+     *
+     * @param product o produto.
+     * @return a quantidade, ou {@code 0} se o produto não estiver no carrinho.
+     */
+    public int getQuantity(ProdutoEmEstoque product)
+    {
+        return cart.getQuantity(product.getProduct().getCode());
+    }
+
+    /**
+     * Soma uma quantidade (positiva ou negativa) ao produto de uma linha no carrinho, sem
+     * deixá-la abaixo de zero.
+     *
+     * @param row a linha do produto.
+     * @param delta a quantidade somada.
+     * @return {@code true} se o carrinho mudou.
+     */
+    public boolean add(int row, int delta)
+    {
+        if (isHeader(row))
+            return false;
+
+        if (!cart.add(((ProdutoEmEstoque) rows.get(row)).getProduct(), delta))
+            return false;
+
+        fireTableCellUpdated(row, 0);
+        return true;
+    }
+
+    /**
+     * Remove do catálogo e do carrinho os produtos informados.
+     *
+     * @param codes os códigos dos produtos.
+     */
+    public void hide(Collection<Integer> codes)
+    {
+        Set<Integer> hidden = new HashSet<>(codes);
+        List<ProdutoEmEstoque> products = new ArrayList<>(rows.size());
+        for (Object row : rows)
+            if (row instanceof ProdutoEmEstoque product)
+                products.add(product);
+
+        for (int code : hidden)
+            cart.remove(code);
+        build(products, hidden);
+        fireTableDataChanged();
+    }
+
+    private void build(Collection<ProdutoEmEstoque> products, Set<Integer> hidden)
+    {
+        List<List<ProdutoEmEstoque>> byType = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++)
+            byType.add(new ArrayList<>());
+
+        for (ProdutoEmEstoque pe : products)
+        {
+            int index = types.indexOf(pe.getProduct().getType());
+            if (index >= 0 && !hidden.contains(pe.getProduct().getCode()))
+                byType.get(index).add(pe);
+        }
+
+        rows.clear();
+        headerRows.clear();
+        for (int i = 0; i < types.size(); i++)
+        {
+            if (byType.get(i).isEmpty())
+                continue;
+            headerRows.add(rows.size());
+            rows.add(types.get(i));
+            rows.addAll(byType.get(i));
+        }
+    }
+}
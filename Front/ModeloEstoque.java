@@ -0,0 +1,148 @@
+package Front;
+
+import Back.*;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Modelo de uma tabela de categoria da {@link TelaEstoque}.
+ *
+ * Guarda os produtos da categoria em ordem de código e lê o nome, o preço, a quantidade e a
+ * validade diretamente de cada {@link ProdutoEmEstoque}. Assim, uma alteração no estoque
+ * atualiza, insere ou remove apenas a linha do produto, sem recriar a tabela.
+ */
+public class ModeloEstoque extends AbstractTableModel
+{
+    private static final String[] COLUMNS = {"Código", "Produto", "Preço", "Qtd", "validity"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final List<ProdutoEmEstoque> rows;
+
+    /**
+     * Construtor da classe {@link ModeloEstoque}.
+     *
+     * @param products os produtos da categoria, em qualquer ordem.
+     */
+    public ModeloEstoque(Collection<ProdutoEmEstoque> products)
+    {
+        rows = new ArrayList<>(products);
+        rows.sort(Comparator.comparingInt(pe -> pe.getProduct().getCode()));
+    }
+
+    @Override
+    public int getRowCount()
+    {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount()
+    {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column)
+    {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column)
+    {
+        ProdutoEmEstoque pe = rows.get(row);
+        Produto p = pe.getProduct();
+        switch (column)
+        {
+            case 0:
+                return p.getCode();
+            case 1:
+                return p.getName();
+            case 2:
+                return String.format("R$ %.2f", p.getPrice());
+            case 3:
+                return pe.getAmountStock();
+            default:
+                LocalDate validity = p.getValidity();
+                return (validity != null) ? validity.format(DATE_FORMAT) : "—";
+        }
+    }
+
+    /**
+     * Verifica se um produto está nesta tabela.
+     *
+     * @param code o código do produto.
+     * @return {@code true} se o produto tiver uma linha nesta tabela.
+     */
+    public boolean contains(int code)
+    {
+        return find(code) >= 0;
+    }
+
+    /**
+     * Insere a linha de um produto, na posição do seu código, ou atualiza a linha existente.
+     *
+     * @param entry o produto como está no estoque.
+     */
+    public void put(ProdutoEmEstoque entry)
+    {
+        int row = find(entry.getProduct().getCode());
+        if (row >= 0)
+        {
+            rows.set(row, entry);
+            fireTableRowsUpdated(row, row);
+        }
+        else
+        {
+            row = -row - 1;
+            rows.add(row, entry);
+            fireTableRowsInserted(row, row);
+        }
+    }
+
+    /**
+     * Remove a linha de um produto.
+     *
+     * @param code o código do produto.
+     * @return {@code true} se o produto estava nesta tabela.
+     */
+    public boolean remove(int code)
+    {
+        int row = find(code);
+        if (row < 0)
+            return false;
+
+        rows.remove(row);
+        fireTableRowsDeleted(row, row);
+        return true;
+    }
+
+    /**
+     * Busca binária pelo código do produto.
+     *
+     * @return a linha do produto; ou {@code -(ponto de inserção) - 1} se ele não estiver na tabela.
+     */
+    private int find(int code)
+    {
+        int low = 0;
+        int high = rows.size() - 1;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int midCode = rows.get(mid).getProduct().getCode();
+            if (midCode < code)
+                low = mid + 1;
+            else if (midCode > code)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+}
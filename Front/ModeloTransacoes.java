@@ -0,0 +1,144 @@
+package Front;
+
+import Back.*;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modelo de tabela do relatório de transações, que lê os pedidos sob demanda.
+ *
+ * A quantidade de linhas vem do índice por dia do {@link LogPedidos}, sem ler os pedidos.
+ * Quando a {@code JTable} pede uma célula, o modelo lê apenas a página de {@code PAGE_SIZE}
+ * pedidos que a contém, a partir de um cursor posicionado no {@link LogPedidos.Periodo}, e
+ * formata cada linha na primeira vez em que ela é exibida. A leitura da página roda fora da
+ * thread de eventos, pelo {@link ServicoAssincrono}; até ela chegar, a linha mostra "Carregando...",
+ * e se a leitura falhar, "Erro ao carregar" com a mensagem do erro. Só as últimas {@code CACHED_PAGES}
+ * páginas ficam em memória, então o diálogo abre na hora e usa pouca memória mesmo com um
+ * período de vários anos.
+ */
+public class ModeloTransacoes extends AbstractTableModel
+{
+    private static final int PAGE_SIZE = 256;
+    private static final int CACHED_PAGES = 16;
+    private static final String[] COLUMNS = {"Número do Pedido", "Data", "Valor (R$)"};
+
+    private final LogPedidos.Periodo orders;
+    private final int rowCount;
+    private final Set<Long> loading = new HashSet<>();
+    private final Map<Long, Pagina> pages = new LinkedHashMap<>(CACHED_PAGES, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Pagina> eldest)
+        {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    /**
+     * Construtor da classe {@link ModeloTransacoes}.
+     *
+     * @param orders os pedidos do período (por exemplo, de {@link ControlePedidos#getOrders(java.time.LocalDate, java.time.LocalDate)}).
+     */
+    public ModeloTransacoes(LogPedidos.Periodo orders)
+    {
+        this.orders = orders;
+        this.rowCount = (int) Math.min(Integer.MAX_VALUE, orders.size());
+    }
+
+    @Override
+    public int getRowCount()
+    {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount()
+    {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column)
+    {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column)
+    {
+        long number = (long) row / PAGE_SIZE;
+        Pagina page = pages.get(number);
+        if (page == null)
+        {
+            requestPage(number);
+            return (column == 0) ? "Carregando..." : "";
+        }
+
+        if (page.error != null)
+            return (column == 0) ? "Erro ao carregar" : (column == 1) ? page.error : "";
+
+        int index = row % PAGE_SIZE;
+
+        if (page.rows[index] == null)
+            page.rows[index] = Relatorios.transactionRow(page.orders[index]);
+        return page.rows[index][column];
+    }
+
+    /**
+     * Lê uma página fora da thread de eventos e, quando ela chega, redesenha as suas linhas.
+     * Se a leitura falhar, as linhas da página mostram o erro; a página só é pedida de novo
+     * depois de sair do cache de páginas.
+     */
+    private void requestPage(long number)
+    {
+        if (!loading.add(number))
+            return;
+
+        ServicoAssincrono.call(() -> load(number)).whenComplete((page, error) -> {
+            loading.remove(number);
+            pages.put(number, (error == null) ? page : new Pagina(error));
+            int first = (int) (number * PAGE_SIZE);
+            fireTableRowsUpdated(first, (int) Math.min(rowCount, first + (long) PAGE_SIZE) - 1);
+        });
+    }
+
+    private Pagina load(long number)
+    {
+        long first = number * PAGE_SIZE;
+        Pagina page = new Pagina((int) Math.min(PAGE_SIZE, rowCount - first));
+
+        Iterator<Pedido> cursor = orders.iterator(first);
+        for (int i = 0; i < page.orders.length && cursor.hasNext(); i++)
+            page.orders[i] = cursor.next();
+        return page;
+    }
+
+    /**
+     * Pedidos de uma página e as suas linhas já formatadas, ou o erro que impediu a sua leitura.
+     */
+    private static final class Pagina
+    {
+        final Pedido[] orders;
+        final Object[][] rows;
+        final String error;
+
+        Pagina(int size)
+        {
+            orders = new Pedido[size];
+            rows = new Object[size][];
+            error = null;
+        }
+
+        Pagina(Throwable failure)
+        {
+            orders = new Pedido[0];
+            rows = new Object[0][];
+            error = (failure.getMessage() != null) ? failure.getMessage() : failure.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package Front;
+
+import Back.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Janela única do sistema, que alterna entre as telas com um {@link CardLayout}.
+ *
+ * <p>
+ * Cada tela é construída uma única vez, na primeira vez em que é aberta, e guardada: as
+ * navegações seguintes apenas trocam a tela exibida e chamam {@link Tela#reset()}, que a
+ * devolve ao estado inicial. As telas do autoatendimento ({@link TelaIniciarCompra} e
+ * {@link TelaAutoatendimento}) já são construídas junto com a janela, para que a volta ao
+ * início depois de um pedido não precise montar nenhuma interface.
+ * </p>
+ *
+ * <p>
+ * Os diálogos das telas usam esta janela como dona. Deve ser usada apenas pela thread de
+ * eventos do Swing.
+ * </p>
+ */
+public class Navegador extends JFrame
+{
+    /**
+     * Uma tela exibida pelo {@link Navegador}.
+     */
+    public interface Tela
+    {
+        /**
+         * Retorna o título da janela enquanto a tela estiver aberta.
+         *
+         * @return o título.
+         */
+        String getTitle();
+
+        /**
+         * Devolve a tela ao estado inicial e atualiza os dados exibidos. Chamado sempre que a
+         * tela é aberta, antes de ser exibida.
+         */
+        default void reset()
+        {
+        }
+
+        /**
+         * Chamado quando outra tela é aberta no lugar desta; por exemplo, para parar atualizações periódicas.
+         */
+        default void hidden()
+        {
+        }
+    }
+
+    private final CardLayout cards = new CardLayout();
+    private final JPanel deck = new JPanel(cards);
+    private final Map<Class<?>, Supplier<? extends JPanel>> factories = new HashMap<>();
+    private final Map<Class<?>, JPanel> screens = new HashMap<>();
+    private Tela current;
+
+    /**
+     * Construtor da classe {@link Navegador}.
+     *
+     * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
+     * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
+     * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
+     */
+    public Navegador(Estoque stock, Caixa cashControl, ControlePedidos orders)
+    {
+        setSize(600, 800);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+        setResizable(false);
+
+        getContentPane().setBackground(new Color(197, 202, 196));
+        setLayout(new BorderLayout());
+        deck.setBackground(new Color(197, 202, 196));
+        add(deck);
+
+        factories.put(TelaInicial.class, () -> new TelaInicial(this, stock, cashControl, orders));
+        factories.put(TelaIniciarCompra.class, () -> new TelaIniciarCompra(this, stock, cashControl, orders));
+        factories.put(TelaAutoatendimento.class, () -> new TelaAutoatendimento(this, stock, cashControl, orders));
+        factories.put(TelaAdmin.class, () -> new TelaAdmin(this, stock, cashControl, orders));
+        factories.put(TelaEstoque.class, () -> new TelaEstoque(this, stock, cashControl, orders));
+        factories.put(TelaControleCaixa.class, () -> new TelaControleCaixa(this, stock, cashControl, orders));
+        factories.put(TelaRelatorio.class, () -> new TelaRelatorio(this, stock, cashControl, orders));
+
+        screen(TelaIniciarCompra.class);
+        screen(TelaAutoatendimento.class);
+    }
+
+    /**
+     * Abre uma tela: constrói a tela na primeira vez, a devolve ao estado inicial
+     * ({@link Tela#reset()}) e a exibe no lugar da tela atual.
+     *
+     * @param type a classe da tela.
+     * @return a tela aberta.
+     */
+    public <T extends JPanel & Tela> T open(Class<T> type)
+    {
+        T screen = screen(type);
+        if (current != null && current != screen)
+            current.hidden();
+
+        screen.reset();
+        cards.show(deck, type.getName());
+        setTitle(screen.getTitle());
+        current = screen;
+        return screen;
+    }
+
+    private <T extends JPanel & Tela> T screen(Class<T> type)
+    {
+        JPanel screen = screens.get(type);
+        if (screen == null)
+        {
+            screen = factories.get(type).get();
+            screens.put(type, screen);
+            deck.add(screen, type.getName());
+        }
+        return type.cast(screen);
+    }
+}
@@ -0,0 +1,273 @@
+package Front;
+
+import Back.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fachada assíncrona das chamadas das telas ao {@link Estoque}, ao {@link Caixa} e ao
+ * {@link ServicoCheckout}.
+ *
+ * <p>
+ * As chamadas rodam, na ordem em que são feitas, em uma única thread de serviço, e os
+ * {@link CompletableFuture}s devolvidos completam na thread de eventos do Swing: as ações
+ * encadeadas neles podem atualizar a tela diretamente. Assim, um estoque persistido em disco
+ * ou um checkout remoto ({@link ClienteCheckout}) nunca congela a tela de toque.
+ * </p>
+ *
+ * <p>
+ * Os métodos que recebem a janela de origem mostram um indicador de ocupado sobre ela enquanto
+ * a chamada não termina (bloqueando cliques na janela e, opcionalmente, oferecendo um botão
+ * "Cancelar") e exibem um diálogo de erro se a chamada falhar. Cancelar descarta o resultado
+ * na tela e interrompe a chamada, se ela ainda estiver em andamento, para que uma requisição
+ * travada a um checkout remoto não prenda a thread de serviço; a operação que o serviço já
+ * concluiu não é desfeita.
+ * </p>
+ */
+public final class ServicoAssincrono
+{
+    private static final int BUSY_DELAY_MILLIS = 150;
+    private static final String BUSY_COUNT = "ServicoAssincrono.ocupado";
+    private static final String PREVIOUS_GLASS_PANE = "ServicoAssincrono.vidroAnterior";
+
+    private static final ExecutorService SERVICE = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "servicos");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Executor EDT = SwingUtilities::invokeLater;
+
+    private ServicoAssincrono()
+    {
+    }
+
+    /**
+     * Executa uma chamada na thread de serviço.
+     *
+     * @param task a chamada.
+     * @return o resultado, entregue na thread de eventos do Swing.
+     */
+    public static <T> CompletableFuture<T> call(Supplier<T> task)
+    {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(task, SERVICE).whenComplete((result, error) -> EDT.execute(() -> {
+            if (error == null)
+                future.complete(result);
+            else
+                future.completeExceptionally(unwrap(error));
+        }));
+        return future;
+    }
+
+    /**
+     * Executa uma chamada na thread de serviço com o indicador de ocupado sobre a janela de
+     * origem, e trata o resultado na thread de eventos.
+     *
+     * @param owner um componente da janela de origem.
+     * @param task a chamada.
+     * @param onSuccess recebe o resultado, se a chamada terminar sem erro.
+     * @return o resultado, entregue na thread de eventos do Swing.
+     */
+    public static <T> CompletableFuture<T> call(Component owner, Supplier<T> task, Consumer<T> onSuccess)
+    {
+        return await(owner, call(task), false, onSuccess);
+    }
+
+    /**
+     * Como {@link #call(Component, Supplier, Consumer)}, mas o indicador de ocupado oferece um
+     * botão "Cancelar", que descarta o resultado e interrompe a chamada em andamento.
+     *
+     * @param owner um componente da janela de origem.
+     * @param task a chamada.
+     * @param onSuccess recebe o resultado, se a chamada terminar sem erro e não for cancelada.
+     * @return o resultado, entregue na thread de eventos do Swing; cancelado se o cliente cancelar.
+     */
+    public static <T> CompletableFuture<T> callCancellable(Component owner, Supplier<T> task, Consumer<T> onSuccess)
+    {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> running = SERVICE.submit(() -> {
+            try
+            {
+                T result = task.get();
+                EDT.execute(() -> future.complete(result));
+            }
+            catch (Throwable error)
+            {
+                EDT.execute(() -> future.completeExceptionally(error));
+            }
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled())
+                running.cancel(true);
+        });
+        return await(owner, future, true, onSuccess);
+    }
+
+    /**
+     * Mostra o indicador de ocupado sobre a janela de origem até que um resultado fique pronto,
+     * e então o trata na thread de eventos: {@code onSuccess} recebe o resultado; um erro é
+     * exibido em um diálogo; um cancelamento é ignorado.
+     *
+     * @param owner um componente da janela de origem.
+     * @param future o resultado esperado, completado na thread de eventos.
+     * @param cancellable se o indicador deve oferecer o botão "Cancelar".
+     * @param onSuccess recebe o resultado.
+     * @return o próprio {@code future}.
+     */
+    public static <T> CompletableFuture<T> await(Component owner, CompletableFuture<T> future, boolean cancellable, Consumer<T> onSuccess)
+    {
+        Runnable hide = showBusy(owner, cancellable ? () -> future.cancel(false) : null);
+        future.whenComplete((result, error) -> {
+            hide.run();
+            if (error == null)
+                onSuccess.accept(result);
+            else if (!(unwrap(error) instanceof CancellationException))
+                showError(owner, unwrap(error));
+        });
+        return future;
+    }
+
+    /**
+     * Inicia uma compra no checkout ({@link ServicoCheckout#start(Map)}), com o indicador de
+     * ocupado e o botão "Cancelar" sobre a janela de origem.
+     *
+     * Uma compra iniciada no servidor depois do cancelamento não chega à tela; a sua reserva
+     * expira e o número do pedido é devolvido pelo próprio checkout.
+     *
+     * @param owner um componente da janela de origem.
+     * @param cart o código e a quantidade de cada produto.
+     * @param onSuccess recebe a compra iniciada, ou {@code null} se faltar estoque.
+     * @return a compra iniciada, entregue na thread de eventos do Swing.
+     */
+    public static CompletableFuture<Compra> start(Component owner, Map<Integer, Integer> cart, Consumer<Compra> onSuccess)
+    {
+        return callCancellable(owner, () -> ControlePedidos.getCheckout().start(cart), onSuccess);
+    }
+
+    /**
+     * Paga uma compra com cartão ou Pix ({@link ServicoCheckout#payWithCard(Compra)}).
+     *
+     * @param purchase a compra iniciada.
+     * @return o resultado do pagamento.
+     */
+    public static CompletableFuture<ResultadoPagamento> payWithCard(Compra purchase)
+    {
+        return call(() -> ControlePedidos.getCheckout().payWithCard(purchase));
+    }
+
+    /**
+     * Paga uma compra em dinheiro ({@link ServicoCheckout#payWithCash(Compra, int[])}).
+     *
+     * @param purchase a compra iniciada.
+     * @param pieces a quantidade inserida de cada cédula e moeda.
+     * @return o resultado do pagamento.
+     */
+    public static CompletableFuture<ResultadoPagamento> payWithCash(Compra purchase, int[] pieces)
+    {
+        return call(() -> ControlePedidos.getCheckout().payWithCash(purchase, pieces));
+    }
+
+    /**
+     * Cancela uma compra iniciada, devolvendo o estoque reservado ({@link ServicoCheckout#cancel(Compra)}).
+     *
+     * @param purchase a compra iniciada.
+     * @return conclui quando a compra estiver cancelada.
+     */
+    public static CompletableFuture<Void> cancel(Compra purchase)
+    {
+        return call(() -> {
+            ControlePedidos.getCheckout().cancel(purchase);
+            return null;
+        });
+    }
+
+    private static Throwable unwrap(Throwable error)
+    {
+        while (error instanceof CompletionException && error.getCause() != null)
+            error = error.getCause();
+        return error;
+    }
+
+    private static void showError(Component owner, Throwable error)
+    {
+        String message = (error.getMessage() != null) ? error.getMessage() : error.getClass().getSimpleName();
+        JOptionPane.showMessageDialog(owner, "Não foi possível concluir a operação:\n" + message, "Erro", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Cobre a janela de origem com um painel transparente que bloqueia os cliques e, após um
+     * breve atraso (para não piscar em chamadas rápidas), mostra "Aguarde..." e o botão "Cancelar".
+     * Chamadas simultâneas na mesma janela compartilham o indicador.
+     *
+     * @return esconde o indicador; deve ser chamado na thread de eventos.
+     */
+    private static Runnable showBusy(Component owner, Runnable cancel)
+    {
+        JRootPane root = SwingUtilities.getRootPane(owner);
+        if (root == null)
+            return () -> {};
+
+        Integer count = (Integer) root.getClientProperty(BUSY_COUNT);
+        root.putClientProperty(BUSY_COUNT, (count == null) ? 1 : count + 1);
+
+        JPanel glass = new JPanel(new GridBagLayout());
+        glass.setOpaque(false);
+        glass.addMouseListener(new MouseAdapter() {});
+        glass.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        JPanel box = new JPanel(new FlowLayout(FlowLayout.CENTER, 12, 8));
+        box.setBackground(Color.WHITE);
+        box.setBorder(BorderFactory.createLineBorder(new Color(0, 86, 179), 2));
+        JLabel label = new JLabel("Aguarde...");
+        label.setFont(new Font("Arial", Font.BOLD, 16));
+        box.add(label);
+        if (cancel != null)
+        {
+            JButton cancelButton = new JButton("Cancelar");
+            cancelButton.setBackground(new Color(220, 53, 69));
+            cancelButton.setForeground(Color.WHITE);
+            cancelButton.setFocusPainted(false);
+            cancelButton.setCursor(Cursor.getDefaultCursor());
+            cancelButton.addActionListener(e -> cancel.run());
+            box.add(cancelButton);
+        }
+        box.setVisible(false);
+        glass.add(box);
+
+        if (count == null)
+        {
+            root.putClientProperty(PREVIOUS_GLASS_PANE, root.getGlassPane());
+            root.setGlassPane(glass);
+            glass.setVisible(true);
+        }
+
+        javax.swing.Timer delay = new javax.swing.Timer(BUSY_DELAY_MILLIS, e -> box.setVisible(true));
+        delay.setRepeats(false);
+        if (count == null)
+            delay.start();
+
+        return () -> {
+            delay.stop();
+            int left = (Integer) root.getClientProperty(BUSY_COUNT) - 1;
+            root.putClientProperty(BUSY_COUNT, (left == 0) ? null : left);
+            if (left == 0)
+            {
+                root.getGlassPane().setVisible(false);
+                root.setGlassPane((Component) root.getClientProperty(PREVIOUS_GLASS_PANE));
+                root.putClientProperty(PREVIOUS_GLASS_PANE, null);
+            }
+        };
+    }
+}
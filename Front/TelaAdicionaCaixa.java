@@ -67,7 +67,9 @@ public class TelaAdicionaCaixa extends JDialog
         mainPanel.add(titleLabel, gbc);
 
         // -- Subtitle Label --
-        subtitleLabel = new JLabel("Caixa Atual: R$ " + String.format("%.2f", cashControl.getTotalCash()));
+        subtitleLabel = new JLabel("Caixa Atual: R$ ...");
+        ServicoAssincrono.call(cashControl::getTotalCash)
+                .thenAccept(total -> subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", total)));
         subtitleLabel.setFont(new Font("Arial", Font.BOLD, 15));
         gbc.gridy = 1;
         gbc.gridwidth = 1;
@@ -276,36 +278,49 @@ public class TelaAdicionaCaixa extends JDialog
             {
                 System.out.println("Adicionando");
 
+                double[] values = {100.0, 50.0, 20.0, 10.0, 5.0, 2.0, 1.0, 0.5, 0.25, 0.10, 0.05};
+                JTextField[] fields = {bill100TextField, bill50TextField, bill20TextField, bill10TextField, bill5TextField,
+                        bill2TextField, coin1TextField, coin50TextField, coin25TextField, coin10TextField, coin5TextField};
                 try {
-                    cashControl.addCash(100.0, Integer.parseInt(bill100TextField.getText()));
-                    cashControl.addCash(50.0, Integer.parseInt(bill50TextField.getText()));
-                    cashControl.addCash(20.0, Integer.parseInt(bill20TextField.getText()));
-                    cashControl.addCash(10.0, Integer.parseInt(bill10TextField.getText()));
-                    cashControl.addCash(5.0, Integer.parseInt(bill5TextField.getText()));
-                    cashControl.addCash(2.0, Integer.parseInt(bill2TextField.getText()));
-                    cashControl.addCash(1.0, Integer.parseInt(coin1TextField.getText()));
-                    cashControl.addCash(0.5, Integer.parseInt(coin50TextField.getText()));
-                    cashControl.addCash(0.25, Integer.parseInt(coin25TextField.getText()));
-                    cashControl.addCash(0.10, Integer.parseInt(coin10TextField.getText()));
-                    cashControl.addCash(0.05, Integer.parseInt(coin5TextField.getText()));
-
-                    telaControleCaixa.reloadScreen();
-                    bill100TextField.setText("0");
-                    bill50TextField.setText("0");
-                    bill20TextField.setText("0");
-                    bill10TextField.setText("0");
-                    bill5TextField.setText("0");
-                    bill2TextField.setText("0");
-                    coin1TextField.setText("0");
-                    coin50TextField.setText("0");
-                    coin25TextField.setText("0");
-                    coin10TextField.setText("0");
-                    coin5TextField.setText("0");
-                    subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", cashControl.getTotalCash()));
-                    JOptionPane.showMessageDialog(TelaAdicionaCaixa.this,
-                            "Cédulas adicionadas ao caixa!",
-                            "Adicionado com Sucesso",
-                            JOptionPane.INFORMATION_MESSAGE);
+                    int[] quantities = new int[fields.length];
+                    int pieces = 0;
+                    for (int i = 0; i < fields.length; i++)
+                    {
+                        quantities[i] = Integer.parseInt(fields[i].getText());
+                        if (quantities[i] < 0)
+                        {
+                            JOptionPane.showMessageDialog(TelaAdicionaCaixa.this,
+                                    "As quantidades não podem ser negativas.",
+                                    "Quantidade Invalida",
+                                    JOptionPane.ERROR_MESSAGE);
+                            return;
+                        }
+                        pieces += quantities[i];
+                    }
+                    if (pieces == 0)
+                    {
+                        JOptionPane.showMessageDialog(TelaAdicionaCaixa.this,
+                                "Informe ao menos uma quantidade maior que 0!",
+                                "Quantidade Invalida",
+                                JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+
+                    ServicoAssincrono.call(TelaAdicionaCaixa.this, () -> {
+                        for (int i = 0; i < values.length; i++)
+                            if (quantities[i] > 0)
+                                cashControl.addCash(values[i], quantities[i]);
+                        return cashControl.getTotalCash();
+                    }, total -> {
+                        telaControleCaixa.reloadScreen();
+                        for (JTextField field : fields)
+                            field.setText("0");
+                        subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", total));
+                        JOptionPane.showMessageDialog(TelaAdicionaCaixa.this,
+                                "Cédulas adicionadas ao caixa!",
+                                "Adicionado com Sucesso",
+                                JOptionPane.INFORMATION_MESSAGE);
+                    });
                 }
                 catch (NumberFormatException ex)
                 {
@@ -18,7 +18,6 @@ import java.awt.event.ActionListener;
  * <li>Validação de campos vazios.</li>
  * <li>Validação de quantidade maior que zero.</li>
  * <li>Verificação da existência do produto no estoque.</li>
- * <li>Atualização da tabela de produtos na {@link TelaEstoque} após a adição bem-sucedida.</li>
  * <li>Tratamento de erros para entradas não numéricas.</li>
  * </ul>
  */
@@ -32,12 +31,11 @@ public class TelaAdicionaEstoque extends JDialog
      * Configura a janela de diálogo, seus componentes visuais e os listeners de eventos
      * para os botões de "Adicionar" e "Sair".
      *
-     * @param telaEstoque A instância de {@link TelaEstoque} para recarregar a lista de produtos após a adição.
      * @param owner O {@link JFrame} pai desta janela de diálogo.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      */
-    public TelaAdicionaEstoque (TelaEstoque telaEstoque, JFrame owner, Estoque stock, Caixa cashControl)
+    public TelaAdicionaEstoque (JFrame owner, Estoque stock, Caixa cashControl)
     {
         super(owner, "Adiciona Estoque de um Item", true);
         setSize(336,368);
@@ -156,15 +154,16 @@ public class TelaAdicionaEstoque extends JDialog
                             JOptionPane.showMessageDialog(TelaAdicionaEstoque.this, "A quantidade deve ser maior que 0!", "Quantidade Invalida", JOptionPane.ERROR_MESSAGE);
                         else
                         {
-                            if (!stock.addStock(code, quantity))
-                                JOptionPane.showMessageDialog(TelaAdicionaEstoque.this, "Produto não encontrado!", "Produto inexistente", JOptionPane.ERROR_MESSAGE);
-                            else
-                            {
-                                telaEstoque.loadProducts(stock);
-                                JOptionPane.showMessageDialog(TelaAdicionaEstoque.this, "Quantidade adicionada com Sucesso!", "Quantidade Adicionada", JOptionPane.INFORMATION_MESSAGE);
-                                codeTextField.setText("");
-                                quantityTextField.setText("");
-                            }
+                            ServicoAssincrono.call(TelaAdicionaEstoque.this, () -> stock.addStock(code, quantity), added -> {
+                                if (!added)
+                                    JOptionPane.showMessageDialog(TelaAdicionaEstoque.this, "Produto não encontrado!", "Produto inexistente", JOptionPane.ERROR_MESSAGE);
+                                else
+                                {
+                                    JOptionPane.showMessageDialog(TelaAdicionaEstoque.this, "Quantidade adicionada com Sucesso!", "Quantidade Adicionada", JOptionPane.INFORMATION_MESSAGE);
+                                    codeTextField.setText("");
+                                    quantityTextField.setText("");
+                                }
+                            });
                         }
                         
                     } 
@@ -1,6 +1,7 @@
 package Front;
 import Back.*;
 import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -15,33 +16,36 @@ import java.awt.event.ActionListener;
  *     <li>Visualizar e gerenciar o estoque atual;</li>
  *     <li>Acessar o controle de caixa;</li>
  *     <li>Gerar relatórios;</li>
+ *     <li>Acompanhar os produtos mais vendidos agora (últimos 15 minutos, última hora ou dia);</li>
  *     <li>Retornar à tela inicial.</li>
  * </ul>
  * 
  * Utiliza instâncias das classes {@link Estoque}, {@link Caixa} e {@link ControlePedidos}
  * para realizar a gestão de dados do sistema.
  */
-public class TelaAdmin extends JFrame
+public class TelaAdmin extends JPanel implements Navegador.Tela
 {
+    private static final int TOP_SELLERS = 5;
+    private static final int REFRESH_MILLIS = 2000;
+
+    private Timer liveSalesTimer;
+    private Runnable liveSalesRefresh;
+
     /**
      * Construtor da classe {@link TelaAdmin}.
      * 
      * Responsável por construir a estrutura da interface de administração, com botões de
      * navegação para diferentes funcionalidades e integração com os objetos centrais do sistema.
      * 
+     * @param navigator O {@link Navegador}, a janela que exibe as telas.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
      */
-    public TelaAdmin(Estoque stock, Caixa cashControl, ControlePedidos orders)
+    public TelaAdmin(Navegador navigator, Estoque stock, Caixa cashControl, ControlePedidos orders)
     {
-        setTitle("Tela de Administração");
-        setSize(600,800);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setResizable(false);
 
-        getContentPane().setBackground(new Color(197,202,196));
+        setBackground(new Color(197,202,196));
         setLayout(new BorderLayout());
 
         JPanel mainPanel = new JPanel(new GridBagLayout());
@@ -82,7 +86,7 @@ public class TelaAdmin extends JFrame
             public void actionPerformed(ActionEvent e)
             {
                 System.out.println("Cadastro Item");
-                TelaRegistro telaRegistro = new TelaRegistro(TelaAdmin.this, stock);
+                TelaRegistro telaRegistro = new TelaRegistro(navigator, stock);
                 telaRegistro.setVisible(true);
             }        
         });
@@ -99,10 +103,7 @@ public class TelaAdmin extends JFrame
             public void actionPerformed(ActionEvent e)
             {
                 System.out.println("Estoque");
-                TelaEstoque telaEstoque = new TelaEstoque(stock, cashControl, orders);
-                telaEstoque.loadProducts(stock);
-                telaEstoque.setVisible(true);
-                dispose();
+                navigator.open(TelaEstoque.class);
             }
             
         });
@@ -120,9 +121,7 @@ public class TelaAdmin extends JFrame
             public void actionPerformed(ActionEvent e)
             {
                 System.out.println("Relatórios");
-                TelaRelatorio telaRelatorio = new TelaRelatorio(stock, cashControl, orders);
-                telaRelatorio.setVisible(true);
-                dispose();
+                navigator.open(TelaRelatorio.class);
             }
             
         });
@@ -139,9 +138,7 @@ public class TelaAdmin extends JFrame
             public void actionPerformed(ActionEvent e)
             {
                 System.out.println("Caixa");
-                TelaControleCaixa telaControleCaixa = new TelaControleCaixa(stock, cashControl, orders);
-                telaControleCaixa.setVisible(true);
-                dispose();
+                navigator.open(TelaControleCaixa.class);
             }
             
         });
@@ -159,15 +156,103 @@ public class TelaAdmin extends JFrame
             public void actionPerformed (ActionEvent e)
             {
                 System.out.println("Retornando a tela inicial");
-                TelaInicial telaInicial = new TelaInicial(stock, cashControl, orders);
-                telaInicial.setVisible(true);
-                dispose();
+                navigator.open(TelaInicial.class);
             } 
         });
 
+        // -- Live Top Sellers Panel --
+        gbc.insets = new Insets(10, 10, 10, 10);
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        gbc.gridwidth = GridBagConstraints.REMAINDER;
+        gbc.anchor = GridBagConstraints.CENTER;
+        mainPanel.add(createLiveSalesPanel(), gbc);
+
         add(mainPanel);
     }
 
+    /**
+     * Retorna o título da janela enquanto a tela estiver aberta.
+     *
+     * @return o título da tela.
+     */
+    @Override
+    public String getTitle()
+    {
+        return "Tela de Administração";
+    }
+
+    /**
+     * Atualiza o painel de mais vendidos e retoma a atualização periódica.
+     */
+    @Override
+    public void reset()
+    {
+        liveSalesRefresh.run();
+        liveSalesTimer.start();
+    }
+
+    /**
+     * Para a atualização do painel de mais vendidos enquanto a tela não estiver aberta.
+     */
+    @Override
+    public void hidden()
+    {
+        liveSalesTimer.stop();
+    }
+
+    /**
+     * Cria o painel "Vendendo agora", com os produtos mais vendidos na janela escolhida
+     * ({@link VendasAoVivo}), atualizado a cada {@code REFRESH_MILLIS} milissegundos
+     * enquanto a tela estiver aberta.
+     *
+     * @return o painel.
+     */
+    private JPanel createLiveSalesPanel()
+    {
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.setBackground(new Color(197,202,196));
+        panel.setPreferredSize(new Dimension(530, 190));
+
+        JLabel label = new JLabel("Vendendo agora:");
+        label.setFont(new Font("Arial", Font.BOLD, 16));
+
+        JComboBox<VendasAoVivo.Janela> windowBox = new JComboBox<>(VendasAoVivo.Janela.values());
+
+        JPanel header = new JPanel(new BorderLayout());
+        header.setOpaque(false);
+        header.add(label, BorderLayout.WEST);
+        header.add(windowBox, BorderLayout.EAST);
+        panel.add(header, BorderLayout.NORTH);
+
+        DefaultTableModel model = new DefaultTableModel(new String[]{"Produto", "Unidades"}, 0)
+        {
+            @Override
+            public boolean isCellEditable(int row, int column)
+            {
+                return false;
+            }
+        };
+        JTable table = new JTable(model);
+        table.setRowHeight(24);
+        table.setFont(new Font("Arial", Font.PLAIN, 14));
+        table.getTableHeader().setReorderingAllowed(false);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+        liveSalesRefresh = () -> {
+            VendasAoVivo.Janela window = (VendasAoVivo.Janela) windowBox.getSelectedItem();
+            ServicoAssincrono.call(() -> ControlePedidos.getLiveSales().top(window, TOP_SELLERS)).thenAccept(top -> {
+                model.setRowCount(0);
+                for (VendasAoVivo.Posicao position : top)
+                    model.addRow(new Object[]{position.getName(), position.getUnits()});
+            });
+        };
+        windowBox.addActionListener(e -> liveSalesRefresh.run());
+
+        liveSalesTimer = new Timer(REFRESH_MILLIS, e -> liveSalesRefresh.run());
+        return panel;
+    }
+
     /**
      * Método auxiliar para criação de botões estilizados usados na {@link TelaAdmin}.
      * 
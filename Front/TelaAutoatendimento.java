@@ -2,12 +2,18 @@ package Front;
 
 import Back.*;
 import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Arrays;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 /**
  * Tela de Autoatendimento da Cantina.
@@ -19,9 +25,12 @@ import java.util.Map;
  *
  * Funcionalidades principais:
  * <ul>
- * <li>Exibição de produtos disponíveis, categorizados por tipo (Comida, Bebida, Sobremesa).</li>
+ * <li>Exibição de produtos disponíveis, categorizados por tipo (Comida, Bebida, Sobremesa), em uma
+ * tabela que só desenha as linhas visíveis ({@link ModeloCatalogo}), o que mantém a abertura rápida
+ * com catálogos grandes.</li>
+ * <li>Ocultação dos produtos vencidos, inclusive dos que vencem na virada do dia com a tela aberta.</li>
  * <li>Controle de quantidade de itens no carrinho através de botões de adição e remoção.</li>
- * <li>Atualização em tempo real do valor total do pedido.</li>
+ * <li>Atualização em tempo real do valor total do pedido, mantido pelo {@link Carrinho}.</li>
  * <li>Confirmação do pedido, que leva à tela de pagamento ({@link TelaConfirmaPedido}).</li>
  * <li>Opção para retornar à tela inicial de compra ({@link TelaIniciarCompra}).</li>
  * </ul>
@@ -29,11 +38,16 @@ import java.util.Map;
  * Utiliza instâncias das classes {@link Estoque}, {@link Caixa} e {@link ControlePedidos}
  * para gerenciar os dados do sistema durante o processo de compra.
  */
-public class TelaAutoatendimento extends JFrame
+public class TelaAutoatendimento extends JPanel implements Navegador.Tela
 {
+    private static final List<String> ORDERED_TYPES = Arrays.asList("Comida", "Bebida", "Sobremesa");
+
     private JLabel totalLabel;
-    private JPanel contentPanel;
-    private Map<Integer, Integer> cart = new HashMap<>();
+    private JTable catalogueTable;
+    private CelulaCatalogo catalogueRenderer;
+    private ModeloCatalogo catalogueModel;
+    private final Carrinho cart = new Carrinho();
+    private final Estoque stock;
 
     /**
      * Construtor da classe {@link TelaAutoatendimento}.
@@ -43,19 +57,16 @@ public class TelaAutoatendimento extends JFrame
      * e os botões de ação (Confirmar e Voltar). Popula a tela com os produtos
      * disponíveis no estoque.
      *
+     * @param navigator O {@link Navegador}, a janela que exibe as telas.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
      */
-    public TelaAutoatendimento(Estoque stock, Caixa cashControl, ControlePedidos orders)
+    public TelaAutoatendimento(Navegador navigator, Estoque stock, Caixa cashControl, ControlePedidos orders)
     {
-        setTitle("Cantina - Autoatendimento");
-        setSize(600, 800);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setResizable(false);
+        this.stock = stock;
 
-        getContentPane().setBackground(new Color(197, 202, 196));
+        setBackground(new Color(197, 202, 196));
         setLayout(new BorderLayout());
 
         JPanel mainPanel = new JPanel(new GridBagLayout());
@@ -78,12 +89,26 @@ public class TelaAutoatendimento extends JFrame
         gbc.anchor = GridBagConstraints.NORTH;
         mainPanel.add(titleLabel, gbc);
 
-        // -- Content Panel (Scrollable) --
-        contentPanel = new JPanel();
-        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
-        contentPanel.setBackground(new Color(197, 202, 196));
+        // -- Catalogue (Scrollable) --
+        catalogueRenderer = new CelulaCatalogo();
+        catalogueTable = new JTable();
+        catalogueTable.setTableHeader(null);
+        catalogueTable.setShowGrid(false);
+        catalogueTable.setIntercellSpacing(new Dimension(0, 0));
+        catalogueTable.setRowSelectionAllowed(false);
+        catalogueTable.setFocusable(false);
+        catalogueTable.setBackground(new Color(197, 202, 196));
+        catalogueTable.setDefaultRenderer(Object.class, catalogueRenderer);
+        catalogueTable.addMouseListener(new MouseAdapter()
+        {
+            @Override
+            public void mousePressed(MouseEvent e)
+            {
+                changeQuantity(e.getPoint());
+            }
+        });
 
-        JScrollPane scrollPanel = new JScrollPane(contentPanel);
+        JScrollPane scrollPanel = new JScrollPane(catalogueTable);
         scrollPanel.setPreferredSize(new Dimension(500, 550));
         scrollPanel.setBackground(new Color(197, 202, 196));
         scrollPanel.getViewport().setBackground(new Color(197, 202, 196));
@@ -114,16 +139,18 @@ public class TelaAutoatendimento extends JFrame
         JButton confirmButton = createCustomButton("Confirmar");
 
         confirmButton.addActionListener(_ -> {
-            TelaConfirmaPedido telaConfirmacao = new TelaConfirmaPedido(TelaAutoatendimento.this, cart, stock, cashControl, orders);
+            TelaConfirmaPedido telaConfirmacao = new TelaConfirmaPedido(navigator, cart, stock, cashControl, orders);
             telaConfirmacao.setVisible(true);
+
+            // A confirmação do pedido pode esvaziar o carrinho; ao voltar, atualiza as quantidades e o total
+            catalogueTable.repaint();
+            updateTotal();
         });
 
         JButton backButton = createCustomButton("Voltar");
 
         backButton.addActionListener(e -> {
-            TelaIniciarCompra telaIniciarCompra = new TelaIniciarCompra(stock, cashControl, orders);
-            telaIniciarCompra.setVisible(true);
-            dispose();
+            navigator.open(TelaIniciarCompra.class);
         });
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
@@ -137,145 +164,138 @@ public class TelaAutoatendimento extends JFrame
         mainPanel.add(footerPanel, gbc);
         add(mainPanel);
 
-        generateProducts(stock.getProductsStock());
+        loadCatalogue();
+
+        // A tela é única e vive enquanto o sistema estiver aberto, então o ouvinte nunca é removido
+        stock.addExpiryListener((today, expired) -> SwingUtilities.invokeLater(() -> hideProducts(expired)));
     }
 
-    private void generateProducts(Map<Integer, ProdutoEmEstoque> stock)
+    /**
+     * Retorna o título da janela enquanto a tela estiver aberta.
+     *
+     * @return o título da tela.
+     */
+    @Override
+    public String getTitle()
     {
-        contentPanel.removeAll();
-
-        Map<String, List<ProdutoEmEstoque>> byType = new HashMap<>();
+        return "Cantina - Autoatendimento";
+    }
 
-        for (ProdutoEmEstoque pe : stock.values())
-        {
-            String type = pe.getProduct().getType();
-            byType.putIfAbsent(type, new ArrayList<>());
-            byType.get(type).add(pe);
-        }
+    /**
+     * Prepara a tela para um novo cliente: esvazia o carrinho, volta ao início do catálogo e
+     * recarrega os produtos. Enquanto o estoque é lido, o catálogo anterior continua exibido.
+     */
+    @Override
+    public void reset()
+    {
+        cart.clear();
+        updateTotal();
+        catalogueTable.repaint();
+        catalogueTable.scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+        loadCatalogue();
+    }
 
-        List<String> orderedTypes = Arrays.asList("Comida", "Bebida", "Sobremesa");
+    /**
+     * Monta o catálogo fora da thread de eventos e o exibe quando fica pronto. Quando o
+     * checkout é remoto, atualiza antes o espelho do estoque com o catálogo do servidor; se o
+     * cliente cancelar a espera (servidor lento ou fora do ar), exibe o catálogo já espelhado.
+     */
+    private void loadCatalogue()
+    {
+        ServicoAssincrono.callCancellable(this, () -> {
+            ControlePedidos.getCheckout().catalogue();
+            return generateProducts(stock.getProductsStock(), stock.getExpiredProducts(LocalDate.now()));
+        }, this::showProducts).whenComplete((products, error) -> {
+            if (error instanceof CancellationException)
+                ServicoAssincrono.call(this, () -> generateProducts(stock.getProductsStock(),
+                        stock.getExpiredProducts(LocalDate.now())), this::showProducts);
+        });
+    }
 
-        for (String type : orderedTypes)
-        {
-            if (!byType.containsKey(type)) continue;
+    /**
+     * Remove da tela e do carrinho os produtos que venceram com a tela aberta.
+     *
+     * @param expired os produtos vencidos.
+     */
+    private void hideProducts(List<ProdutoEmEstoque> expired)
+    {
+        if (catalogueModel == null)
+            return;
 
-            JLabel categoryLabel = new JLabel(type);
-            categoryLabel.setFont(new Font("Arial", Font.BOLD, 14));
-            categoryLabel.setOpaque(true);
-            categoryLabel.setBackground(new Color(0, 86, 179));
-            categoryLabel.setForeground(Color.WHITE);
-            categoryLabel.setBorder(BorderFactory.createEmptyBorder(8, 12, 8, 8));
-            categoryLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        List<Integer> codes = new ArrayList<>(expired.size());
+        for (ProdutoEmEstoque pe : expired)
+            codes.add(pe.getProduct().getCode());
 
-            contentPanel.add(Box.createVerticalStrut(10));
-            contentPanel.add(categoryLabel);
+        catalogueModel.hide(codes);
+        applyRowHeights();
+        updateTotal();
+    }
 
-            for (ProdutoEmEstoque pe : byType.get(type))
-            {
-                Produto p = pe.getProduct();
-
-                JPanel productPanel = new JPanel(new BorderLayout());
-                productPanel.setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(Color.LIGHT_GRAY),
-                        BorderFactory.createEmptyBorder(10, 10, 10, 10)
-                ));
-                productPanel.setBackground(new Color(197, 202, 196));
-                productPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 70));
-                productPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-
-                JPanel textPanel = new JPanel();
-                textPanel.setLayout(new BoxLayout(textPanel, BoxLayout.Y_AXIS));
-                textPanel.setOpaque(false);
-
-                JLabel nameLabel = new JLabel(p.getName());
-                nameLabel.setFont(new Font("Arial", Font.BOLD, 14));
-                JLabel priceLabel = new JLabel("R$ " + String.format("%.2f", p.getPrice()));
-                priceLabel.setFont(new Font("Arial", Font.PLAIN, 13));
-
-                textPanel.add(nameLabel);
-                textPanel.add(priceLabel);
-
-                productPanel.add(textPanel, BorderLayout.WEST);
-
-                JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-                controlPanel.setOpaque(false);
-
-                JButton minusButton = new JButton("−");
-                minusButton.setBackground(new Color(0, 86, 179));
-                minusButton.setForeground(Color.WHITE);
-                minusButton.setBorderPainted(false);
-                minusButton.setFocusPainted(false);
-                minusButton.setPreferredSize(new Dimension(50, 30));
-
-                JButton plusButton = new JButton("+");
-                plusButton.setForeground(Color.WHITE);
-                plusButton.setBackground(new Color(0, 86, 179));
-                plusButton.setBorderPainted(false);
-                plusButton.setFocusPainted(false);
-                plusButton.setPreferredSize(new Dimension(50, 30));
-
-                JLabel quantityLabel = new JLabel("0");
-                quantityLabel.setPreferredSize(new Dimension(20, 30));
-                quantityLabel.setHorizontalAlignment(SwingConstants.CENTER);
-
-                int code = p.getCode();
-                cart.put(code, 0);
-
-                minusButton.addActionListener(e -> {
-                    int qtd = cart.get(code);
-                    if (qtd > 0)
-                    {
-                        qtd--;
-                        cart.put(code, qtd);
-                        quantityLabel.setText(String.valueOf(qtd));
-                        updateTotal(stock);
-                    }
-                });
-
-                plusButton.addActionListener(e -> {
-                    int qtd = cart.get(code);
-                    qtd++;
-                    cart.put(code, qtd);
-                    quantityLabel.setText(String.valueOf(qtd));
-                    updateTotal(stock);
-                });
-
-                controlPanel.add(minusButton);
-                controlPanel.add(quantityLabel);
-                controlPanel.add(plusButton);
-                productPanel.add(controlPanel, BorderLayout.EAST);
-
-                contentPanel.add(Box.createVerticalStrut(8));
-                contentPanel.add(productPanel);
-            }
-        }
+    /**
+     * Monta o catálogo, sem os produtos vencidos. Roda fora da thread de eventos.
+     *
+     * Nenhum componente é criado por produto: a tabela guarda só uma referência por linha e
+     * o {@link CelulaCatalogo} desenha as linhas visíveis.
+     *
+     * @param stock os produtos em estoque.
+     * @param expired os produtos vencidos, que não são exibidos.
+     * @return o modelo da tabela do catálogo.
+     */
+    private ModeloCatalogo generateProducts(Map<Integer, ProdutoEmEstoque> stock, List<ProdutoEmEstoque> expired)
+    {
+        Set<Integer> expiredCodes = new HashSet<>();
+        for (ProdutoEmEstoque pe : expired)
+            expiredCodes.add(pe.getProduct().getCode());
 
-        contentPanel.revalidate();
-        contentPanel.repaint();
+        return new ModeloCatalogo(stock.values(), expiredCodes, ORDERED_TYPES, cart);
     }
 
     /**
-     * Atualiza o valor total exibido no rodapé da tela com base nos itens do carrinho.
+     * Exibe o catálogo montado na tabela.
      *
-     * Percorre todos os itens no carrinho, calcula o subtotal de cada um
-     * (quantidade * preço) e soma para obter o total geral, que é então formatado
-     * e exibido no {@link JLabel} correspondente.
+     * @param model o modelo da tabela do catálogo.
+     */
+    private void showProducts(ModeloCatalogo model)
+    {
+        catalogueModel = model;
+        catalogueTable.setModel(catalogueModel);
+        applyRowHeights();
+    }
+
+    /**
+     * Ajusta a altura das linhas: os produtos usam a altura padrão da tabela e só os poucos
+     * cabeçalhos de categoria recebem uma altura própria.
+     */
+    private void applyRowHeights()
+    {
+        catalogueTable.setRowHeight(catalogueRenderer.getProductHeight());
+        for (int row : catalogueModel.getHeaderRows())
+            catalogueTable.setRowHeight(row, catalogueRenderer.getHeaderHeight());
+    }
+
+    /**
+     * Trata um toque no catálogo: se atingiu o botão "−" ou "+" de um produto, altera a
+     * quantidade no carrinho e o total.
      *
-     * @param stock Um {@link Map} contendo os produtos em estoque, usado para obter
-     * o preço de cada {@link ProdutoEmEstoque} no carrinho.
+     * @param point o ponto tocado, nas coordenadas da tabela.
      */
-    private void updateTotal(Map<Integer, ProdutoEmEstoque> stock)
+    private void changeQuantity(Point point)
     {
-        double total = 0;
-        for (Map.Entry<Integer, Integer> entry : cart.entrySet())
-        {
-            int code = entry.getKey();
-            int quantity = entry.getValue();
-            Produto p = stock.get(code).getProduct();
-            total += quantity * p.getPrice();
-        }
+        int row = catalogueTable.rowAtPoint(point);
+        if (catalogueModel == null || row < 0 || catalogueModel.isHeader(row))
+            return;
 
-        totalLabel.setText("Total: R$ " + String.format("%.2f", total));
+        int delta = catalogueRenderer.deltaAt(point, catalogueTable.getCellRect(row, 0, false));
+        if (delta != 0 && catalogueModel.add(row, delta))
+            updateTotal();
+    }
+
+    /**
+     * Atualiza o valor total exibido no rodapé da tela com o total mantido pelo {@link Carrinho}.
+     */
+    private void updateTotal()
+    {
+        totalLabel.setText("Total: R$ " + String.format("%.2f", cart.getTotalCents() / 100.0));
     }
 
     /**
@@ -296,4 +316,142 @@ public class TelaAutoatendimento extends JFrame
         button.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
         return button;
     }
+
+    /**
+     * Renderizador único das linhas do catálogo: desenha o cabeçalho de uma categoria ou o painel
+     * de um produto (nome, preço, quantidade e os botões "−" e "+"), reaproveitando os mesmos
+     * componentes em todas as linhas.
+     */
+    private static final class CelulaCatalogo implements TableCellRenderer
+    {
+        private final JPanel headerCell = new JPanel(new BorderLayout());
+        private final JLabel categoryLabel = new JLabel(" ");
+        private final JPanel productCell = new JPanel(new BorderLayout());
+        private final JLabel nameLabel = new JLabel(" ");
+        private final JLabel priceLabel = new JLabel(" ");
+        private final JLabel quantityLabel = new JLabel("0");
+        private final JButton minusButton = createQuantityButton("−");
+        private final JButton plusButton = createQuantityButton("+");
+
+        CelulaCatalogo()
+        {
+            categoryLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            categoryLabel.setOpaque(true);
+            categoryLabel.setBackground(new Color(0, 86, 179));
+            categoryLabel.setForeground(Color.WHITE);
+            categoryLabel.setBorder(BorderFactory.createEmptyBorder(8, 12, 8, 8));
+
+            headerCell.setBackground(new Color(197, 202, 196));
+            headerCell.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
+            headerCell.add(categoryLabel, BorderLayout.CENTER);
+
+            JPanel productPanel = new JPanel(new BorderLayout());
+            productPanel.setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createLineBorder(Color.LIGHT_GRAY),
+                    BorderFactory.createEmptyBorder(10, 10, 10, 10)
+            ));
+            productPanel.setBackground(new Color(197, 202, 196));
+
+            JPanel textPanel = new JPanel();
+            textPanel.setLayout(new BoxLayout(textPanel, BoxLayout.Y_AXIS));
+            textPanel.setOpaque(false);
+
+            nameLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            priceLabel.setFont(new Font("Arial", Font.PLAIN, 13));
+            textPanel.add(nameLabel);
+            textPanel.add(priceLabel);
+            productPanel.add(textPanel, BorderLayout.WEST);
+
+            JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            controlPanel.setOpaque(false);
+
+            quantityLabel.setPreferredSize(new Dimension(20, 30));
+            quantityLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+            controlPanel.add(minusButton);
+            controlPanel.add(quantityLabel);
+            controlPanel.add(plusButton);
+            productPanel.add(controlPanel, BorderLayout.EAST);
+
+            productCell.setBackground(new Color(197, 202, 196));
+            productCell.setBorder(BorderFactory.createEmptyBorder(8, 0, 0, 0));
+            productCell.add(productPanel, BorderLayout.CENTER);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column)
+        {
+            if (value instanceof String type)
+            {
+                categoryLabel.setText(type);
+                return headerCell;
+            }
+
+            ProdutoEmEstoque pe = (ProdutoEmEstoque) value;
+            Produto p = pe.getProduct();
+            nameLabel.setText(p.getName());
+            priceLabel.setText("R$ " + String.format("%.2f", p.getPrice()));
+            quantityLabel.setText(String.valueOf(((ModeloCatalogo) table.getModel()).getQuantity(pe)));
+            return productCell;
+        }
+
+        /**
+         * Retorna a altura de uma linha de produto.
+         *
+         * @return a altura em pixels.
+         */
+        int getProductHeight()
+        {
+            return productCell.getPreferredSize().height;
+        }
+
+        /**
+         * Retorna a altura de uma linha de cabeçalho de categoria.
+         *
+         * @return a altura em pixels.
+         */
+        int getHeaderHeight()
+        {
+            return headerCell.getPreferredSize().height;
+        }
+
+        /**
+         * Identifica o botão de um produto atingido por um toque.
+         *
+         * @param point o ponto tocado, nas coordenadas da tabela.
+         * @param cell os limites da célula do produto.
+         * @return {@code -1} para o botão "−", {@code 1} para o botão "+" e {@code 0} fora deles.
+         */
+        int deltaAt(Point point, Rectangle cell)
+        {
+            productCell.setBounds(cell);
+            layout(productCell);
+
+            Component target = SwingUtilities.getDeepestComponentAt(productCell, point.x - cell.x, point.y - cell.y);
+            if (target == minusButton)
+                return -1;
+            return (target == plusButton) ? 1 : 0;
+        }
+
+        private static void layout(Component component)
+        {
+            if (component instanceof Container container)
+            {
+                container.doLayout();
+                for (Component child : container.getComponents())
+                    layout(child);
+            }
+        }
+
+        private static JButton createQuantityButton(String text)
+        {
+            JButton button = new JButton(text);
+            button.setBackground(new Color(0, 86, 179));
+            button.setForeground(Color.WHITE);
+            button.setBorderPainted(false);
+            button.setFocusPainted(false);
+            button.setPreferredSize(new Dimension(50, 30));
+            return button;
+        }
+    }
 }
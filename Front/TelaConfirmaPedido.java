@@ -7,7 +7,6 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
-import java.util.Map;
 
 /**
  * Tela de Confirmação do Pedido.
@@ -21,10 +20,13 @@ import java.util.Map;
  * <ul>
  * <li>Visualizar um resumo do pedido antes de prosseguir.</li>
  * <li>Cancelar o pedido, retornando à tela inicial de compra ({@link TelaIniciarCompra}).</li>
- * <li>Confirmar o pedido, que validará o estoque e, se houver disponibilidade,
- * redirecionará para a tela de pagamento ({@link TelaPagamento}).</li>
+ * <li>Confirmar o pedido, que iniciará a {@link Compra} no {@link ServicoCheckout}, reservando o
+ * estoque do carrinho, e, se houver disponibilidade, redirecionará para a tela de pagamento ({@link TelaPagamento}).</li>
  * </ul>
  *
+ * A reserva garante que outro quiosque não venda os mesmos itens enquanto o cliente paga.
+ * Se o pagamento não for concluído a tempo, a reserva expira e os itens voltam ao estoque.
+ *
  * Em caso de estoque insuficiente para qualquer item no carrinho, o pedido
  * é cancelado e uma mensagem de aviso é exibida.
  *
@@ -40,14 +42,13 @@ public class TelaConfirmaPedido extends JDialog {
      * com os itens do carrinho, exibindo o total e configurando os botões de
      * cancelar e confirmar.
      *
-     * @param owner O {@link JFrame} pai desta janela de diálogo.
-     * @param cart Um {@link Map} representando o carrinho de compras, onde a chave é
-     * o código do produto e o valor é a quantidade desejada.
+     * @param owner O {@link Navegador}, janela pai desta janela de diálogo.
+     * @param cart O {@link Carrinho} da compra, compartilhado pelas telas de compra e pagamento.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
      */
-    public TelaConfirmaPedido(JFrame owner, Map<Integer, Integer> cart, Estoque stock, Caixa cashControl, ControlePedidos orders)
+    public TelaConfirmaPedido(Navegador owner, Carrinho cart, Estoque stock, Caixa cashControl, ControlePedidos orders)
     {
         super(owner, "Confirmação do Pedido", true);
         setSize(450, 320);
@@ -66,12 +67,8 @@ public class TelaConfirmaPedido extends JDialog {
 
         // -- Data Table --
         String[] columnNames = {"Produto", "Quantidade"};
-        Object[][] data = cart.entrySet().stream()
-                .filter(e -> e.getValue() > 0)
-                .map(e -> {
-                    Produto p = stock.getProductsStock().get(e.getKey()).getProduct();
-                    return new Object[]{p.getName(), e.getValue()};
-                })
+        Object[][] data = cart.getProducts().stream()
+                .map(p -> new Object[]{p.getName(), cart.getQuantity(p.getCode())})
                 .toArray(Object[][]::new);
 
         JTable table = new JTable(data, columnNames);
@@ -103,11 +100,7 @@ public class TelaConfirmaPedido extends JDialog {
         panel.add(scrollPane, BorderLayout.CENTER);
 
         // -- Total --
-        double total = cart.entrySet().stream()
-                .mapToDouble(e -> stock.getProductsStock().get(e.getKey()).getProduct().getPrice() * e.getValue())
-                .sum();
-
-        JLabel totalLabel = new JLabel("Total: R$ " + String.format("%.2f", total), SwingConstants.RIGHT);
+        JLabel totalLabel = new JLabel("Total: R$ " + String.format("%.2f", cart.getTotalCents() / 100.0), SwingConstants.RIGHT);
         totalLabel.setFont(new Font("Arial", Font.BOLD, 15));
         totalLabel.setBorder(new EmptyBorder(10, 0, 10, 0));
         panel.add(totalLabel, BorderLayout.SOUTH);
@@ -127,12 +120,9 @@ public class TelaConfirmaPedido extends JDialog {
         cancelButton.addActionListener(e ->
         {
             JOptionPane.showMessageDialog(this, "Pedido Cancelado!", "Pedido Cancelado", JOptionPane.INFORMATION_MESSAGE);
-            for (Integer code : cart.keySet())
-                cart.put(code,0);
+            cart.clear();
 
-            TelaIniciarCompra telaIniciarCompra = new TelaIniciarCompra(stock, cashControl, orders);
-            telaIniciarCompra.setVisible(true);
-            owner.dispose();
+            owner.open(TelaIniciarCompra.class);
             dispose();
         });
 
@@ -146,29 +136,23 @@ public class TelaConfirmaPedido extends JDialog {
 
         confirmButton.addActionListener(e ->
         {
-            boolean confirmOrder = true;
-            for (Integer codeProduct : cart.keySet())
-            {
-                if (cart.get(codeProduct) > stock.getQuantityAvaible(codeProduct))
-                    confirmOrder = false;
-            }
-            if(!confirmOrder)
-            {
-                JOptionPane.showMessageDialog(this, "Estoque insuficiente!", "Pedido Cancelado", JOptionPane.INFORMATION_MESSAGE);
-                for (Integer code : cart.keySet())
-                    cart.put(code,0);
-                dispose();
-            }
-            else
+            ServicoAssincrono.start(this, cart.getQuantities(), purchase ->
             {
-                JOptionPane.showMessageDialog(this, "Pedido Confirmado!", "Pedido Confirmado", JOptionPane.INFORMATION_MESSAGE);
-                System.out.println("Indo para a tela de pagamento");
-                Pedido order = new Pedido(cart);
-                
-                TelaPagamento telaPagamento = new TelaPagamento(owner, cart, stock, cashControl, orders, order);
-                dispose();
-                telaPagamento.setVisible(true);
-            }
+                if(purchase == null)
+                {
+                    JOptionPane.showMessageDialog(this, "Estoque insuficiente!", "Pedido Cancelado", JOptionPane.INFORMATION_MESSAGE);
+                    cart.clear();
+                    dispose();
+                }
+                else
+                {
+                    JOptionPane.showMessageDialog(this, "Pedido Confirmado!", "Pedido Confirmado", JOptionPane.INFORMATION_MESSAGE);
+                    System.out.println("Indo para a tela de pagamento");
+                    TelaPagamento telaPagamento = new TelaPagamento(owner, cart, stock, cashControl, orders, purchase);
+                    dispose();
+                    telaPagamento.setVisible(true);
+                }
+            });
         });
 
         buttonPanel.add(cancelButton);
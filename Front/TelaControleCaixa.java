@@ -23,7 +23,7 @@ import java.awt.event.ActionListener;
  * <li>Método para recarregar a tela, atualizando os valores exibidos.</li>
  * </ul>
  */
-public class TelaControleCaixa extends JFrame
+public class TelaControleCaixa extends JPanel implements Navegador.Tela
 {
     private JPanel mainPanel;
     private Caixa cashControl;
@@ -38,20 +38,16 @@ public class TelaControleCaixa extends JFrame
      * Inicializa a interface da tela de controle de caixa, exibindo os valores atuais
      * e configurando os botões de interação.
      *
+     * @param navigator O {@link Navegador}, a janela que exibe as telas.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
      */
-    public TelaControleCaixa(Estoque stock, Caixa cashControl, ControlePedidos orders)
+    public TelaControleCaixa(Navegador navigator, Estoque stock, Caixa cashControl, ControlePedidos orders)
     {
         this.cashControl = cashControl;
-        setTitle("Visualizar Caixa");
-        setSize(600,800);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setResizable(false);
 
-        getContentPane().setBackground(new Color(197,202,196));
+        setBackground(new Color(197,202,196));
         setLayout(new BorderLayout());
 
         mainPanel = new JPanel (new GridBagLayout());
@@ -71,7 +67,7 @@ public class TelaControleCaixa extends JFrame
         mainPanel.add(titleLabel, gbc);
 
         // -- Subtitle Label --
-        subtitleLabel = new JLabel("Caixa Atual: R$ " + String.format("%.2f", cashControl.getTotalCash()));
+        subtitleLabel = new JLabel("Caixa Atual: R$ ...");
         subtitleLabel.setFont(new Font("Arial", Font.BOLD, 15));
         gbc.gridy = 1;
         gbc.gridwidth = 1;
@@ -103,7 +99,6 @@ public class TelaControleCaixa extends JFrame
         insertsPanel.add(bill100Label, gbc);
 
         bill100TextField = createTextField();
-        bill100TextField.setText(String.valueOf(cashControl.getQuantityBill(100)));
         bill100TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 1;
         insertsPanel.add(bill100TextField, gbc);
@@ -119,7 +114,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         bill50TextField = createTextField();
-        bill50TextField.setText(String.valueOf(cashControl.getQuantityBill(50)));
         bill50TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 3;
         insertsPanel.add(bill50TextField, gbc);
@@ -135,7 +129,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         bill20TextField = createTextField();
-        bill20TextField.setText(String.valueOf(cashControl.getQuantityBill(20)));
         bill20TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 5;
         insertsPanel.add(bill20TextField, gbc);
@@ -152,7 +145,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         bill10TextField = createTextField();
-        bill10TextField.setText(String.valueOf(cashControl.getQuantityBill(10)));
         bill10TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 1;
         insertsPanel.add(bill10TextField, gbc);
@@ -168,7 +160,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         bill5TextField = createTextField();
-        bill5TextField.setText(String.valueOf(cashControl.getQuantityBill(5)));
         bill5TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 3;
         insertsPanel.add(bill5TextField, gbc);
@@ -184,7 +175,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         bill2TextField = createTextField();
-        bill2TextField.setText(String.valueOf(cashControl.getQuantityBill(2)));
         bill2TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 5;
         insertsPanel.add(bill2TextField, gbc);
@@ -201,7 +191,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         coin1TextField = createTextField();
-        coin1TextField.setText(String.valueOf(cashControl.getQuantityBill(1)));
         coin1TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 1;
         insertsPanel.add(coin1TextField, gbc);
@@ -217,7 +206,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         coin50TextField = createTextField();
-        coin50TextField.setText(String.valueOf(cashControl.getQuantityBill(0.5)));
         coin50TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 3;
         insertsPanel.add(coin50TextField, gbc);
@@ -233,7 +221,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         coin25TextField = createTextField();
-        coin25TextField.setText(String.valueOf(cashControl.getQuantityBill(0.25)));
         coin25TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 5;
         insertsPanel.add(coin25TextField, gbc);
@@ -250,7 +237,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         coin10TextField = createTextField();
-        coin10TextField.setText(String.valueOf(cashControl.getQuantityBill(0.1)));
         coin10TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 1;
         insertsPanel.add(coin10TextField, gbc);
@@ -266,7 +252,6 @@ public class TelaControleCaixa extends JFrame
         gbc.insets = new Insets(10, 0, 10, 0);
 
         coin5TextField = createTextField();
-        coin5TextField.setText(String.valueOf(cashControl.getQuantityBill(0.05)));
         coin5TextField.setFont(new Font("Arial", Font.BOLD, 14));
         gbc.gridx = 3;
         insertsPanel.add(coin5TextField, gbc);
@@ -291,7 +276,7 @@ public class TelaControleCaixa extends JFrame
             @Override
             public void actionPerformed (ActionEvent e)
             {
-                TelaAdicionaCaixa telaAdicionaCaixa = new TelaAdicionaCaixa(TelaControleCaixa.this, TelaControleCaixa.this, stock, cashControl, orders);
+                TelaAdicionaCaixa telaAdicionaCaixa = new TelaAdicionaCaixa(TelaControleCaixa.this, navigator, stock, cashControl, orders);
                 telaAdicionaCaixa.setVisible(true);
             }
             
@@ -308,7 +293,7 @@ public class TelaControleCaixa extends JFrame
             @Override
             public void actionPerformed (ActionEvent e)
             {
-                TelaRemoveCaixa telaRemoveCaixa = new TelaRemoveCaixa(TelaControleCaixa.this, TelaControleCaixa.this, stock, cashControl, orders);
+                TelaRemoveCaixa telaRemoveCaixa = new TelaRemoveCaixa(TelaControleCaixa.this, navigator, stock, cashControl, orders);
                 telaRemoveCaixa.setVisible(true);
             }
             
@@ -330,9 +315,7 @@ public class TelaControleCaixa extends JFrame
             public void actionPerformed(ActionEvent e)
             {
                 System.out.println("Voltando");
-                TelaAdmin telaAdmin = new TelaAdmin(stock, cashControl, orders);
-                telaAdmin.setVisible(true);
-                dispose();
+                navigator.open(TelaAdmin.class);
             }
             
         });
@@ -341,31 +324,54 @@ public class TelaControleCaixa extends JFrame
         add(mainPanel);
     }
 
+    /**
+     * Retorna o título da janela enquanto a tela estiver aberta.
+     *
+     * @return o título da tela.
+     */
+    @Override
+    public String getTitle()
+    {
+        return "Visualizar Caixa";
+    }
+
+    /**
+     * Recarrega os valores do caixa sempre que a tela é aberta.
+     */
+    @Override
+    public void reset()
+    {
+        reloadScreen();
+    }
+
     /**
      * Recarrega a tela de controle de caixa, atualizando os campos de texto
      * com as quantidades atuais de cédulas e moedas, e o saldo total do caixa.
+     * O caixa é lido fora da thread de eventos, pelo {@link ServicoAssincrono}.
      */
     public void reloadScreen()
     {
         System.out.println("Reload");
 
-        bill100TextField.setText(String.valueOf(cashControl.getQuantityBill(100)));
-        bill50TextField.setText(String.valueOf(cashControl.getQuantityBill(50)));
-        bill20TextField.setText(String.valueOf(cashControl.getQuantityBill(20)));
-        bill10TextField.setText(String.valueOf(cashControl.getQuantityBill(10)));
-        bill5TextField.setText(String.valueOf(cashControl.getQuantityBill(5)));
-        bill2TextField.setText(String.valueOf(cashControl.getQuantityBill(2)));
-
-        coin1TextField.setText(String.valueOf(cashControl.getQuantityBill(1)));
-        coin50TextField.setText(String.valueOf(cashControl.getQuantityBill(0.5)));
-        coin25TextField.setText(String.valueOf(cashControl.getQuantityBill(0.25)));
-        coin10TextField.setText(String.valueOf(cashControl.getQuantityBill(0.1)));
-        coin5TextField.setText(String.valueOf(cashControl.getQuantityBill(0.05)));
-        subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", cashControl.getTotalCash()));
-
-
-        mainPanel.revalidate();
-        mainPanel.repaint();
+        double[] values = {100, 50, 20, 10, 5, 2, 1, 0.5, 0.25, 0.1, 0.05};
+        JTextField[] fields = {bill100TextField, bill50TextField, bill20TextField, bill10TextField, bill5TextField,
+                bill2TextField, coin1TextField, coin50TextField, coin25TextField, coin10TextField, coin5TextField};
+
+        // Lê o caixa fora da thread de eventos; a última posição guarda o saldo total
+        ServicoAssincrono.call(() -> {
+            double[] amounts = new double[values.length + 1];
+            for (int i = 0; i < values.length; i++)
+                amounts[i] = cashControl.getQuantityBill(values[i]);
+            amounts[values.length] = cashControl.getTotalCash();
+            return amounts;
+        }).thenAccept(amounts -> {
+            for (int i = 0; i < fields.length; i++)
+                fields[i].setText(String.valueOf((int) amounts[i]));
+            subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", amounts[values.length]));
+
+            mainPanel.revalidate();
+            mainPanel.repaint();
+        });
     }
 
     /**
@@ -18,7 +18,6 @@ import java.awt.event.ActionListener;
  * <li>Validação de campo de código vazio.</li>
  * <li>Verificação da existência do produto.</li>
  * <li>Confirmação do usuário antes de deletar o produto.</li>
- * <li>Atualização da tabela de produtos na {@link TelaEstoque} após a exclusão.</li>
  * <li>Tratamento de erros para entradas não numéricas.</li>
  * </ul>
  */
@@ -32,11 +31,10 @@ public class TelaDeletaEstoque extends JDialog
      * Configura a janela de diálogo, seus componentes visuais e os listeners de eventos
      * para os botões de "Deletar" e "Sair".
      *
-     * @param telaEstoque A instância de {@link TelaEstoque} para recarregar a lista de produtos após a exclusão.
      * @param owner O {@link JFrame} pai desta janela de diálogo.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      */
-    public TelaDeletaEstoque (TelaEstoque telaEstoque, JFrame owner, Estoque stock)
+    public TelaDeletaEstoque (JFrame owner, Estoque stock)
     {
         super(owner, "Deleta um Item do Estoque", true);
         setSize(336,368);
@@ -129,30 +127,33 @@ public class TelaDeletaEstoque extends JDialog
                     try 
                     {
                         int code = Integer.parseInt(codeTextField.getText());
-                        if (!stock.isProductInStock(code))
-                        {
-                            JOptionPane.showMessageDialog(TelaDeletaEstoque.this, "Produto não encontrado", "Produto Inexistente", JOptionPane.ERROR_MESSAGE);
-                        }
-                        else
-                        {
+                        ServicoAssincrono.call(TelaDeletaEstoque.this, () -> stock.isProductInStock(code) ? stock.getProductName(code) : null, productName -> {
+                            if (productName == null)
+                            {
+                                JOptionPane.showMessageDialog(TelaDeletaEstoque.this, "Produto não encontrado", "Produto Inexistente", JOptionPane.ERROR_MESSAGE);
+                                return;
+                            }
+
                             int option = JOptionPane.showConfirmDialog
                             (
                                 TelaDeletaEstoque.this,
-                                "Tem certeza que deseja deletar " + stock.getProductName(code) + " do Estoque?",
+                                "Tem certeza que deseja deletar " + productName + " do Estoque?",
                                 "Confirmação Delete",
                                 JOptionPane.YES_NO_OPTION,
                                 JOptionPane.QUESTION_MESSAGE
                             );
-    
+
                             if (option == JOptionPane.YES_OPTION)
                             {
-                                String productName = stock.getProductName(code);
-                                stock.deleteProduct(code);
-                                telaEstoque.loadProducts(stock);
-                                JOptionPane.showMessageDialog(TelaDeletaEstoque.this, productName + " deletado com sucesso", "Produto Deletado", JOptionPane.INFORMATION_MESSAGE);
+                                ServicoAssincrono.call(TelaDeletaEstoque.this, () -> stock.deleteProduct(code), deleted -> {
+                                    if (deleted)
+                                        JOptionPane.showMessageDialog(TelaDeletaEstoque.this, productName + " deletado com sucesso", "Produto Deletado", JOptionPane.INFORMATION_MESSAGE);
+                                    else
+                                        JOptionPane.showMessageDialog(TelaDeletaEstoque.this, "Produto não encontrado", "Produto Inexistente", JOptionPane.ERROR_MESSAGE);
+                                });
                             }
                             codeTextField.setText("");
-                        }
+                        });
                     }
                     catch (Exception ex)
                     {
@@ -27,12 +27,11 @@ public class TelaEditaEstoque extends JDialog
      * Configura a janela de diálogo, seus botões de opção e os listeners de eventos
      * para cada tipo de alteração de estoque.
      *
-     * @param telaEstoque A instância de {@link TelaEstoque} pai, utilizada para manter a referência.
      * @param owner O {@link JFrame} pai desta janela de diálogo.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      */
-    public TelaEditaEstoque(TelaEstoque telaEstoque, JFrame owner, Estoque stock, Caixa cashControl)
+    public TelaEditaEstoque(JFrame owner, Estoque stock, Caixa cashControl)
     {
         super(owner, "Edição Estoque", true);
         setSize(336,368);
@@ -82,7 +81,7 @@ public class TelaEditaEstoque extends JDialog
             @Override
             public void actionPerformed (ActionEvent e)
             {
-                TelaAdicionaEstoque telaAdicionaEstoque = new TelaAdicionaEstoque(telaEstoque, owner, stock, cashControl);
+                TelaAdicionaEstoque telaAdicionaEstoque = new TelaAdicionaEstoque(owner, stock, cashControl);
                 dispose();
                 telaAdicionaEstoque.setVisible(true);
             }
@@ -100,7 +99,7 @@ public class TelaEditaEstoque extends JDialog
             @Override
             public void actionPerformed (ActionEvent e)
             {
-                TelaRemoveEstoque telaRemoveEstoque = new TelaRemoveEstoque(telaEstoque, owner, stock);
+                TelaRemoveEstoque telaRemoveEstoque = new TelaRemoveEstoque(owner, stock);
                 dispose();
                 telaRemoveEstoque.setVisible(true);
             }
@@ -121,7 +120,7 @@ public class TelaEditaEstoque extends JDialog
             @Override
             public void actionPerformed (ActionEvent e)
             {
-                TelaDeletaEstoque telaDeletaEstoque = new TelaDeletaEstoque(telaEstoque, owner, stock);
+                TelaDeletaEstoque telaDeletaEstoque = new TelaDeletaEstoque(owner, stock);
                 dispose();
                 telaDeletaEstoque.setVisible(true);
             }
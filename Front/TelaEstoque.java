@@ -2,16 +2,15 @@ package Front;
 import Back.*;
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Tela para visualizar e gerenciar o estoque de produtos.
@@ -23,16 +22,22 @@ import java.util.*;
  * Funcionalidades principais:
  * <ul>
  * <li>Exibição dos produtos do estoque, incluindo código, nome, preço, quantidade e validity.</li>
- * <li>Organização dos produtos em tabelas por categoria.</li>
+ * <li>Organização dos produtos em tabelas por categoria ({@link ModeloEstoque}), ligadas ao {@link Estoque}:
+ * cada produto cadastrado, alterado ou removido insere, atualiza ou remove apenas a sua linha.</li>
  * <li>Botão para acessar a tela de edição de estoque ({@link TelaEditaEstoque}).</li>
  * <li>Botão para retornar à tela de administração ({@link TelaAdmin}).</li>
- * <li>Método para recarregar a list de produtos, atualizando a exibição.</li>
  * </ul>
  */
-public class TelaEstoque extends JFrame
+public class TelaEstoque extends JPanel implements Navegador.Tela
 {
 
     private JPanel mainPanel;
+    private final Estoque stock;
+    private final Map<String, ModeloEstoque> categories = new LinkedHashMap<>();
+    private final Map<String, JPanel> categoryPanels = new HashMap<>();
+    private final Set<Integer> changedProducts = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean changesScheduled = new AtomicBoolean();
+    private boolean loaded;
 
     /**
      * Construtor da classe {@link TelaEstoque}.
@@ -40,18 +45,15 @@ public class TelaEstoque extends JFrame
      * Inicializa a interface da tela de controle de estoque, configurando o layout
      * e os componentes visuais, incluindo as tabelas de produtos e os botões de ação.
      *
+     * @param navigator O {@link Navegador}, a janela que exibe as telas.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
      */
-    public TelaEstoque(Estoque stock, Caixa cashControl, ControlePedidos orders)
+    public TelaEstoque(Navegador navigator, Estoque stock, Caixa cashControl, ControlePedidos orders)
     {
-        setTitle("Controle de Estoque");
-        setSize(600, 800);
-        setLocationRelativeTo(null);
-        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
-        setResizable(false);
-        getContentPane().setBackground(new Color(197, 202, 196));
+        this.stock = stock;
+        setBackground(new Color(197, 202, 196));
         setLayout(new BorderLayout());
 
         mainPanel = new JPanel();
@@ -74,7 +76,7 @@ public class TelaEstoque extends JFrame
         addButton.addActionListener(e -> 
         {
             System.out.println("Alterando Estoque");
-            TelaEditaEstoque telaEditaEstoque = new TelaEditaEstoque(this, TelaEstoque.this, stock, cashControl);
+            TelaEditaEstoque telaEditaEstoque = new TelaEditaEstoque(navigator, stock, cashControl);
             telaEditaEstoque.setVisible(true);
         });
 
@@ -82,9 +84,7 @@ public class TelaEstoque extends JFrame
 
         backButton.addActionListener(e -> 
         {
-            TelaAdmin telaAdmin = new TelaAdmin(stock, cashControl, orders);
-            telaAdmin.setVisible(true);
-            dispose();
+            navigator.open(TelaAdmin.class);
         });
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 15));
@@ -93,26 +93,42 @@ public class TelaEstoque extends JFrame
         buttonPanel.add(backButton);
 
         add(buttonPanel, BorderLayout.SOUTH);
+
+        // A tela é única e vive enquanto o sistema estiver aberto, então o ouvinte nunca é removido
+        stock.addStockListener((code, entry) -> productChanged(code));
+        loadProducts();
     }
 
     /**
-     * Carrega e exibe os produtos do estoque na tela.
-     *
-     * Este método remove todos os componentes de produto existentes e recria as tabelas
-     * com os data atuais do estoque, agrupando os produtos por categoria.
+     * Retorna o título da janela enquanto a tela estiver aberta.
      *
-     * @param stock A instância de {@link Estoque} da qual os produtos serão carregados.
+     * @return o título da tela.
      */
-    public void loadProducts(Estoque stock)
+    @Override
+    public String getTitle()
     {
-        mainPanel.removeAll();
+        return "Controle de Estoque";
+    }
 
-        JLabel titleLabel = new JLabel("Controle de Estoque");
-        titleLabel.setFont(new Font("Arial", Font.BOLD, 26));
-        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-        titleLabel.setBorder(BorderFactory.createEmptyBorder(20, 0, 20, 0));
-        mainPanel.add(titleLabel);
+    /**
+     * Carrega os produtos do estoque e monta uma tabela por categoria. O estoque é lido e os
+     * modelos das tabelas são montados fora da thread de eventos, pelo {@link ServicoAssincrono};
+     * depois disso, a tela só é atualizada pelos avisos do estoque.
+     */
+    private void loadProducts()
+    {
+        ServicoAssincrono.call(this, () -> productModels(stock), this::showProducts);
+    }
 
+    /**
+     * Agrupa os produtos do estoque por categoria, cada categoria em um {@link ModeloEstoque}.
+     * Roda fora da thread de eventos.
+     *
+     * @param stock A instância de {@link Estoque} da qual os produtos serão carregados.
+     * @return o modelo da tabela de cada categoria.
+     */
+    private static Map<String, ModeloEstoque> productModels(Estoque stock)
+    {
         // -- Products by Category --
         Map<String, List<ProdutoEmEstoque>> category = new HashMap<>();
         for (ProdutoEmEstoque pe : stock.getProductsStock().values())
@@ -121,32 +137,116 @@ public class TelaEstoque extends JFrame
             category.computeIfAbsent(type, k -> new ArrayList<>()).add(pe);
         }
 
-        // Sections by Category
+        Map<String, ModeloEstoque> models = new LinkedHashMap<>();
         for (Map.Entry<String, List<ProdutoEmEstoque>> entry : category.entrySet())
+            models.put(entry.getKey(), new ModeloEstoque(entry.getValue()));
+        return models;
+    }
+
+    /**
+     * Cria as tabelas da tela com os modelos montados e aplica as alterações avisadas durante a carga.
+     *
+     * @param models o modelo da tabela de cada categoria.
+     */
+    private void showProducts(Map<String, ModeloEstoque> models)
+    {
+        // Sections by Category
+        for (Map.Entry<String, ModeloEstoque> entry : models.entrySet())
+            addCategory(entry.getKey(), entry.getValue());
+
+        loaded = true;
+        applyChanges();
+        mainPanel.revalidate();
+        mainPanel.repaint();
+    }
+
+    /**
+     * Recebe o aviso de alteração de um produto, em qualquer thread. Os avisos são acumulados e
+     * aplicados de uma vez na thread de eventos, de modo que uma rajada de alterações (por exemplo,
+     * a atualização do catálogo de um checkout remoto) agenda uma única tarefa.
+     *
+     * @param code o código do produto alterado.
+     */
+    private void productChanged(int code)
+    {
+        changedProducts.add(code);
+        if (changesScheduled.compareAndSet(false, true))
+            SwingUtilities.invokeLater(this::applyChanges);
+    }
+
+    /**
+     * Aplica às tabelas as alterações acumuladas, consultando o estado atual de cada produto no
+     * estoque. Enquanto a carga inicial não termina, as alterações ficam guardadas.
+     */
+    private void applyChanges()
+    {
+        changesScheduled.set(false);
+        if (!loaded)
+            return;
+
+        boolean layoutChanged = false;
+        Iterator<Integer> codes = changedProducts.iterator();
+        while (codes.hasNext())
         {
-            String type = entry.getKey();
-            List<ProdutoEmEstoque> list = entry.getValue();
+            int code = codes.next();
+            codes.remove();
+            layoutChanged |= applyChange(code, stock.getProductsStock().get(code));
+        }
 
-            Object[][] data = new Object[list.size()][5];
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        if (layoutChanged)
+        {
+            mainPanel.revalidate();
+            mainPanel.repaint();
+        }
+    }
 
-            for (int i = 0; i < list.size(); i++)
+    /**
+     * Insere, atualiza ou remove a linha de um produto. Uma categoria que fica vazia é retirada da
+     * tela, e uma categoria nova ganha uma tabela.
+     *
+     * @param code o código do produto.
+     * @param entry o produto como está no estoque, ou {@code null} se ele foi removido.
+     * @return {@code true} se uma tabela de categoria foi criada ou retirada.
+     */
+    private boolean applyChange(int code, ProdutoEmEstoque entry)
+    {
+        boolean layoutChanged = false;
+        String type = (entry != null) ? entry.getProduct().getType() : null;
+
+        Iterator<Map.Entry<String, ModeloEstoque>> it = categories.entrySet().iterator();
+        while (it.hasNext())
+        {
+            Map.Entry<String, ModeloEstoque> category = it.next();
+            if (category.getKey().equals(type) || !category.getValue().remove(code))
+                continue;
+            if (category.getValue().getRowCount() == 0)
             {
-                Produto p = list.get(i).getProduct();
-                data[i][0] = p.getCode();
-                data[i][1] = p.getName();
-                data[i][2] = String.format("R$ %.2f", p.getPrice());
-                data[i][3] = list.get(i).getAmountStock();
-
-                LocalDate validity = p.getValidity();
-                data[i][4] = (validity != null) ? validity.format(formatter) : "—";            
+                mainPanel.remove(categoryPanels.remove(category.getKey()));
+                it.remove();
+                layoutChanged = true;
             }
+        }
 
-            mainPanel.add(createCategory(type, data));
+        if (entry == null)
+            return layoutChanged;
+
+        ModeloEstoque model = categories.get(type);
+        if (model == null)
+        {
+            model = new ModeloEstoque(List.of());
+            addCategory(type, model);
+            layoutChanged = true;
         }
+        model.put(entry);
+        return layoutChanged;
+    }
 
-        mainPanel.revalidate();
-        mainPanel.repaint();
+    private void addCategory(String type, ModeloEstoque model)
+    {
+        JPanel panel = createCategory(type, model);
+        categories.put(type, model);
+        categoryPanels.put(type, panel);
+        mainPanel.add(panel);
     }
 
     /**
@@ -158,11 +258,10 @@ public class TelaEstoque extends JFrame
      * As células da tabela são centralizadas.
      *
      * @param title O título da categoria a ser exibido.
-     * @param data Um array bidimensional de {@link Object} contendo os dados dos produtos,
-     * onde cada linha representa um produto e cada coluna, uma de suas propriedades.
+     * @param model O {@link ModeloEstoque} com os produtos da categoria.
      * @return Um {@link JPanel} estilizado contendo o título da categoria e a tabela de produtos.
      */
-    private JPanel createCategory(String title, Object[][] data)
+    private JPanel createCategory(String title, ModeloEstoque model)
     {
         JPanel panel = new JPanel();
         panel.setLayout(new BorderLayout());
@@ -179,18 +278,6 @@ public class TelaEstoque extends JFrame
         categoryTitleLabel.setHorizontalAlignment(SwingConstants.CENTER); // ← centralizado
         panel.add(categoryTitleLabel, BorderLayout.NORTH);
 
-        // Columns
-        String[] columns = {"Código", "Produto", "Preço", "Qtd", "validity"};
-
-        DefaultTableModel model = new DefaultTableModel(data, columns)
-        {
-            @Override
-            public boolean isCellEditable(int row, int column)
-            {
-                return false;
-            }
-        };
-
         JTable table = new JTable(model);
         table.setRowHeight(25);
         table.setFont(new Font("Arial", Font.PLAIN, 14));
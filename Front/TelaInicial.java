@@ -24,7 +24,7 @@ import java.awt.event.ActionListener;
  * Utiliza instâncias das classes {@link Estoque}, {@link Caixa} e {@link ControlePedidos}
  * para garantir continuidade dos dados entre as telas.
  */
-public class TelaInicial extends JFrame
+public class TelaInicial extends JPanel implements Navegador.Tela
 {
 
     /**
@@ -33,19 +33,15 @@ public class TelaInicial extends JFrame
      * Responsável por construir a interface inicial, configurando os botões de acesso
      * para usuário e administrador. Também define o layout visual da aplicação.
      * 
+     * @param navigator O {@link Navegador}, a janela que exibe as telas.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
      */
-    public TelaInicial(Estoque stock, Caixa cashControl, ControlePedidos orders)
+    public TelaInicial(Navegador navigator, Estoque stock, Caixa cashControl, ControlePedidos orders)
     {
-        setTitle("Tela Inicial");
-        setSize(600,800);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setResizable(false);
 
-        getContentPane().setBackground(new Color(197,202,196));
+        setBackground(new Color(197,202,196));
         setLayout(new BorderLayout());
 
         JPanel mainPanel = new JPanel(new GridBagLayout());
@@ -82,9 +78,7 @@ public class TelaInicial extends JFrame
             @Override
             public void actionPerformed (ActionEvent e)
             {
-                TelaIniciarCompra telaIniciarCompra = new TelaIniciarCompra(stock, cashControl, orders);
-                telaIniciarCompra.setVisible(true);
-                dispose();
+                navigator.open(TelaIniciarCompra.class);
             }
             
         });
@@ -100,21 +94,30 @@ public class TelaInicial extends JFrame
             public void actionPerformed (ActionEvent e)
             {
                 System.out.println("Acessando Tela de Login");
-                TelaLogin telaLogin = new TelaLogin(TelaInicial.this);
+                TelaLogin telaLogin = new TelaLogin(navigator);
                 telaLogin.setVisible(true);
 
                 if (telaLogin.isLoginSucessful())
                 {
                     System.out.println("Acessando Tela de Administração");
-                    TelaAdmin telaAdmin = new TelaAdmin(stock, cashControl, orders);
-                    telaAdmin.setVisible(true);
-                    dispose();
+                    navigator.open(TelaAdmin.class);
                 }
             }     
         });
         add(mainPanel);  
     }
 
+    /**
+     * Retorna o título da janela enquanto a tela estiver aberta.
+     *
+     * @return o título da tela.
+     */
+    @Override
+    public String getTitle()
+    {
+        return "Tela Inicial";
+    }
+
     /**
      * Método auxiliar para criação de botões estilizados usados na {@link TelaInicial}.
      * 
@@ -21,7 +21,7 @@ import java.awt.*;
  * Utiliza instâncias das classes {@link Estoque}, {@link Caixa} e {@link ControlePedidos}
  * para manter a continuidade dos dados e funcionalidades do sistema ao transitar entre as telas.
  */
-public class TelaIniciarCompra extends JFrame
+public class TelaIniciarCompra extends JPanel implements Navegador.Tela
 {
     /**
      * Construtor da classe {@link TelaIniciarCompra}.
@@ -30,19 +30,15 @@ public class TelaIniciarCompra extends JFrame
      * o botão principal para "Fazer Pedido" e o botão "Sair". Define o layout visual
      * e as propriedades da janela.
      *
+     * @param navigator O {@link Navegador}, a janela que exibe as telas.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
      */
-    public TelaIniciarCompra(Estoque stock, Caixa cashControl, ControlePedidos orders)
+    public TelaIniciarCompra(Navegador navigator, Estoque stock, Caixa cashControl, ControlePedidos orders)
     {
-        setTitle("Iniciar Compras");
-        setSize(600, 800);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setResizable(false);
 
-        getContentPane().setBackground(new Color(197, 202, 196));
+        setBackground(new Color(197, 202, 196));
         setLayout(new BorderLayout());
 
         JPanel mainPanel = new JPanel(new GridBagLayout());
@@ -78,9 +74,7 @@ public class TelaIniciarCompra extends JFrame
         userButton.setPreferredSize(new Dimension(250,140));
 
         userButton.addActionListener(e -> {
-            TelaAutoatendimento telaAutoatendimento = new TelaAutoatendimento(stock, cashControl, orders);
-            telaAutoatendimento.setVisible(true);
-            dispose();
+            navigator.open(TelaAutoatendimento.class);
         });
 
         gbc.gridy = 1;
@@ -100,15 +94,13 @@ public class TelaIniciarCompra extends JFrame
 
         backButton.addActionListener(e -> {
             System.out.println("Acessando Tela de Login");
-                TelaLogin telaLogin = new TelaLogin(TelaIniciarCompra.this);
+                TelaLogin telaLogin = new TelaLogin(navigator);
                 telaLogin.setVisible(true);
 
                 if (telaLogin.isLoginSucessful())
                 {
                     System.out.println("Acessando Tela de Administração");
-                    TelaInicial telaInicial = new TelaInicial(stock, cashControl, orders);
-                    telaInicial.setVisible(true);
-                    dispose();
+                    navigator.open(TelaInicial.class);
                 }
             });
 
@@ -118,4 +110,15 @@ public class TelaIniciarCompra extends JFrame
         mainPanel.add(userButton, gbc);
         add(mainPanel);
     }
+
+    /**
+     * Retorna o título da janela enquanto a tela estiver aberta.
+     *
+     * @return o título da tela.
+     */
+    @Override
+    public String getTitle()
+    {
+        return "Iniciar Compras";
+    }
 }
\ No newline at end of file
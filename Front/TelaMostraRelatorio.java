@@ -7,6 +7,7 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
+import javax.swing.table.TableModel;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -21,10 +22,25 @@ import java.util.stream.Collectors;
  * vendidos, transações realizadas ou produtos vencidos/próximos ao vencimento.
  *
  * A tela ajusta seu conteúdo dinamicamente com base no tipo de relatório
- * selecionado, formatando e exibindo os dados em uma tabela.
+ * selecionado, formatando e exibindo os dados em uma tabela. Os cálculos
+ * ficam em {@link Relatorios}. O relatório de transações usa um {@link ModeloTransacoes},
+ * que lê e formata apenas os pedidos exibidos.
+ *
+ * Os cálculos que percorrem o histórico ou o catálogo rodam em paralelo no {@link MotorRelatorios},
+ * fora da thread de eventos: o diálogo abre na hora, mostra o progresso e cancela o cálculo ao
+ * ser fechado. Os resultados ficam em um {@link CacheRelatorios}: reabrir o mesmo relatório
+ * para o mesmo período não recalcula nada enquanto os dados não mudarem.
  */
 public class TelaMostraRelatorio extends JDialog
 {
+    private static final MotorRelatorios ENGINE = new MotorRelatorios();
+    private static final CacheRelatorios CACHE = new CacheRelatorios(32L << 20);
+
+    private JProgressBar progressBar;
+    private JLabel summaryLabel;
+    private MotorRelatorios.Execucao<?> execution;
+    private boolean disposed;
+
     /**
      * Construtor para {@link TelaMostraRelatorio}.
      *
@@ -56,8 +72,9 @@ public class TelaMostraRelatorio extends JDialog
         mainPanel.setBackground(new Color(197,202,196));
 
         String titleText;
-        String[] columnNames;
-        Object[][] data;
+        String[] columnNames = null;
+        TableModel tableModel = null;
+        DefaultTableModel rows = null;
 
         if (report.equals("Produtos mais Vendidos"))
         {
@@ -66,19 +83,6 @@ public class TelaMostraRelatorio extends JDialog
                     endDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
 
             columnNames = new String[]{"Produto", "Quantidade Vendida"};
-
-            Map<String, Integer> productSales = calculateProductSales(startDate, endDate, orders, stock);
-            java.util.List<Map.Entry<String, Integer>> sortedSales = productSales.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .collect(Collectors.toList());
-
-            data = new Object[sortedSales.size()][2];
-            int i = 0;
-            for (Map.Entry<String, Integer> entry : sortedSales) {
-                data[i][0] = entry.getKey();
-                data[i][1] = entry.getValue();
-                i++;
-            }
         }
         else if (report.equals("Transações Realizadas"))
         {
@@ -86,38 +90,50 @@ public class TelaMostraRelatorio extends JDialog
                     startDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
                     endDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
 
-            columnNames = new String[]{"Número do Pedido", "Data", "Valor (R$)"};
-
-            java.util.List<Object[]> transactionData = calculateTransactionData(startDate, endDate, orders, stock);
-            data = transactionData.toArray(new Object[0][]);
+            tableModel = new ModeloTransacoes(ControlePedidos.getOrders(startDate, endDate));
         }
         else if (report.equals("Produtos Vencidos ou Próximos de Vencer"))
          {
             titleText = "Produtos Vencidos ou Próximos do Vencimento";
             columnNames = new String[]{"Produto", "Validade", "Status"};
-            java.util.List<Object[]> expiredProductsData = calculateExpiredProductsData(stock);
-            data = expiredProductsData.toArray(new Object[0][]);
          }
         else {
             // Fallback for unknown report type
             titleText = "Relatório Inválido";
             columnNames = new String[]{"Erro"};
-            data = new Object[][]{{"Tipo de relatório não reconhecido."}};
         }
 
-        // --- Title ---
+        // --- Title, progress and summary ---
+        JPanel headerPanel = new JPanel(new BorderLayout(0, 8));
+        headerPanel.setOpaque(false);
+
         JLabel titleLabel = new JLabel(titleText, SwingConstants.CENTER);
         titleLabel.setFont(new Font("Arial", Font.BOLD, 22));
         titleLabel.setForeground(new Color(40, 40, 40));
-        mainPanel.add(titleLabel, BorderLayout.NORTH);
+        headerPanel.add(titleLabel, BorderLayout.NORTH);
+
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        headerPanel.add(progressBar, BorderLayout.CENTER);
+
+        summaryLabel = new JLabel(" ", SwingConstants.CENTER);
+        summaryLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        headerPanel.add(summaryLabel, BorderLayout.SOUTH);
+
+        mainPanel.add(headerPanel, BorderLayout.NORTH);
 
         // --- Table ---
-        DefaultTableModel tableModel = new DefaultTableModel(data, columnNames) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table non-editable
-            }
-        };
+        if (tableModel == null)
+        {
+            rows = new DefaultTableModel(columnNames, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false; // Make table non-editable
+                }
+            };
+            tableModel = rows;
+        }
 
         JTable reportTable = new JTable(tableModel);
         styleTable(reportTable);
@@ -126,6 +142,48 @@ public class TelaMostraRelatorio extends JDialog
         scrollPane.getViewport().setBackground(new Color(197, 202, 196));
         mainPanel.add(scrollPane, BorderLayout.CENTER);
 
+        // --- Report calculation ---
+        DefaultTableModel reportRows = rows;
+        if (report.equals("Produtos mais Vendidos"))
+        {
+            // Com os totais diários atualizados o relatório sai na hora; senão, percorre os pedidos em
+            // paralelo e pede o recálculo dos totais em segundo plano, para os próximos relatórios
+            ServicoAssincrono.call(() -> ControlePedidos.hasCurrentSales()
+                    ? Relatorios.productSales(ControlePedidos.getUnitsSold(startDate, endDate), ControlePedidos.getProductNames())
+                    : null).thenAccept(daily -> {
+                if (daily != null)
+                    showSales(reportRows, daily);
+                else if (!disposed)
+                {
+                    ControlePedidos.refreshSalesInBackground();
+                    runReport(CACHE.key(CacheRelatorios.Tipo.PRODUTOS_MAIS_VENDIDOS, startDate, endDate, stock),
+                            () -> ENGINE.productSales(ControlePedidos.getOrders(startDate, endDate)),
+                            sales -> 96L * sales.size(), sales -> showSales(reportRows, sales));
+                }
+            });
+        }
+        else if (report.equals("Transações Realizadas"))
+        {
+            runReport(CACHE.key(CacheRelatorios.Tipo.TRANSACOES, startDate, endDate, stock),
+                    () -> ENGINE.orderTotals(ControlePedidos.getOrders(startDate, endDate)), totals -> 64L,
+                    totals -> summaryLabel.setText(String.format("%d pedidos, total de R$ %.2f", totals[0], totals[1] / 100.0)));
+        }
+        else if (report.equals("Produtos Vencidos ou Próximos de Vencer"))
+        {
+            LocalDate today = LocalDate.now();
+            runReport(CACHE.key(CacheRelatorios.Tipo.VALIDADE, today, today, stock),
+                    () -> ENGINE.expiryBuckets(stock, today),
+                    buckets -> 160L * buckets.values().stream().mapToLong(java.util.List::size).sum(), buckets -> {
+                for (java.util.List<Object[]> bucket : buckets.values())
+                    for (Object[] row : bucket)
+                        reportRows.addRow(row);
+                summaryLabel.setText(String.format("Vencidos: %d | Vencem hoje: %d | Próximos do vencimento: %d",
+                        buckets.get("Vencido").size(), buckets.get("Vence Hoje").size(), buckets.get("Próximo do Vencimento").size()));
+            });
+        }
+        else
+            reportRows.addRow(new Object[]{"Tipo de relatório não reconhecido."});
+
         // --- Back Button ---
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 10));
         buttonPanel.setBackground(new Color(197, 202, 196));
@@ -140,39 +198,70 @@ public class TelaMostraRelatorio extends JDialog
     }
 
     /**
-     * Coleta os dados de produtos vencidos ou próximos do vencimento.
+     * Fecha o diálogo, cancelando o cálculo do relatório se ele ainda estiver em andamento.
+     */
+    @Override
+    public void dispose()
+    {
+        disposed = true;
+        if (execution != null)
+            execution.cancel();
+        super.dispose();
+    }
+
+    /**
+     * Exibe um relatório guardado no {@link CacheRelatorios} ou, se ele não estiver lá, calcula-o
+     * com o {@link MotorRelatorios}: mostra o progresso enquanto ele é calculado e, ao terminar,
+     * guarda o resultado no cache e o exibe na thread de eventos do Swing.
      *
-     * Este método itera sobre todos os produtos no estoque, verifica a
-     * validade de cada um e coleta os dados dos produtos que estão vencidos,
-     * vencem hoje ou estão próximos do vencimento (até 7 dias).
+     * @param key a chave do relatório no cache, criada antes do cálculo.
+     * @param compute inicia o cálculo do relatório.
+     * @param size estima o tamanho do resultado em bytes.
+     * @param show exibe o resultado do relatório.
+     */
+    private <T> void runReport(CacheRelatorios.Chave key, java.util.function.Supplier<MotorRelatorios.Execucao<T>> compute,
+                               java.util.function.ToLongFunction<T> size, java.util.function.Consumer<T> show)
+    {
+        T cached = CACHE.get(key);
+        if (cached != null)
+        {
+            show.accept(cached);
+            return;
+        }
+
+        MotorRelatorios.Execucao<T> report = compute.get();
+        execution = report;
+        progressBar.setVisible(true);
+        report.getResult().thenAccept(result -> CACHE.put(key, result, size.applyAsLong(result)));
+
+        javax.swing.Timer timer = new javax.swing.Timer(100, e -> progressBar.setValue((int) Math.round(report.getProgress() * 100)));
+        timer.start();
+
+        report.getResult().whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            timer.stop();
+            progressBar.setVisible(false);
+            if (error == null)
+                show.accept(result);
+            else if (!report.isCancelled())
+                summaryLabel.setText("Erro ao calcular o relatório: " + error.getMessage());
+        }));
+    }
+
+    /**
+     * Preenche a tabela de produtos mais vendidos, do mais vendido ao menos vendido.
      *
-     * @param stock A instância de {@link Estoque} para acessar os produtos.
-     * @return Uma lista de arrays de objetos, onde cada array contém o nome do
-     *         produto, a data de validade formatada e o status de validade.
+     * @param rows o modelo da tabela.
+     * @param productSales a quantidade vendida de cada produto.
      */
-    private java.util.List<Object[]> calculateExpiredProductsData(Estoque stock)
-     {
-         java.util.List<Object[]> expiredProductsData = new ArrayList<>();
-         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-         LocalDate today = LocalDate.now();
- 
-         for (ProdutoEmEstoque productInStock : stock.getProductsStock().values())
-         {
-             Produto product = productInStock.getProduct();
-             LocalDate expirationDate = product.getValidity();
- 
-             if (expirationDate != null)
-             {
-                 String status = getExpirationStatus(expirationDate, today);
-                 expiredProductsData.add(new Object[]{
-                         product.getName(),
-                         expirationDate.format(formatter),
-                         status
-                 });
-             }
-         }
-         return expiredProductsData;
-     }
+    private void showSales(DefaultTableModel rows, Map<String, Integer> productSales)
+    {
+        java.util.List<Map.Entry<String, Integer>> sortedSales = productSales.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .collect(Collectors.toList());
+
+        for (Map.Entry<String, Integer> entry : sortedSales)
+            rows.addRow(new Object[]{entry.getKey(), entry.getValue()});
+    }
 
     /**
      * Styles a JTable to match the application's visual theme.
@@ -216,122 +305,4 @@ public class TelaMostraRelatorio extends JDialog
         button.setBorderPainted(false);
         return button;
     }
-
-    /**
-     * Calcula os dados das transações realizadas em um período.
-     *
-     * Este método itera sobre os pedidos dentro do intervalo de datas e
-     * coleta informações como número do pedido, data e valor total.
-     *
-     * @param startDate A data inicial do período.
-     * @param endDate A data final do período.
-     * @param orders A instância de {@link ControlePedidos} para acessar os pedidos.
-     * @param stock A instância de {@link Estoque} para calcular o valor total dos pedidos.
-     * @return Uma lista de arrays de objetos, onde cada array representa uma transação.
-     */
-    private java.util.List<Object[]> calculateTransactionData(LocalDate startDate, LocalDate endDate, ControlePedidos orders, Estoque stock) 
-    {
-        java.util.List<Object[]> transactionData = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-        for (Pedido order : ControlePedidos.getOrders()) {
-            LocalDate orderDate = order.getOrderDate();
-
-            if (!(orderDate.isBefore(startDate) || orderDate.isAfter(endDate))) {
-                double orderTotal = calculateOrderTotal(order, stock);
-
-                transactionData.add(new Object[]{
-                        order.getOrderNumber(),
-                        orderDate.format(formatter),
-                        String.format("R$ %.2f", orderTotal)
-                });
-            }
-        }
-
-        return transactionData;
-    }
-
-    /**
-     * Calcula a quantidade vendida para cada produto dentro de um período.
-     *
-     * Este método processa os pedidos para determinar a quantidade total
-     * vendida de cada produto no intervalo de datas fornecido.
-     *
-     * @param startDate A data inicial do período.
-     * @param endDate A data final do período.
-     * @param orders A instância de {@link ControlePedidos} para acessar os pedidos.
-     * @param stock A instância de {@link Estoque} para obter o nome dos produtos.
-     * @return Um mapa onde a chave é o nome do produto e o valor é a quantidade vendida.
-     */
-    private Map<String, Integer> calculateProductSales(LocalDate startDate, LocalDate endDate, ControlePedidos orders, Estoque stock)
-    {
-        Map<String, Integer> productSales = new HashMap<>();
-
-        for (Pedido order : ControlePedidos.getOrders())
-        {
-            LocalDate orderDate = order.getOrderDate();
-
-            if (!(orderDate.isBefore(startDate) || orderDate.isAfter(endDate)))
-            {
-                for (Map.Entry<Integer, Integer> entry : order.getOrder().entrySet())
-                {
-                    int productCode = entry.getKey();
-                    int quantity = entry.getValue();
-                    String productName = stock.getProductName(productCode);
-                    productSales.put(productName, productSales.getOrDefault(productName, 0) + quantity);
-                }
-            }
-        }
-
-        return productSales;
-    }
-
-    /**
-     * Calcula o valor total de um pedido.
-     *
-     * Este método itera sobre os itens de um pedido, multiplicando a quantidade
-     * de cada produto pelo seu preço para calcular o valor total.
-     *
-     * @param order O pedido para calcular o valor total.
-     * @param stock A instância de {@link Estoque} para acessar os preços dos produtos.
-     * @return O valor total do pedido.
-     */
-    private double calculateOrderTotal(Pedido order, Estoque stock) 
-    {
-        double total = 0;
-        for (Map.Entry<Integer, Integer> entry : order.getOrder().entrySet()) {
-            int productCode = entry.getKey();
-            int quantity = entry.getValue();
-            total += stock.getProductsStock().get(productCode).getProduct().getPrice() * quantity;
-        }
-        return total;
-    }
-
-    /**
-     * Determina o status de validade de um produto.
-     *
-     * Compara a data de validade de um produto com a data atual para
-     * determinar se ele está vencido, vence hoje, está próximo do vencimento
-     * (até 7 dias) ou ainda está dentro da validade.
-     *
-     * @param expirationDate A data de validade do produto.
-     * @param today A data atual.
-     * @return Uma string representando o status de validade do produto.
-     */
-    private String getExpirationStatus(LocalDate expirationDate, LocalDate today) 
-    {
-        if (expirationDate.isBefore(today)) 
-        {
-            return "Vencido";
-        } else if (expirationDate.isEqual(today)) 
-        {
-            return "Vence Hoje";
-        } else if (expirationDate.isBefore(today.plusDays(8))) 
-        {
-            return "Próximo do Vencimento";
-        } else 
-        {
-            return "Dentro da Validade";
-        }
-    }
 }
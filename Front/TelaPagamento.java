@@ -4,7 +4,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Map;
 
 /**
  * Tela de Pagamento do Pedido.
@@ -26,8 +25,11 @@ import java.util.Map;
  *
  * Garante que uma forma de pagamento seja selecionada antes de prosseguir.
  *
- * Utiliza instâncias das classes {@link Estoque}, {@link Caixa}, {@link ControlePedidos}
- * e {@link Pedido} para gerenciar a transação, atualizar o estoque e registrar o pedido.
+ * A {@link Compra} já foi iniciada no {@link ServicoCheckout}, com o estoque reservado: ao pagar,
+ * o serviço confirma a reserva e registra o pedido; ao voltar ou cancelar, a compra é cancelada.
+ *
+ * Utiliza instâncias das classes {@link Estoque}, {@link Caixa} e {@link ControlePedidos}
+ * para exibir os dados e navegar entre as telas.
  */
 public class TelaPagamento extends JDialog
 {
@@ -38,14 +40,14 @@ public class TelaPagamento extends JDialog
      * as opções de forma de pagamento e os botões de ação. Define o layout visual
      * e as propriedades da janela de diálogo.
      *
-     * @param owner O {@link JFrame} pai desta janela de diálogo.
-     * @param cart Um {@link Map} representando o carrinho de compras, contendo o código do produto e a quantidade.
+     * @param owner O {@link Navegador}, janela pai desta janela de diálogo.
+     * @param cart O {@link Carrinho} da compra, compartilhado pelas telas de compra e pagamento.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
-     * @param order Instância de {@link Pedido} contendo os detalhes do pedido atual.
+     * @param purchase A {@link Compra} iniciada para o pedido atual.
      */
-    public TelaPagamento(JFrame owner, Map<Integer, Integer> cart, Estoque stock, Caixa cashControl, ControlePedidos orders, Pedido order)
+    public TelaPagamento(Navegador owner, Carrinho cart, Estoque stock, Caixa cashControl, ControlePedidos orders, Compra purchase)
     {
         super(owner, "Tela de Pagamento", true);
         setSize(550, 320);
@@ -79,14 +81,14 @@ public class TelaPagamento extends JDialog
         gbc.insets = new Insets(0, 10, 0, 10);
 
         // -- Order Number Label --
-        JLabel orderNumberLabel = new JLabel("Pedido " + order.getOrderNumber());
+        JLabel orderNumberLabel = new JLabel("Pedido " + purchase.getOrderNumber());
         orderNumberLabel.setFont(new Font("Arial", Font.BOLD, 18));
         gbc.gridy = 1;
         gbc.anchor = GridBagConstraints.WEST;
         mainPanel.add(orderNumberLabel, gbc);
 
         // -- Total Itens Label --
-        JLabel itensTotalLabel = new JLabel("Itens: " + cart.values().stream().mapToInt(Integer::intValue).sum());
+        JLabel itensTotalLabel = new JLabel("Itens: " + cart.getItemCount());
         itensTotalLabel.setFont(new Font("Arial", Font.PLAIN, 18));
         gbc.gridy = 2;
         mainPanel.add(itensTotalLabel, gbc);
@@ -94,13 +96,7 @@ public class TelaPagamento extends JDialog
         gbc.insets = new Insets(15, 10, 0, 10);
 
         // -- Total Cash Label --
-        double totalOrderValue = cart.entrySet().stream()
-                .mapToDouble(entry -> {
-                    Produto produto = stock.getProductsStock().get(entry.getKey()).getProduct();
-                    return produto.getPrice() * entry.getValue();
-                }).sum();
-
-        JLabel itensCashLabel = new JLabel("Total: R$ " + String.format("%.2f", totalOrderValue));
+        JLabel itensCashLabel = new JLabel("Total: R$ " + String.format("%.2f", purchase.getTotalCents() / 100.0));
         itensCashLabel.setFont(new Font("Arial", Font.PLAIN, 18));
         gbc.gridy = 3;
         gbc.anchor = GridBagConstraints.EAST;
@@ -170,9 +166,11 @@ public class TelaPagamento extends JDialog
             @Override
             public void actionPerformed(ActionEvent e)
             {
-                TelaConfirmaPedido telaConfirmaPedido = new TelaConfirmaPedido(owner, cart, stock, cashControl, orders);
-                dispose();
-                telaConfirmaPedido.setVisible(true);
+                ServicoAssincrono.await(TelaPagamento.this, ServicoAssincrono.cancel(purchase), false, done -> {
+                    TelaConfirmaPedido telaConfirmaPedido = new TelaConfirmaPedido(owner, cart, stock, cashControl, orders);
+                    dispose();
+                    telaConfirmaPedido.setVisible(true);
+                });
             }
             
         });
@@ -192,11 +190,10 @@ public class TelaPagamento extends JDialog
             @Override
             public void actionPerformed(ActionEvent e)
             {
-                Pedido.setOrderGlobalNumber(Pedido.getOrderGlobalNumber() - 1);
-                TelaIniciarCompra telaIniciarCompra = new TelaIniciarCompra(stock, cashControl, orders);
-                telaIniciarCompra.setVisible(true);
-                owner.dispose();
-                dispose();
+                ServicoAssincrono.await(TelaPagamento.this, ServicoAssincrono.cancel(purchase), false, done -> {
+                    owner.open(TelaIniciarCompra.class);
+                    dispose();
+                });
             }
             
         });
@@ -223,23 +220,26 @@ public class TelaPagamento extends JDialog
                     if (cardButton.isSelected() || pixButton.isSelected())
                     {
                         System.out.println("Tela Final");
-                        for (Integer codeProduct : cart.keySet())
-                        {
-                            stock.removeStock(codeProduct, cart.get(codeProduct));
-                        }
-                        JOptionPane.showMessageDialog(TelaPagamento.this,
-                                "Pedido Confirmado! Aguarde para Retirar",
-                                "Pedido Confirmado",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        orders.newOrder(order);
-                        TelaIniciarCompra telaIniciarCompra = new TelaIniciarCompra(stock, cashControl, orders);
-                        telaIniciarCompra.setVisible(true);
-                        owner.dispose();
-                        dispose();
+                        ServicoAssincrono.await(TelaPagamento.this, ServicoAssincrono.payWithCard(purchase), false, result -> {
+                            if (!result.isApproved())
+                            {
+                                JOptionPane.showMessageDialog(TelaPagamento.this,
+                                        "O tempo de reserva expirou e não há mais estoque para este pedido.",
+                                        "Estoque insuficiente",
+                                        JOptionPane.ERROR_MESSAGE);
+                                return;
+                            }
+                            JOptionPane.showMessageDialog(TelaPagamento.this,
+                                    "Pedido Confirmado! Aguarde para Retirar",
+                                    "Pedido Confirmado",
+                                    JOptionPane.INFORMATION_MESSAGE);
+                            owner.open(TelaIniciarCompra.class);
+                            dispose();
+                        });
                     }
                     else
                     {
-                        TelaPagamentoDinheiro telaPagamentoDinheiro = new TelaPagamentoDinheiro(owner, cart, stock, cashControl, orders, order);
+                        TelaPagamentoDinheiro telaPagamentoDinheiro = new TelaPagamentoDinheiro(owner, cart, stock, cashControl, orders, purchase);
                         dispose();
                         telaPagamentoDinheiro.setVisible(true);
                         System.out.println("Confirmar Notas e Troco");
@@ -2,10 +2,11 @@ package Front;
 import Back.*;
 import javax.swing.*;
 import javax.swing.border.BevelBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Map;
 
 /**
  * Tela de Pagamento em Dinheiro.
@@ -21,21 +22,24 @@ import java.util.Map;
  * <li>Campos de entrada para que o usuário informe a quantidade de cada denominação
  * de cédula e moeda utilizada no pagamento.</li>
  * <li>Validação do valor inserido em relação ao total do pedido, alertando em caso de insuficiência.</li>
- * <li>Verificação da disponibilidade de troco no caixa.</li>
- * <li>Em caso de pagamento e troco bem-sucedidos, finaliza o pedido, atualiza
- * o estoque e o caixa, e retorna à tela inicial de compra ({@link TelaIniciarCompra}).</li>
+ * <li>Verificação da disponibilidade de troco no caixa, atualizada enquanto o cliente digita,
+ * com sugestão de um valor para o qual há troco.</li>
+ * <li>Em caso de pagamento e troco bem-sucedidos, finaliza a {@link Compra} pelo {@link ServicoCheckout}
+ * (que confirma a reserva do estoque e atualiza o caixa) e retorna à tela inicial de compra ({@link TelaIniciarCompra}).</li>
  * <li>Botão "Cancelar" que retorna à tela de Iniciar uma Compra ({@link TelaIniciarCompra}).
  * </li>
  * </ul>
  *
- * Utiliza instâncias das classes {@link Estoque}, {@link Caixa}, {@link ControlePedidos}
- * e {@link Pedido} para gerenciar o processo de pagamento e atualização dos dados do sistema.
+ * Utiliza instâncias das classes {@link Estoque}, {@link Caixa} e {@link ControlePedidos}
+ * para navegar entre as telas; o pagamento e o troco ficam a cargo do {@link ServicoCheckout}.
  */
 public class TelaPagamentoDinheiro extends JDialog
 {
     private JTextField bill100TextField, bill50TextField, bill20TextField, bill10TextField,
                     bill5TextField, bill2TextField, coin1TextField, coin50TextField, coin25TextField,
                     coin10TextField, coin5TextField;
+    private JLabel changeLabel;
+    private int changeRequest;
 
     /**
      * Construtor da classe {@link TelaPagamentoDinheiro}.
@@ -44,17 +48,17 @@ public class TelaPagamentoDinheiro extends JDialog
      * e os campos para entrada das cédulas e moedas. Configura os botões para
      * confirmar o pagamento e para Cancelar. Define o layout visual e as propriedades da janela.
      *
-     * @param owner O {@link JFrame} pai desta janela de diálogo.
-     * @param cart Um {@link Map} representando o carrinho de compras, contendo o código do produto e a quantidade.
+     * @param owner O {@link Navegador}, janela pai desta janela de diálogo.
+     * @param cart O {@link Carrinho} da compra, compartilhado pelas telas de compra e pagamento.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
-     * @param order Instância de {@link Pedido} contendo os detalhes do pedido atual.
+     * @param purchase A {@link Compra} iniciada para o pedido atual.
      */
-    public TelaPagamentoDinheiro(JFrame owner, Map<Integer, Integer> cart, Estoque stock, Caixa cashControl, ControlePedidos orders, Pedido order)
+    public TelaPagamentoDinheiro(Navegador owner, Carrinho cart, Estoque stock, Caixa cashControl, ControlePedidos orders, Compra purchase)
     {
         super(owner, "Pagamento com Dinheiro", true);
-        setSize(480,450);
+        setSize(480,480);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
         setResizable(false);
@@ -79,13 +83,7 @@ public class TelaPagamentoDinheiro extends JDialog
         mainPanel.add(titleLabel, gbc);
 
         // -- Subtitle Label --
-        double totalOrderValue = cart.entrySet().stream()
-                .mapToDouble(entry -> {
-                    Produto produto = stock.getProductsStock().get(entry.getKey()).getProduct();
-                    return produto.getPrice() * entry.getValue();
-                }).sum();
-
-        JLabel subtitleLabel = new JLabel("Valor do Pedido: R$ " + String.format("%.2f", totalOrderValue));
+        JLabel subtitleLabel = new JLabel("Valor do Pedido: R$ " + String.format("%.2f", purchase.getTotalCents() / 100.0));
         subtitleLabel.setFont(new Font("Arial", Font.BOLD, 15));
         gbc.gridy = 1;
         gbc.gridwidth = 1;
@@ -280,11 +278,47 @@ public class TelaPagamentoDinheiro extends JDialog
         gbc.anchor = GridBagConstraints.WEST;
         mainPanel.add(insertsPanel, gbc);
 
+        // -- Change Label --
+        long totalOrderCents = purchase.getTotalCents();
+        ServicoCheckout checkout = ControlePedidos.getCheckout();
+        JTextField[] cashFields = {bill100TextField, bill50TextField, bill20TextField, bill10TextField, bill5TextField,
+                bill2TextField, coin1TextField, coin50TextField, coin25TextField, coin10TextField, coin5TextField};
+
+        changeLabel = new JLabel(" ");
+        changeLabel.setFont(new Font("Arial", Font.BOLD, 13));
+        gbc.insets = new Insets(10, 0, 0, 0);
+        gbc.gridy = 4;
+        mainPanel.add(changeLabel, gbc);
+
+        DocumentListener changeListener = new DocumentListener()
+        {
+            @Override
+            public void insertUpdate(DocumentEvent e)
+            {
+                updateChangeLabel(cashFields, totalOrderCents, checkout);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e)
+            {
+                updateChangeLabel(cashFields, totalOrderCents, checkout);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e)
+            {
+                updateChangeLabel(cashFields, totalOrderCents, checkout);
+            }
+        };
+        for (JTextField field : cashFields)
+            field.getDocument().addDocumentListener(changeListener);
+        updateChangeLabel(cashFields, totalOrderCents, checkout);
+
         // -- Confirm Button --
         gbc.insets = new Insets(10, 0, 25, 0);
 
         JButton confirmButton = createCustomButton("Realizar Pagamento");
-        gbc.gridy = 4;
+        gbc.gridy = 5;
         mainPanel.add(confirmButton, gbc);
 
         confirmButton.addActionListener(new ActionListener()
@@ -293,20 +327,10 @@ public class TelaPagamentoDinheiro extends JDialog
             public void actionPerformed (ActionEvent e)
             {
                 System.out.println("Realizando Pagamento");
-                double totalCashInsered = 0;
+                int[] pieces = new int[cashFields.length];
                 try {
-                    totalCashInsered += 100.0 * Integer.parseInt(bill100TextField.getText());
-                    totalCashInsered += 50.0  * Integer.parseInt(bill50TextField.getText());
-                    totalCashInsered += 20.0  * Integer.parseInt(bill20TextField.getText());
-                    totalCashInsered += 10.0  * Integer.parseInt(bill10TextField.getText());
-                    totalCashInsered += 5.0   * Integer.parseInt(bill5TextField.getText());
-                    totalCashInsered += 2.0   * Integer.parseInt(bill2TextField.getText());
-                    totalCashInsered += 1.0   * Integer.parseInt(coin1TextField.getText());
-                    totalCashInsered += 0.5   * Integer.parseInt(coin50TextField.getText());
-                    totalCashInsered += 0.25  * Integer.parseInt(coin25TextField.getText());
-                    totalCashInsered += 0.10  * Integer.parseInt(coin10TextField.getText());
-                    totalCashInsered += 0.05  * Integer.parseInt(coin5TextField.getText());
-
+                    for (int slot = 0; slot < cashFields.length; slot++)
+                        pieces[slot] = Integer.parseInt(cashFields[slot].getText());
                 } catch (NumberFormatException ex) {
                     JOptionPane.showMessageDialog(TelaPagamentoDinheiro.this,
                         "Por favor, preencha todos os campos com números inteiros válidos.",
@@ -315,59 +339,8 @@ public class TelaPagamentoDinheiro extends JDialog
                     return;
                 }
 
-                if(totalOrderValue > totalCashInsered)
-                {
-                    JOptionPane.showMessageDialog(TelaPagamentoDinheiro.this,
-                        "Valor insuficiente! Falta R$ " + String.format("%.2f", (totalOrderValue - totalCashInsered)),
-                        "Pagamento Incompleto",
-                        JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                else
-                {
-                    if (cashControl.calculateChange(totalCashInsered - totalOrderValue) == null) {
-                        JOptionPane.showMessageDialog(TelaPagamentoDinheiro.this,
-                                "Troco Insuficiente.",
-                                "Troco Insuficiente.",
-                                JOptionPane.ERROR_MESSAGE);
-                    } 
-                    else
-                    {
-                        try {
-                            cashControl.addCash(100.0, Integer.parseInt(bill100TextField.getText()));
-                            cashControl.addCash(50.0, Integer.parseInt(bill50TextField.getText()));
-                            cashControl.addCash(20.0, Integer.parseInt(bill20TextField.getText()));
-                            cashControl.addCash(10.0, Integer.parseInt(bill10TextField.getText()));
-                            cashControl.addCash(5.0, Integer.parseInt(bill5TextField.getText()));
-                            cashControl.addCash(2.0, Integer.parseInt(bill2TextField.getText()));
-                            cashControl.addCash(1.0, Integer.parseInt(coin1TextField.getText()));
-                            cashControl.addCash(0.5, Integer.parseInt(coin50TextField.getText()));
-                            cashControl.addCash(0.25, Integer.parseInt(coin25TextField.getText()));
-                            cashControl.addCash(0.10, Integer.parseInt(coin10TextField.getText()));
-                            cashControl.addCash(0.05, Integer.parseInt(coin5TextField.getText()));
-                        } catch (NumberFormatException ex) {
-                            JOptionPane.showMessageDialog(TelaPagamentoDinheiro.this,
-                                    "Por favor, preencha todos os campos com números inteiros válidos.",
-                                    "Erro de Entrada",
-                                    JOptionPane.ERROR_MESSAGE);
-                            return;
-                        }
-
-                        for (Integer codeProduct : cart.keySet())
-                        {
-                            stock.removeStock(codeProduct, cart.get(codeProduct));
-                        }
-                        JOptionPane.showMessageDialog(TelaPagamentoDinheiro.this,
-                                "Pedido Confirmado! Troco: "+ String.format("%.2f", totalCashInsered - totalOrderValue) + ". Aguarde para Retirar",
-                                "Pedido Confirmado",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        orders.newOrder(order);
-                        TelaIniciarCompra telaIniciarCompra = new TelaIniciarCompra(stock, cashControl, orders);
-                        telaIniciarCompra.setVisible(true);
-                        owner.dispose();
-                        dispose();   
-                    }
-                }
+                ServicoAssincrono.await(TelaPagamentoDinheiro.this, ServicoAssincrono.payWithCash(purchase, pieces), false,
+                        result -> showPaymentResult(result, pieces, stock, cashControl, orders, owner, purchase));
             }
             
         });
@@ -385,11 +358,10 @@ public class TelaPagamentoDinheiro extends JDialog
             public void actionPerformed(ActionEvent e)
             {
                 System.out.println("Voltando");
-                Pedido.setOrderGlobalNumber(Pedido.getOrderGlobalNumber() - 1);
-                TelaIniciarCompra telaIniciarCompra = new TelaIniciarCompra(stock, cashControl, orders);
-                telaIniciarCompra.setVisible(true);
-                owner.dispose();
-                dispose();   
+                ServicoAssincrono.await(TelaPagamentoDinheiro.this, ServicoAssincrono.cancel(purchase), false, done -> {
+                    owner.open(TelaIniciarCompra.class);
+                    dispose();
+                });
             }
             
         });
@@ -397,6 +369,112 @@ public class TelaPagamentoDinheiro extends JDialog
         add(mainPanel);
     }
 
+    /**
+     * Exibe o resultado do pagamento em dinheiro e, se ele for aprovado, volta à tela inicial de compra.
+     */
+    private void showPaymentResult(ResultadoPagamento result, int[] pieces, Estoque stock, Caixa cashControl,
+                                   ControlePedidos orders, Navegador owner, Compra purchase)
+    {
+        switch (result.getStatus())
+        {
+            case APROVADO:
+                JOptionPane.showMessageDialog(this,
+                        "Pedido Confirmado! Troco: "+ String.format("%.2f", result.getChangeCents() / 100.0) + ". Aguarde para Retirar",
+                        "Pedido Confirmado",
+                        JOptionPane.INFORMATION_MESSAGE);
+                owner.open(TelaIniciarCompra.class);
+                dispose();
+                break;
+            case VALOR_INSUFICIENTE:
+                long inserted = 0;
+                for (int slot = 0; slot < pieces.length; slot++)
+                    inserted += Caixa.getDenomination(slot) * pieces[slot];
+                JOptionPane.showMessageDialog(this,
+                    "Valor insuficiente! Falta R$ " + String.format("%.2f", (purchase.getTotalCents() - inserted) / 100.0),
+                    "Pagamento Incompleto",
+                    JOptionPane.WARNING_MESSAGE);
+                break;
+            case TROCO_INSUFICIENTE:
+                JOptionPane.showMessageDialog(this,
+                        "Troco Insuficiente.",
+                        "Troco Insuficiente.",
+                        JOptionPane.ERROR_MESSAGE);
+                break;
+            default:
+                JOptionPane.showMessageDialog(this,
+                        "O tempo de reserva expirou e não há mais estoque para este pedido.",
+                        "Estoque insuficiente",
+                        JOptionPane.ERROR_MESSAGE);
+                break;
+        }
+    }
+
+    /**
+     * Atualiza o aviso de troco conforme as quantidades digitadas.
+     *
+     * Consulta o {@link ServicoCheckout}, que usa o índice de trocos possíveis do {@link Caixa} e responde
+     * sem alterar o caixa, pelo {@link ServicoAssincrono}, com uma única {@link ConsultaTroco} por
+     * alteração dos campos. Quando
+     * o troco do valor inserido não pode ser formado, sugere o maior valor acima do pedido para o qual
+     * há troco. Os campos seguem a mesma ordem dos slots do {@link Caixa} (de R$ 100,00 a R$ 0,05).
+     *
+     * @param cashFields os campos de quantidade de cada denominação.
+     * @param totalOrderCents o valor do pedido em centavos.
+     * @param checkout o {@link ServicoCheckout} consultado.
+     */
+    private void updateChangeLabel(JTextField[] cashFields, long totalOrderCents, ServicoCheckout checkout)
+    {
+        long insertedCents = 0;
+        for (int slot = 0; slot < cashFields.length; slot++)
+        {
+            try {
+                insertedCents += Caixa.getDenomination(slot) * Integer.parseInt(cashFields[slot].getText().trim());
+            } catch (NumberFormatException ex) {
+                // Campo vazio ou inválido: conta como zero até ser corrigido
+            }
+        }
+
+        if (insertedCents > 0 && insertedCents < totalOrderCents)
+        {
+            changeRequest++;
+            showChange("Faltam R$ " + String.format("%.2f", (totalOrderCents - insertedCents) / 100.0), new Color(40, 40, 40));
+            return;
+        }
+
+        // A consulta ao caixa roda fora da thread de eventos; só a resposta mais recente é exibida
+        int request = ++changeRequest;
+        long changeCents = insertedCents - totalOrderCents;
+        ServicoAssincrono.call(() -> checkout.queryChange((changeCents < 0) ? Long.MAX_VALUE : changeCents)).thenAccept(change -> {
+            if (request != changeRequest)
+                return;
+
+            long payable = (changeCents >= 0 && change.isPossible()) ? changeCents : change.getMaximum();
+
+            if (changeCents < 0)
+            {
+                if (payable == 0)
+                    showChange("Sem troco no caixa: insira o valor exato.", new Color(180, 0, 0));
+                else
+                    showChange(" ", Color.BLACK);
+            }
+            else if (payable == changeCents)
+            {
+                showChange("Troco: R$ " + String.format("%.2f", changeCents / 100.0), new Color(0, 120, 0));
+            }
+            else
+            {
+                long suggestion = totalOrderCents + payable;
+                showChange("Sem troco para este valor. Insira R$ " + String.format("%.2f", suggestion / 100.0) + ".", new Color(180, 0, 0));
+            }
+        });
+    }
+
+    private void showChange(String text, Color color)
+    {
+        changeLabel.setText(text);
+        changeLabel.setForeground(color);
+    }
+
     /**
      * Método auxiliar para criar um {@link JTextField} padronizado para entrada de quantidades de dinheiro.
      *
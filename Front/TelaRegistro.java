@@ -259,30 +259,31 @@ public class TelaRegistro extends JDialog
                     }
                 }
 
-                boolean sucesso;
-
-                if(dateTextField.getText().isEmpty() || dateTextField.getText().equals("__/__/____"))
-                    sucesso = stock.registerProduct(new Produto(code, name, type, price));
-                else
-                    sucesso = stock.registerProduct(new Produto(code, name, type, price, date));
-
-                if (!sucesso)
-                {
-                    JOptionPane.showMessageDialog(TelaRegistro.this, 
-                            "Código já registrado",
-                            "Item repetido",
-                            JOptionPane.ERROR_MESSAGE);
-                }
-                else
-                {
-                    JOptionPane.showMessageDialog(TelaRegistro.this, "Produto cadastrado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                    codeTextField.setText("");
-                    nameTextField.setText("");
-                    priceTextField.setText("");
-                    dateTextField.setText("");
-                }
-
-                stock.listarProdutos();
+                Produto product = (dateTextField.getText().isEmpty() || dateTextField.getText().equals("__/__/____"))
+                        ? new Produto(code, name, type, price)
+                        : new Produto(code, name, type, price, date);
+
+                ServicoAssincrono.call(TelaRegistro.this, () -> {
+                    boolean sucesso = stock.registerProduct(product);
+                    stock.listarProdutos();
+                    return sucesso;
+                }, sucesso -> {
+                    if (!sucesso)
+                    {
+                        JOptionPane.showMessageDialog(TelaRegistro.this, 
+                                "Código já registrado",
+                                "Item repetido",
+                                JOptionPane.ERROR_MESSAGE);
+                    }
+                    else
+                    {
+                        JOptionPane.showMessageDialog(TelaRegistro.this, "Produto cadastrado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                        codeTextField.setText("");
+                        nameTextField.setText("");
+                        priceTextField.setText("");
+                        dateTextField.setText("");
+                    }
+                });
             }
         });
         // -- Back Button --
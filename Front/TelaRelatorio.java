@@ -37,9 +37,11 @@ import java.time.format.DateTimeParseException;
   * Utiliza instâncias das classes {@link Estoque}, {@link Caixa} e {@link ControlePedidos}
   * para acessar os dados necessários para a geração dos relatórios.
   */
-public class TelaRelatorio extends JFrame
+public class TelaRelatorio extends JPanel implements Navegador.Tela
 {
     private JFormattedTextField startTextField, endTextField;
+    private JComboBox<String> comboType;
+
     /**
      * Construtor da classe {@link TelaRelatorio}.
      *
@@ -47,19 +49,15 @@ public class TelaRelatorio extends JFrame
      * seleção de tipo de relatório e datas, e os botões de ação. Define o layout
      * visual e as propriedades da janela.
      *
+     * @param navigator O {@link Navegador}, a janela que exibe as telas.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      * @param cashControl Instância de {@link Caixa} utilizada para controle financeiro.
      * @param orders Instância de {@link ControlePedidos} utilizada para manipular os pedidos feitos.
      */
-    public TelaRelatorio(Estoque stock, Caixa cashControl, ControlePedidos orders)
+    public TelaRelatorio(Navegador navigator, Estoque stock, Caixa cashControl, ControlePedidos orders)
     {
-        setTitle("Relatórios");
-        setSize(600,800);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setResizable(false);
 
-        getContentPane().setBackground(new Color(197,202,196));
+        setBackground(new Color(197,202,196));
         setLayout(new BorderLayout());
 
         JPanel mainPanel = new JPanel(new GridBagLayout());
@@ -89,7 +87,7 @@ public class TelaRelatorio extends JFrame
             "Transações Realizadas",
             "Produtos Vencidos ou Próximos de Vencer"
         };
-        JComboBox<String> comboType = new JComboBox<>(types);
+        comboType = new JComboBox<>(types);
         comboType.setPreferredSize(new Dimension(200, 30));
         mainPanel.add(comboType, gbc);
 
@@ -163,7 +161,7 @@ public class TelaRelatorio extends JFrame
                if (selectedReport.equals("Produtos Vencidos ou Próximos de Vencer")) {
                    // Para "Produtos Vencidos", não importa o valor das datas
                    TelaMostraRelatorio telaMostraRelatorio = new TelaMostraRelatorio(
-                           TelaRelatorio.this,
+                           navigator,
                            selectedReport,
                            null, // Datas não são relevantes para este relatório
                            null,
@@ -196,7 +194,7 @@ public class TelaRelatorio extends JFrame
                            return;
                        }
 
-                       TelaMostraRelatorio telaMostraRelatorio = new TelaMostraRelatorio(TelaRelatorio.this, selectedReport, startDate, endDate, stock, cashControl, orders);
+                       TelaMostraRelatorio telaMostraRelatorio = new TelaMostraRelatorio(navigator, selectedReport, startDate, endDate, stock, cashControl, orders);
                        telaMostraRelatorio.setVisible(true);
 
                    } catch (DateTimeParseException ex) {
@@ -225,9 +223,7 @@ public class TelaRelatorio extends JFrame
             @Override
             public void actionPerformed (ActionEvent e)
             {
-                TelaAdmin telaAdmin = new TelaAdmin(stock, cashControl, orders);
-                telaAdmin.setVisible(true);
-                dispose();
+                navigator.open(TelaAdmin.class);
             }
             
         });
@@ -235,6 +231,29 @@ public class TelaRelatorio extends JFrame
         add(mainPanel, BorderLayout.CENTER);
     }
 
+    /**
+     * Retorna o título da janela enquanto a tela estiver aberta.
+     *
+     * @return o título da tela.
+     */
+    @Override
+    public String getTitle()
+    {
+        return "Relatórios";
+    }
+
+    /**
+     * Volta ao primeiro tipo de relatório e limpa as datas informadas na última visita.
+     */
+    @Override
+    public void reset()
+    {
+        comboType.setSelectedIndex(0);
+        startTextField.setValue(null);
+        endTextField.setValue(null);
+        updateDateFieldsEditability(comboType);
+    }
+
     /**
      * Atualiza a editabilidade e a aparência dos campos de data.
      *
@@ -71,7 +71,9 @@ public class TelaRemoveCaixa extends JDialog
         mainPanel.add(titleLabel, gbc);
 
         // -- Subtitle Label --
-        subtitleLabel = new JLabel("Caixa Atual: R$ " + String.format("%.2f", cashControl.getTotalCash()));
+        subtitleLabel = new JLabel("Caixa Atual: R$ ...");
+        ServicoAssincrono.call(cashControl::getTotalCash)
+                .thenAccept(total -> subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", total)));
         subtitleLabel.setFont(new Font("Arial", Font.BOLD, 15));
         gbc.gridy = 1;
         gbc.gridwidth = 1;
@@ -294,42 +296,58 @@ public class TelaRemoveCaixa extends JDialog
                     cashToRemove.put(0.10, Integer.parseInt(coin10TextField.getText()));
                     cashToRemove.put(0.05, Integer.parseInt(coin5TextField.getText()));
 
-                    for (Map.Entry<Double, Integer> entry : cashToRemove.entrySet()) {
-                        double value = entry.getKey();
-                        int quantity = entry.getValue();
+                    int pieces = 0;
+                    for (int quantity : cashToRemove.values())
+                    {
+                        if (quantity < 0)
+                        {
+                            JOptionPane.showMessageDialog(TelaRemoveCaixa.this,
+                                    "As quantidades não podem ser negativas.",
+                                    "Quantidade Invalida",
+                                    JOptionPane.ERROR_MESSAGE);
+                            return;
+                        }
+                        pieces += quantity;
+                    }
+                    if (pieces == 0)
+                    {
+                        JOptionPane.showMessageDialog(TelaRemoveCaixa.this,
+                                "Informe ao menos uma quantidade maior que 0!",
+                                "Quantidade Invalida",
+                                JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
 
-                        if (cashControl.getQuantityBill(value) < quantity) {
+                    // null: faltam cédulas ou moedas no caixa
+                    ServicoAssincrono.call(TelaRemoveCaixa.this, () -> {
+                        for (Map.Entry<Double, Integer> entry : cashToRemove.entrySet())
+                            if (cashControl.getQuantityBill(entry.getKey()) < entry.getValue())
+                                return null;
+
+                        for (Map.Entry<Double, Integer> entry : cashToRemove.entrySet())
+                            if (entry.getValue() > 0)
+                                cashControl.removeCash(entry.getKey(), entry.getValue());
+                        return cashControl.getTotalCash();
+                    }, total -> {
+                        if (total == null)
+                        {
                             JOptionPane.showMessageDialog(TelaRemoveCaixa.this,
                                     "Quantidade insuficiente em Caixa",
                                     "Falta de Notas",
                                     JOptionPane.ERROR_MESSAGE);
                             return;
                         }
-                    }
 
-                    for (Map.Entry<Double, Integer> entry : cashToRemove.entrySet()) {
-                        cashControl.removeCash(entry.getKey(), entry.getValue());
-                    }
+                        clearFields();
+                        subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", total));
 
-                    bill100TextField.setText("0");
-                    bill50TextField.setText("0");
-                    bill20TextField.setText("0");
-                    bill10TextField.setText("0");
-                    bill5TextField.setText("0");
-                    bill2TextField.setText("0");
-                    coin1TextField.setText("0");
-                    coin50TextField.setText("0");
-                    coin25TextField.setText("0");
-                    coin10TextField.setText("0");
-                    coin5TextField.setText("0");
-                    subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", cashControl.getTotalCash()));
-
-                    telaControleCaixa.reloadScreen();
+                        telaControleCaixa.reloadScreen();
 
-                    JOptionPane.showMessageDialog(TelaRemoveCaixa.this,
-                            "Cédulas Removidas do caixa!",
-                            "Removido com Sucesso",
-                            JOptionPane.INFORMATION_MESSAGE);
+                        JOptionPane.showMessageDialog(TelaRemoveCaixa.this,
+                                "Cédulas Removidas do caixa!",
+                                "Removido com Sucesso",
+                                JOptionPane.INFORMATION_MESSAGE);
+                    });
 
                 } catch (NumberFormatException ex) {
                     JOptionPane.showMessageDialog(TelaRemoveCaixa.this,
@@ -363,21 +381,15 @@ public class TelaRemoveCaixa extends JDialog
 
                 if (option == JOptionPane.YES_OPTION)
                 {   
-                    cashControl.clearCashControl();
-                    telaControleCaixa.reloadScreen();
-                    bill100TextField.setText("0");
-                    bill50TextField.setText("0");
-                    bill20TextField.setText("0");
-                    bill10TextField.setText("0");
-                    bill5TextField.setText("0");
-                    bill2TextField.setText("0");
-                    coin1TextField.setText("0");
-                    coin50TextField.setText("0");
-                    coin25TextField.setText("0");
-                    coin10TextField.setText("0");
-                    coin5TextField.setText("0");
-                    subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", cashControl.getTotalCash()));
-                    JOptionPane.showMessageDialog(TelaRemoveCaixa.this, "Caixa Zerado com Sucesso!", "Caixa Zerado", JOptionPane.INFORMATION_MESSAGE);
+                    ServicoAssincrono.call(TelaRemoveCaixa.this, () -> {
+                        cashControl.clearCashControl();
+                        return cashControl.getTotalCash();
+                    }, total -> {
+                        telaControleCaixa.reloadScreen();
+                        clearFields();
+                        subtitleLabel.setText("Caixa Atual: R$ " + String.format("%.2f", total));
+                        JOptionPane.showMessageDialog(TelaRemoveCaixa.this, "Caixa Zerado com Sucesso!", "Caixa Zerado", JOptionPane.INFORMATION_MESSAGE);
+                    });
                 }
             }
         });
@@ -418,6 +430,24 @@ public class TelaRemoveCaixa extends JDialog
         return textField;
     }
 
+    /**
+     * Volta todos os campos de quantidade para zero.
+     */
+    private void clearFields()
+    {
+        bill100TextField.setText("0");
+        bill50TextField.setText("0");
+        bill20TextField.setText("0");
+        bill10TextField.setText("0");
+        bill5TextField.setText("0");
+        bill2TextField.setText("0");
+        coin1TextField.setText("0");
+        coin50TextField.setText("0");
+        coin25TextField.setText("0");
+        coin10TextField.setText("0");
+        coin5TextField.setText("0");
+    }
+
     /**
      * Método auxiliar para criação de botões estilizados usados na {@link TelaRemoveCaixa}.
      * 
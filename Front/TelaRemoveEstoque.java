@@ -19,7 +19,6 @@ import java.awt.event.ActionListener;
  * <li>Validação de quantidade maior que zero.</li>
  * <li>Verificação da existência do produto no estoque.</li>
  * <li>Verificação de estoque suficiente antes da remoção.</li>
- * <li>Atualização da tabela de produtos na {@link TelaEstoque} após a remoção bem-sucedida.</li>
  * </ul>
  */
 public class TelaRemoveEstoque extends JDialog
@@ -32,11 +31,10 @@ public class TelaRemoveEstoque extends JDialog
      * Configura a janela de diálogo, seus componentes visuais e os listeners de eventos
      * para os botões de "Remover" e "Sair".
      *
-     * @param telaEstoque A instância de {@link TelaEstoque} para recarregar a lista de produtos após a remoção.
      * @param owner O {@link JFrame} pai desta janela de diálogo.
      * @param stock Instância de {@link Estoque} utilizada para gerenciar os produtos.
      */
-    public TelaRemoveEstoque (TelaEstoque telaEstoque, JFrame owner, Estoque stock)
+    public TelaRemoveEstoque (JFrame owner, Estoque stock)
     {
         super(owner, "Remove Estoque de um Item", true);
         setSize(336,368);
@@ -155,25 +153,23 @@ public class TelaRemoveEstoque extends JDialog
                             JOptionPane.showMessageDialog(TelaRemoveEstoque.this, "A quantidade deve ser maior que 0!", "Quantidade Invalida", JOptionPane.ERROR_MESSAGE);
                         else
                         {
-                            if (!stock.isProductInStock(code))
-                            {
-                                JOptionPane.showMessageDialog(TelaRemoveEstoque.this, "Produto não encontrado", "Item inexistente", JOptionPane.ERROR_MESSAGE);
-                            }
-                            else
-                            {
-                                if (quantity > stock.getQuantityAvaible(code))
+                            // null: produto não encontrado; false: estoque insuficiente
+                            ServicoAssincrono.call(TelaRemoveEstoque.this, () -> stock.isProductInStock(code) ? stock.removeStock(code, quantity) : null, removed -> {
+                                if (removed == null)
+                                {
+                                    JOptionPane.showMessageDialog(TelaRemoveEstoque.this, "Produto não encontrado", "Item inexistente", JOptionPane.ERROR_MESSAGE);
+                                }
+                                else if (!removed)
                                 {
                                     JOptionPane.showMessageDialog(TelaRemoveEstoque.this, "Estoque insuficiente", "Estoque insuficiente", JOptionPane.ERROR_MESSAGE);
-                                } 
+                                }
                                 else
                                 {
-                                    stock.removeStock(code, quantity);
-                                    telaEstoque.loadProducts(stock);
                                     JOptionPane.showMessageDialog(TelaRemoveEstoque.this, "Quantidade removida com Sucesso!", "Quantidade Removida", JOptionPane.INFORMATION_MESSAGE);
                                     codeTextField.setText("");
                                     quantityTextField.setText("");
                                 }
-                            }
+                            });
                         }
                     } 
                     catch (Exception ex)
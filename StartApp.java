@@ -1,15 +1,152 @@
 import Back.*;
 import Front.*;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 public class StartApp
 {
-    public static void main(String[] args)
+    private static final Path DATA_DIRECTORY = Paths.get("dados");
+    private static final long SNAPSHOT_INTERVAL_MINUTES = 5;
+    private static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Inicia o sistema em um dos modos:
+     * <ul>
+     * <li>sem argumentos: quiosque com estoque, caixa e pedidos próprios;</li>
+     * <li>{@code --servidor [porta]}: restaura os dados e os atende por HTTP ({@link ServidorCheckout}),
+     * sem abrir telas;</li>
+     * <li>{@code --remoto <url>}: quiosque cujas compras são feitas no servidor informado ({@link ClienteCheckout}).</li>
+     * </ul>
+     */
+    public static void main(String[] args) throws IOException
     {
         Estoque stock = new Estoque();
         Caixa cashControl = new Caixa();
-        ControlePedidos orders = new ControlePedidos();
 
-        TelaInicial telaInicial = new TelaInicial(stock, cashControl, orders);
-        telaInicial.setVisible(true);
+        if (args.length > 0 && args[0].equals("--servidor"))
+        {
+            restore(stock, cashControl);
+            int port = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+            ServidorCheckout server = ServidorCheckout.start(port, ControlePedidos.getCheckout());
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            System.out.println("Servidor de checkout atendendo na porta " + server.getPort());
+            return;
+        }
+
+        ControlePedidos orders;
+        if (args.length > 1 && args[0].equals("--remoto"))
+        {
+            orders = new ControlePedidos();
+            ControlePedidos.setCheckout(new ClienteCheckout(URI.create(args[1]), stock));
+        }
+        else
+            orders = restore(stock, cashControl);
+
+        stock.startExpirySweeper();
+
+        Navegador navigator = new Navegador(stock, cashControl, orders);
+        navigator.open(TelaInicial.class);
+        navigator.setVisible(true);
+    }
+
+    /**
+     * Restaura o estado salvo em disco e liga o estoque, o caixa e os pedidos à persistência.
+     * 
+     * Carrega o último {@link SnapshotSistema}, reproduz apenas as gerações do {@link Diario}
+     * posteriores a ele e abre o {@link LogPedidos} a partir da posição gravada. Em seguida,
+     * agenda snapshots periódicos (que compactam o diário) e um snapshot final ao encerrar.
+     * Os números de pedido deste quiosque passam a vir do {@link AlocadorPedidos} gravado em disco.
+     * 
+     * As telas de compra passam a usar um {@link ServicoCheckoutLocal} sobre esses dados. Os totais
+     * de vendas dos pedidos gravados são recalculados em segundo plano, para que o relatório de
+     * mais vendidos não precise percorrer o histórico.
+     * 
+     * Se os dados não puderem ser abertos, o sistema continua funcionando apenas em memória.
+     * 
+     * @param stock o estoque a ser reconstruído.
+     * @param cashControl o caixa a ser reconstruído.
+     * @return o controle de pedidos.
+     */
+    private static ControlePedidos restore(Estoque stock, Caixa cashControl)
+    {
+        try
+        {
+            long start = System.nanoTime();
+
+            SnapshotSistema.PontoDeControle checkpoint = SnapshotSistema.read(DATA_DIRECTORY.resolve("snapshot.bin"), stock, cashControl);
+
+            Diario journal = Diario.open(DATA_DIRECTORY.resolve("diario"));
+            int records = journal.replay(checkpoint.getJournalGeneration(), stock, cashControl);
+            stock.setJournal(journal);
+            cashControl.setJournal(journal);
+
+            LogPedidos log = checkpoint.openOrders(DATA_DIRECTORY.resolve("pedidos"));
+            AlocadorPedidos allocator = AlocadorPedidos.open(DATA_DIRECTORY.resolve("pedidos.seq"));
+            allocator.ensureAbove(log.getHighestOrderNumber());
+            Pedido.setKiosk(allocator.newKiosk());
+
+            System.out.printf("Dados restaurados em %d ms: %d produtos, %d operações do diário, %d pedidos%n",
+                    (System.nanoTime() - start) / 1_000_000, stock.getProductsStock().size(), records, log.size());
+
+            SnapshotSistema snapshot = new SnapshotSistema(DATA_DIRECTORY.resolve("snapshot.bin"), stock, cashControl, journal, log);
+            scheduleSnapshots(snapshot);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                writeSnapshot(snapshot);
+                journal.close();
+                log.close();
+                allocator.close();
+            }));
+
+            ControlePedidos orders = new ControlePedidos(log);
+            ControlePedidos.setCheckout(new ServicoCheckoutLocal(stock, cashControl, orders, Pedido.getKiosk()));
+            ControlePedidos.refreshSalesInBackground();
+            return orders;
+        }
+        catch (IOException e)
+        {
+            System.err.println("Não foi possível abrir os dados salvos (" + e.getMessage() + "). Os dados não serão salvos.");
+            ControlePedidos orders = new ControlePedidos();
+            ControlePedidos.setCheckout(new ServicoCheckoutLocal(stock, cashControl, orders, Pedido.getKiosk()));
+            return orders;
+        }
+    }
+
+    /**
+     * Agenda a gravação periódica de snapshots em uma thread de fundo.
+     * 
+     * @param snapshot o snapshot a ser gravado.
+     */
+    private static void scheduleSnapshots(SnapshotSistema snapshot)
+    {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> writeSnapshot(snapshot), SNAPSHOT_INTERVAL_MINUTES, SNAPSHOT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Grava um snapshot, registrando a falha no console sem interromper o sistema.
+     * 
+     * @param snapshot o snapshot a ser gravado.
+     */
+    private static void writeSnapshot(SnapshotSistema snapshot)
+    {
+        try
+        {
+            snapshot.write();
+        }
+        catch (IOException e)
+        {
+            System.err.println("Falha ao gravar o snapshot: " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
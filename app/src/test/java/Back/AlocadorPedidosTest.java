@@ -0,0 +1,97 @@
+package Back;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da persistência dos números de pedido do {@link AlocadorPedidos}.
+ */
+class AlocadorPedidosTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    void numbersAreNeverRepeatedAfterRestart() throws IOException
+    {
+        Path file = directory.resolve("pedidos.seq");
+        Set<Integer> used = new HashSet<>();
+
+        AlocadorPedidos allocator = AlocadorPedidos.open(file);
+        AlocadorPedidos.Quiosque first = allocator.newKiosk();
+        AlocadorPedidos.Quiosque second = allocator.newKiosk();
+        for (int i = 0; i < AlocadorPedidos.BLOCK_SIZE + 3; i++)
+        {
+            assertTrue(used.add(first.next()));
+            assertTrue(used.add(second.next()));
+        }
+        long nextFree = allocator.getNextFree();
+        allocator.close();
+
+        // Os números não usados dos blocos abertos são pulados depois de reiniciar
+        AlocadorPedidos reopened = AlocadorPedidos.open(file);
+        assertEquals(nextFree, reopened.getNextFree());
+        AlocadorPedidos.Quiosque kiosk = reopened.newKiosk();
+        for (int i = 0; i < AlocadorPedidos.BLOCK_SIZE; i++)
+        {
+            int number = kiosk.next();
+            assertTrue(number >= nextFree);
+            assertTrue(used.add(number));
+        }
+        reopened.close();
+    }
+
+    @Test
+    void cancelledNumbersAreReused() throws IOException
+    {
+        AlocadorPedidos allocator = AlocadorPedidos.open(directory.resolve("pedidos.seq"));
+        AlocadorPedidos.Quiosque kiosk = allocator.newKiosk();
+        int number = kiosk.next();
+        kiosk.cancel(number);
+        assertEquals(number, kiosk.next());
+        assertEquals(number + 1, kiosk.next());
+        allocator.close();
+    }
+
+    @Test
+    void highestLoggedNumberIsSkippedWhenTheMarkIsLost() throws IOException
+    {
+        Path file = directory.resolve("pedidos.seq");
+        AlocadorPedidos allocator = AlocadorPedidos.open(file);
+        allocator.ensureAbove(500);
+        allocator.close();
+
+        AlocadorPedidos reopened = AlocadorPedidos.open(file);
+        assertEquals(501, reopened.newKiosk().next());
+        reopened.ensureAbove(10);
+        assertEquals(501 + AlocadorPedidos.BLOCK_SIZE, reopened.getNextFree());
+        reopened.close();
+    }
+
+    @Test
+    void corruptedMarkIsRejected() throws IOException
+    {
+        Path file = directory.resolve("pedidos.seq");
+        AlocadorPedidos allocator = AlocadorPedidos.open(file);
+        allocator.newKiosk().next();
+        allocator.close();
+
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            out.write(ByteBuffer.allocate(8).putLong(0, 7), 0);
+        }
+        assertThrows(IOException.class, () -> AlocadorPedidos.open(file));
+    }
+}
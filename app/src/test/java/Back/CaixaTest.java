@@ -0,0 +1,149 @@
+package Back;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do cálculo de troco do {@link Caixa} com cada {@link PoliticaTroco}.
+ */
+class CaixaTest
+{
+    @Test
+    void thirtyCentsWithoutNickels()
+    {
+        Caixa cashControl = new Caixa();
+        cashControl.addCashCents(25, 1);
+        cashControl.addCashCents(10, 10);
+        int[] used = new int[Caixa.getSlotCount()];
+
+        // O guloso usa a moeda de 0,25 e não consegue completar os 0,05 restantes
+        cashControl.setChangePolicy(PoliticaTroco.GULOSO);
+        assertFalse(cashControl.planChangeCents(30, used));
+
+        cashControl.setChangePolicy(PoliticaTroco.MENOS_PECAS);
+        assertTrue(cashControl.canGiveChangeCents(30));
+        assertTrue(cashControl.calculateChangeCents(30, used));
+        assertEquals(3, used[Caixa.slotOf(10)]);
+        assertEquals(0, used[Caixa.slotOf(25)]);
+        assertEquals(7, cashControl.getQuantityBillCents(10));
+        assertEquals(1, cashControl.getQuantityBillCents(25));
+    }
+
+    @Test
+    void eachPolicyPicksItsOwnPieces()
+    {
+        // R$ 6,00 com uma nota de 5, três de 2 e uma moeda de 1
+        Caixa cashControl = new Caixa();
+        cashControl.addCashCents(500, 1);
+        cashControl.addCashCents(200, 3);
+        cashControl.addCashCents(100, 1);
+
+        assertEquals(Map.of(500L, 1, 100L, 1), plan(cashControl, PoliticaTroco.GULOSO, 600));
+        assertEquals(Map.of(500L, 1, 100L, 1), plan(cashControl, PoliticaTroco.MENOS_PECAS, 600));
+        assertEquals(Map.of(200L, 3), plan(cashControl, PoliticaTroco.PRESERVAR_MOEDAS, 600));
+        assertEquals(Map.of(200L, 3), plan(cashControl, PoliticaTroco.PRESERVAR_ESCASSAS, 600));
+
+        // R$ 5,00 com uma única nota de 5 e muitas moedas de 1
+        cashControl = new Caixa();
+        cashControl.addCashCents(500, 1);
+        cashControl.addCashCents(100, 100);
+
+        assertEquals(Map.of(500L, 1), plan(cashControl, PoliticaTroco.GULOSO, 500));
+        assertEquals(Map.of(500L, 1), plan(cashControl, PoliticaTroco.MENOS_PECAS, 500));
+        assertEquals(Map.of(500L, 1), plan(cashControl, PoliticaTroco.PRESERVAR_MOEDAS, 500));
+        assertEquals(Map.of(100L, 5), plan(cashControl, PoliticaTroco.PRESERVAR_ESCASSAS, 500));
+    }
+
+    @Test
+    void noSolutionLeavesTheDrawerUnchanged()
+    {
+        Caixa cashControl = new Caixa();
+        cashControl.addCashCents(25, 1);
+        cashControl.addCashCents(10, 10);
+        Map<Double, Integer> before = cashControl.getCashControl();
+        int[] used = new int[Caixa.getSlotCount()];
+
+        for (PoliticaTroco policy : PoliticaTroco.values())
+        {
+            cashControl.setChangePolicy(policy);
+            // 0,15 não tem solução e 2,00 passa do total do caixa
+            assertFalse(cashControl.calculateChangeCents(15, used));
+            assertEquals(0, pieces(used));
+            assertFalse(cashControl.calculateChangeCents(200, used));
+            assertEquals(0, pieces(used));
+            assertEquals(before, cashControl.getCashControl());
+        }
+        assertFalse(cashControl.canGiveChangeCents(15));
+        assertEquals(10, cashControl.getPayableChangeAtMostCents(15));
+    }
+
+    @Test
+    void payableIndexAgreesWithPlanning()
+    {
+        Random random = new Random(42);
+        int[] used = new int[Caixa.getSlotCount()];
+
+        for (int drawer = 0; drawer < 20; drawer++)
+        {
+            Caixa cashControl = new Caixa();
+            for (int slot = 0; slot < Caixa.getSlotCount(); slot++)
+            {
+                long cents = Caixa.getDenomination(slot);
+                if (cents <= 1000 && random.nextInt(3) > 0)
+                    cashControl.addCashCents(cents, 1 + random.nextInt(4));
+            }
+            // Retiradas também precisam manter o índice atualizado
+            cashControl.calculateChangeCents(5 * random.nextInt(100), used);
+
+            long best = 0;
+            for (long change = 0; change <= 3000; change += 5)
+            {
+                boolean planned = cashControl.planChangeCents(change, used);
+                assertEquals(planned, cashControl.canGiveChangeCents(change), "troco de " + change);
+                if (planned)
+                {
+                    assertEquals(change, value(used), "troco de " + change);
+                    best = change;
+                }
+                assertEquals(best, cashControl.getPayableChangeAtMostCents(change), "troco de " + change);
+            }
+        }
+    }
+
+    private static Map<Long, Integer> plan(Caixa cashControl, PoliticaTroco policy, long change)
+    {
+        int[] used = new int[Caixa.getSlotCount()];
+        cashControl.setChangePolicy(policy);
+        assertTrue(cashControl.planChangeCents(change, used));
+        assertEquals(change, value(used));
+
+        Map<Long, Integer> pieces = new HashMap<>();
+        for (int slot = 0; slot < used.length; slot++)
+            if (used[slot] > 0)
+                pieces.put(Caixa.getDenomination(slot), used[slot]);
+        return pieces;
+    }
+
+    private static long value(int[] used)
+    {
+        long total = 0;
+        for (int slot = 0; slot < used.length; slot++)
+            total += Caixa.getDenomination(slot) * used[slot];
+        return total;
+    }
+
+    private static int pieces(int[] used)
+    {
+        int total = 0;
+        for (int count : used)
+            total += count;
+        return total;
+    }
+}
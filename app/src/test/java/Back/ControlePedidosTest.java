@@ -0,0 +1,100 @@
+package Back;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes dos totais de vendas diários do {@link ControlePedidos}.
+ */
+class ControlePedidosTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    void bestSellersComeFromDailyTotalsAfterRestart() throws Exception
+    {
+        Estoque stock = new Estoque();
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        stock.registerProduct(new Produto(2, "Suco", "Bebida", 5.0));
+        stock.registerProduct(new Produto(3, "Bolo", "Doce", 7.5));
+        for (int code = 1; code <= 3; code++)
+            stock.addStock(code, 100);
+        AlocadorPedidos.Quiosque kiosk = AlocadorPedidos.inMemory().newKiosk();
+
+        LogPedidos log = LogPedidos.open(directory);
+        ControlePedidos orders = new ControlePedidos(log);
+        orders.newOrder(new Pedido(Map.of(1, 2), stock, kiosk));
+        orders.newOrder(new Pedido(Map.of(1, 1, 2, 3), stock, kiosk));
+        orders.newOrder(new Pedido(Map.of(3, 1), stock, kiosk));
+        log.close();
+
+        // Reinicia: o log é reaberto do disco e os totais em memória se perdem
+        LogPedidos reopened = LogPedidos.open(directory);
+        orders = new ControlePedidos(reopened);
+        assertEquals(3, reopened.size());
+        assertFalse(ControlePedidos.hasCurrentSales());
+
+        ControlePedidos.refreshSalesInBackground().get(10, TimeUnit.SECONDS);
+
+        // É esta a condição que faz o relatório de mais vendidos usar os totais diários
+        assertTrue(ControlePedidos.hasCurrentSales());
+        LocalDate today = LocalDate.now();
+        assertEquals(Map.of(1, 3L, 2, 3L, 3, 1L), ControlePedidos.getUnitsSold(today, today));
+        assertEquals(Relatorios.productSales(reopened, today, today),
+                Relatorios.productSales(ControlePedidos.getUnitsSold(today, today), ControlePedidos.getProductNames()));
+
+        // Os pedidos seguintes continuam sendo somados aos totais
+        orders.newOrder(new Pedido(Map.of(2, 1), stock, kiosk));
+        assertTrue(ControlePedidos.hasCurrentSales());
+        assertEquals(4L, ControlePedidos.getUnitsSold(today, today).get(2));
+        reopened.close();
+    }
+
+    @Test
+    void ordersLoggedBehindTheTotalsAreAddedIncrementally() throws Exception
+    {
+        Estoque stock = new Estoque();
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        stock.addStock(1, 100);
+        AlocadorPedidos.Quiosque kiosk = AlocadorPedidos.inMemory().newKiosk();
+
+        LogPedidos log = LogPedidos.open(directory);
+        new ControlePedidos(log);
+        log.append(new Pedido(Map.of(1, 2), stock, kiosk));
+        LocalDate today = LocalDate.now();
+        assertEquals(Map.of(1, 2L), ControlePedidos.getUnitsSold(today, today));
+
+        // Pedidos gravados sem passar pelo ControlePedidos deixam os totais atrasados
+        log.append(new Pedido(Map.of(1, 3), stock, kiosk));
+        log.append(new Pedido(Map.of(1, 1), stock, kiosk));
+        assertFalse(ControlePedidos.hasCurrentSales());
+
+        // Várias consultas ao mesmo tempo esperam pela mesma atualização
+        ExecutorService queries = Executors.newFixedThreadPool(4);
+        List<Future<Map<Integer, Long>>> answers = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            answers.add(queries.submit(() -> ControlePedidos.getUnitsSold(today, today)));
+        for (Future<Map<Integer, Long>> answer : answers)
+            assertEquals(Map.of(1, 6L), answer.get(10, TimeUnit.SECONDS));
+        queries.shutdown();
+
+        assertTrue(ControlePedidos.hasCurrentSales());
+        assertEquals(6L * 600, ControlePedidos.getRevenueCents(today, today).get(1));
+        log.close();
+    }
+}
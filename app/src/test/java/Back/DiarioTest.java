@@ -0,0 +1,228 @@
+package Back;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da gravação e da reprodução do {@link Diario}.
+ */
+class DiarioTest
+{
+    /** Tamanho de um registro de entrada ou saída de estoque: tamanho, tipo, código, quantidade e CRC. */
+    private static final int STOCK_RECORD = 4 + 1 + 4 + 4 + 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayRebuildsStockAndCash() throws IOException
+    {
+        Estoque stock = new Estoque();
+        Caixa cashControl = new Caixa();
+        Diario journal = attach(stock, cashControl);
+
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        stock.registerProduct(new Produto(2, "Suco", "Bebida", 5.0, LocalDate.of(2030, 1, 1)));
+        stock.registerProduct(new Produto(3, "Bolo", "Doce", 7.5));
+        stock.addStock(1, 10);
+        stock.removeStock(1, 3);
+        stock.addStock(2, 4);
+        stock.setValidity(1, LocalDate.of(2031, 5, 2));
+        stock.deleteProduct(3);
+        cashControl.addCashCents(1000, 2);
+        cashControl.removeCashCents(1000, 1);
+        cashControl.addCashCents(25, 4);
+        journal.close();
+
+        Estoque restoredStock = new Estoque();
+        Caixa restoredCash = new Caixa();
+        Diario reopened = Diario.open(directory);
+        assertEquals(11, reopened.replay(0, restoredStock, restoredCash));
+        reopened.close();
+
+        assertEquals(stock.getProductsStock().keySet(), restoredStock.getProductsStock().keySet());
+        assertEquals(7, restoredStock.getQuantityAvaible(1));
+        assertEquals(4, restoredStock.getQuantityAvaible(2));
+        Produto coxinha = restoredStock.getProductsStock().get(1).getProduct();
+        assertEquals("Coxinha", coxinha.getName());
+        assertEquals(6.0, coxinha.getPrice());
+        assertEquals(LocalDate.of(2031, 5, 2), coxinha.getValidity());
+        assertNull(restoredStock.getProductsStock().get(3));
+        assertEquals(cashControl.getCashControl(), restoredCash.getCashControl());
+    }
+
+    @Test
+    void truncatedLastRecordIsDiscarded() throws IOException
+    {
+        Estoque stock = new Estoque();
+        Diario journal = attach(stock, new Caixa());
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        stock.addStock(1, 5);
+        stock.addStock(1, 2);
+        journal.close();
+
+        // Uma queda no meio da gravação deixa o último registro pela metade
+        Path file = onlyGeneration();
+        long size = Files.size(file);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            out.truncate(size - 3);
+        }
+
+        Estoque restored = new Estoque();
+        Diario reopened = Diario.open(directory);
+        assertEquals(2, reopened.replay(0, restored, new Caixa()));
+        assertEquals(5, restored.getQuantityAvaible(1));
+        assertEquals(size - STOCK_RECORD, Files.size(file));
+
+        // Os registros seguintes continuam o arquivo a partir do último registro válido
+        restored.setJournal(reopened);
+        restored.addStock(1, 1);
+        reopened.close();
+
+        Estoque again = new Estoque();
+        Diario last = Diario.open(directory);
+        assertEquals(3, last.replay(0, again, new Caixa()));
+        last.close();
+        assertEquals(6, again.getQuantityAvaible(1));
+    }
+
+    @Test
+    void recordWithBadChecksumStopsReplay() throws IOException
+    {
+        Estoque stock = new Estoque();
+        Diario journal = attach(stock, new Caixa());
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        stock.addStock(1, 5);
+        stock.addStock(1, 2);
+        journal.close();
+
+        // Altera a quantidade do último registro sem corrigir o CRC
+        Path file = onlyGeneration();
+        long quantity = Files.size(file) - 4 - 4;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            out.write(ByteBuffer.allocate(4).putInt(0, 200), quantity);
+        }
+
+        Estoque restored = new Estoque();
+        Diario reopened = Diario.open(directory);
+        assertEquals(2, reopened.replay(0, restored, new Caixa()));
+        reopened.close();
+        assertEquals(5, restored.getQuantityAvaible(1));
+    }
+
+    @Test
+    void replayFromGenerationCompactsOlderOnes() throws IOException
+    {
+        Estoque stock = new Estoque();
+        Diario journal = attach(stock, new Caixa());
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        stock.addStock(1, 5);
+        long generation = journal.roll();
+        stock.addStock(1, 2);
+        journal.close();
+        assertEquals(1, generation);
+        assertEquals(2, generations().size());
+
+        // O estado até a troca de geração viria do snapshot
+        Estoque restored = new Estoque();
+        restored.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        restored.addStock(1, 5);
+
+        Diario reopened = Diario.open(directory);
+        assertEquals(1, reopened.replay(generation, restored, new Caixa()));
+        reopened.close();
+        assertEquals(7, restored.getQuantityAvaible(1));
+        assertEquals(1, generations().size());
+    }
+
+    @Test
+    void interruptedSyncThrows() throws IOException
+    {
+        Estoque stock = new Estoque();
+        Diario journal = attach(stock, new Caixa());
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+
+        Thread.currentThread().interrupt();
+        try
+        {
+            assertThrows(InterruptedIOException.class, journal::sync);
+            assertTrue(Thread.interrupted());
+        }
+        finally
+        {
+            Thread.interrupted();
+            journal.close();
+        }
+    }
+
+    @Test
+    void writeFailureRejectsFurtherChanges() throws Exception
+    {
+        Estoque stock = new Estoque();
+        Caixa cashControl = new Caixa();
+        Diario journal = attach(stock, cashControl);
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        journal.sync();
+
+        // Fecha o arquivo por baixo da thread de gravação, como um disco que deixou de aceitar escritas
+        Field channel = Diario.class.getDeclaredField("channel");
+        channel.setAccessible(true);
+        ((FileChannel) channel.get(journal)).close();
+        stock.addStock(1, 5);
+        assertThrows(IOException.class, journal::sync);
+
+        assertThrows(UncheckedIOException.class, () -> stock.addStock(1, 3));
+        assertThrows(UncheckedIOException.class, () -> cashControl.addCashCents(1000, 1));
+        assertThrows(UncheckedIOException.class, () -> stock.reserve(Map.of(1, 1), 1, TimeUnit.MINUTES));
+        assertEquals(5, stock.getQuantityAvaible(1));
+        assertEquals(0, cashControl.getTotalCashCents());
+        journal.close();
+    }
+
+    private Diario attach(Estoque stock, Caixa cashControl) throws IOException
+    {
+        Diario journal = Diario.open(directory);
+        journal.replay(0, stock, cashControl);
+        stock.setJournal(journal);
+        cashControl.setJournal(journal);
+        return journal;
+    }
+
+    private List<Path> generations() throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory))
+        {
+            return files.filter(file -> file.getFileName().toString().startsWith("diario-")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private Path onlyGeneration() throws IOException
+    {
+        List<Path> files = generations();
+        assertEquals(1, files.size());
+        return files.get(0);
+    }
+}
@@ -0,0 +1,85 @@
+package Back;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes das rotas do {@link ServidorCheckout}, acessadas diretamente e pelo {@link ClienteCheckout}.
+ */
+class ServidorCheckoutTest
+{
+    private ServidorCheckout server;
+    private URI address;
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void startServer() throws IOException
+    {
+        Estoque stock = new Estoque();
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        stock.addStock(1, 10);
+        Caixa cashControl = new Caixa();
+        cashControl.addCashCents(25, 1);
+        cashControl.addCashCents(10, 10);
+
+        ServicoCheckout service = new ServicoCheckoutLocal(stock, cashControl, new ControlePedidos(LogPedidos.inMemory()),
+                AlocadorPedidos.inMemory().newKiosk());
+        server = ServidorCheckout.start(0, service);
+        address = URI.create("http://localhost:" + server.getPort());
+    }
+
+    @AfterEach
+    void stopServer()
+    {
+        server.close();
+    }
+
+    @Test
+    void missingFieldsAreBadRequests() throws Exception
+    {
+        assertEquals(400, post("/carrinho/preco", "{}").statusCode());
+        assertEquals(400, post("/compras", "{\"carrinho\":{\"1\":1}}").statusCode());
+        assertEquals(400, post("/compras", "{\"itens\":{\"1\":null}}").statusCode());
+
+        Compra purchase = new ClienteCheckout(address, new Estoque()).start(Map.of(1, 1));
+        assertNotNull(purchase);
+        assertEquals(400, post("/compras/" + purchase.getId() + "/dinheiro", "{}").statusCode());
+        assertEquals(400, post("/compras/" + purchase.getId() + "/dinheiro", "{\"pecas\":[1,null]}").statusCode());
+        assertEquals(200, post("/compras/" + purchase.getId() + "/cartao", "").statusCode());
+    }
+
+    @Test
+    void changeQueryAnswersBothValuesAtOnce()
+    {
+        ClienteCheckout client = new ClienteCheckout(address, new Estoque());
+
+        ConsultaTroco thirty = client.queryChange(30);
+        assertTrue(thirty.isPossible());
+        assertEquals(30, thirty.getMaximum());
+
+        ConsultaTroco fifteen = client.queryChange(15);
+        assertFalse(fifteen.isPossible());
+        assertEquals(10, fifteen.getMaximum());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception
+    {
+        HttpRequest request = HttpRequest.newBuilder(address.resolve(path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,102 @@
+package Back;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testes da gravação e da leitura do {@link SnapshotSistema}, junto com o diário e o log de pedidos.
+ */
+class SnapshotSistemaTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartRestoresSnapshotJournalTailAndOrders() throws IOException
+    {
+        Path snapshotFile = directory.resolve("snapshot.bin");
+        Estoque stock = new Estoque();
+        Caixa cashControl = new Caixa();
+        Diario journal = Diario.open(directory.resolve("diario"));
+        journal.replay(0, stock, cashControl);
+        stock.setJournal(journal);
+        cashControl.setJournal(journal);
+        LogPedidos log = LogPedidos.open(directory.resolve("pedidos"));
+        AlocadorPedidos.Quiosque kiosk = AlocadorPedidos.inMemory().newKiosk();
+
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        stock.registerProduct(new Produto(2, "Suco", "Bebida", 5.0));
+        stock.addStock(1, 10);
+        stock.addStock(2, 10);
+        cashControl.addCashCents(500, 3);
+        log.append(new Pedido(Map.of(1, 2), stock, kiosk));
+
+        new SnapshotSistema(snapshotFile, stock, cashControl, journal, log).write();
+
+        // Operações posteriores ao snapshot ficam só no diário e no log
+        stock.removeStock(2, 4);
+        cashControl.addCashCents(100, 2);
+        Pedido last = new Pedido(Map.of(2, 1), stock, kiosk);
+        log.append(last);
+        journal.close();
+        log.close();
+
+        Estoque restoredStock = new Estoque();
+        Caixa restoredCash = new Caixa();
+        SnapshotSistema.PontoDeControle checkpoint = SnapshotSistema.read(snapshotFile, restoredStock, restoredCash);
+        assertEquals(1, checkpoint.getJournalGeneration());
+        assertFalse(Files.exists(directory.resolve("diario").resolve("diario-000000.log")));
+
+        Diario reopened = Diario.open(directory.resolve("diario"));
+        assertEquals(2, reopened.replay(checkpoint.getJournalGeneration(), restoredStock, restoredCash));
+        reopened.close();
+        LogPedidos restoredLog = checkpoint.openOrders(directory.resolve("pedidos"));
+
+        assertEquals(10, restoredStock.getQuantityAvaible(1));
+        assertEquals(6, restoredStock.getQuantityAvaible(2));
+        assertEquals(cashControl.getCashControl(), restoredCash.getCashControl());
+        assertEquals(2, restoredLog.size());
+        assertEquals(last.getOrderNumber(), restoredLog.getHighestOrderNumber());
+        restoredLog.close();
+    }
+
+    @Test
+    void missingSnapshotStartsFromScratch() throws IOException
+    {
+        Estoque stock = new Estoque();
+        assertEquals(SnapshotSistema.PontoDeControle.EMPTY, SnapshotSistema.read(directory.resolve("snapshot.bin"), stock, new Caixa()));
+        assertEquals(0, stock.getProductsStock().size());
+    }
+
+    @Test
+    void corruptedSnapshotIsRejected() throws IOException
+    {
+        Path snapshotFile = directory.resolve("snapshot.bin");
+        Estoque stock = new Estoque();
+        Caixa cashControl = new Caixa();
+        Diario journal = Diario.open(directory.resolve("diario"));
+        journal.replay(0, stock, cashControl);
+        stock.setJournal(journal);
+        LogPedidos log = LogPedidos.inMemory();
+        stock.registerProduct(new Produto(1, "Coxinha", "Salgado", 6.0));
+        new SnapshotSistema(snapshotFile, stock, cashControl, journal, log).write();
+        journal.close();
+
+        try (FileChannel out = FileChannel.open(snapshotFile, StandardOpenOption.WRITE))
+        {
+            out.truncate(Files.size(snapshotFile) - 1);
+        }
+        assertThrows(IOException.class, () -> SnapshotSistema.read(snapshotFile, new Estoque(), new Caixa()));
+    }
+}
@@ -0,0 +1,118 @@
+package Benchmarks;
+
+import Back.Caixa;
+import Back.Diario;
+import Back.Estoque;
+import Back.Produto;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a vazão do {@link Estoque} com vários quiosques vendendo e repondo produtos ao mesmo tempo.
+ *
+ * <p>
+ * Cada operação retira uma unidade de um produto sorteado e a devolve em seguida. O número de
+ * quiosques é a quantidade de threads do JMH, por exemplo {@code -t 1}, {@code -t 4} e {@code -t 16}.
+ * Com {@code produtos = 1} todos os quiosques disputam o mesmo produto (pior caso de contenção);
+ * com mais produtos, as vendas se espalham pelo catálogo como em um horário de almoço real.
+ * </p>
+ *
+ * <p>
+ * {@code globalLock} executa as mesmas operações sob um único bloqueio, reproduzindo o
+ * {@link Estoque} sincronizado anterior, como referência de escalabilidade.
+ * </p>
+ *
+ * <p>
+ * Com {@code diario = true} o estoque grava cada operação em um {@link Diario} em um diretório
+ * temporário, como no quiosque em produção.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkEstoque
+{
+    @Param({"1", "64", "10000"})
+    public int produtos;
+
+    @Param({"false", "true"})
+    public boolean diario;
+
+    private Estoque stock;
+    private Path directory;
+    private Diario journal;
+    private final Object globalLock = new Object();
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        stock = new Estoque();
+        if (diario)
+        {
+            directory = Files.createTempDirectory("benchmark-diario");
+            journal = Diario.open(directory);
+            journal.replay(0, stock, new Caixa());
+            stock.setJournal(journal);
+        }
+        for (int code = 0; code < produtos; code++)
+        {
+            Produto product = new Produto(code, "Produto " + code, "Lanche", 10.0);
+            stock.registerProduct(product);
+            stock.addStock(code, 1_000_000);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        if (journal == null)
+            return;
+
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public boolean lockFree()
+    {
+        int code = ThreadLocalRandom.current().nextInt(produtos);
+        return stock.removeStock(code, 1) && stock.addStock(code, 1);
+    }
+
+    @Benchmark
+    public boolean globalLock()
+    {
+        int code = ThreadLocalRandom.current().nextInt(produtos);
+        synchronized (globalLock)
+        {
+            return stock.removeStock(code, 1) && stock.addStock(code, 1);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package Benchmarks;
+
+import Back.AlocadorPedidos;
+import Back.Estoque;
+import Back.Pedido;
+import Back.Produto;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a criação de um {@link Pedido}: linhas com o nome e o preço de cada produto, número obtido
+ * do quiosque e data do pedido.
+ *
+ * <p>
+ * {@code itens} é a quantidade de produtos distintos no carrinho. Com várias threads do JMH
+ * ({@code -t}), cada thread usa o seu próprio quiosque, como quiosques reais que numeram
+ * pedidos em paralelo.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkPedido
+{
+    private static final AlocadorPedidos ALLOCATOR = AlocadorPedidos.inMemory();
+
+    @Param({"1", "4", "16"})
+    public int itens;
+
+    private Map<Integer, Integer> cart;
+    private Estoque stock;
+    private AlocadorPedidos.Quiosque kiosk;
+
+    @Setup
+    public void setUp()
+    {
+        cart = new HashMap<>();
+        stock = new Estoque();
+        for (int code = 1; code <= itens; code++)
+        {
+            stock.registerProduct(new Produto(code, "Produto " + code, "Lanche", 1.0 + code % 40));
+            cart.put(code, 1 + code % 3);
+        }
+        kiosk = ALLOCATOR.newKiosk();
+    }
+
+    @Benchmark
+    public Pedido newOrder()
+    {
+        return new Pedido(cart, stock, kiosk);
+    }
+}
@@ -0,0 +1,132 @@
+package Benchmarks;
+
+import Back.AlocadorPedidos;
+import Back.ControlePedidos;
+import Back.Estoque;
+import Back.LogPedidos;
+import Back.MotorRelatorios;
+import Back.Pedido;
+import Back.Produto;
+import Back.Relatorios;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede os três relatórios da {@code TelaMostraRelatorio} ({@link Relatorios}) sobre um histórico
+ * de {@code pedidos} pedidos guardado em um {@link LogPedidos} em memória.
+ *
+ * <p>
+ * O catálogo tem {@code PRODUCTS} produtos, todos com validade. Cada pedido tem de um a quatro itens.
+ * O período consultado cobre todo o histórico, que é o pior caso dos relatórios por período.
+ * </p>
+ *
+ * <p>
+ * {@code bestSellersAggregated} calcula o mesmo relatório que {@code bestSellers} a partir dos
+ * totais diários mantidos pelo {@link ControlePedidos}, já montados no {@code setUp}.
+ * {@code bestSellersParallel} percorre os mesmos pedidos que {@code bestSellers} com o
+ * {@link MotorRelatorios} no pool comum; para medir a aceleração por núcleo, repita com
+ * {@code -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=N}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class BenchmarkRelatorios
+{
+    private static final int PRODUCTS = 500;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int pedidos;
+
+    private Estoque stock;
+    private LogPedidos orders;
+    private MotorRelatorios engine;
+    private LocalDate today;
+
+    @Setup
+    public void setUp()
+    {
+        today = LocalDate.now();
+        SplittableRandom random = new SplittableRandom(42);
+
+        stock = new Estoque();
+        for (int code = 1; code <= PRODUCTS; code++)
+        {
+            stock.registerProduct(new Produto(code, "Produto " + code, "Lanche", 1.0 + code % 40,
+                    today.plusDays(random.nextInt(-30, 60))));
+            stock.addStock(code, 1000);
+        }
+
+        orders = LogPedidos.inMemory();
+        AlocadorPedidos.Quiosque kiosk = AlocadorPedidos.inMemory().newKiosk();
+        for (int i = 0; i < pedidos; i++)
+        {
+            Map<Integer, Integer> cart = new HashMap<>();
+            int items = 1 + random.nextInt(4);
+            for (int item = 0; item < items; item++)
+                cart.merge(1 + random.nextInt(PRODUCTS), 1 + random.nextInt(3), Integer::sum);
+            orders.append(new Pedido(cart, stock, kiosk));
+        }
+
+        new ControlePedidos(orders);
+        ControlePedidos.getUnitsSold(today, today);
+        engine = new MotorRelatorios();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        orders.close();
+    }
+
+    @Benchmark
+    public Map<String, Integer> bestSellers()
+    {
+        return Relatorios.productSales(orders, today, today);
+    }
+
+    @Benchmark
+    public Map<String, Integer> bestSellersAggregated()
+    {
+        return Relatorios.productSales(ControlePedidos.getUnitsSold(today, today), ControlePedidos.getProductNames());
+    }
+
+    @Benchmark
+    public Map<String, Integer> bestSellersParallel()
+    {
+        return engine.productSales(orders.between(today, today)).getResult().join();
+    }
+
+    @Benchmark
+    public List<Object[]> transactions()
+    {
+        return Relatorios.transactions(orders, today, today);
+    }
+
+    @Benchmark
+    public List<Object[]> expiry()
+    {
+        return Relatorios.expiringProducts(stock, today);
+    }
+}
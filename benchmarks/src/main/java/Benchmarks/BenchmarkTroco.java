@@ -0,0 +1,102 @@
+package Benchmarks;
+
+import Back.Caixa;
+import Back.PoliticaTroco;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara o cálculo de troco guloso (algoritmo original) com a programação dinâmica do {@link Caixa}.
+ *
+ * <p>
+ * Os cálculos usam {@code planChangeCents}, que não altera o caixa, para que todas as iterações
+ * vejam as mesmas quantidades. Cenários de caixa:
+ * </p>
+ * <ul>
+ *   <li>{@code CHEIO}: 50 unidades de cada denominação.</li>
+ *   <li>{@code SEM_CINCO_CENTAVOS}: como {@code CHEIO}, mas sem moedas de R$ 0,05 (o guloso falha em vários valores).</li>
+ *   <li>{@code POUCAS_NOTAS}: poucas notas grandes e muitas moedas, forçando trocos com muitas peças.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkTroco
+{
+    @Param({"30", "3785", "49985"})
+    public long changeCents;
+
+    @Param({"CHEIO", "SEM_CINCO_CENTAVOS", "POUCAS_NOTAS"})
+    public String drawer;
+
+    private Caixa greedy;
+    private Caixa fewestPieces;
+    private Caixa preserveCoins;
+    private final int[] used = new int[Caixa.getSlotCount()];
+
+    @Setup
+    public void setUp()
+    {
+        greedy = newDrawer(PoliticaTroco.GULOSO);
+        fewestPieces = newDrawer(PoliticaTroco.MENOS_PECAS);
+        preserveCoins = newDrawer(PoliticaTroco.PRESERVAR_MOEDAS);
+    }
+
+    private Caixa newDrawer(PoliticaTroco policy)
+    {
+        Caixa cashControl = new Caixa();
+        cashControl.setChangePolicy(policy);
+
+        for (int slot = 0; slot < Caixa.getSlotCount(); slot++)
+        {
+            long cents = Caixa.getDenomination(slot);
+            int quantity;
+            switch (drawer)
+            {
+                case "SEM_CINCO_CENTAVOS":
+                    quantity = (cents == 5) ? 0 : 50;
+                    break;
+                case "POUCAS_NOTAS":
+                    quantity = (cents >= 1000) ? 1 : 400;
+                    break;
+                default:
+                    quantity = 50;
+            }
+            cashControl.addCashCents(cents, quantity);
+        }
+        return cashControl;
+    }
+
+    @Benchmark
+    public boolean greedy()
+    {
+        return greedy.planChangeCents(changeCents, used);
+    }
+
+    @Benchmark
+    public boolean fewestPieces()
+    {
+        return fewestPieces.planChangeCents(changeCents, used);
+    }
+
+    @Benchmark
+    public boolean preserveCoins()
+    {
+        return preserveCoins.planChangeCents(changeCents, used);
+    }
+}
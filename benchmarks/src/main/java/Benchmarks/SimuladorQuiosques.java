@@ -0,0 +1,299 @@
+package Benchmarks;
+
+import Back.AlocadorPedidos;
+import Back.Caixa;
+import Back.ClienteCheckout;
+import Back.Compra;
+import Back.ControlePedidos;
+import Back.Estoque;
+import Back.Produto;
+import Back.ResultadoPagamento;
+import Back.ServicoCheckout;
+import Back.ServicoCheckoutLocal;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulador de vários quiosques atendendo clientes ao mesmo tempo.
+ *
+ * <p>
+ * Cada quiosque é uma thread virtual que repete o fluxo das telas de compra: monta um carrinho,
+ * inicia a compra (reservando o estoque, como a {@code TelaConfirmaPedido}) e paga com cartão,
+ * Pix ou dinheiro pelo {@link ServicoCheckout}. A popularidade dos produtos segue uma distribuição
+ * de Zipf e o cliente que paga em dinheiro ora insere o valor exato, ora a menor cédula que cobre a compra.
+ * </p>
+ *
+ * <p>
+ * Ao final, informa a vazão, as latências p50/p99/p99,9 de uma compra completa e as taxas de
+ * falta de estoque e de "Troco Insuficiente". Opções (todas no formato {@code --nome=valor}):
+ * </p>
+ * <ul>
+ *   <li>{@code quiosques} (64), {@code segundos} (10) e {@code pensar}, a pausa em ms entre compras (0);</li>
+ *   <li>{@code produtos} (200), {@code estoque} inicial por produto (1000) e {@code zipf}, o expoente
+ *       da popularidade (1.1; 0 deixa todos os produtos igualmente populares);</li>
+ *   <li>{@code dinheiro} (0.3), a fração de pagamentos em dinheiro (o restante é cartão ou Pix, que
+ *       seguem o mesmo caminho no serviço), e {@code exato} (0.2), a fração dos pagamentos em dinheiro
+ *       com valor exato;</li>
+ *   <li>{@code troco}, a quantidade inicial de cada cédula e moeda no caixa (20);</li>
+ *   <li>{@code url}, para simular contra um {@code ServidorCheckout} em vez de dados em memória.</li>
+ * </ul>
+ */
+public class SimuladorQuiosques
+{
+    private static final long[] BILLS_CENTS = {200, 500, 1000, 2000, 5000, 10000};
+
+    private final Map<String, String> options;
+    private final int kiosks;
+    private final int seconds;
+    private final long thinkMillis;
+    private final int products;
+    private final double cashShare;
+    private final double exactShare;
+    private final double[] popularity;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder stockOuts = new LongAdder();
+    private final LongAdder cashPayments = new LongAdder();
+    private final LongAdder noChange = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private SimuladorQuiosques(Map<String, String> options)
+    {
+        this.options = options;
+        this.kiosks = Integer.parseInt(options.getOrDefault("quiosques", "64"));
+        this.seconds = Integer.parseInt(options.getOrDefault("segundos", "10"));
+        this.thinkMillis = Long.parseLong(options.getOrDefault("pensar", "0"));
+        this.products = Integer.parseInt(options.getOrDefault("produtos", "200"));
+        this.cashShare = Double.parseDouble(options.getOrDefault("dinheiro", "0.3"));
+        this.exactShare = Double.parseDouble(options.getOrDefault("exato", "0.2"));
+        this.popularity = zipf(products, Double.parseDouble(options.getOrDefault("zipf", "1.1")));
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args)
+        {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0)
+                throw new IllegalArgumentException("Opção inválida: " + arg + " (use --nome=valor)");
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new SimuladorQuiosques(options).run();
+    }
+
+    private void run() throws InterruptedException
+    {
+        ServicoCheckout[] services = createServices();
+        long[][] latencies = new long[kiosks][];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (int k = 0; k < kiosks; k++)
+            {
+                int kiosk = k;
+                executor.submit(() -> {
+                    latencies[kiosk] = serve(services[kiosk], deadline);
+                    return null;
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long total = 0;
+        for (long[] kiosk : latencies)
+            total += kiosk[0];
+        long[] all = new long[(int) total];
+        int at = 0;
+        for (long[] kiosk : latencies)
+        {
+            System.arraycopy(kiosk, 1, all, at, (int) kiosk[0]);
+            at += (int) kiosk[0];
+        }
+        Arrays.sort(all);
+
+        long attempts = completed.sum() + stockOuts.sum() + noChange.sum() + errors.sum();
+        System.out.printf("%d quiosques, %.1f s, %d produtos (zipf %s)%n", kiosks, elapsed, products, options.getOrDefault("zipf", "1.1"));
+        System.out.printf("Vazão: %.0f compras/s (%d concluídas de %d tentativas)%n", completed.sum() / elapsed, completed.sum(), attempts);
+        System.out.printf("Latência por compra: p50 %.3f ms, p99 %.3f ms, p99,9 %.3f ms, máx %.3f ms%n",
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), percentile(all, 1.0));
+        System.out.printf("Falta de estoque: %.2f%% das tentativas%n", 100.0 * stockOuts.sum() / Math.max(1, attempts));
+        System.out.printf("Troco insuficiente: %.2f%% dos pagamentos em dinheiro%n", 100.0 * noChange.sum() / Math.max(1, cashPayments.sum()));
+        if (errors.sum() > 0)
+            System.out.printf("Erros: %d%n", errors.sum());
+    }
+
+    /**
+     * Cria o serviço de checkout de cada quiosque: todos sobre o mesmo estoque, caixa e pedidos,
+     * cada um com o seu bloco de números de pedido; ou clientes do servidor informado em {@code url}.
+     */
+    private ServicoCheckout[] createServices()
+    {
+        ServicoCheckout[] services = new ServicoCheckout[kiosks];
+        if (options.containsKey("url"))
+        {
+            for (int k = 0; k < kiosks; k++)
+                services[k] = new ClienteCheckout(URI.create(options.get("url")), new Estoque());
+            return services;
+        }
+
+        int amount = Integer.parseInt(options.getOrDefault("estoque", "1000"));
+        int pieces = Integer.parseInt(options.getOrDefault("troco", "20"));
+
+        Estoque stock = new Estoque();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int code = 1; code <= products; code++)
+        {
+            stock.registerProduct(new Produto(code, "Produto " + code, "Lanche", (20 + random.nextInt(780)) * 5 / 100.0));
+            stock.addStock(code, amount);
+        }
+
+        Caixa cashControl = new Caixa();
+        for (int slot = 0; slot < Caixa.getSlotCount(); slot++)
+            cashControl.addCashCents(Caixa.getDenomination(slot), pieces);
+
+        ControlePedidos orders = new ControlePedidos();
+        AlocadorPedidos allocator = AlocadorPedidos.inMemory();
+        for (int k = 0; k < kiosks; k++)
+            services[k] = new ServicoCheckoutLocal(stock, cashControl, orders, allocator.newKiosk());
+        return services;
+    }
+
+    /**
+     * Atende clientes em um quiosque até o prazo.
+     *
+     * @return as latências das compras concluídas em nanossegundos, precedidas da quantidade.
+     */
+    private long[] serve(ServicoCheckout service, long deadline) throws InterruptedException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+
+        while (System.nanoTime() < deadline)
+        {
+            if (thinkMillis > 0)
+                Thread.sleep(thinkMillis);
+
+            Map<Integer, Integer> cart = new HashMap<>();
+            int items = 1 + random.nextInt(4);
+            for (int i = 0; i < items; i++)
+                cart.merge(pickProduct(random), 1 + random.nextInt(2), Integer::sum);
+
+            long begin = System.nanoTime();
+            try
+            {
+                Compra purchase = service.start(cart);
+                if (purchase == null)
+                {
+                    stockOuts.increment();
+                    continue;
+                }
+
+                ResultadoPagamento result;
+                if (random.nextDouble() < cashShare)
+                {
+                    cashPayments.increment();
+                    result = service.payWithCash(purchase, cashPieces(purchase.getTotalCents(), random));
+                    if (result.getStatus() == ResultadoPagamento.Situacao.TROCO_INSUFICIENTE)
+                    {
+                        noChange.increment();
+                        service.cancel(purchase);
+                        continue;
+                    }
+                }
+                else
+                    result = service.payWithCard(purchase);
+
+                if (!result.isApproved())
+                {
+                    stockOuts.increment();
+                    continue;
+                }
+            }
+            catch (RuntimeException e)
+            {
+                errors.increment();
+                continue;
+            }
+
+            if (count == latencies.length - 1)
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            latencies[++count] = System.nanoTime() - begin;
+            completed.increment();
+        }
+
+        latencies[0] = count;
+        return latencies;
+    }
+
+    /**
+     * Escolhe as peças que o cliente insere: o valor exato ou a menor cédula que cobre a compra
+     * (compras acima de R$ 100,00 são pagas com notas de R$ 100,00).
+     */
+    private int[] cashPieces(long totalCents, ThreadLocalRandom random)
+    {
+        int[] pieces = new int[Caixa.getSlotCount()];
+        if (random.nextDouble() < exactShare)
+        {
+            long left = totalCents;
+            for (int slot = 0; slot < pieces.length; slot++)
+            {
+                pieces[slot] = (int) (left / Caixa.getDenomination(slot));
+                left -= pieces[slot] * Caixa.getDenomination(slot);
+            }
+            return pieces;
+        }
+
+        for (long bill : BILLS_CENTS)
+        {
+            if (bill >= totalCents)
+            {
+                pieces[Caixa.slotOf(bill)] = 1;
+                return pieces;
+            }
+        }
+        pieces[Caixa.slotOf(10000)] = (int) ((totalCents + 9999) / 10000);
+        return pieces;
+    }
+
+    private int pickProduct(ThreadLocalRandom random)
+    {
+        int index = Arrays.binarySearch(popularity, random.nextDouble());
+        return 1 + Math.min(products - 1, (index >= 0) ? index : -index - 1);
+    }
+
+    /**
+     * Calcula a distribuição acumulada de Zipf: o produto de posição {@code k} tem peso {@code 1 / k^s}.
+     */
+    private static double[] zipf(int products, double exponent)
+    {
+        double[] cumulative = new double[products];
+        double sum = 0;
+        for (int k = 0; k < products; k++)
+        {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < products; k++)
+            cumulative[k] /= sum;
+        return cumulative;
+    }
+
+    private static double percentile(long[] sorted, double fraction)
+    {
+        if (sorted.length == 0)
+            return 0;
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,96 @@
+package Benchmarks;
+
+import Back.AlocadorPedidos;
+import Back.Caixa;
+import Back.ClienteCheckout;
+import Back.Compra;
+import Back.ControlePedidos;
+import Back.Estoque;
+import Back.Produto;
+import Back.ServicoCheckoutLocal;
+import Back.ServidorCheckout;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga do {@link ServidorCheckout}: vários clientes em threads virtuais fazem compras
+ * completas (início e pagamento com cartão) e o teste mede as compras concluídas por segundo.
+ *
+ * Uso: {@code TesteCargaCheckout [clientes] [segundos] [url]}. Sem URL, sobe um servidor no próprio
+ * processo com estoque em memória e a porta escolhida pelo sistema.
+ */
+public class TesteCargaCheckout
+{
+    private static final int PRODUCTS = 64;
+    private static final int STOCK_PER_PRODUCT = 100_000_000;
+
+    public static void main(String[] args) throws Exception
+    {
+        int clients = (args.length > 0) ? Integer.parseInt(args[0]) : 256;
+        int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+
+        ServidorCheckout server = null;
+        URI uri;
+        if (args.length > 2)
+            uri = URI.create(args[2]);
+        else
+        {
+            Estoque stock = new Estoque();
+            for (int code = 1; code <= PRODUCTS; code++)
+            {
+                stock.registerProduct(new Produto(code, "Produto " + code, "Lanche", 10.0));
+                stock.addStock(code, STOCK_PER_PRODUCT);
+            }
+            ControlePedidos orders = new ControlePedidos();
+            server = ServidorCheckout.start(0, new ServicoCheckoutLocal(stock, new Caixa(), orders, AlocadorPedidos.inMemory().newKiosk()));
+            uri = URI.create("http://localhost:" + server.getPort());
+        }
+
+        ClienteCheckout client = new ClienteCheckout(uri, new Estoque());
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (int i = 0; i < clients; i++)
+            {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline)
+                    {
+                        Map<Integer, Integer> cart = new HashMap<>();
+                        cart.put(1 + random.nextInt(PRODUCTS), 1 + random.nextInt(3));
+                        cart.put(1 + random.nextInt(PRODUCTS), 1);
+                        try
+                        {
+                            Compra purchase = client.start(cart);
+                            if (purchase != null && client.payWithCard(purchase).isApproved())
+                                completed.increment();
+                            else
+                                failed.increment();
+                        }
+                        catch (RuntimeException e)
+                        {
+                            failed.increment();
+                        }
+                    }
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d clientes, %.1f s: %d compras concluídas (%.0f compras/s), %d falhas%n",
+                clients, elapsed, completed.sum(), completed.sum() / elapsed, failed.sum());
+
+        if (server != null)
+            server.close();
+    }
+}